@@ -9,6 +9,7 @@ SET FOREIGN_KEY_CHECKS = 0;
 DROP TABLE IF EXISTS trip_hashtag;
 DROP TABLE IF EXISTS reply;
 DROP TABLE IF EXISTS trip_photo;
+DROP TABLE IF EXISTS photo_blob;
 DROP TABLE IF EXISTS trip_record;
 DROP TABLE IF EXISTS trip;
 DROP TABLE IF EXISTS article;
@@ -121,6 +122,20 @@ CREATE TABLE trip_photo
   PRIMARY KEY (photo_code)
 ) COMMENT '여행 기록 사진 리스트 테이블';
 
+-- [9] PHOTO_BLOB 테이블
+-- 업로드된 사진 파일을 내용(SHA-256) 기준으로 한 번만 저장합니다.
+-- trip_photo.file_path와 게시글 본문의 이미지 URL이 /files/blobs/... 경로로 이 파일을 참조합니다.
+CREATE TABLE photo_blob
+(
+  sha256     CHAR(64)     NOT NULL COMMENT '파일 내용의 SHA-256 (16진수)',
+  file_path  VARCHAR(255) NOT NULL COMMENT 'basePath 기준 저장 경로 (blobs/ab/cd/{sha256}.jpg)',
+  size       BIGINT       NOT NULL,
+  ref_count  INTEGER      NOT NULL DEFAULT 0 COMMENT '여행 사진/게시글 참조 수',
+  created_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '마지막 업로드/참조 변경 시각',
+  PRIMARY KEY (sha256)
+) COMMENT '사진 파일 (내용 기준 중복 제거)';
+
 
 -- ==============================================
 -- 3. 외래 키 (Foreign Key) 설정
@@ -200,4 +215,11 @@ INSERT INTO travel_style (style_code, description) VALUES
 ('DRIVE', '드라이브'),
 ('DATE', '커플 여행'),
 ('FAMILY', '가족 여행'),
-('PET', '반려동물 동반');
\ No newline at end of file
+('PET', '반려동물 동반');
+
+
+-- ==============================================
+-- 5. 조회용 인덱스
+-- ==============================================
+-- 서버 시작 시 SchemaMigrator가 SchemaMigrations의 버전 순서대로 만들고 schema_migration 테이블에 기록한다.
+-- (이 스크립트로 새로 만든 DB도 첫 시작 때 모두 적용됨)
@@ -0,0 +1,128 @@
+package com.snapway.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 비동기 작업용 스레드 풀 설정
+ * AI 여행 기록 생성처럼 오래 걸리는 작업을 Tomcat 요청 스레드에서 분리하기 위해 사용한다.
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Value("${app.trip.job.pool-size:4}")
+    private int tripJobPoolSize;
+
+    @Value("${app.trip.job.queue-capacity:100}")
+    private int tripJobQueueCapacity;
+
+    @Value("${app.ai.analysis.encode-pool-size:4}")
+    private int analysisEncodePoolSize;
+
+    @Value("${app.ai.analysis.queue-capacity:500}")
+    private int analysisQueueCapacity;
+
+    @Value("${app.image.variant.pool-size:2}")
+    private int variantPoolSize;
+
+    @Value("${app.image.variant.queue-capacity:500}")
+    private int variantQueueCapacity;
+
+    @Value("${app.search.index-queue-capacity:10000}")
+    private int searchIndexQueueCapacity;
+
+    @Value("${app.geo.index-queue-capacity:10000}")
+    private int geoIndexQueueCapacity;
+
+    /**
+     * 여행 기록 생성 작업 실행기
+     * 큐가 가득 차면 RejectedExecutionException이 발생하며, 컨트롤러에서 503으로 응답한다.
+     */
+    @Bean(name = "tripJobExecutor")
+    ThreadPoolTaskExecutor tripJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tripJobPoolSize);
+        executor.setMaxPoolSize(tripJobPoolSize);
+        executor.setQueueCapacity(tripJobQueueCapacity);
+        executor.setThreadNamePrefix("trip-job-");
+        // 요청한 사용자의 인증 정보를 작업 스레드로 넘긴다 (저장 후 read-your-writes 기록에 사용)
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 개별 사진 AI 분석용 이미지 변환 실행기
+     * AI 호출 자체는 논블로킹이므로 이 풀은 Base64 변환(CPU 작업)만 담당한다.
+     * 큐가 가득 차면 호출한 작업 스레드가 직접 실행하여 자연스럽게 속도를 늦춘다.
+     */
+    @Bean(name = "photoAnalysisExecutor")
+    ThreadPoolTaskExecutor photoAnalysisExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(analysisEncodePoolSize);
+        executor.setMaxPoolSize(analysisEncodePoolSize);
+        executor.setQueueCapacity(analysisQueueCapacity);
+        executor.setThreadNamePrefix("photo-analysis-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * 사진 축소본(썸네일, 중간 크기) 생성 실행기
+     * 큐가 가득 차면 작업을 버린다. 버려진 축소본은 처음 요청될 때 생성된다.
+     */
+    @Bean(name = "imageVariantExecutor")
+    ThreadPoolTaskExecutor imageVariantExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(variantPoolSize);
+        executor.setMaxPoolSize(variantPoolSize);
+        executor.setQueueCapacity(variantQueueCapacity);
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler((task, pool) -> log.warn("축소본 생성 대기열이 가득 차 작업을 건너뜁니다."));
+        return executor;
+    }
+
+    /**
+     * 검색 색인 갱신 실행기
+     * 색인 변경 순서가 뒤바뀌지 않도록 스레드 1개로 순서대로 처리한다.
+     * 큐가 가득 차면 호출한 스레드가 직접 실행한다. (수정 내용이 색인에서 빠지지 않도록)
+     */
+    @Bean(name = "searchIndexExecutor")
+    ThreadPoolTaskExecutor searchIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(searchIndexQueueCapacity);
+        executor.setThreadNamePrefix("search-index-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * 주변 여행 공간 색인 갱신 실행기 (검색 색인과 같은 방식, 스레드 1개로 순서대로 처리)
+     */
+    @Bean(name = "geoIndexExecutor")
+    ThreadPoolTaskExecutor geoIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(geoIndexQueueCapacity);
+        executor.setThreadNamePrefix("geo-index-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,80 @@
+package com.snapway.config;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 주 DB + 읽기 전용 복제본 DataSource 설정 (app.datasource.replica.enabled=true 일 때만)
+ * 설정하지 않으면 스프링 부트 기본 DataSource 하나(spring.datasource.*)만 사용한다.
+ *
+ * 주 DB는 spring.datasource.* / spring.datasource.hikari.*,
+ * 복제본은 app.datasource.replica.* / app.datasource.replica.hikari.* 로 설정한다.
+ * 매퍼와 트랜잭션 매니저는 @Primary인 dataSource(라우팅)를 사용한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("snapway-primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                       @Value("${app.datasource.replica.url}") String url,
+                                       @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                       @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("snapway-replica");
+        dataSource.setReadOnly(true); // 복제본 커넥션으로는 쓰기 불가
+        return dataSource;
+    }
+
+    @Bean
+    ReadYourWritesWindow readYourWritesWindow(@Value("${app.datasource.read-your-writes-seconds:5}") long seconds) {
+        return new ReadYourWritesWindow(seconds * 1000);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          ReadYourWritesWindow readYourWritesWindow, MeterRegistry meterRegistry) {
+        ReplicationRoutingDataSource routing =
+                new ReplicationRoutingDataSource(primary, replica, readYourWritesWindow, meterRegistry);
+        routing.afterPropertiesSet();
+
+        // 트랜잭션 시작 시점에는 커넥션을 꺼내지 않고, 첫 쿼리 때 readOnly 여부를 보고 DB를 고른다
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        return proxy;
+    }
+}
@@ -0,0 +1,151 @@
+package com.snapway.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import com.snapway.model.dto.PhotoBlob;
+import com.snapway.model.mapper.PhotoBlobMapper;
+import com.snapway.model.service.ImageVariantService;
+import com.snapway.model.service.PhotoBlobService;
+import com.snapway.util.PhotoBlobPaths;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 기존 업로드 파일({memberId}/trip/{tripId}/uuid_이름, {memberId}/uuid_이름 등)을 내용 기준 저장소(blobs)로 옮기는 일회성 도구
+ * app.photo.blob.migration.enabled=true로 서버를 시작하면 한 번 실행된다. (사용자 요청이 없는 점검 시간에 실행)
+ *
+ * dry-run(기본)은 파일을 해시해 중복 수와 줄어들 용량만 기록한다.
+ * 실제 실행 시 파일마다 저장소에 넣고(하드 링크, 안 되면 복사) -> 여행 사진 경로/여행 본문/게시글 본문의 URL을 바꾸고 -> 원본과 축소본을 지운다.
+ * 마지막에 참조 수를 다시 계산하므로, 중간에 멈췄으면 다시 실행하면 남은 파일만 옮긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.photo.blob.migration.enabled", havingValue = "true")
+public class PhotoBlobMigrator implements ApplicationRunner {
+
+    private static final String VARIANTS_DIR = "variants";
+    // 회원 디렉토리 아래 업로드 진행 중 파일 (옮기지 않음)
+    private static final Set<String> SKIPPED_MEMBER_DIRS = Set.of("staging", "uploads", "temp");
+
+    private final PhotoBlobService photoBlobService;
+    private final PhotoBlobMapper photoBlobMapper;
+    private final ImageVariantService imageVariantService;
+
+    @Value("${spring.servlet.multipart.location}")
+    private String basePath;
+
+    @Value("${app.photo.blob.migration.dry-run:true}")
+    private boolean dryRun;
+
+    /** 이전 결과 (files: 대상 파일 수, unique: 서로 다른 사진 수, duplicateBytes: 중복이라 줄어드는 용량) */
+    public record Result(int files, int unique, long duplicateBytes, int failed) {
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, SQLException {
+        Result result = migrate();
+        log.info("기존 사진 이전 {} - 파일: {}개, 서로 다른 사진: {}개, 중복 용량: {} bytes, 실패: {}개",
+                dryRun ? "(dry-run, 변경 없음)" : "완료", result.files(), result.unique(), result.duplicateBytes(), result.failed());
+    }
+
+    public Result migrate() throws IOException, SQLException {
+        Path root = Paths.get(basePath).toAbsolutePath().normalize();
+        List<Path> files = legacyFiles(root);
+
+        Set<String> seen = new HashSet<>();
+        long duplicateBytes = 0;
+        int failed = 0;
+        for (Path file : files) {
+            String oldPath = relative(root, file);
+            try {
+                long size = Files.size(file);
+                String sha256;
+                if (dryRun) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        sha256 = PhotoBlobPaths.sha256(in);
+                    }
+                } else {
+                    PhotoBlob blob = photoBlobService.storeExisting(file);
+                    sha256 = blob.getSha256();
+                    replaceReferences(oldPath, blob.getFilePath());
+                    Files.delete(file);
+                    imageVariantService.deleteVariants(oldPath);
+                }
+                if (!seen.add(sha256)) {
+                    duplicateBytes += size;
+                }
+            } catch (IOException | SQLException | RuntimeException e) {
+                // 실패한 파일은 원본과 URL을 그대로 두고 다음 실행 때 다시 시도
+                failed++;
+                log.warn("사진 이전 실패: {} ({})", oldPath, e.getMessage());
+            }
+        }
+
+        if (!dryRun) {
+            photoBlobService.recountReferences();
+        }
+        return new Result(files.size(), seen.size(), duplicateBytes, failed);
+    }
+
+    // URL에 경로가 그대로 또는 인코딩되어(한글/공백 파일명) 들어 있을 수 있으므로 둘 다 바꾼다
+    // 여행 본문은 축소본 URL(/files/variants/medium/{경로})로 사진을 싣고 있어 같은 치환으로 함께 바뀐다
+    private void replaceReferences(String oldPath, String newPath) throws SQLException {
+        replace("/" + oldPath, "/" + newPath);
+
+        String encoded = UriUtils.encodePath(oldPath, StandardCharsets.UTF_8);
+        if (!encoded.equals(oldPath)) {
+            replace("/" + encoded, "/" + newPath);
+        }
+    }
+
+    private void replace(String from, String to) throws SQLException {
+        photoBlobMapper.replaceTripPhotoPath(from, to);
+        photoBlobMapper.replaceArticleContent(from, to);
+        photoBlobMapper.replaceRecordContent(from, to);
+    }
+
+    // basePath 아래 이전 대상 파일 (저장소/축소본/업로드 중 디렉토리와 숨김 파일 제외)
+    private List<Path> legacyFiles(Path root) throws IOException {
+        if (!Files.isDirectory(root)) return List.of();
+        try (Stream<Path> stream = Files.walk(root)) {
+            return stream
+                    .filter(Files::isRegularFile)
+                    .filter(file -> isLegacy(root.relativize(file)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private boolean isLegacy(Path relative) {
+        String first = relative.getName(0).toString();
+        if (first.equals(PhotoBlobPaths.BLOBS_DIR) || first.equals(VARIANTS_DIR)) return false;
+        if (relative.getNameCount() > 2 && SKIPPED_MEMBER_DIRS.contains(relative.getName(1).toString())) return false;
+        for (Path name : relative) {
+            if (name.toString().startsWith(".")) return false;
+        }
+        return true;
+    }
+
+    private static String relative(Path root, Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,50 @@
+package com.snapway.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자별 최근 쓰기 기록 (read-your-writes)
+ * 쓰기 트랜잭션을 커밋한 사용자는 windowMillis 동안 읽기 전용 트랜잭션도 주 DB에서 읽는다.
+ * (복제 지연 때문에 방금 저장한 내용이 목록에 안 보이는 일 방지)
+ * 서버 메모리에만 기록하므로 다음 요청이 다른 서버로 가면 적용되지 않는다.
+ */
+public class ReadYourWritesWindow {
+
+    // 기록이 이 개수를 넘으면 만료된 항목을 정리
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final long windowMillis;
+
+    // 사용자 ID -> 주 DB에서 읽어야 하는 마지막 시각
+    private final Map<Integer, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesWindow(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public boolean isEnabled() {
+        return windowMillis > 0;
+    }
+
+    public void recordWrite(int userId, long nowMillis) {
+        if (!isEnabled()) return;
+        pinnedUntil.put(userId, nowMillis + windowMillis);
+        if (pinnedUntil.size() > PURGE_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until <= nowMillis);
+        }
+    }
+
+    /**
+     * @return 최근 쓰기 이후 windowMillis가 지나지 않았으면 true
+     */
+    public boolean isActive(int userId, long nowMillis) {
+        Long until = pinnedUntil.get(userId);
+        if (until == null) return false;
+        if (until <= nowMillis) {
+            pinnedUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+}
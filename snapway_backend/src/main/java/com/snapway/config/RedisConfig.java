@@ -0,0 +1,26 @@
+package com.snapway.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.snapway.util.MemberCache;
+
+/**
+ * Redis pub/sub 구독 설정
+ * 서버 여러 대가 각자 메모리에 들고 있는 캐시를 함께 무효화하기 위해 사용한다.
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       MemberCache memberCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(memberCache, new ChannelTopic(MemberCache.EVICT_CHANNEL));
+        return container;
+    }
+}
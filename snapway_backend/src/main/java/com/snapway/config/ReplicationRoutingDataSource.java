@@ -0,0 +1,96 @@
+package com.snapway.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.snapway.security.LoginUser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 주 DB / 읽기 전용 복제본 선택
+ * - @Transactional(readOnly = true) 안의 쿼리 -> 복제본
+ * - 그 외 (쓰기 트랜잭션, 트랜잭션 없는 쿼리) -> 주 DB
+ * - 최근에 쓰기를 커밋한 사용자의 읽기 전용 트랜잭션 -> 주 DB (ReadYourWritesWindow)
+ *
+ * 트랜잭션의 readOnly 여부는 커넥션을 실제로 꺼낼 때 알 수 있으므로
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 사용한다. (DataSourceRoutingConfig)
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReadYourWritesWindow readYourWritesWindow;
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter recentWriteCounter;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica,
+                                        ReadYourWritesWindow readYourWritesWindow, MeterRegistry meterRegistry) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.primaryCounter = counter(meterRegistry, PRIMARY);
+        this.replicaCounter = counter(meterRegistry, REPLICA);
+        this.recentWriteCounter = counter(meterRegistry, "recent_write"); // 읽기 전용이지만 최근 쓰기 때문에 주 DB
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("snapway.datasource.route")
+                .tag("target", target)
+                .description("커넥션을 가져온 DB (주 DB / 복제본)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriteAfterCommit();
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+
+        Integer userId = currentUserId();
+        if (userId != null && readYourWritesWindow.isActive(userId, System.currentTimeMillis())) {
+            recentWriteCounter.increment();
+            return PRIMARY;
+        }
+        replicaCounter.increment();
+        return REPLICA;
+    }
+
+    // 로그인한 사용자의 쓰기 트랜잭션이면 커밋 후 최근 쓰기로 기록
+    private void rememberWriteAfterCommit() {
+        if (!readYourWritesWindow.isEnabled() || !TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Integer userId = currentUserId();
+        if (userId == null) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesWindow.recordWrite(userId, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private static Integer currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof LoginUser loginUser) {
+            return loginUser.userId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,102 @@
+package com.snapway.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 버전별 스키마 변경 목록 (서버 시작 시 SchemaMigrator가 순서대로 적용)
+ * 이미 적용된 버전은 schema_migration 테이블에 기록되므로 내용을 고치지 말고 새 버전을 추가한다.
+ *
+ * 인덱스마다 어떤 매퍼 쿼리를 위한 것인지 적어 둔다.
+ * 실제로 인덱스를 타는지는 QueryIndexExplainTest에서 EXPLAIN으로 확인한다.
+ */
+public final class SchemaMigrations {
+
+    /** 인덱스 하나 (같은 컬럼 구성의 인덱스가 이미 있으면 이름이 달라도 만들지 않음) */
+    public record Index(String table, String name, boolean unique, List<String> columns) {
+
+        public String ddl() {
+            // MySQL 8 온라인 DDL: 인덱스를 만드는 동안에도 읽기/쓰기를 막지 않는다
+            return "ALTER TABLE " + table + " ADD " + (unique ? "UNIQUE " : "") + "INDEX " + name
+                    + " (" + String.join(", ", columns) + "), ALGORITHM=INPLACE, LOCK=NONE";
+        }
+    }
+
+    /** 새 테이블 하나 (이미 있으면 건너뜀) */
+    public record Table(String name, String definition) {
+
+        public String ddl() {
+            return "CREATE TABLE IF NOT EXISTS " + name + "\n" + definition;
+        }
+    }
+
+    public record Migration(int version, String description, List<Table> tables, List<Index> indexes) {
+
+        public Migration(int version, String description, List<Index> indexes) {
+            this(version, description, List.of(), indexes);
+        }
+
+        /** 적용 후 내용이 바뀌었는지 확인하기 위한 DDL 해시 (테이블이 없는 버전은 인덱스 DDL만으로 계산) */
+        public String checksum() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (Table table : tables) {
+                    digest.update(table.ddl().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                for (Index index : indexes) {
+                    digest.update(index.ddl().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) '\n');
+                }
+                return HexFormat.of().formatHex(digest.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static final List<Migration> ALL = List.of(
+            new Migration(1, "게시글 목록/댓글 조회 인덱스", List.of(
+                    // findAll, findSummaries: WHERE visibility = 'PUBLIC' ORDER BY article_id DESC
+                    index("article", "idx_article_visibility_id", "visibility", "article_id"),
+                    // getReply: WHERE article_id = ? ORDER BY replied_at
+                    index("reply", "idx_reply_article_replied", "article_id", "replied_at"))),
+            new Migration(2, "여행 목록/공개 피드/기록 조회 인덱스", List.of(
+                    // selectTripListByMemberId: WHERE id = ? ORDER BY start_date DESC, trip_id DESC (trip_id는 PK라 인덱스에 포함됨)
+                    index("trip", "idx_trip_member_start", "id", "start_date"),
+                    // selectAllPublicTrips: WHERE visibility = 'PUBLIC' ORDER BY uploaded_at, trip_id (keyset 페이지네이션)
+                    index("trip", "idx_trip_visibility_uploaded", "visibility", "uploaded_at", "trip_id"),
+                    // selectRecordsByTripId: WHERE trip_id = ? ORDER BY visited_date
+                    index("trip_record", "idx_trip_record_trip_visited", "trip_id", "visited_date"))),
+            new Migration(3, "회원 이메일 유일 인덱스", List.of(
+                    // loginMember, findByEmail, checkEmail: WHERE email = ? (ERD의 UQ_email이 있으면 건너뜀)
+                    unique("member", "uq_member_email", "email"))),
+            new Migration(4, "사진 내용 주소 저장소", List.of(
+                    new Table("photo_blob", """
+                            (
+                              sha256     CHAR(64)     NOT NULL COMMENT '파일 내용의 SHA-256 (16진수)',
+                              file_path  VARCHAR(255) NOT NULL COMMENT 'basePath 기준 저장 경로 (blobs/ab/cd/{sha256}.jpg)',
+                              size       BIGINT       NOT NULL,
+                              ref_count  INTEGER      NOT NULL DEFAULT 0 COMMENT '여행 사진/게시글 참조 수',
+                              created_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                              updated_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '마지막 업로드/참조 변경 시각',
+                              PRIMARY KEY (sha256)
+                            ) COMMENT '사진 파일 (내용 기준 중복 제거)'""")),
+                    List.of(
+                            // selectUnreferenced: WHERE ref_count <= 0 AND updated_at < ? (미참조 파일 정리)
+                            index("photo_blob", "idx_photo_blob_ref_updated", "ref_count", "updated_at"))));
+
+    private SchemaMigrations() {
+    }
+
+    private static Index index(String table, String name, String... columns) {
+        return new Index(table, name, false, List.of(columns));
+    }
+
+    private static Index unique(String table, String name, String... columns) {
+        return new Index(table, name, true, List.of(columns));
+    }
+}
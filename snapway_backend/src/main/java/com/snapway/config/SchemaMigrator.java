@@ -0,0 +1,224 @@
+package com.snapway.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.snapway.config.SchemaMigrations.Index;
+import com.snapway.config.SchemaMigrations.Migration;
+import com.snapway.config.SchemaMigrations.Table;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서버 시작 시 SchemaMigrations의 변경 사항을 버전 순서대로 적용
+ * 적용한 버전은 schema_migration 테이블에 기록하고, 다음 시작 때는 기록 이후 버전만 적용한다.
+ *
+ * MySQL DDL은 트랜잭션으로 되돌릴 수 없으므로 테이블은 IF NOT EXISTS로 만들고,
+ * 각 인덱스는 만들기 전에 information_schema에서 같은 구성이 있는지 확인한다.
+ * 따라서 중간에 실패했거나 이력 없이 수동으로 만든 인덱스가 있어도 다시 실행하면 남은 것만 만든다.
+ * 서버 여러 대가 동시에 시작해도 GET_LOCK으로 한 대만 적용한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaMigrator implements InitializingBean {
+
+    private static final String LOCK_NAME = "snapway_schema_migration";
+
+    private static final String CREATE_HISTORY_TABLE = """
+            CREATE TABLE IF NOT EXISTS schema_migration
+            (
+              version          INTEGER      NOT NULL,
+              description      VARCHAR(200) NOT NULL,
+              checksum         CHAR(64)     NOT NULL,
+              execution_millis BIGINT       NOT NULL,
+              applied_at       DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              PRIMARY KEY (version)
+            ) COMMENT '스키마 변경 적용 이력'""";
+
+    private final DataSource dataSource;
+
+    // 시작 시 적용 여부, 다른 서버가 적용 중일 때 기다릴 최대 시간(초)
+    @Value("${app.schema.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.schema.migration.lock-timeout-seconds:60}")
+    private int lockTimeoutSeconds;
+
+    /** 인덱스 하나의 현재 구성 (information_schema.statistics) */
+    private record ExistingIndex(boolean unique, List<String> columns) {
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (!enabled) {
+            log.info("스키마 변경 적용 건너뜀 (app.schema.migration.enabled=false)");
+            return;
+        }
+        migrate();
+    }
+
+    /**
+     * 아직 적용하지 않은 버전을 모두 적용
+     * @return 이번에 적용한 버전 수
+     * @throws IllegalStateException 잠금 대기 시간 초과, 또는 같은 이름의 인덱스가 다른 컬럼으로 이미 있을 때
+     */
+    public int migrate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (!"MySQL".equalsIgnoreCase(product)) {
+                log.warn("스키마 변경은 MySQL에서만 적용합니다. (현재: {})", product);
+                return 0;
+            }
+
+            lock(connection);
+            try {
+                return applyPending(connection);
+            } finally {
+                unlock(connection);
+            }
+        }
+    }
+
+    private int applyPending(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_HISTORY_TABLE);
+        }
+        Map<Integer, String> applied = appliedChecksums(connection);
+
+        int count = 0;
+        for (Migration migration : SchemaMigrations.ALL) {
+            String checksum = migration.checksum();
+            String appliedChecksum = applied.get(migration.version());
+            if (appliedChecksum != null) {
+                if (!appliedChecksum.equals(checksum)) {
+                    log.warn("이미 적용된 스키마 버전 {}의 내용이 바뀌었습니다. 수정 대신 새 버전을 추가하세요.", migration.version());
+                }
+                continue;
+            }
+
+            long start = System.currentTimeMillis();
+            for (Table table : migration.tables()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(table.ddl());
+                }
+                log.info("테이블 확인/생성: {}", table.name());
+            }
+            for (Index index : migration.indexes()) {
+                ensureIndex(connection, index);
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            record(connection, migration, checksum, elapsed);
+            log.info("스키마 버전 {} 적용 완료: {} ({}ms)", migration.version(), migration.description(), elapsed);
+            count++;
+        }
+        return count;
+    }
+
+    private void ensureIndex(Connection connection, Index index) throws SQLException {
+        Map<String, ExistingIndex> existing = existingIndexes(connection, index.table());
+
+        for (Map.Entry<String, ExistingIndex> entry : existing.entrySet()) {
+            ExistingIndex current = entry.getValue();
+            if (current.columns().equals(index.columns()) && (current.unique() || !index.unique())) {
+                log.debug("인덱스 {}.{} 건너뜀: 같은 구성의 {}가 이미 있음", index.table(), index.name(), entry.getKey());
+                return;
+            }
+        }
+        if (existing.containsKey(index.name())) {
+            throw new IllegalStateException("인덱스 " + index.table() + "." + index.name()
+                    + "가 다른 컬럼 " + existing.get(index.name()).columns() + "로 이미 있습니다.");
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(index.ddl());
+        } catch (SQLException e) {
+            // 유일 인덱스는 중복 데이터가 있으면 만들 수 없음 (중복 정리 후 다시 시작해야 함)
+            throw new SQLException("인덱스 생성 실패: " + index.ddl(), e.getSQLState(), e.getErrorCode(), e);
+        }
+        log.info("인덱스 생성: {}.{} ({})", index.table(), index.name(), String.join(", ", index.columns()));
+    }
+
+    private static Map<String, ExistingIndex> existingIndexes(Connection connection, String table) throws SQLException {
+        String sql = """
+                SELECT index_name, non_unique, column_name
+                FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = ?
+                ORDER BY index_name, seq_in_index""";
+
+        Map<String, Boolean> uniques = new LinkedHashMap<>();
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    uniques.put(name, rs.getInt(2) == 0);
+                    columns.computeIfAbsent(name, n -> new ArrayList<>()).add(rs.getString(3).toLowerCase());
+                }
+            }
+        }
+
+        Map<String, ExistingIndex> indexes = new LinkedHashMap<>();
+        columns.forEach((name, list) -> indexes.put(name, new ExistingIndex(uniques.get(name), list)));
+        return indexes;
+    }
+
+    private static Map<Integer, String> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migration")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return applied;
+    }
+
+    private static void record(Connection connection, Migration migration, String checksum, long elapsed) throws SQLException {
+        String sql = "INSERT INTO schema_migration (version, description, checksum, execution_millis) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description());
+            statement.setString(3, checksum);
+            statement.setLong(4, elapsed);
+            statement.executeUpdate();
+        }
+    }
+
+    private void lock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, lockTimeoutSeconds);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new IllegalStateException("스키마 변경 잠금을 " + lockTimeoutSeconds + "초 안에 얻지 못했습니다.");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        } catch (SQLException e) {
+            log.warn("스키마 변경 잠금 해제 실패 ({})", e.getMessage());
+        }
+    }
+}
@@ -1,19 +1,16 @@
 package com.snapway.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -28,8 +25,14 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.snapway.model.dto.Article;
+import com.snapway.model.dto.ArticleSummary;
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.ImageVariant;
+import com.snapway.model.dto.PhotoBlob;
 import com.snapway.model.dto.Reply;
 import com.snapway.model.service.ArticleService;
+import com.snapway.model.service.PhotoBlobService;
+import com.snapway.security.LoginUser;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -46,35 +49,40 @@ public class ArticleController {
 	private String totalMaxSize;
 
 	private final ArticleService aService;
+	private final PhotoBlobService photoBlobService;
 
-	@Value("${spring.servlet.multipart.location}")
-	private String basePath;
+	@Value("${app.self-origin}")
+	private String domain;
 
+	/*
+	 * 게시글 목록 (본문 제외 요약, 커서 기반 페이지네이션)
+	 * 첫 페이지는 cursor 없이, 다음 페이지는 응답의 nextCursor를 cursor로 넘겨 조회한다.
+	 * category는 여러 번 넘길 수 있고(별칭 포함), excerpt=true면 본문 미리보기를 포함한다.
+	 */
 	@GetMapping("/articleList")
-    public ResponseEntity<List<Article>> getArticleList(Authentication auth) { // Authentication 주입 받음
+    public ResponseEntity<?> getArticleList(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "category", required = false) List<String> categories,
+            @RequestParam(value = "mine", required = false, defaultValue = "false") boolean mine,
+            @RequestParam(value = "excerpt", required = false, defaultValue = "false") boolean excerpt,
+            @AuthenticationPrincipal LoginUser loginUser) { // 비로그인이면 null
         
-        Integer currentUserId = null;
-
-        // 로그인 상태라면 userId 추출
-        if (auth != null && auth.isAuthenticated()) {
-            try {
-                Map<?, ?> details = (Map<?, ?>) auth.getDetails();
-                // Map에서 꺼낼 때 타입 캐스팅 주의 (보통 Integer or Double로 옴)
-                Object userIdObj = details.get("userId");
-                if (userIdObj instanceof Integer) {
-                    currentUserId = (Integer) userIdObj;
-                } else if (userIdObj instanceof Double) {
-                    currentUserId = ((Double) userIdObj).intValue();
-                }
-            } catch (Exception e) {
-                log.warn("사용자 ID 추출 실패 (비회원 처리): {}", e.getMessage());
-            }
-        }
+        // 로그인 상태라면 userId 사용
+        Integer currentUserId = loginUser != null ? loginUser.userId() : null;
 
-        // 서비스에 userId(또는 null) 전달
-        List<Article> articleList = aService.findAll(currentUserId);
+        if (mine && currentUserId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "로그인이 필요합니다"));
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(articleList);
+        try {
+            // 서비스에 userId(또는 null) 전달
+            CursorPage<ArticleSummary> page = aService.findSummaries(currentUserId, categories, mine, cursor, size, excerpt);
+            return ResponseEntity.status(HttpStatus.OK).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
 	/*
@@ -86,27 +94,23 @@ public class ArticleController {
 			@RequestParam(value = "tags", required = false) String tags,
 			@RequestParam(value = "visibility", required = false, defaultValue = "PUBLIC") String visibility,
 			@RequestPart(value = "image", required = false) MultipartFile image,
-			Authentication auth) {
+			@AuthenticationPrincipal LoginUser loginUser) {
 
 		log.debug("게시글 저장 요청 - title: {}, category: {}", title, category);
 
-		if (auth == null) {
+		if (loginUser == null) {
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
 					.body(Map.of("message", "로그인이 필요합니다"));
 		}
 
 		try {
-			Map<?, ?> details = (Map<?, ?>) auth.getDetails();
-			int authorId = (int) details.get("userId");
-			String realName = (String) details.get("realName");
-
 			Article article = new Article();
 			article.setTitle(title);
 			article.setContent(content);
 			article.setCategory(category);
 			article.setTags(tags);
-			article.setAuthorId(authorId);
-			article.setAuthorName(realName);
+			article.setAuthorId(loginUser.userId());
+			article.setAuthorName(loginUser.name());
 			article.setVisibility(visibility);
 
 			aService.saveArticle(article);
@@ -140,14 +144,14 @@ public class ArticleController {
 	 */
 	@PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	public ResponseEntity<Map<String, ?>> uploadImage(@RequestPart("file") MultipartFile file,
-			HttpServletRequest request, Authentication auth)
-			throws IllegalStateException, IOException {
+			HttpServletRequest request, @AuthenticationPrincipal LoginUser loginUser)
+			throws IllegalStateException, IOException, SQLException {
 		if (file == null || file.isEmpty()) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
 					.body(Map.of("message", "업로드 실패 \n파일이 없습니다"));
 		}
 
-		if (auth == null) {
+		if (loginUser == null) {
 			log.error(
 					"====================================auth 정보 null===============================");
 
@@ -155,30 +159,24 @@ public class ArticleController {
 					.body(Map.of("message", "로그인이 필요합니다"));
 		}
 
-		Map<?, ?> map = (Map<?, ?>) auth.getDetails();
-		// forEach 람다 사용 - 가장 간결함
-		map.forEach((key, value) -> {
-			System.out.println("key: " + key + ", value: " + value);
-		});
-
-		int userId = (int) map.get("userId");
-		String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-
-		// 파일 저장 경로: basePath/userId/fileName
-		Path savePath = Paths.get(basePath, String.valueOf(userId));
-		Files.createDirectories(savePath);
-
-		Path target = savePath.resolve(fileName);
-		file.transferTo(target);
+		// 내용(SHA-256) 기준 저장소에 저장: basePath/blobs/aa/bb/{sha256}.{확장자}
+		// 같은 사진이 이미 있으면 파일을 쓰지 않는다. 게시글에 연결되지 않으면 유예 시간 뒤 정리된다.
+		PhotoBlob blob = photoBlobService.store(file);
 
 		// URL 생성 - 슬래시 추가 필수!
 		String baseUrl = request.getScheme() + "://" + request.getServerName() + ":"
 				+ (request.getServerPort() + 1);
-		String fileUrl = baseUrl + "/" + userId + "/" + fileName; // 슬래시 추가!
+		String fileUrl = baseUrl + "/" + blob.getFilePath(); // 슬래시 추가!
+
+		// 축소본 URL - 이 서버의 /files/variants/** 에서 제공
+		String storedUrl = domain + "/files/" + blob.getFilePath();
 
 		log.debug("이미지 업로드 완료: {}", fileUrl);
 
-		return ResponseEntity.status(HttpStatus.OK).body(Map.of("fileUrl", fileUrl));
+		return ResponseEntity.status(HttpStatus.OK).body(Map.of(
+				"fileUrl", fileUrl,
+				"thumbnailUrl", ImageVariant.THUMB.toUrl(storedUrl),
+				"mediumUrl", ImageVariant.MEDIUM.toUrl(storedUrl)));
 	}
 
 
@@ -215,22 +213,20 @@ public class ArticleController {
      * Body: { articleId: 1, title: "...", content: "...", ... }
      */
     @PutMapping("/article")
-    public ResponseEntity<Map<String, String>> updateArticle(@RequestBody Article article, Authentication auth) {
+    public ResponseEntity<Map<String, String>> updateArticle(@RequestBody Article article,
+            @AuthenticationPrincipal LoginUser loginUser) {
         // 1. 로그인 확인
-        if (auth == null) {
+        if (loginUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", "로그인이 필요합니다"));
         }
 
         try {
             // 2. 현재 로그인한 사용자 ID 가져오기
-            Map<?, ?> details = (Map<?, ?>) auth.getDetails();
-            int userId = (int) details.get("userId");
+            int userId = loginUser.userId();
 
-            // 3. 기존 게시글 확인 (존재 여부 & 권한 체크)
-            // 주의: getArticle은 조회수를 증가시키므로, 단순 조회용 메서드가 있다면 그걸 쓰는 게 좋지만
-            // 현재 로직상 getArticle을 재활용해도 기능엔 문제없음.
-            Article existingArticle = aService.getArticle(article.getArticleId());
+            // 3. 기존 게시글 확인 (존재 여부 & 권한 체크, 조회수는 증가시키지 않음)
+            Article existingArticle = aService.findArticle(article.getArticleId());
             
             if (existingArticle == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -266,23 +262,23 @@ public class ArticleController {
      * 게시글 삭제 (DELETE /api/article/article?articleId=123)
      */
     @DeleteMapping("/article")
-    public ResponseEntity<Map<String, String>> deleteArticle(@RequestParam long articleId, Authentication auth) {
+    public ResponseEntity<Map<String, String>> deleteArticle(@RequestParam long articleId,
+            @AuthenticationPrincipal LoginUser loginUser) {
          // 1. 로그인 확인
-         if (auth == null) {
+         if (loginUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", "로그인이 필요합니다"));
         }
 
         try {
             // 2. 현재 로그인한 사용자 ID 가져오기
-            Map<?, ?> details = (Map<?, ?>) auth.getDetails();
-            int userId = (int) details.get("userId");
+            int userId = loginUser.userId();
             
             // 관리자 권한 확인 (필요 시 주석 해제하여 사용)
-            // String role = (String) details.get("roles"); // roles가 List인지 String인지 확인 필요
+            // boolean admin = loginUser.hasRole("ADMIN");
 
-            // 3. 기존 게시글 확인
-            Article existingArticle = aService.getArticle(articleId);
+            // 3. 기존 게시글 확인 (조회수는 증가시키지 않음)
+            Article existingArticle = aService.findArticle(articleId);
              if (existingArticle == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("message", "게시글이 존재하지 않습니다."));
@@ -312,12 +308,13 @@ public class ArticleController {
     }
 
 	@PostMapping("/addReply")
-	public ResponseEntity<Map<String, ?>> addReply(@RequestBody Reply reply, Authentication auth) {
-		Map<?, ?> details = (Map<?, ?>) auth.getDetails();
-		int replierId = (int) details.get("userId");
-		String replierName = (String) details.get("realName");
-		reply.setReplierId(replierId);
-		reply.setReplierName(replierName);
+	public ResponseEntity<Map<String, ?>> addReply(@RequestBody Reply reply,
+			@AuthenticationPrincipal LoginUser loginUser) {
+		if (loginUser == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "로그인이 필요합니다"));
+		}
+		reply.setReplierId(loginUser.userId());
+		reply.setReplierName(loginUser.name());
 
 		int result = aService.addReply(reply);
 
@@ -331,9 +328,12 @@ public class ArticleController {
 
 	@DeleteMapping("/deleteReply")
 	public ResponseEntity<Map<String, ?>> deleteReply(@RequestBody Map<String, ?> req,
-			Authentication auth) {
+			@AuthenticationPrincipal LoginUser loginUser) {
+		if (loginUser == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "로그인이 필요합니다"));
+		}
 		int replyId = (int) req.get("replyId");
-		int result = aService.deleteReply(replyId, auth);
+		int result = aService.deleteReply(replyId, loginUser.userId());
 
 		if (result != 1) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "댓글 삭제 실패"));
@@ -344,11 +344,11 @@ public class ArticleController {
 
 	@PutMapping("/updateReply")
 	public ResponseEntity<Map<String, String>> updateReply(@RequestBody Reply reply,
-			Authentication auth) {
-		int replyId = reply.getReplyId();
-		String content = reply.getContent();
-		int replierId = (int) ((Map<?, ?>) auth.getDetails()).get("userId");
-		reply.setReplierId(replierId);
+			@AuthenticationPrincipal LoginUser loginUser) {
+		if (loginUser == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "로그인이 필요합니다"));
+		}
+		reply.setReplierId(loginUser.userId());
 
 		int result = aService.updateReply(reply);
 
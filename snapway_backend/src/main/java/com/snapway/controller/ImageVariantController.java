@@ -0,0 +1,57 @@
+package com.snapway.controller;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.snapway.model.dto.ImageVariant;
+import com.snapway.model.service.ImageVariantService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사진 축소본 제공
+ * /files/variants/{thumb|medium}/{원본 경로} -> 축소본 (없으면 원본에서 생성 후 응답)
+ * 원본(/files/**)은 WebConfig의 리소스 핸들러가 그대로 제공한다.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantController {
+
+    private final ImageVariantService imageVariantService;
+
+    @GetMapping("/files/" + ImageVariant.VARIANTS_DIR + "/{variant}/{*path}")
+    public ResponseEntity<Resource> getVariant(@PathVariable String variant, @PathVariable String path) {
+        ImageVariant imageVariant = ImageVariant.fromPath(variant);
+        if (imageVariant == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        try {
+            Path file = imageVariantService.resolve(path, imageVariant);
+            if (file == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+
+            // 저장 파일명이 내용 해시(예전 파일은 UUID)라 같은 경로의 내용이 바뀌지 않으므로 오래 캐시
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic())
+                    .body(new FileSystemResource(file));
+        } catch (Exception e) {
+            log.error("축소본 제공 실패: {} ({})", path, variant, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
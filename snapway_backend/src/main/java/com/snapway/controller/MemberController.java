@@ -8,6 +8,7 @@ import java.util.Map;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,6 +23,7 @@ import com.snapway.model.dto.Member;
 import com.snapway.model.service.AuthService;
 import com.snapway.model.service.MemberService;
 import com.snapway.security.JwtUtil;
+import com.snapway.security.LoginUser;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -208,30 +210,20 @@ public class MemberController {
 	 */
 	@PutMapping("/update")
 	public ResponseEntity<Map<String, Object>> updateMember(@RequestBody Member member,
-			Authentication authentication) {
+			@AuthenticationPrincipal LoginUser loginUser) {
 		Map<String, Object> resultMap = new HashMap<>();
 
-		if (authentication == null) {
+		if (loginUser == null) {
 			resultMap.put("message", "unauthorized");
 			return new ResponseEntity<>(resultMap, HttpStatus.UNAUTHORIZED);
 		}
 
 		try {
-			// 1. 토큰에서 이메일 추출
-			String email = authentication.getName();
-
-			// 2. DB에서 현재 사용자 정보 조회 (PK인 id를 얻기 위함)
-			Member dbMember = memberService.getMemberInfo(email);
-			if (dbMember == null) {
-				resultMap.put("message", "user_not_found");
-				return new ResponseEntity<>(resultMap, HttpStatus.NOT_FOUND);
-			}
-
-			// 3. 수정할 객체에 ID와 이메일 강제 주입 (변조 방지)
-			member.setId(dbMember.getId());
-			member.setEmail(email);
+			// 1. 수정할 객체에 토큰의 ID와 이메일 강제 주입 (변조 방지)
+			member.setId(loginUser.userId());
+			member.setEmail(loginUser.email());
 
-			// 4. 정보 수정 요청
+			// 2. 정보 수정 요청 (탈퇴 등으로 회원이 없으면 0건)
 			int result = memberService.updateMember(member);
 
 			if (result > 0) {
@@ -0,0 +1,50 @@
+package com.snapway.controller;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.SearchResult;
+import com.snapway.model.service.SearchService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * 여행/게시글 통합 검색 (공개 글만, 점수 높은 순)
+     * 다음 페이지는 응답의 nextCursor를 cursor 파라미터로 넘겨서 조회한다.
+     * 서버 시작 직후 색인 적재가 끝나기 전에는 503으로 응답한다.
+     */
+    @GetMapping
+    public ResponseEntity<?> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ) {
+        if (!searchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "검색 색인을 준비하고 있습니다. 잠시 후 다시 시도해 주세요."));
+        }
+        try {
+            CursorPage<SearchResult> page = searchService.search(query, type, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
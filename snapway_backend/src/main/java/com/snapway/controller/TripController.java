@@ -2,22 +2,40 @@ package com.snapway.controller;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.snapway.model.dto.Member;
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.NearbyTrip;
 import com.snapway.model.dto.Trip;
-import com.snapway.model.service.MemberService;
+import com.snapway.model.dto.TripJob;
+import com.snapway.model.dto.TripRecord;
+import com.snapway.model.dto.UploadFile;
+import com.snapway.model.dto.UploadSession;
+import com.snapway.model.service.NearbyTripService;
+import com.snapway.model.service.TripJobService;
 import com.snapway.model.service.TripService;
+import com.snapway.model.service.UploadSessionService;
+import com.snapway.security.LoginUser;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,35 +47,72 @@ import lombok.extern.slf4j.Slf4j;
 public class TripController {
 
     private final TripService tripService;
-    private final MemberService memberService;
+    private final TripJobService tripJobService;
+    private final NearbyTripService nearbyTripService;
+    private final UploadSessionService uploadSessionService;
 
     /**
-     * 1. AI 여행 기록 자동 생성
+     * 1. AI 여행 기록 자동 생성 (비동기)
+     * 업로드만 받은 뒤 즉시 jobId를 반환하고, 생성은 별도 스레드에서 진행한다.
+     * 진행 상황은 /jobs/{jobId} (상태 조회) 또는 /jobs/{jobId}/events (SSE)로 확인한다.
      */
     @PostMapping("/auto-create")
     public ResponseEntity<?> createAutoTrip(
             @RequestParam("title") String title,
             @RequestParam("files") List<MultipartFile> files,
-            Authentication authentication
+            @AuthenticationPrincipal LoginUser loginUser
     ) {
-        if (authentication == null) {
+        if (loginUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }
 
         try {
-            String email = authentication.getName();
-            Member loginUser = memberService.getMemberInfo(email);
-            if (loginUser == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
-            }
+            log.info("AI 여행 기록 생성 요청 - 사용자: {}, 제목: {}, 파일 수: {}", loginUser.userId(), title, files.size());
 
-            log.info("AI 여행 기록 생성 요청 - 사용자: {}, 제목: {}, 파일 수: {}", loginUser.getId(), title, files.size());
+            TripJob job = tripJobService.submit(loginUser.userId(), title, files);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("여행 기록 생성 대기열 초과: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("요청이 많아 잠시 후 다시 시도해주세요.");
+        } catch (Exception e) {
+            log.error("여행 기록 생성 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("여행 기록 생성 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
 
-            Trip createdTrip = tripService.createAutoTrip(loginUser.getId(), title, files);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdTrip);
+    /**
+     * 1-0. AI 여행 기록 자동 생성 (스트리밍 업로드)
+     * 요청 형식은 /auto-create와 같지만(title, files), 파트를 모두 받을 때까지 기다리지 않고
+     * 사진이 도착하는 대로 스테이징과 EXIF 추출을 진행한다. 용량/개수 제한을 넘으면 그 시점에 거절한다.
+     * (spring.servlet.multipart.resolve-lazily=true 이므로 이 메서드 전에 본문을 읽지 않음)
+     */
+    @PostMapping(value = "/auto-create/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> createAutoTripStream(HttpServletRequest request, @AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+
+        try {
+            TripJob job = tripJobService.submitStream(loginUser.userId(), request.getContentType(),
+                    request.getContentLengthLong(), request.getInputStream());
+            log.info("AI 여행 기록 생성 요청(스트리밍) - 사용자: {}, 제목: {}, 파일 수: {}", loginUser.userId(), job.getTitle(), job.getTotalPhotos());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (MaxUploadSizeExceededException e) {
+            log.warn("업로드 용량 제한 초과 - 사용자: {}, 제한: {} bytes", loginUser.userId(), e.getMaxUploadSize());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(String.format("업로드 용량 제한(%dMB)을 넘었습니다.", e.getMaxUploadSize() / (1024 * 1024)));
         } catch (IllegalArgumentException e) {
             log.warn("잘못된 요청: {}", e.getMessage());
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("여행 기록 생성 대기열 초과: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("요청이 많아 잠시 후 다시 시도해주세요.");
         } catch (Exception e) {
             log.error("여행 기록 생성 실패", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -65,22 +120,186 @@ public class TripController {
         }
     }
 
+    /**
+     * 1-1. 여행 기록 생성 작업 상태 조회
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getTripJob(@PathVariable("jobId") String jobId, @AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+
+        try {
+            TripJob job = findOwnedJob(jobId, loginUser);
+            if (job == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "해당 작업을 찾을 수 없습니다."));
+            }
+            return ResponseEntity.ok(job);
+        } catch (Exception e) {
+            log.error("작업 상태 조회 실패: {}", jobId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("작업 상태 조회 실패");
+        }
+    }
+
+    /**
+     * 1-2. 여행 기록 생성 진행 상황 스트림 (SSE)
+     * 이벤트 이름: status, stage, photo, completed, failed
+     * SseEmitter 반환 타입을 유지해야 하므로 오류는 ResponseStatusException으로 응답한다.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTripJob(@PathVariable("jobId") String jobId, @AuthenticationPrincipal LoginUser loginUser) throws Exception {
+        if (loginUser == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.");
+        }
+
+        TripJob job = findOwnedJob(jobId, loginUser);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 작업을 찾을 수 없습니다.");
+        }
+
+        try {
+            return tripJobService.subscribe(jobId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // 본인이 요청한 작업만 조회 가능 (타인의 작업은 없는 것으로 처리)
+    private TripJob findOwnedJob(String jobId, LoginUser loginUser) throws Exception {
+        TripJob job = tripJobService.getJob(jobId);
+        if (job == null || loginUser.userId() != job.getMemberId()) return null;
+        return job;
+    }
+
+    /**
+     * 1-3. 이어 올리기 업로드 세션 생성
+     * 요청: {"title": "...", "files": [{"fileName": "a.jpg", "contentType": "image/jpeg", "size": 1234}]}
+     * 이후 파일별로 PUT /uploads/{sessionId}/files/{index}?offset=N 으로 조각을 보내고
+     * 끊기면 GET /uploads/{sessionId}의 receivedRanges를 보고 빠진 구간만 다시 보낸 뒤 /complete를 호출한다.
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<?> createUploadSession(@RequestBody UploadSession request, @AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+
+        return upload(loginUser, "업로드 세션 생성", () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(uploadSessionService.create(loginUser.userId(), request)));
+    }
+
+    /**
+     * 1-4. 파일 조각 업로드 (요청 본문 = 조각 바이트, Content-Type은 application/octet-stream)
+     */
+    @PutMapping("/uploads/{sessionId}/files/{index}")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable("sessionId") String sessionId,
+            @PathVariable("index") int index,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request,
+            @AuthenticationPrincipal LoginUser loginUser
+    ) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+        if (uploadSessionService.getSession(loginUser.userId(), sessionId) == null) {
+            return uploadSessionNotFound();
+        }
+
+        return upload(loginUser, "조각 업로드", () -> {
+            UploadFile file = uploadSessionService.writeChunk(loginUser.userId(), sessionId, index, offset,
+                    request.getContentLengthLong(), request.getInputStream());
+            return ResponseEntity.ok(file);
+        });
+    }
+
+    /**
+     * 1-5. 업로드 세션 조회 (파일별 받은 구간)
+     */
+    @GetMapping("/uploads/{sessionId}")
+    public ResponseEntity<?> getUploadSession(@PathVariable("sessionId") String sessionId, @AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+
+        UploadSession session = uploadSessionService.getSession(loginUser.userId(), sessionId);
+        return session == null ? uploadSessionNotFound() : ResponseEntity.ok(session);
+    }
+
+    /**
+     * 1-6. 업로드 완료 -> 여행 기록 생성 작업 시작 (응답은 /auto-create와 같은 TripJob)
+     */
+    @PostMapping("/uploads/{sessionId}/complete")
+    public ResponseEntity<?> completeUploadSession(@PathVariable("sessionId") String sessionId, @AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+        if (uploadSessionService.getSession(loginUser.userId(), sessionId) == null) {
+            return uploadSessionNotFound();
+        }
+
+        return upload(loginUser, "업로드 완료", () ->
+                ResponseEntity.status(HttpStatus.ACCEPTED).body(uploadSessionService.complete(loginUser.userId(), sessionId)));
+    }
+
+    /**
+     * 1-7. 업로드 취소 (받은 조각 삭제)
+     */
+    @DeleteMapping("/uploads/{sessionId}")
+    public ResponseEntity<?> cancelUploadSession(@PathVariable("sessionId") String sessionId, @AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+        if (uploadSessionService.getSession(loginUser.userId(), sessionId) == null) {
+            return uploadSessionNotFound();
+        }
+
+        return upload(loginUser, "업로드 취소", () -> {
+            uploadSessionService.cancel(loginUser.userId(), sessionId);
+            return ResponseEntity.ok(Map.of("message", "업로드 취소 완료"));
+        });
+    }
+
+    @FunctionalInterface
+    private interface UploadAction {
+        ResponseEntity<?> run() throws Exception;
+    }
+
+    // 이어 올리기 공통 오류 처리: 용량 초과 413, 잘못된 요청 400, 대기열 초과 503
+    private ResponseEntity<?> upload(LoginUser loginUser, String action, UploadAction uploadAction) {
+        try {
+            return uploadAction.run();
+        } catch (MaxUploadSizeExceededException e) {
+            log.warn("업로드 용량 제한 초과 - 사용자: {}, 제한: {} bytes", loginUser.userId(), e.getMaxUploadSize());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(String.format("업로드 용량 제한(%dMB)을 넘었습니다.", e.getMaxUploadSize() / (1024 * 1024)));
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 요청: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            log.warn("여행 기록 생성 대기열 초과: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("요청이 많아 잠시 후 다시 시도해주세요.");
+        } catch (Exception e) {
+            log.error("{} 실패", action, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(action + " 실패: " + e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> uploadSessionNotFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "해당 업로드 세션을 찾을 수 없습니다."));
+    }
+
     /**
      * 2. 내 여행 기록 목록 조회
      */
     @GetMapping("/list")
-    public ResponseEntity<?> getMyTripList(Authentication authentication) {
-        if (authentication == null) {
+    public ResponseEntity<?> getMyTripList(@AuthenticationPrincipal LoginUser loginUser) {
+        if (loginUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }
 
         try {
-            String email = authentication.getName();
-            Member loginUser = memberService.getMemberInfo(email);
-            if (loginUser == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
-            }
-            List<Trip> trips = tripService.getMyTripList(loginUser.getId());
+            List<Trip> trips = tripService.getMyTripList(loginUser.userId());
             return ResponseEntity.ok(trips);
         } catch (Exception e) {
             log.error("여행 목록 조회 실패", e);
@@ -88,6 +307,80 @@ public class TripController {
         }
     }
 
+    /**
+     * 2-1. 공개 여행 피드 (커서 기반 페이지네이션)
+     * 첫 페이지는 cursor 없이, 다음 페이지는 응답의 nextCursor를 cursor로 넘겨 조회한다.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getPublicFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "sort", required = false, defaultValue = "latest") String sort
+    ) {
+        try {
+            CursorPage<Trip> page = tripService.getPublicFeed(keyword, sort, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error("공개 여행 피드 조회 실패", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("피드 조회 실패");
+        }
+    }
+
+    /**
+     * 주변 여행 조회 (반경, 가까운 순)
+     * 예: /api/trip/nearby?lat=35.1587&lng=129.1604&radius=3000&limit=20
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyTrips(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lng") double longitude,
+            @RequestParam(value = "radius", required = false) Double radiusMeters,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return findNearby("주변 여행 조회 실패",
+                () -> nearbyTripService.findNearby(latitude, longitude, radiusMeters, limit));
+    }
+
+    /**
+     * 지도 화면 영역 안의 여행 조회 (영역 중심에서 가까운 순)
+     * 예: /api/trip/within?south=35.10&west=129.05&north=35.20&east=129.20
+     */
+    @GetMapping("/within")
+    public ResponseEntity<?> getTripsWithin(
+            @RequestParam("south") double south,
+            @RequestParam("west") double west,
+            @RequestParam("north") double north,
+            @RequestParam("east") double east,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return findNearby("영역 내 여행 조회 실패",
+                () -> nearbyTripService.findWithin(south, west, north, east, limit));
+    }
+
+    @FunctionalInterface
+    private interface NearbyQuery {
+        List<NearbyTrip> find() throws Exception;
+    }
+
+    // 색인 적재 전 503, 잘못된 좌표/범위 400
+    private ResponseEntity<?> findNearby(String failMessage, NearbyQuery query) {
+        if (!nearbyTripService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "주변 여행 색인을 준비하고 있습니다. 잠시 후 다시 시도해 주세요."));
+        }
+        try {
+            return ResponseEntity.ok(query.find());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            log.error(failMessage, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(failMessage);
+        }
+    }
+
     /**
      * 3. 여행 기록 상세 조회
      */
@@ -101,4 +394,74 @@ public class TripController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "해당 여행 기록을 찾을 수 없습니다."));
         }
     }
+
+    /**
+     * 4. 여행 정보 수정 (제목, 날짜, 공개 여부)
+     */
+    @PutMapping("/{tripId}")
+    public ResponseEntity<?> updateTrip(@PathVariable("tripId") int tripId, @RequestBody Trip trip,
+            @AuthenticationPrincipal LoginUser loginUser) {
+        return modify(loginUser, "여행 수정", tripId, memberId -> {
+            trip.setTripId(tripId);
+            return tripService.updateTrip(memberId, trip);
+        });
+    }
+
+    /**
+     * 5. 여행 삭제
+     */
+    @DeleteMapping("/{tripId}")
+    public ResponseEntity<?> deleteTrip(@PathVariable("tripId") int tripId, @AuthenticationPrincipal LoginUser loginUser) {
+        return modify(loginUser, "여행 삭제", tripId, memberId -> tripService.deleteTrip(memberId, tripId));
+    }
+
+    /**
+     * 6. 개별 기록 수정 (장소명, 내용, 위치, 방문 시간)
+     */
+    @PutMapping("/records/{recordId}")
+    public ResponseEntity<?> updateTripRecord(@PathVariable("recordId") int recordId, @RequestBody TripRecord record,
+            @AuthenticationPrincipal LoginUser loginUser) {
+        return modify(loginUser, "기록 수정", recordId, memberId -> {
+            record.setRecordId(recordId);
+            return tripService.updateTripRecord(memberId, record);
+        });
+    }
+
+    /**
+     * 7. 개별 기록 삭제
+     */
+    @DeleteMapping("/records/{recordId}")
+    public ResponseEntity<?> deleteTripRecord(@PathVariable("recordId") int recordId, @AuthenticationPrincipal LoginUser loginUser) {
+        return modify(loginUser, "기록 삭제", recordId, memberId -> tripService.deleteTripRecord(memberId, recordId));
+    }
+
+    /**
+     * 8. 사진 삭제
+     */
+    @DeleteMapping("/photos/{photoCode}")
+    public ResponseEntity<?> deleteTripPhoto(@PathVariable("photoCode") int photoCode, @AuthenticationPrincipal LoginUser loginUser) {
+        return modify(loginUser, "사진 삭제", photoCode, memberId -> tripService.deleteTripPhoto(memberId, photoCode));
+    }
+
+    @FunctionalInterface
+    private interface OwnerAction {
+        boolean run(int memberId) throws Exception;
+    }
+
+    // 수정/삭제 공통 처리: 로그인 확인 -> 실행 (대상이 없거나 본인 것이 아니면 404)
+    private ResponseEntity<?> modify(LoginUser loginUser, String action, int targetId, OwnerAction ownerAction) {
+        if (loginUser == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+
+        try {
+            if (!ownerAction.run(loginUser.userId())) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "해당 여행 기록을 찾을 수 없습니다."));
+            }
+            return ResponseEntity.ok(Map.of("message", action + " 완료"));
+        } catch (Exception e) {
+            log.error("{} 실패: {}", action, targetId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(action + " 실패");
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 게시글 목록용 요약 정보 (본문 제외)
+ * excerpt는 요청한 경우에만 본문 앞부분에서 마크다운/이미지를 걷어내고 만든 미리보기 문장
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArticleSummary {
+
+	private long articleId;
+	private String title;
+	private String tags;
+	private int authorId;
+	private String authorName;
+
+	private String category;
+
+	private String excerpt;
+	private int likes;
+	private int hits;
+	private LocalDateTime uploadedAt;
+	private String visibility;
+}
@@ -0,0 +1,22 @@
+package com.snapway.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 커서(keyset) 기반 페이지 응답
+ * 다음 페이지는 nextCursor를 그대로 cursor 파라미터로 넘겨서 조회한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor; // 마지막 페이지면 null
+    private boolean hasNext;
+}
@@ -0,0 +1,46 @@
+package com.snapway.model.dto;
+
+import lombok.Getter;
+
+/**
+ * 저장된 사진의 축소본 종류
+ * 원본 URL이 /files/{경로}이면 축소본은 /files/variants/{path}/{경로}로 제공된다.
+ */
+@Getter
+public enum ImageVariant {
+    THUMB("thumb", 320, 0.7f),   // 목록/피드용
+    MEDIUM("medium", 1280, 0.8f); // 상세 화면/본문용
+
+    public static final String FILES_PREFIX = "/files/";
+    public static final String VARIANTS_DIR = "variants";
+
+    private final String path; // URL/디렉토리 이름
+    private final int maxSize; // 가로, 세로 최대 크기(px)
+    private final float quality;
+
+    ImageVariant(String path, int maxSize, float quality) {
+        this.path = path;
+        this.maxSize = maxSize;
+        this.quality = quality;
+    }
+
+    /**
+     * 원본 URL -> 축소본 URL (/files/ 경로가 아니면 원본 URL 그대로)
+     */
+    public String toUrl(String fileUrl) {
+        if (fileUrl == null) return null;
+
+        int index = fileUrl.indexOf(FILES_PREFIX);
+        if (index < 0) return fileUrl;
+
+        int pathStart = index + FILES_PREFIX.length();
+        return fileUrl.substring(0, pathStart) + VARIANTS_DIR + "/" + path + "/" + fileUrl.substring(pathStart);
+    }
+
+    public static ImageVariant fromPath(String path) {
+        for (ImageVariant variant : values()) {
+            if (variant.path.equalsIgnoreCase(path)) return variant;
+        }
+        return null;
+    }
+}
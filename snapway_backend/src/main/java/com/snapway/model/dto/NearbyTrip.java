@@ -0,0 +1,33 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 주변 여행 조회 결과 한 건
+ * 좌표/거리는 기준점에서 가장 가까운 기록(recordId) 기준
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyTrip {
+    private int tripId;
+    private String title;
+    private LocalDateTime uploadedAt;
+    private int recordId;
+    private String placeName;
+    private double latitude;
+    private double longitude;
+    private double distanceMeters; // 사각 영역 조회는 영역 중심에서의 거리
+    private String photoUrl; // 해당 기록의 첫 번째 사진 원본 URL
+
+    // 축소본 URL (photoUrl에서 계산, DB 컬럼 아님)
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMB.toUrl(photoUrl);
+    }
+}
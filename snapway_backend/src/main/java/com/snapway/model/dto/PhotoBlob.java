@@ -0,0 +1,26 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 내용(SHA-256) 기준으로 한 번만 저장되는 사진 파일
+ * 여행 사진(trip_photo.file_path)과 게시글 본문의 이미지 URL이 /files/{filePath}로 참조하며,
+ * refCount가 0인 채로 유예 시간이 지나면 파일과 함께 삭제된다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhotoBlob {
+    private String sha256;
+    private String filePath; // basePath 기준 저장 경로 (blobs/ab/cd/{sha256}.jpg)
+    private long size;
+    private int refCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
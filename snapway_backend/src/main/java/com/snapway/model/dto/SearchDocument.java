@@ -0,0 +1,25 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 검색 색인용 원본 행 (SearchMapper 조회 결과)
+ * 여행: title = 여행 제목, body = 기록 본문(ai_content) 또는 사진 설명(caption) 한 건
+ * 게시글: title, body = 본문, tags
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchDocument {
+    private long id;
+    private String title;
+    private String body;
+    private String tags;
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,26 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 통합 검색 결과 한 건 (점수 높은 순으로 정렬됨)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResult {
+    public static final String TYPE_TRIP = "trip";
+    public static final String TYPE_ARTICLE = "article";
+
+    private String type; // trip | article
+    private long id;
+    private String title;
+    private LocalDateTime uploadedAt;
+    private double score;
+}
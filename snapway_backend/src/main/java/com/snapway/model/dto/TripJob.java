@@ -0,0 +1,36 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AI 여행 기록 비동기 생성 작업 정보
+ * 클라이언트는 jobId로 상태를 조회하거나 SSE로 진행 상황을 구독한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class TripJob {
+    private String jobId;
+    private int memberId;
+    private String title;
+
+    private TripJobStatus status;
+    private String stage; // 현재 진행 단계 (METADATA, ANALYSIS, COMPOSE, SAVE)
+
+    private int totalPhotos;
+    private int processedPhotos; // 분석이 끝난 사진 수 (실패 포함)
+    private int failedPhotos;
+
+    private Integer tripId; // 완료 시 생성된 여행 ID
+    private Trip trip;      // 완료 시 생성된 여행 정보
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
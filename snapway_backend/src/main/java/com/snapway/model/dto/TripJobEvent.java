@@ -0,0 +1,32 @@
+package com.snapway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SSE로 전송되는 여행 기록 생성 진행 이벤트
+ * type: status(현재 상태 스냅샷), stage(단계 전환), photo(사진 1장 분석 완료), completed, failed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TripJobEvent {
+    private String jobId;
+    private String type;
+    private TripJobStatus status;
+    private String stage;
+    private String message;
+
+    // 사진 단위 이벤트 정보
+    private Integer photoIndex;
+    private String fileName;
+    private Boolean success;
+
+    private int processedPhotos;
+    private int totalPhotos;
+
+    private Integer tripId;
+}
@@ -0,0 +1,11 @@
+package com.snapway.model.dto;
+
+/**
+ * AI 여행 기록 생성 작업(Job)의 상태
+ */
+public enum TripJobStatus {
+    PENDING,   // 접수 완료, 실행 대기 중
+    RUNNING,   // 사진 분석 / 본문 작성 / 저장 진행 중
+    COMPLETED, // 여행 기록 생성 완료
+    FAILED     // 생성 실패
+}
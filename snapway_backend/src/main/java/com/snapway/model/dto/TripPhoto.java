@@ -15,4 +15,13 @@ public class TripPhoto {
     private String filePath; // 서버 저장 경로 (/uploads/...)
     private String photoName; // 원본 파일명
     private String caption;
+
+    // 축소본 URL (filePath에서 계산, DB 컬럼 아님)
+    public String getThumbnailUrl() {
+        return ImageVariant.THUMB.toUrl(filePath);
+    }
+
+    public String getMediumUrl() {
+        return ImageVariant.MEDIUM.toUrl(filePath);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.snapway.model.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 업로드 세션에 포함된 파일 하나
+ * 세션 생성 시에는 fileName, contentType, size만 보내고, 나머지는 서버가 채운다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadFile {
+    private int index;
+    private String fileName;
+    private String contentType;
+    private long size;
+
+    private long receivedBytes;
+    private List<long[]> receivedRanges; // 받은 구간 [시작, 끝(제외)] 목록, 빠진 구간만 다시 보내면 된다
+    private boolean complete;
+}
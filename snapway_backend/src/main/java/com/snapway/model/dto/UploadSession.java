@@ -0,0 +1,37 @@
+package com.snapway.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 이어 올리기(resumable) 업로드 세션
+ * 1. 세션 생성 (title, files[fileName, contentType, size])
+ * 2. 파일별로 조각 업로드 (offset 지정, 순서/중복 상관없음)
+ * 3. 연결이 끊기면 세션을 조회해 receivedRanges에 없는 구간만 다시 업로드
+ * 4. 모두 받으면 완료 요청 -> 여행 기록 생성 작업(TripJob) 시작
+ * 마지막 업로드 후 일정 시간이 지나면 만료되며 받은 조각은 삭제된다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class UploadSession {
+    private String sessionId;
+    private int memberId;
+    private String title;
+    private UploadSessionStatus status;
+
+    private List<UploadFile> files;
+    private long totalBytes;
+    private long receivedBytes;
+
+    private String jobId; // 완료 후 시작된 작업 ID
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
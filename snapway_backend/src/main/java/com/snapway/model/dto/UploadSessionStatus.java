@@ -0,0 +1,9 @@
+package com.snapway.model.dto;
+
+/**
+ * 이어 올리기 업로드 세션 상태
+ */
+public enum UploadSessionStatus {
+    UPLOADING, // 조각 업로드 중
+    COMPLETED  // 모든 파일을 받아 여행 기록 생성 작업으로 넘김
+}
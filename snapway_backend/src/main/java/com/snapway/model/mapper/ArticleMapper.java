@@ -1,12 +1,14 @@
 package com.snapway.model.mapper;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.springframework.security.core.Authentication;
 
 import com.snapway.model.dto.Article;
+import com.snapway.model.dto.ArticleSummary;
 import com.snapway.model.dto.Reply;
 
 @Mapper
@@ -14,10 +16,17 @@ public interface ArticleMapper {
 
 	List<Article> findAll(@Param("userId") Integer userId);
 
+	// 목록용 요약 조회 (본문 제외, article_id 기준 keyset 페이지네이션)
+	// params: userId(비공개 글 작성자 본인 확인), authorId, categories, cursorArticleId, limit, excerptSourceLength
+	List<ArticleSummary> findSummaries(Map<String, Object> params);
+
 	int saveArticle(@Param("article") Article article) throws Exception;
 	
 	Article getArticle(@Param("articleId")long articleId) throws Exception;
 
+	// 수정/삭제 전 이전 본문을 행 잠금과 함께 조회 (동시 수정/삭제 시 사진 참조 수 증감을 한 번만 반영)
+	String getArticleContentForUpdate(@Param("articleId") long articleId) throws Exception;
+
 	int addReply(@Param("reply")Reply reply);
 
 	List<Reply> getReply(@Param("articleId") long articleId);
@@ -32,5 +41,8 @@ public interface ArticleMapper {
 
 	int increaseHits(long articleId) throws Exception;
 
+	// 여러 게시글의 조회수를 한 번에 증가 (게시글 ID -> 증가량)
+	int addHits(@Param("hits") Map<Long, Long> hits) throws Exception;
+
 
 }
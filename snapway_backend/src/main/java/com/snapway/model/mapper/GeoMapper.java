@@ -0,0 +1,24 @@
+package com.snapway.model.mapper;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.snapway.model.dto.NearbyTrip;
+import com.snapway.model.dto.TripRecord;
+
+/**
+ * 주변 여행 조회용 (공개 여행의 사진이 있는 기록만)
+ */
+@Mapper
+public interface GeoMapper {
+
+    // 좌표가 있는 기록 (recordId, tripId, latitude, longitude만 채움), tripId가 null이면 전체를 trip_id 순으로 스트리밍
+    void selectGeoPoints(@Param("tripId") Integer tripId, ResultHandler<TripRecord> handler) throws SQLException;
+
+    // 조회된 기록이 속한 여행 정보 + 기록의 첫 번째 사진 (비공개로 바뀐 여행은 제외)
+    List<NearbyTrip> selectNearbyTrips(@Param("recordIds") List<Integer> recordIds) throws SQLException;
+}
@@ -0,0 +1,67 @@
+package com.snapway.model.mapper;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.snapway.model.dto.PhotoBlob;
+
+@Mapper
+public interface PhotoBlobMapper {
+
+    // --- 1. 저장소 ---
+    // 없으면 추가 (참조 수 0), 이미 있으면 updated_at만 갱신 (미참조 정리 유예 연장, 저장 경로는 처음 것 유지)
+    int upsertBlob(PhotoBlob blob) throws SQLException;
+
+    PhotoBlob selectBlob(String sha256) throws SQLException;
+
+    // 참조 수 증감 (sha256 -> 증감량)
+    int addRefCounts(@Param("counts") Map<String, Integer> counts) throws SQLException;
+
+    // 정리 대상: 참조가 없고 graceHours 동안 업로드/참조 변경이 없던 사진 (시각 비교는 DB 시계 기준)
+    List<PhotoBlob> selectUnreferenced(@Param("graceHours") long graceHours, @Param("limit") int limit) throws SQLException;
+
+    // 조회 이후 다시 업로드/참조되지 않았을 때만 삭제 (삭제했으면 1)
+    int deleteUnreferenced(@Param("sha256") String sha256, @Param("graceHours") long graceHours) throws SQLException;
+
+
+    // --- 2. 참조 조회 (삭제 전에 참조 수를 줄이기 위해, FK 연쇄 삭제되는 행 포함) ---
+    List<String> selectPhotoPathsByTripId(int tripId) throws SQLException;
+
+    List<String> selectPhotoPathsByRecordId(int recordId) throws SQLException;
+
+    String selectPhotoPathByPhotoCode(int photoCode) throws SQLException;
+
+    List<String> selectPhotoPathsByMemberEmail(String email) throws SQLException;
+
+    List<String> selectArticleContentsByMemberEmail(String email) throws SQLException;
+
+    // 여행 본문(기록 ai_content) 중 저장소 사진을 쓰는 것 (삭제 직전이므로 행 잠금)
+    List<String> selectRecordContentsByTripId(int tripId) throws SQLException;
+
+    List<String> selectRecordContentsByRecordId(int recordId) throws SQLException;
+
+    List<String> selectRecordContentsByMemberEmail(String email) throws SQLException;
+
+
+    // --- 3. 기존 파일 이전 / 참조 수 재계산 (PhotoBlobMigrator) ---
+    // 저장소 경로를 참조하는 여행 사진 경로 / 게시글 본문 / 여행 본문 전체
+    List<String> selectAllBlobPhotoPaths() throws SQLException;
+
+    List<String> selectAllBlobArticleContents() throws SQLException;
+
+    List<String> selectAllBlobRecordContents() throws SQLException;
+
+    int resetRefCounts() throws SQLException;
+
+    // 경로 문자열 치환 (from이 들어 있는 행만)
+    int replaceTripPhotoPath(@Param("from") String from, @Param("to") String to) throws SQLException;
+
+    int replaceArticleContent(@Param("from") String from, @Param("to") String to) throws SQLException;
+
+    // 여행 본문(첫 기록의 ai_content)에 들어 있는 사진/축소본 URL
+    int replaceRecordContent(@Param("from") String from, @Param("to") String to) throws SQLException;
+}
@@ -0,0 +1,26 @@
+package com.snapway.model.mapper;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import com.snapway.model.dto.SearchDocument;
+
+/**
+ * 검색 색인 적재용 조회 (공개 글만)
+ * ID를 넘기면 해당 건만, null이면 전체를 조회한다.
+ */
+@Mapper
+public interface SearchMapper {
+
+    // 공개 여행의 제목/업로드 시간
+    List<SearchDocument> selectTripsForSearch(@Param("tripId") Integer tripId) throws SQLException;
+
+    // 공개 여행의 기록 본문(ai_content)과 사진 설명(caption), 한 행에 본문 하나 (id = tripId)
+    List<SearchDocument> selectTripTextsForSearch(@Param("tripId") Integer tripId) throws SQLException;
+
+    // 공개 게시글의 제목/본문/태그
+    List<SearchDocument> selectArticlesForSearch(@Param("articleId") Long articleId) throws SQLException;
+}
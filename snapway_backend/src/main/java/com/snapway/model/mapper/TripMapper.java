@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import com.snapway.model.dto.Trip;
 import com.snapway.model.dto.TripHashtag;
 import com.snapway.model.dto.TripRecord;
@@ -29,18 +30,26 @@ public interface TripMapper {
     // 여행 상세 조회
     Trip selectTripById(int tripId) throws SQLException;
     
-    // [메인 피드] 모든 공개 여행 목록 조회 (검색 기능 포함 가능)
-    // Map 파라미터 예시: { "keyword": "부산", "sort": "date" }
+    // [메인 피드] 공개 여행 목록 한 페이지 조회 (uploaded_at, trip_id 기준 keyset 페이지네이션)
+    // Map 파라미터: { "tripIds": 검색 색인에서 찾은 여행 ID 목록, "keyword": "부산"(색인 준비 전 제목 LIKE 검색), "sort": "latest|oldest", "cursorUploadedAt": 마지막 항목 업로드 시간,
+    //               "cursorTripId": 마지막 항목 ID, "limit": 조회할 여행 수 }
+    // 커서가 없으면 첫 페이지, limit은 해시태그 행 수와 관계없이 여행 수 기준
     List<Trip> selectAllPublicTrips(Map<String, Object> params) throws SQLException;
     
     // 해시태그 저장 메서드
     int insertTripHashtag(TripHashtag tripHashtag) throws SQLException;
+    
+    // 해시태그 여러 개를 한 번에 저장 (multi-row INSERT)
+    int insertTripHashtags(@Param("hashtags") List<TripHashtag> hashtags) throws SQLException;
 
 
     // --- 2. TripRecord (개별 기록/마커) ---
     // 기록 생성
     int insertTripRecord(TripRecord tripRecord) throws SQLException;
     
+    // 기록 여러 개를 한 번에 생성 (multi-row INSERT, 생성된 recordId는 입력 순서대로 각 객체에 설정됨)
+    int insertTripRecords(@Param("records") List<TripRecord> records) throws SQLException;
+    
     // 기록 수정 (내용, 장소 등)
     int updateTripRecord(TripRecord tripRecord) throws SQLException;
     
@@ -50,14 +59,23 @@ public interface TripMapper {
     // 특정 여행의 모든 기록 조회
     List<TripRecord> selectRecordsByTripId(int tripId) throws SQLException;
     
+    // 특정 여행의 모든 기록을 사진까지 포함해 한 번에 조회 (상세 화면용, 기록별 사진 조회 N+1 방지)
+    List<TripRecord> selectRecordsWithPhotosByTripId(int tripId) throws SQLException;
+    
     // 특정 기록 단건 조회 (수정 폼 불러오기 용)
     TripRecord selectRecordById(int recordId) throws SQLException;
     
+    // 기록 본문을 행 잠금과 함께 조회 (동시 수정 시 사진 참조 수 증감을 한 번만 반영)
+    String selectRecordContentForUpdate(int recordId) throws SQLException;
+    
 
     // --- 3. TripPhoto (사진 파일) ---
     // 사진 저장
     int insertTripPhoto(TripPhoto tripPhoto) throws SQLException;
     
+    // 사진 여러 장을 한 번에 저장 (multi-row INSERT, 생성된 photoCode는 입력 순서대로 각 객체에 설정됨)
+    int insertTripPhotos(@Param("photos") List<TripPhoto> photos) throws SQLException;
+    
     // 사진 삭제 (개별 삭제)
     int deleteTripPhoto(int photoCode) throws SQLException;
     
@@ -66,4 +84,7 @@ public interface TripMapper {
     
     // 특정 기록에 포함된 사진 조회
     List<TripPhoto> selectPhotosByRecordId(int recordId) throws SQLException;
+    
+    // 사진이 속한 여행 ID 조회 (사진 삭제 시 권한 확인/캐시 무효화 용, 없으면 null)
+    Integer selectTripIdByPhotoCode(int photoCode) throws SQLException;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.snapway.model.service;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -12,32 +13,106 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.snapway.util.ReactiveLimiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AIServiceImpl implements AiService {
-	
+
 	private final WebClient.Builder webClientBuilder;
-	
+	private final MeterRegistry meterRegistry;
+
 	@Value("${gms.api.url}")
 	private String gmsApiUrl;
-	
+
 	@Value("${gms.api.key}")
 	private String gmsApiKey;
-	
+
+	// 서버 전체에서 동시에 진행할 최대 AI 요청 수 (모든 여행 작업/호출 경로가 공유)
+	@Value("${app.ai.max-concurrency:16}")
+	private int maxConcurrency;
+
+	// 요청 1건의 응답 대기 제한 시간
+	@Value("${app.ai.response-timeout-millis:60000}")
+	private long responseTimeoutMillis;
+
+	// WebClient는 스레드 안전하므로 한 번만 생성하여 커넥션 풀을 공유
+	private WebClient webClient;
+
+	// 한도를 넘는 요청은 스레드를 점유하지 않고 대기
+	private ReactiveLimiter limiter;
+
+	@PostConstruct
+	void init() {
+		this.webClient = webClientBuilder.build();
+		this.limiter = new ReactiveLimiter(maxConcurrency);
+
+		Gauge.builder("snapway.ai.requests.active", limiter, ReactiveLimiter::active)
+				.description("진행 중인 AI 요청 수")
+				.register(meterRegistry);
+		Gauge.builder("snapway.ai.requests.waiting", limiter, ReactiveLimiter::waiting)
+				.description("동시 요청 한도로 대기 중인 AI 요청 수")
+				.register(meterRegistry);
+	}
+
 	@Override
 	public String generateContent(String prompt) {
 		return generateContent(prompt, null);
 	}
-	
+
 	@Override
 	public String generateContent(String prompt, List<String> base64Images) {
-		// 1. 요청 본문 구성
+		// 기존 동기 API는 논블로킹 호출 결과를 기다리는 방식으로 유지
+		return generateContentReactive(prompt, base64Images, null).block(); // 동기 호출
+	}
+
+	@Override
+	public Mono<String> generateContentReactive(String prompt, List<String> base64Images, Duration timeout) {
+		return send(buildRequestBody(prompt, base64Images, null), timeout);
+	}
+
+	@Override
+	public Mono<String> generateJsonReactive(String prompt, List<String> base64Images, Map<String, Object> responseSchema,
+			Duration timeout) {
+		Map<String, Object> generationConfig = Map.of(
+			"responseMimeType", "application/json",
+			"responseSchema", responseSchema
+		);
+		return send(buildRequestBody(prompt, base64Images, generationConfig), timeout);
+	}
+
+	private Mono<String> send(Map<String, Object> requestBody, Duration timeout) {
+        // 3. URI 생성
+		URI uri = UriComponentsBuilder.fromUriString(gmsApiUrl)
+                .queryParam("key", gmsApiKey) // API 키 추가
+                .build()
+                .toUri();
+
+		// 4. API 호출 (동시 요청 한도 안에서 자리가 나면 전송, 제한 시간은 전송 시점부터)
+		Mono<String> request = webClient
+                .post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout != null ? timeout : Duration.ofMillis(responseTimeoutMillis));
+		return limiter.limit(request)
+                .onErrorMap(e -> !(e instanceof AiServiceException), this::toServiceException);
+	}
+
+	// 1. 요청 본문 구성
+	private Map<String, Object> buildRequestBody(String prompt, List<String> base64Images, Map<String, Object> generationConfig) {
 		List<Map<String, Object>> parts = new ArrayList<>();
-		
+
 		if (base64Images != null && !base64Images.isEmpty()) {
             for (String base64Image : base64Images) {
                 // Base64 문자열 유효성 체크 (빈 값 방지)
@@ -45,52 +120,50 @@ public class AIServiceImpl implements AiService {
 
                 parts.add(Map.of(
                     "inlineData", Map.of(
-                        "mimeType", "image/jpeg", 
+                        "mimeType", "image/jpeg",
                         "data", base64Image
                     )
                 ));
             }
         }
-		
+
 		parts.add(Map.of("text", prompt));
-		
+
 		Map<String, Object> content = Map.of(
             "role", "user",
             "parts", parts
         );
-		
+
 		// 2. 전체 요청 구조 생성
-		// { "contents": [{ "parts": [ {text...}, {inlineData...}, ... ] }] }
-		Map<String, Object> requestBody = Map.of(
+		// { "contents": [{ "parts": [ {text...}, {inlineData...}, ... ] }], "generationConfig": {...} }
+		if (generationConfig != null) {
+			return Map.of(
+				"contents", List.of(content),
+				"generationConfig", generationConfig
+			);
+		}
+		return Map.of(
 			"contents", List.of(content)
 		);
-        
-        // 3. URI 생성
-		URI uri = UriComponentsBuilder.fromUriString(gmsApiUrl)
-                .queryParam("key", gmsApiKey) // API 키 추가
-                .build()
-                .toUri();
-		
-		// 4. API 호출
-		try {
-            String response = webClientBuilder.build()
-                .post()
-                .uri(uri)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block(); // 동기 호출
+	}
 
-            return response;
-        } catch (WebClientResponseException e) {
+	private AiServiceException toServiceException(Throwable e) {
+		if (e instanceof WebClientResponseException responseException) {
             // [중요] 400, 500 에러 시 서버가 보낸 상세 응답을 로그에 출력
-            log.error("GMS API 호출 실패 (Status: {}): {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw new RuntimeException("AI API 호출 오류: " + e.getResponseBodyAsString(), e);
-        } catch (Exception e) {
-            log.error("AI 서비스 내부 오류: {}", e.getMessage());
-            throw new RuntimeException("AI 서비스 연결 실패", e);
-        }
+            log.error("GMS API 호출 실패 (Status: {}): {}", responseException.getStatusCode(), responseException.getResponseBodyAsString());
+            return new AiServiceException("AI API 호출 오류: " + responseException.getResponseBodyAsString(), e);
+		}
+        log.error("AI 서비스 내부 오류: {}", e.getMessage());
+        return new AiServiceException("AI 서비스 연결 실패", e);
+	}
+
+	/**
+	 * AI 호출 실패 예외 (기존 동기 API와 동일하게 RuntimeException 계열)
+	 */
+	public static class AiServiceException extends RuntimeException {
+		public AiServiceException(String message, Throwable cause) {
+			super(message, cause);
+		}
 	}
 
 }
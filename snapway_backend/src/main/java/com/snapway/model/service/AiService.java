@@ -1,6 +1,10 @@
 package com.snapway.model.service;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
 
 public interface AiService {
 	
@@ -12,4 +16,26 @@ public interface AiService {
     String generateContent(String prompt);
     
     String generateContent(String prompt, List<String> base64Images);
-}
\ No newline at end of file
+
+    /**
+     * 논블로킹 방식으로 AI 모델을 호출합니다.
+     * 서버 전체의 동시 요청 수는 app.ai.max-concurrency로 제한되며, 한도를 넘으면 스레드를 점유하지 않고 자리가 날 때까지 기다렸다가 전송합니다.
+     * @param prompt 사용자 입력 텍스트
+     * @param base64Images 함께 보낼 이미지 (없으면 null)
+     * @param timeout 전송 후 응답 제한 시간 (한도 대기 시간 제외, null이면 app.ai.response-timeout-millis)
+     * @return AI 응답 원문(JSON)을 발행하는 Mono (시간 초과 등 실패는 원인을 담은 AiServiceException)
+     */
+    Mono<String> generateContentReactive(String prompt, List<String> base64Images, Duration timeout);
+
+    /**
+     * 응답 형식을 JSON 스키마로 지정하여 논블로킹 방식으로 AI 모델을 호출합니다.
+     * 여러 사진을 한 번에 분석하는 등 구조화된 응답이 필요할 때 사용합니다.
+     * @param prompt 사용자 입력 텍스트
+     * @param base64Images 함께 보낼 이미지 (없으면 null)
+     * @param responseSchema Gemini responseSchema 형식의 응답 스키마
+     * @param timeout 전송 후 응답 제한 시간 (한도 대기 시간 제외, null이면 app.ai.response-timeout-millis)
+     * @return AI 응답 원문(JSON)을 발행하는 Mono
+     */
+    Mono<String> generateJsonReactive(String prompt, List<String> base64Images, Map<String, Object> responseSchema,
+                                      Duration timeout);
+}
@@ -0,0 +1,25 @@
+package com.snapway.model.service;
+
+public interface ArticleHitService {
+
+    /**
+     * 조회수 1 증가 (메모리에 모아 두었다가 주기적으로 DB에 반영)
+     */
+    void increase(long articleId);
+
+    /**
+     * 아직 DB에 반영되지 않은 조회수 (DB의 hits에 더해서 응답)
+     */
+    long pending(long articleId);
+
+    /**
+     * 삭제된 게시글의 대기 중인 조회수 폐기
+     */
+    void discard(long articleId);
+
+    /**
+     * 대기 중인 조회수를 한 번의 UPDATE로 DB에 반영
+     * @return 반영한 게시글 수
+     */
+    int flush();
+}
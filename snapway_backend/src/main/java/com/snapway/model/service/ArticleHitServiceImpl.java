@@ -0,0 +1,82 @@
+package com.snapway.model.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.snapway.model.mapper.ArticleMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 게시글 조회수 write-behind 카운터
+ * 조회할 때마다 UPDATE를 보내면 인기 글의 행 잠금에 요청이 몰리므로,
+ * 조회수는 게시글별 LongAdder(스레드별로 나뉜 카운터)에 모았다가 주기적으로 한 번에 반영한다.
+ * 서버가 비정상 종료되면 마지막 반영 이후의 조회수(최대 반영 주기만큼)는 유실될 수 있다.
+ * 서버가 여러 대면 응답의 조회수에는 해당 서버에서 대기 중인 값만 더해진다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleHitServiceImpl implements ArticleHitService {
+
+    private final ArticleMapper aMapper;
+
+    // 게시글 ID -> 반영 대기 중인 조회수
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void increase(long articleId) {
+        counters.computeIfAbsent(articleId, id -> new LongAdder()).increment();
+    }
+
+    @Override
+    public long pending(long articleId) {
+        LongAdder adder = counters.get(articleId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Override
+    public void discard(long articleId) {
+        counters.remove(articleId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.article.hits.flush-interval-millis:5000}")
+    public synchronized int flush() {
+        // 값을 꺼내면서 0으로 만든다 (꺼내는 도중 들어온 조회수는 다음 반영 때 포함)
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        counters.forEach((articleId, adder) -> {
+            long hits = adder.sumThenReset();
+            if (hits > 0) batch.put(articleId, hits);
+        });
+        if (batch.isEmpty()) return 0;
+
+        try {
+            aMapper.addHits(batch);
+            log.debug("조회수 반영: 게시글 {}건", batch.size());
+            return batch.size();
+        } catch (Exception e) {
+            // 반영 실패 시 다음 주기에 다시 시도하도록 되돌려 놓음
+            batch.forEach(this::restore);
+            log.warn("조회수 반영 실패 (다음 주기에 재시도): {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void restore(long articleId, long hits) {
+        counters.computeIfAbsent(articleId, id -> new LongAdder()).add(hits);
+    }
+
+    // 정상 종료 시 남은 조회수 반영
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
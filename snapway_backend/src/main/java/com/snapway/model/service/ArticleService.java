@@ -2,24 +2,42 @@ package com.snapway.model.service;
 
 import java.util.List;
 
-import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.snapway.model.dto.Article;
+import com.snapway.model.dto.ArticleSummary;
+import com.snapway.model.dto.CursorPage;
 import com.snapway.model.dto.Reply;
 
 public interface ArticleService {
-	List<Article> findAll(int userId);
+	List<Article> findAll(Integer userId);
+
+	/**
+	 * 게시글 목록을 본문 없이 요약 정보로 한 페이지씩 조회합니다. (최신 글부터)
+	 * @param userId 로그인 사용자 ID (본인 비공개 글 포함용, 비로그인 시 null)
+	 * @param categories 분류 필터 (비어 있으면 전체)
+	 * @param mineOnly true면 본인 글만 (userId 필요)
+	 * @param cursor 이전 페이지의 nextCursor (null이면 첫 페이지)
+	 * @param size 페이지 크기 (null이면 기본값, 최대값을 넘으면 최대값으로 제한)
+	 * @param withExcerpt true면 본문 앞부분으로 만든 미리보기(excerpt) 포함
+	 * @throws IllegalArgumentException 잘못된 커서
+	 */
+	CursorPage<ArticleSummary> findSummaries(Integer userId, List<String> categories, boolean mineOnly,
+			String cursor, Integer size, boolean withExcerpt);
 
 	void saveArticle(Article article) throws Exception;
 
+	// 게시글 조회 (조회수 1 증가, 응답의 hits에는 아직 DB에 반영되지 않은 조회수 포함)
 	Article getArticle(long articleId) throws Exception;
 
+	// 수정/삭제 전 권한 확인용 조회 (조회수 증가 없음)
+	Article findArticle(long articleId) throws Exception;
+
 	int addReply(Reply reply);
 
 	List<Reply> getReply(long articleId);
 
-	int deleteReply(int replyId, Authentication auth);
+	int deleteReply(int replyId, int replierId);
 
 	int updateReply(Reply reply);
 
@@ -3,18 +3,23 @@ package com.snapway.model.service;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.snapway.model.dto.Article;
+import com.snapway.model.dto.ArticleSummary;
+import com.snapway.model.dto.CursorPage;
 import com.snapway.model.dto.Reply;
 import com.snapway.model.mapper.ArticleMapper;
+import com.snapway.util.CursorCodec;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,15 +27,101 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ArticleServiceImpl implements ArticleService {
 	private final ArticleMapper aMapper;
+	private final ArticleHitService articleHitService;
+	private final SearchService searchService;
+	private final PhotoBlobService photoBlobService;
 	
 	@Value("${spring.servlet.multipart.location}")
 	private String basePath;
 
+	// 목록 페이지 크기 (기본 / 최대), 미리보기 길이(글자 수)
+	@Value("${app.article.list.default-size:20}")
+	private int listDefaultSize;
+
+	@Value("${app.article.list.max-size:50}")
+	private int listMaxSize;
+
+	@Value("${app.article.list.excerpt-length:120}")
+	private int excerptLength;
+
+	// 이미지 마크다운/태그를 걷어내면 글자 수가 줄어들므로 미리보기 길이보다 넉넉하게 읽는다
+	private static final int EXCERPT_SOURCE_FACTOR = 8;
+
+	private static final Pattern MARKDOWN_IMAGE = Pattern.compile("!\\[[^\\]]*]\\([^)]*\\)?");
+	private static final Pattern MARKDOWN_LINK = Pattern.compile("\\[([^\\]]*)]\\([^)]*\\)");
+	private static final Pattern HTML_TAG = Pattern.compile("<[^<>]*>");
+	// 미리보기용으로 잘라 온 본문 끝에서 닫히지 않은 태그 (태그처럼 시작하는 것만, 본문의 '<' 기호는 그대로 둔다)
+	private static final Pattern TRUNCATED_HTML_TAG = Pattern.compile("<[a-zA-Z/!][^<>]*$");
+	private static final Pattern MARKDOWN_EMPHASIS = Pattern.compile("[*_`~]+");
+	private static final Pattern MARKDOWN_BLOCK = Pattern.compile("[#>|]+");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	@Override
-	public List<Article> findAll(int userId) {
+	@Transactional(readOnly = true)
+	public List<Article> findAll(Integer userId) {
 		return aMapper.findAll(userId);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<ArticleSummary> findSummaries(Integer userId, List<String> categories, boolean mineOnly,
+			String cursor, Integer size, boolean withExcerpt) {
+		int pageSize = (size == null || size <= 0) ? listDefaultSize : Math.min(size, listMaxSize);
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("userId", userId);
+		params.put("authorId", mineOnly ? userId : null);
+		params.put("categories", categories);
+		params.put("limit", pageSize + 1); // 한 건 더 읽어서 다음 페이지 여부 판단
+		if (withExcerpt) {
+			params.put("excerptSourceLength", excerptLength * EXCERPT_SOURCE_FACTOR);
+		}
+		if (cursor != null && !cursor.isBlank()) {
+			try {
+				params.put("cursorArticleId", Long.parseLong(CursorCodec.decode(cursor, 1)[0]));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("잘못된 커서입니다.", e);
+			}
+		}
+
+		List<ArticleSummary> summaries = aMapper.findSummaries(params);
+		boolean hasNext = summaries.size() > pageSize;
+		if (hasNext) {
+			summaries = new ArrayList<>(summaries.subList(0, pageSize));
+		}
+		for (ArticleSummary summary : summaries) {
+			summary.setHits(summary.getHits() + (int) articleHitService.pending(summary.getArticleId()));
+			if (withExcerpt) {
+				summary.setExcerpt(toExcerpt(summary.getExcerpt()));
+			}
+		}
+
+		String nextCursor = hasNext ? CursorCodec.encode(summaries.get(summaries.size() - 1).getArticleId()) : null;
+		return CursorPage.<ArticleSummary>builder()
+				.items(summaries)
+				.nextCursor(nextCursor)
+				.hasNext(hasNext)
+				.build();
+	}
+
+	/**
+	 * 본문 앞부분 -> 미리보기 문장 (이미지, 링크 주소, HTML 태그, 마크다운 기호 제거)
+	 */
+	private String toExcerpt(String source) {
+		if (source == null || source.isBlank()) return "";
+
+		String text = MARKDOWN_IMAGE.matcher(source).replaceAll(" ");
+		text = MARKDOWN_LINK.matcher(text).replaceAll("$1");
+		text = HTML_TAG.matcher(text).replaceAll(" ");
+		text = TRUNCATED_HTML_TAG.matcher(text).replaceAll(" ");
+		text = MARKDOWN_EMPHASIS.matcher(text).replaceAll("");
+		text = MARKDOWN_BLOCK.matcher(text).replaceAll(" ");
+		text = WHITESPACE.matcher(text).replaceAll(" ").trim();
+
+		if (text.length() <= excerptLength) return text;
+		return text.substring(0, excerptLength).trim() + "…";
+	}
+
 	@Override
 	@Transactional(rollbackFor = Exception.class)
 	public void saveArticle(Article article) throws Exception {
@@ -78,13 +169,25 @@ public class ArticleServiceImpl implements ArticleService {
                 aMapper.updateArticle(article);
             }
         }
+        photoBlobService.updateContentReferences(null, article.getContent()); // 본문이 쓰는 사진 참조
+        searchService.reindexArticle(articleId); // 커밋 후 검색 색인에 반영
     }
 
 	@Override
-
-	@Transactional(rollbackFor = Exception.class)
+	@Transactional(readOnly = true)
 	public Article getArticle(long articleId) throws Exception {
-		aMapper.increaseHits(articleId);
+		Article article = aMapper.getArticle(articleId);
+		if (article == null) return null;
+
+		// 조회수는 ArticleHitService에 모았다가 주기적으로 반영 (매 조회마다 UPDATE 하지 않음)
+		articleHitService.increase(articleId);
+		article.setHits(article.getHits() + (int) articleHitService.pending(articleId));
+		return article;
+	}
+
+	// 수정/삭제 전 작성자 확인용이므로 주 DB에서 읽는다
+	@Override
+	public Article findArticle(long articleId) throws Exception {
 		return aMapper.getArticle(articleId);
 	}
 
@@ -94,13 +197,13 @@ public class ArticleServiceImpl implements ArticleService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<Reply> getReply(long articleId) {
 		return aMapper.getReply(articleId);
 	}
 
 	@Override
-	public int deleteReply(int replyId, Authentication auth) {
-		int replierId = (int) ((Map<?, ?>) auth.getDetails()).get("userId");
+	public int deleteReply(int replyId, int replierId) {
 		return aMapper.deleteReply(replyId, replierId);
 	}
 
@@ -112,13 +215,28 @@ public class ArticleServiceImpl implements ArticleService {
 	@Override
 	@Transactional(rollbackFor = Exception.class)
 	public int updateArticle(Article article) throws Exception {
-		return aMapper.updateArticle(article);
+		// 이전 본문을 잠근 채 비교해야 동시 수정/삭제가 같은 본문 기준으로 참조를 두 번 줄이지 않는다
+		String before = aMapper.getArticleContentForUpdate(article.getArticleId());
+		int result = aMapper.updateArticle(article);
+		if (result == 1) {
+			// 본문에서 빠진 사진은 참조 해제, 새로 들어온 사진은 참조 추가
+			photoBlobService.updateContentReferences(before, article.getContent());
+		}
+		searchService.reindexArticle(article.getArticleId());
+		return result;
 	}
 
 	@Override
 	@Transactional(rollbackFor = Exception.class)
 	public int deleteArticle(long articleId) throws Exception {
-		return aMapper.deleteArticle(articleId);
+		String before = aMapper.getArticleContentForUpdate(articleId);
+		int result = aMapper.deleteArticle(articleId);
+		if (result == 1) {
+			photoBlobService.updateContentReferences(before, null);
+		}
+		articleHitService.discard(articleId);
+		searchService.reindexArticle(articleId);
+		return result;
 	}
 
 }
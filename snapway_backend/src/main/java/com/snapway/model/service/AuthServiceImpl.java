@@ -13,7 +13,9 @@ import com.snapway.model.dto.AuthDto;
 import com.snapway.model.dto.AuthDto.TokenResponse;
 import com.snapway.model.dto.Member;
 import com.snapway.model.mapper.MemberMapper;
+import com.snapway.security.JwtClaims;
 import com.snapway.security.JwtUtil;
+import com.snapway.util.MemberCache;
 import com.snapway.util.RedisUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -29,6 +31,7 @@ public class AuthServiceImpl implements AuthService {
 	private final RedisUtil redisUtil;
 	private final PasswordEncoder pwEncoder;
 	private final JwtUtil jwtUtil;
+	private final MemberCache memberCache;
 	
 	// 사용자 인증 코드 만료 시간 : 3분(180초)
 	private static final long AUTH_CODE_EXPIRATION = 180;
@@ -110,6 +113,7 @@ public class AuthServiceImpl implements AuthService {
 		if(result == 0) {
 			throw new RuntimeException("비밀번호 변경 실패: 회원 정보를 찾을 수 없음");
 		}
+		memberCache.evict(email);
 		
 		// 4) 사용된 리셋 토큰 삭제
 		redisUtil.deleteData("ResetToken:" + email);
@@ -129,13 +133,14 @@ public class AuthServiceImpl implements AuthService {
 	public TokenResponse reissue(AuthDto.ReissueRequest request) throws SQLException{
 		String refreshToken = request.getRefreshToken();
 		
-		// 1) 토큰 유효성 및 타입(Refresh) 검증
-        if (!jwtUtil.isTokenValid(refreshToken) || !jwtUtil.isRefreshToken(refreshToken)) {
+		// 1) 토큰 유효성 및 타입(Refresh) 검증 (한 번 파싱)
+        JwtClaims claims = jwtUtil.verify(refreshToken);
+        if (claims == null || !claims.isRefreshToken()) {
             throw new IllegalArgumentException("유효하지 않은 리프레시 토큰입니다.");
         }
 
         // 2) 토큰에서 유저 정보(Email) 추출
-        String email = jwtUtil.getUserName(refreshToken);
+        String email = claims.subject();
 
         // 3) Redis에 저장된 토큰과 비교
         String redisToken = redisUtil.getData("RT:" + email);
@@ -148,8 +153,8 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalArgumentException("토큰 정보가 일치하지 않습니다.");
         }
         
-        // 4) 유저 정보(userId, Roles) 조회 (DB 조회 필요)
-        Member member = memberMapper.findByEmail(email);
+        // 4) 유저 정보(userId, Roles) 조회 (회원 캐시 -> DB)
+        Member member = memberCache.get(email, () -> memberMapper.findByEmail(email));
         List<String> roles = List.of(member.getRole().name());
 		
         // 5) 새 토큰 생성 (Access + Refresh) -> RTR(Refresh Token Rotation) 방식 적용
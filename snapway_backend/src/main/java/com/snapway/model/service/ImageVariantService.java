@@ -0,0 +1,30 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.snapway.model.dto.ImageVariant;
+
+public interface ImageVariantService {
+
+    /**
+     * 저장된 원본 사진의 축소본(썸네일, 중간 크기)을 백그라운드에서 생성합니다.
+     * 생성에 실패하거나 작업이 밀려 버려지더라도 처음 요청될 때 다시 생성됩니다.
+     * @param original basePath 아래에 저장된 원본 파일
+     */
+    void generateAsync(Path original);
+
+    /**
+     * 축소본 파일을 찾고, 없으면 원본에서 바로 생성합니다. (기존에 저장된 사진 대응)
+     * @param relativePath basePath 기준 원본 경로 (예: 1/trip/3/uuid_a.jpg)
+     * @param variant 축소본 종류
+     * @return 축소본 파일, 사진 저장 경로(blobs/, 회원별 사진 디렉토리)의 이미지 파일이 아니거나 원본이 없으면 null
+     */
+    Path resolve(String relativePath, ImageVariant variant) throws IOException;
+
+    /**
+     * 원본 사진의 축소본을 모두 삭제합니다. (원본을 지울 때 함께 호출)
+     * @param relativePath basePath 기준 원본 경로
+     */
+    void deleteVariants(String relativePath);
+}
@@ -0,0 +1,226 @@
+package com.snapway.model.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.snapway.model.dto.ImageVariant;
+import com.snapway.util.ByteBufferImageInputStream;
+import com.snapway.util.ImageScaler;
+import com.snapway.util.PhotoBlobPaths;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사진 축소본 생성/조회
+ * 축소본은 basePath/variants/{종류}/{원본 경로}에 JPEG로 저장된다.
+ * 원본은 한 번만 디코딩(중간 크기)하고, 썸네일은 중간 크기 이미지를 다시 줄여서 만든다.
+ *
+ * /files/**는 로그인 없이 열려 있으므로, 요청 시 생성은 사진이 저장되는 경로(isPhotoPath)의
+ * 이미지 확장자 파일만 대상으로 한다. (업로드 중 파일이나 사진이 아닌 파일은 디코딩하지 않음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    // 축소본을 만드는 원본 확장자 (ImageIO로 읽을 수 있는 형식)
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+    // 회원 디렉토리 아래 업로드 진행 중 파일 (사진 저장 위치가 아님)
+    private static final Set<String> UPLOAD_DIRS = Set.of("staging", "uploads", "temp");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private final ImageScaler imageScaler;
+
+    @Qualifier("imageVariantExecutor")
+    private final Executor imageVariantExecutor;
+
+    @Value("${spring.servlet.multipart.location}")
+    private String basePath;
+
+    // 같은 원본에 대한 동시 생성 방지 (원본 경로 -> 잠금 객체)
+    private final Map<Path, Object> generating = new ConcurrentHashMap<>();
+
+    @Override
+    public void generateAsync(Path original) {
+        imageVariantExecutor.execute(() -> {
+            try {
+                generate(root().relativize(original.toAbsolutePath().normalize()));
+            } catch (Exception e) {
+                log.warn("축소본 생성 실패 (요청 시 다시 생성): {} ({})", original, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public Path resolve(String relativePath, ImageVariant variant) throws IOException {
+        Path relative = toRelative(relativePath);
+        if (relative == null || !isPhotoPath(relative)) return null;
+
+        Path variantFile = variantPath(relative, variant);
+        if (Files.exists(variantFile)) {
+            return variantFile;
+        }
+
+        // 기존에 저장된 사진 등 축소본이 없는 경우 -> 지금 생성
+        return generate(relative) ? variantFile : null;
+    }
+
+    @Override
+    public void deleteVariants(String relativePath) {
+        Path relative = toRelative(relativePath);
+        if (relative == null) return;
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path variantFile = variantPath(relative, variant);
+            try {
+                Files.deleteIfExists(variantFile);
+            } catch (IOException e) {
+                log.warn("축소본 삭제 실패: {} ({})", variantFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 원본 하나에 대한 모든 축소본 생성
+     * @return 생성했거나 이미 있으면 true, 원본이 없거나 이미지가 아니면 false
+     */
+    private boolean generate(Path relative) throws IOException {
+        if (!isPhotoPath(relative)) return false;
+
+        Path original = root().resolve(relative);
+        if (!Files.isRegularFile(original)) return false;
+
+        Object lock = generating.computeIfAbsent(relative, key -> new Object());
+        try {
+            synchronized (lock) {
+                if (allExist(relative)) return true;
+
+                ByteBuffer content;
+                try (FileChannel channel = FileChannel.open(original, StandardOpenOption.READ)) {
+                    content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+
+                // 가장 큰 축소본 크기로 한 번만 디코딩 (화면 표시용이므로 2배 여유를 두고 서브샘플링)
+                BufferedImage medium = imageScaler.readScaled(new ByteBufferImageInputStream(content),
+                        ImageVariant.MEDIUM.getMaxSize(), ImageVariant.MEDIUM.getMaxSize(), 2);
+                if (medium == null) {
+                    log.debug("이미지가 아니어서 축소본을 만들지 않습니다: {}", relative);
+                    return false;
+                }
+                write(medium, relative, ImageVariant.MEDIUM);
+
+                BufferedImage thumb = imageScaler.fitInto(medium, ImageVariant.THUMB.getMaxSize(), ImageVariant.THUMB.getMaxSize());
+                write(thumb, relative, ImageVariant.THUMB);
+
+                log.debug("축소본 생성 완료: {}", relative);
+                return true;
+            }
+        } finally {
+            generating.remove(relative, lock);
+        }
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 이동하여, 생성 중인 파일이 응답으로 나가지 않도록 한다.
+     */
+    private void write(BufferedImage image, Path relative, ImageVariant variant) throws IOException {
+        Path target = variantPath(relative, variant);
+        Files.createDirectories(target.getParent());
+
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                imageScaler.writeJpeg(image, variant.getQuality(), out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean allExist(Path relative) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(variantPath(relative, variant))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * basePath/variants/{종류}/{원본 경로} (JPEG가 아닌 원본은 .jpg 확장자 추가)
+     */
+    private Path variantPath(Path relative, ImageVariant variant) {
+        Path path = root().resolve(ImageVariant.VARIANTS_DIR).resolve(variant.getPath()).resolve(relative);
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".jpg") || fileName.endsWith(".jpeg")) {
+            return path;
+        }
+        return path.resolveSibling(path.getFileName() + ".jpg");
+    }
+
+    /**
+     * 요청 경로 검증: basePath 밖이나 축소본 디렉토리를 가리키면 null
+     */
+    private Path toRelative(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) return null;
+
+        Path relative = Paths.get(relativePath.replaceFirst("^/+", "")).normalize();
+        if (relative.isAbsolute() || relative.startsWith("..") || relative.startsWith(ImageVariant.VARIANTS_DIR)) {
+            return null;
+        }
+        return relative;
+    }
+
+    /**
+     * 사진이 저장되는 경로인지 확인
+     * - 사진 저장소: blobs/aa/bb/{sha256}.{확장자}
+     * - 예전 경로: {회원ID}/파일, {회원ID}/{게시글ID}/파일, {회원ID}/trip/{여행ID}/파일
+     * staging/uploads/temp, variants, 숨김 파일과 이미지 확장자가 아닌 파일은 제외
+     */
+    private boolean isPhotoPath(Path relative) {
+        int count = relative.getNameCount();
+        for (Path name : relative) {
+            if (name.toString().startsWith(".")) return false;
+        }
+        if (!IMAGE_EXTENSIONS.contains(extensionOf(relative.getFileName().toString()))) return false;
+
+        String first = relative.getName(0).toString();
+        if (first.equals(PhotoBlobPaths.BLOBS_DIR)) {
+            return count == 4;
+        }
+        if (!NUMBER.matcher(first).matches()) return false;
+        if (count == 2) return true;
+
+        String second = relative.getName(1).toString();
+        if (UPLOAD_DIRS.contains(second)) return false;
+        if (count == 3) return NUMBER.matcher(second).matches();
+        return count == 4 && second.equals("trip") && NUMBER.matcher(relative.getName(2).toString()).matches();
+    }
+
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private Path root() {
+        return Paths.get(basePath).toAbsolutePath().normalize();
+    }
+}
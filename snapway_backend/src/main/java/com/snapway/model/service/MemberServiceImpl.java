@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.snapway.model.mapper.MemberMapper;
 import com.snapway.model.dto.Member;
 import com.snapway.model.dto.Role;
+import com.snapway.util.MemberCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,8 @@ public class MemberServiceImpl implements MemberService {
     private final PasswordEncoder passwordEncoder; // SecurityConfig에서 빈으로 등록되어 있어야 함
     @Deprecated // 이 의존성을 다시 사용하게 되면 제거할 것.
     private final AuthenticationManager authenticationManager;
+    private final MemberCache memberCache;
+    private final PhotoBlobService photoBlobService;
         private static final String LOCAL_LOGIN_EMAIL = "local@snapway.dev";
     private static final String LOCAL_LOGIN_PASSWORD = "local1234"; 
 
@@ -95,7 +98,10 @@ public class MemberServiceImpl implements MemberService {
         return member;
     }
 
+    // 가입 직후 로그인이 복제 지연으로 실패하지 않도록 로그인/회원 정보 조회는 주 DB, 중복 확인만 복제본에서 읽는다
+    // (복제 지연으로 중복을 놓쳐도 email UNIQUE 제약에서 막힘)
     @Override
+    @Transactional(readOnly = true)
     public boolean idCheck(String email) throws Exception {
         int count = memberMapper.checkEmail(email);
         return count > 0; // 1 이상이면 중복(true)
@@ -104,12 +110,8 @@ public class MemberServiceImpl implements MemberService {
     // JWT 인증 후 사용자 정보를 가져오기 위한 메서드
     @Override
     public Member getMemberInfo(String email) throws Exception {
-        // loginMember 쿼리 재사용 (비밀번호 검사는 하지 않음)
-        Member member = memberMapper.loginMember(email);
-        if (member != null) {
-            member.setPassword(null); // 보안상 비밀번호 제거
-        }
-        return member;
+        // loginMember 쿼리 재사용 (비밀번호 검사는 하지 않음), 비밀번호는 캐시에서 제거되어 반환됨
+        return memberCache.get(email, () -> memberMapper.loginMember(email));
     }
     
     /**
@@ -129,14 +131,20 @@ public class MemberServiceImpl implements MemberService {
         }
 
         // DB 업데이트 수행 (XML에서 WHERE id = #{id} 사용하므로 member.id가 필수)
-        return memberMapper.updateMember(member);
+        int result = memberMapper.updateMember(member);
+        memberCache.evict(member.getEmail());
+        return result;
     }
     
     /**
      * 회원 탈퇴
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public int deleteMember(String email) throws Exception {
-        return memberMapper.deleteMember(email);
+        photoBlobService.releaseMember(email); // 연쇄 삭제되는 여행 사진/게시글의 사진 참조 해제
+        int result = memberMapper.deleteMember(email);
+        memberCache.evict(email);
+        return result;
     }
 }
@@ -0,0 +1,35 @@
+package com.snapway.model.service;
+
+import java.util.List;
+
+import com.snapway.model.dto.NearbyTrip;
+
+public interface NearbyTripService {
+
+    /**
+     * 공간 색인 전체를 DB에서 다시 적재
+     */
+    void rebuild() throws Exception;
+
+    /**
+     * 첫 적재가 끝났는지 여부
+     */
+    boolean isReady();
+
+    /**
+     * 여행 한 건의 좌표를 다시 적재 (비공개/삭제된 여행은 색인에서 제거)
+     * 트랜잭션 안에서 호출되면 커밋 후에 반영한다.
+     */
+    void reindexTrip(int tripId);
+
+    /**
+     * 기준점에서 반경 안에 사진 기록이 있는 공개 여행 (가까운 순)
+     * @param radiusMeters null이면 기본 반경
+     */
+    List<NearbyTrip> findNearby(double latitude, double longitude, Double radiusMeters, Integer limit) throws Exception;
+
+    /**
+     * 사각 영역(남서 ~ 북동) 안에 사진 기록이 있는 공개 여행 (영역 중심에서 가까운 순)
+     */
+    List<NearbyTrip> findWithin(double south, double west, double north, double east, Integer limit) throws Exception;
+}
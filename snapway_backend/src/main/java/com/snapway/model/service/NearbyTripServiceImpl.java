@@ -0,0 +1,238 @@
+package com.snapway.model.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.snapway.model.dto.NearbyTrip;
+import com.snapway.model.dto.TripRecord;
+import com.snapway.model.mapper.GeoMapper;
+import com.snapway.util.GeoGrid;
+import com.snapway.util.GeoGrid.Match;
+import com.snapway.util.GeoGrid.Point;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 주변 여행 조회 (trip_record 좌표 메모리 공간 색인)
+ * 서버 시작 후 백그라운드에서 공개 여행의 사진 기록 좌표를 모두 적재하고,
+ * 이후에는 여행/기록/사진이 저장·수정·삭제될 때 해당 여행의 좌표만 다시 적재한다.
+ * 색인 변경은 geoIndexExecutor(스레드 1개)에서 순서대로 처리한다.
+ * 색인에서는 여행/기록 ID와 거리만 구하고, 제목/사진은 상위 limit건만 PK로 조회한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NearbyTripServiceImpl implements NearbyTripService {
+
+    private final GeoMapper geoMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("geoIndexExecutor")
+    private final Executor geoIndexExecutor;
+
+    // 전체 적재 시에는 새 색인을 만든 뒤 교체한다
+    private volatile GeoGrid grid = new GeoGrid();
+    private volatile boolean ready;
+
+    // 반경 기본값 / 최대값(m), 사각 영역 한 변의 최대 크기(도), 결과 수 기본값 / 최대값
+    @Value("${app.geo.default-radius-meters:3000}")
+    private double defaultRadiusMeters;
+
+    @Value("${app.geo.max-radius-meters:50000}")
+    private double maxRadiusMeters;
+
+    @Value("${app.geo.max-span-degrees:1.0}")
+    private double maxSpanDegrees;
+
+    @Value("${app.geo.default-size:20}")
+    private int defaultSize;
+
+    @Value("${app.geo.max-size:100}")
+    private int maxSize;
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws Exception;
+    }
+
+    /**
+     * trip_id 순으로 들어오는 기록을 여행 단위로 모아서 색인에 넣는다
+     */
+    private static final class TripBatcher implements ResultHandler<TripRecord> {
+        private final GeoGrid target;
+        private final List<Point> points = new ArrayList<>();
+        private int tripId = -1;
+
+        TripBatcher(GeoGrid target) {
+            this.target = target;
+        }
+
+        @Override
+        public void handleResult(ResultContext<? extends TripRecord> context) {
+            TripRecord record = context.getResultObject();
+            if (record.getTripId() != tripId) flush();
+            tripId = record.getTripId();
+            points.add(new Point(record.getRecordId(), record.getTripId(), record.getLatitude(), record.getLongitude()));
+        }
+
+        void flush() {
+            if (!points.isEmpty()) {
+                target.putTrip(tripId, points);
+                points.clear();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Gauge.builder("snapway.geo.index.points", this, service -> service.grid.size())
+                .description("주변 여행 공간 색인에 들어 있는 좌표 수")
+                .register(meterRegistry);
+
+        submit("전체 적재", this::rebuild);
+    }
+
+    @Override
+    public synchronized void rebuild() throws Exception {
+        long start = System.nanoTime();
+
+        GeoGrid newGrid = new GeoGrid();
+        TripBatcher batcher = new TripBatcher(newGrid);
+        geoMapper.selectGeoPoints(null, batcher);
+        batcher.flush();
+
+        grid = newGrid;
+        ready = true;
+        log.info("주변 여행 공간 색인 적재 완료: 좌표 {}개, {}ms", newGrid.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void reindexTrip(int tripId) {
+        afterCommit("여행 " + tripId, () -> {
+            List<Point> points = new ArrayList<>();
+            geoMapper.selectGeoPoints(tripId, context -> {
+                TripRecord record = context.getResultObject();
+                points.add(new Point(record.getRecordId(), tripId, record.getLatitude(), record.getLongitude()));
+            });
+            synchronized (this) {
+                grid.putTrip(tripId, points); // 비어 있으면 삭제
+            }
+        });
+    }
+
+    @Override
+    public List<NearbyTrip> findNearby(double latitude, double longitude, Double radiusMeters, Integer limit) throws Exception {
+        checkCoordinate(latitude, longitude);
+        double radius = radiusMeters == null ? defaultRadiusMeters : radiusMeters;
+        if (radius <= 0 || radius > maxRadiusMeters) {
+            throw new IllegalArgumentException("반경은 0보다 크고 " + (long) maxRadiusMeters + "m 이하여야 합니다.");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<NearbyTrip> trips = toTrips(grid.nearby(latitude, longitude, radius, pageSize(limit)));
+        sample.stop(meterRegistry.timer("snapway.geo.query.duration", "kind", "nearby"));
+        return trips;
+    }
+
+    @Override
+    public List<NearbyTrip> findWithin(double south, double west, double north, double east, Integer limit) throws Exception {
+        checkCoordinate(south, west);
+        checkCoordinate(north, east);
+        if (south > north || west > east) {
+            throw new IllegalArgumentException("남서쪽 좌표가 북동쪽 좌표보다 작아야 합니다.");
+        }
+        if (north - south > maxSpanDegrees || east - west > maxSpanDegrees) {
+            throw new IllegalArgumentException("조회 영역은 한 변이 " + maxSpanDegrees + "도 이하여야 합니다.");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<NearbyTrip> trips = toTrips(grid.within(south, west, north, east, pageSize(limit)));
+        sample.stop(meterRegistry.timer("snapway.geo.query.duration", "kind", "bounds"));
+        return trips;
+    }
+
+    // 색인 결과 순서(가까운 순)를 유지하면서 여행 정보를 붙인다
+    private List<NearbyTrip> toTrips(List<Match> matches) throws Exception {
+        if (matches.isEmpty()) return new ArrayList<>();
+
+        List<Integer> recordIds = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            recordIds.add(match.recordId());
+        }
+        Map<Integer, NearbyTrip> byRecord = new HashMap<>();
+        for (NearbyTrip trip : geoMapper.selectNearbyTrips(recordIds)) {
+            byRecord.put(trip.getRecordId(), trip);
+        }
+
+        List<NearbyTrip> trips = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            NearbyTrip trip = byRecord.get(match.recordId());
+            if (trip == null) continue; // 색인 반영 전에 삭제/비공개된 여행
+            trip.setLatitude(match.latitude());
+            trip.setLongitude(match.longitude());
+            trip.setDistanceMeters(Math.round(match.distanceMeters() * 10) / 10.0);
+            trips.add(trip);
+        }
+        return trips;
+    }
+
+    private int pageSize(Integer limit) {
+        return (limit == null || limit <= 0) ? defaultSize : Math.min(limit, maxSize);
+    }
+
+    private static void checkCoordinate(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("잘못된 좌표입니다.");
+        }
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 후에, 아니면 바로 색인 작업을 실행기에 넘긴다.
+     */
+    private void afterCommit(String target, IndexTask task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(target, task);
+                }
+            });
+        } else {
+            submit(target, task);
+        }
+    }
+
+    private void submit(String target, IndexTask task) {
+        geoIndexExecutor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("주변 여행 공간 색인 갱신 실패: {} ({})", target, e.getMessage());
+            }
+        });
+    }
+}
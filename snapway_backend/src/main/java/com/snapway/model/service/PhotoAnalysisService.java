@@ -0,0 +1,17 @@
+package com.snapway.model.service;
+
+import java.util.List;
+
+import com.snapway.util.MetadataUtil.PhotoWithFile;
+
+public interface PhotoAnalysisService {
+
+    /**
+     * 사진들을 전용 분석 실행기에서 병렬로 AI 분석하여 사진별 묘사를 생성합니다.
+     * 결과는 입력 리스트와 같은 순서로 반환되며, 분석에 실패하거나 시간 초과된 사진은 null입니다.
+     * @param photos 촬영 시간순으로 정렬된 사진 리스트
+     * @param listener 사진 한 장의 분석이 끝날 때마다 호출되는 리스너
+     * @return 사진별 묘사 (입력 순서 유지, 실패 시 null)
+     */
+    List<String> describePhotos(List<PhotoWithFile> photos, TripProgressListener listener);
+}
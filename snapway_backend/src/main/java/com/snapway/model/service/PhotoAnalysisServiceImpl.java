@@ -0,0 +1,402 @@
+package com.snapway.model.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.util.ImageBase64Encoder;
+import com.snapway.util.MetadataUtil.PhotoWithFile;
+import com.snapway.util.PhotoDescriptionCache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 개별 사진 AI 분석 서비스
+ * 이미지 변환(CPU 작업)은 크기가 제한된 전용 실행기(photoAnalysisExecutor)에서,
+ * AI 호출은 논블로킹 WebClient로 수행하여 응답 대기 중인 요청이 스레드를 점유하지 않는다.
+ * 동시 요청 수는 여행 작업마다 concurrency로, 서버 전체로는 AiService(app.ai.max-concurrency)가 제한한다.
+ * 캐시에 없는 사진은 요청 크기 한도 안에서 여러 장을 한 번의 요청으로 묶어 분석한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PhotoAnalysisServiceImpl implements PhotoAnalysisService {
+
+    // AI 분석 요청 (개별 사진 묘사)
+    // TODO: 추후 여기에 Reverse Geocoding으로 얻은 주소 정보를 프롬프트에 추가하면 정확도 향상 가능
+    private static final String ANALYSIS_PROMPT = """
+            Analyze this photo for a travel blog.
+            Describe the location (landmark), atmosphere, time of day, and what is happening in 1-2 sentences.
+            Start the response directly with the description.
+            """;
+
+    // 여러 장을 한 번에 분석하는 요청 (첨부 순서대로 0부터 번호를 매겨 응답)
+    private static final String BATCH_ANALYSIS_PROMPT = """
+            You are given %d photos for a travel blog, numbered from 0 in the order they are attached.
+            For each photo, describe the location (landmark), atmosphere, time of day, and what is happening in 1-2 sentences.
+            Return one item per photo with its index and description. Describe each photo independently.
+            """;
+
+    // 배치 응답 스키마: [{ "index": 0, "description": "..." }, ...]
+    private static final Map<String, Object> BATCH_RESPONSE_SCHEMA = Map.of(
+            "type", "ARRAY",
+            "items", Map.of(
+                    "type", "OBJECT",
+                    "properties", Map.of(
+                            "index", Map.of("type", "INTEGER"),
+                            "description", Map.of("type", "STRING")),
+                    "required", List.of("index", "description")));
+
+    // 프롬프트를 바꾸면 버전을 올려서 이전 프롬프트로 만든 캐시를 사용하지 않도록 한다.
+    // 단건/배치 프롬프트는 서로 다르므로 버전도 따로 두고, 조회 시에는 둘 다 유효한 묘사로 사용한다. (단건 결과 우선)
+    private static final String ANALYSIS_PROMPT_VERSION = "v1";
+    private static final String BATCH_ANALYSIS_PROMPT_VERSION = "batch-v1";
+
+    // 요청 크기 초과(413)로 줄일 수 있는 배치 크기 한도의 하한
+    private static final long MIN_BATCH_PAYLOAD_BYTES = 256 * 1024;
+
+    private final AiService aiService;
+    private final ImageBase64Encoder imageBase64Encoder;
+    private final PhotoDescriptionCache photoDescriptionCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("photoAnalysisExecutor")
+    private final ThreadPoolTaskExecutor photoAnalysisExecutor;
+
+    // 여행 작업 1건이 동시에 진행할 AI 요청 수 (서버 전체 한도는 app.ai.max-concurrency)
+    @Value("${app.ai.analysis.concurrency:8}")
+    private int concurrency;
+
+    // 단건 AI 요청의 제한 시간 (서버 전체 한도로 기다리는 시간 제외)
+    @Value("${app.ai.analysis.photo-timeout-millis:60000}")
+    private long photoTimeoutMillis;
+
+    // 배치 AI 요청의 제한 시간 (사진 여러 장의 묘사를 한 번에 생성하므로 단건보다 길게)
+    @Value("${app.ai.analysis.batch.timeout-millis:180000}")
+    private long batchTimeoutMillis;
+
+    // 요청 1건에 담을 최대 사진 수 (1이면 배치 없이 한 장씩 요청)
+    @Value("${app.ai.analysis.batch.max-photos:8}")
+    private int batchMaxPhotos;
+
+    // 요청 1건에 담을 이미지의 최대 크기 (Base64 기준)
+    @Value("${app.ai.analysis.batch.max-payload-bytes:4194304}")
+    private long batchMaxPayloadBytes;
+
+    // 분석을 기다리는 사진 수 / 현재 AI 분석 중인 사진 수
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 현재 적용 중인 배치 크기 한도 (413 응답을 받으면 줄어든다)
+    private final AtomicLong payloadLimit = new AtomicLong();
+
+    private Scheduler encodeScheduler;
+
+    @PostConstruct
+    void init() {
+        this.encodeScheduler = Schedulers.fromExecutor(photoAnalysisExecutor);
+        this.payloadLimit.set(batchMaxPayloadBytes);
+
+        Gauge.builder("snapway.ai.analysis.queue.depth", queued, AtomicInteger::get)
+                .description("분석 시작을 기다리는 사진 수")
+                .register(meterRegistry);
+        Gauge.builder("snapway.ai.analysis.inflight", inFlight, AtomicInteger::get)
+                .description("현재 분석 중인 사진 수")
+                .register(meterRegistry);
+        Gauge.builder("snapway.ai.analysis.encoder.queue.depth", photoAnalysisExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("이미지 변환 실행기 대기열 크기")
+                .register(meterRegistry);
+        Gauge.builder("snapway.ai.analysis.batch.payload.limit", payloadLimit, AtomicLong::get)
+                .description("현재 적용 중인 배치 요청 크기 한도(bytes)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<String> describePhotos(List<PhotoWithFile> photos, TripProgressListener listener) {
+        int total = photos.size();
+        queued.addAndGet(total);
+
+        // 1. 변환 + 캐시 조회 (최대 concurrency장 동시 진행, 입력 순서 유지)
+        List<PreparedPhoto> prepared = Flux.range(0, total)
+                .flatMapSequential(index -> prepare(photos.get(index), index), concurrency)
+                .collectList()
+                .block();
+
+        String[] descriptions = new String[total];
+        List<PreparedPhoto> pending = new ArrayList<>();
+        for (PreparedPhoto photo : prepared) {
+            if (photo.cached() != null || photo.base64() == null) {
+                // 캐시 적중 또는 변환 실패 -> AI 호출 없이 결과 확정
+                queued.decrementAndGet();
+                descriptions[photo.index()] = photo.cached();
+                listener.onPhotoAnalyzed(photo.index(), total, photo.fileName(), photo.cached() != null);
+            } else {
+                pending.add(photo);
+            }
+        }
+
+        // 2. 남은 사진을 배치로 묶어 분석 (요청 대기 중에는 스레드를 점유하지 않음)
+        List<AnalyzedPhoto> analyzed = Flux.fromIterable(toBatches(pending))
+                .flatMap(batch -> analyzeBatch(batch, total, listener), concurrency)
+                .collectList()
+                .block();
+
+        for (AnalyzedPhoto result : analyzed) {
+            descriptions[result.index()] = result.description();
+        }
+        return Arrays.asList(descriptions);
+    }
+
+    /**
+     * 사진 1장 준비 (Base64 변환 -> 캐시 조회)
+     * 변환과 Redis 조회는 블로킹 작업이므로 변환 실행기에서 수행한다.
+     */
+    private Mono<PreparedPhoto> prepare(PhotoWithFile photo, int index) {
+        MultipartFile file = photo.getFile();
+        String fileName = file.getOriginalFilename();
+
+        return Mono.fromCallable(() -> {
+                    String base64 = imageBase64Encoder.encode(file);
+                    String cached = base64 == null ? null : cachedDescription(base64);
+                    return new PreparedPhoto(index, fileName, base64, cached);
+                })
+                .subscribeOn(encodeScheduler)
+                .onErrorResume(e -> {
+                    log.error("사진 변환 실패 (파일명: {}): {}", fileName, e.getMessage());
+                    return Mono.just(new PreparedPhoto(index, fileName, null, null));
+                });
+    }
+
+    /**
+     * 사진 수(batchMaxPhotos)와 요청 크기(payloadLimit) 한도 안에서 촬영 순서대로 묶는다.
+     * 한도보다 큰 사진은 단독 배치가 된다.
+     */
+    private List<List<PreparedPhoto>> toBatches(List<PreparedPhoto> photos) {
+        int maxPhotos = Math.max(1, batchMaxPhotos);
+        long limit = payloadLimit.get();
+
+        List<List<PreparedPhoto>> batches = new ArrayList<>();
+        List<PreparedPhoto> current = new ArrayList<>();
+        long currentBytes = 0;
+
+        for (PreparedPhoto photo : photos) {
+            long size = photo.base64().length();
+            if (!current.isEmpty() && (current.size() >= maxPhotos || currentBytes + size > limit)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentBytes = 0;
+            }
+            current.add(photo);
+            currentBytes += size;
+        }
+        if (!current.isEmpty()) batches.add(current);
+        return batches;
+    }
+
+    /**
+     * 배치 1건 분석
+     * 요청이 실패하거나 응답이 잘못된 경우(JSON 오류, 누락된 사진) 배치에 포함된 사진을 한 장씩 다시 분석한다.
+     */
+    private Flux<AnalyzedPhoto> analyzeBatch(List<PreparedPhoto> batch, int total, TripProgressListener listener) {
+        if (batch.size() == 1) {
+            return analyzeSingle(batch.get(0), total, listener).flux();
+        }
+
+        return Flux.defer(() -> {
+            started(batch.size());
+            Timer.Sample sample = Timer.start(meterRegistry);
+            List<String> images = batch.stream().map(PreparedPhoto::base64).toList();
+            long payloadBytes = images.stream().mapToLong(String::length).sum();
+
+            return aiService.generateJsonReactive(BATCH_ANALYSIS_PROMPT.formatted(batch.size()), images, BATCH_RESPONSE_SCHEMA,
+                            Duration.ofMillis(batchTimeoutMillis))
+                    .map(rawResponse -> parseBatchResponse(rawResponse, batch.size()))
+                    .onErrorResume(e -> {
+                        stop(sample, "batch", outcomeOf(e), batch.size());
+                        shrinkPayloadLimitIfTooLarge(e, payloadBytes);
+                        meterRegistry.counter("snapway.ai.analysis.batch.fallback").increment();
+                        log.warn("배치 분석 실패, 한 장씩 다시 분석합니다 (사진 수: {}): {}", batch.size(), e.getMessage());
+                        return Mono.empty();
+                    })
+                    .flatMapMany(descriptions -> {
+                        stop(sample, "batch", "success", batch.size());
+                        return Flux.range(0, batch.size())
+                                .flatMap(i -> store(batch.get(i), BATCH_ANALYSIS_PROMPT_VERSION, descriptions.get(i))
+                                        .doOnNext(result -> listener.onPhotoAnalyzed(result.index(), total,
+                                                batch.get(i).fileName(), true)));
+                    })
+                    .switchIfEmpty(Flux.defer(() -> {
+                        queued.addAndGet(batch.size());
+                        return Flux.fromIterable(batch)
+                                .flatMap(photo -> analyzeSingle(photo, total, listener), concurrency);
+                    }));
+        });
+    }
+
+    /**
+     * 사진 1장 분석 (단건 요청)
+     * 실패나 시간 초과는 null 묘사로 바꿔 다른 사진의 분석에 영향을 주지 않는다.
+     */
+    private Mono<AnalyzedPhoto> analyzeSingle(PreparedPhoto photo, int total, TripProgressListener listener) {
+        return Mono.defer(() -> {
+            started(1);
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            return aiService.generateContentReactive(ANALYSIS_PROMPT, List.of(photo.base64()), Duration.ofMillis(photoTimeoutMillis))
+                    .map(this::extractTextFromAiResponse)
+                    .onErrorResume(e -> {
+                        stop(sample, "single", outcomeOf(e), 1);
+                        log.error("사진 분석 실패 (파일명: {}): {}", photo.fileName(), e.getMessage());
+                        return Mono.empty();
+                    })
+                    .flatMap(description -> {
+                        stop(sample, "single", "success", 1);
+                        return store(photo, ANALYSIS_PROMPT_VERSION, description);
+                    })
+                    .defaultIfEmpty(new AnalyzedPhoto(photo.index(), null))
+                    .doOnNext(result -> listener.onPhotoAnalyzed(photo.index(), total, photo.fileName(),
+                            result.description() != null));
+        });
+    }
+
+    // 단건 결과가 없으면 배치 결과 (변환 실행기에서 호출)
+    private String cachedDescription(String base64) {
+        String cached = photoDescriptionCache.get(ANALYSIS_PROMPT_VERSION, base64);
+        return cached != null ? cached : photoDescriptionCache.get(BATCH_ANALYSIS_PROMPT_VERSION, base64);
+    }
+
+    /**
+     * 새로 얻은 묘사를 만든 프롬프트의 버전으로 캐시에 저장 (Redis 호출은 블로킹이므로 변환 실행기에서 수행)
+     */
+    private Mono<AnalyzedPhoto> store(PreparedPhoto photo, String promptVersion, String description) {
+        return Mono.fromRunnable(() -> photoDescriptionCache.put(promptVersion, photo.base64(), description))
+                .subscribeOn(encodeScheduler)
+                .thenReturn(new AnalyzedPhoto(photo.index(), description));
+    }
+
+    /**
+     * 배치 응답 파싱: 모든 번호(0 ~ expected-1)에 대해 비어있지 않은 묘사가 있어야 한다.
+     */
+    private List<String> parseBatchResponse(String rawResponse, int expected) {
+        String text = extractTextFromAiResponse(rawResponse).replaceFirst("^json", "").trim();
+
+        JsonNode items;
+        try {
+            items = objectMapper.readTree(text);
+        } catch (Exception e) {
+            throw new MalformedBatchResponseException("배치 응답이 JSON 형식이 아닙니다.");
+        }
+        if (items == null || !items.isArray()) {
+            throw new MalformedBatchResponseException("배치 응답이 배열이 아닙니다.");
+        }
+
+        Map<Integer, String> byIndex = new HashMap<>();
+        for (JsonNode item : items) {
+            JsonNode index = item.path("index");
+            String description = item.path("description").asText("").trim();
+            if (!index.canConvertToInt() || description.isEmpty()) continue;
+            byIndex.putIfAbsent(index.asInt(), description);
+        }
+
+        List<String> descriptions = new ArrayList<>(expected);
+        for (int i = 0; i < expected; i++) {
+            String description = byIndex.get(i);
+            if (description == null) {
+                throw new MalformedBatchResponseException(
+                        "배치 응답에 " + i + "번 사진의 묘사가 없습니다. (응답 항목 수: " + items.size() + ")");
+            }
+            descriptions.add(description);
+        }
+        return descriptions;
+    }
+
+    /**
+     * 요청 크기 초과(413) 응답이면 이후 배치의 크기 한도를 이번 요청의 절반으로 줄인다.
+     */
+    private void shrinkPayloadLimitIfTooLarge(Throwable e, long payloadBytes) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == HttpStatus.PAYLOAD_TOO_LARGE.value()) {
+            long reduced = Math.max(MIN_BATCH_PAYLOAD_BYTES, payloadBytes / 2);
+            long previous = payloadLimit.getAndUpdate(limit -> Math.min(limit, reduced));
+            log.warn("AI 요청 크기 초과, 배치 크기 한도 조정: {}B -> {}B", previous, Math.min(previous, reduced));
+        }
+    }
+
+    private String outcomeOf(Throwable e) {
+        if (e instanceof TimeoutException || e.getCause() instanceof TimeoutException) return "timeout";
+        if (e instanceof MalformedBatchResponseException) return "malformed";
+        return "failure";
+    }
+
+    private void started(int photoCount) {
+        queued.addAndGet(-photoCount);
+        inFlight.addAndGet(photoCount);
+    }
+
+    private void stop(Timer.Sample sample, String mode, String outcome, int photoCount) {
+        inFlight.addAndGet(-photoCount);
+        sample.stop(meterRegistry.timer("snapway.ai.analysis.duration", "mode", mode, "outcome", outcome));
+    }
+
+    /**
+     * Gemini 응답에서 텍스트만 추출 (사진 설명용)
+     */
+    private String extractTextFromAiResponse(String rawResponse) {
+        if (rawResponse == null) return "";
+        try {
+            JsonNode root = objectMapper.readTree(rawResponse);
+            JsonNode textNode = root.path("candidates").get(0)
+                    .path("content").path("parts").get(0)
+                    .path("text");
+            if (!textNode.isMissingNode()) {
+                return textNode.asText().replace("```", "").trim();
+            }
+        } catch (Exception e) {
+            // rawResponse가 이미 텍스트인 경우 fallback
+        }
+        return rawResponse.replace("```", "").trim();
+    }
+
+    // 변환/캐시 조회를 마친 사진 (cached가 있으면 AI 호출 생략, base64가 null이면 변환 실패)
+    private record PreparedPhoto(int index, String fileName, String base64, String cached) {
+    }
+
+    // AI 분석 결과 (실패 시 description == null)
+    private record AnalyzedPhoto(int index, String description) {
+    }
+
+    // 배치 응답 형식 오류 (한 장씩 다시 분석하는 대상)
+    private static class MalformedBatchResponseException extends RuntimeException {
+        MalformedBatchResponseException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Collection;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.snapway.model.dto.PhotoBlob;
+
+public interface PhotoBlobService {
+
+    /**
+     * 사진을 내용(SHA-256) 기준 경로에 저장합니다.
+     * 같은 내용의 사진이 이미 있으면 파일을 쓰지 않고 기존 사진을 돌려줍니다.
+     * 저장만 하고 참조 수는 늘리지 않으므로, 여행/게시글에 연결할 때 acquirePaths 또는 updateContentReferences를 호출해야 합니다.
+     * (연결되지 않은 사진은 유예 시간이 지나면 정리됩니다)
+     * @param file 업로드 파일 (StagedMultipartFile이면 복사 없이 이동)
+     * @return 저장된 사진 (URL은 /files/{filePath})
+     */
+    PhotoBlob store(MultipartFile file) throws IOException, SQLException;
+
+    /**
+     * basePath 아래 기존 파일을 저장소에 넣습니다. 원본은 그대로 두고 하드 링크(안 되면 복사)로 저장합니다. (PhotoBlobMigrator용)
+     * @param source 기존 파일
+     * @return 저장된 사진
+     */
+    PhotoBlob storeExisting(Path source) throws IOException, SQLException;
+
+    /**
+     * 여행 사진 경로가 가리키는 사진의 참조 수를 경로 하나당 1씩 늘립니다. (저장소 경로가 아니면 무시)
+     */
+    void acquirePaths(Collection<String> paths) throws SQLException;
+
+    /**
+     * 여행 사진 경로가 가리키는 사진의 참조 수를 경로 하나당 1씩 줄입니다.
+     */
+    void releasePaths(Collection<String> paths) throws SQLException;
+
+    /**
+     * 게시글/여행 기록 본문이 바뀔 때 참조를 갱신합니다. 본문 하나가 같은 사진을 여러 번 써도 1로 셉니다.
+     * @param before 이전 본문 (새 글이면 null)
+     * @param after 새 본문 (삭제면 null)
+     */
+    void updateContentReferences(String before, String after) throws SQLException;
+
+    /**
+     * 여행/기록/사진/회원을 삭제하기 전에 그 아래 사진들의 참조를 해제합니다. (DB의 연쇄 삭제 대상 포함)
+     */
+    void releaseTrip(int tripId) throws SQLException;
+
+    void releaseRecord(int recordId) throws SQLException;
+
+    void releasePhoto(int photoCode) throws SQLException;
+
+    void releaseMember(String email) throws SQLException;
+
+    /**
+     * 여행 사진/여행 기록 본문/게시글 본문을 모두 읽어 참조 수를 다시 계산합니다. (기존 파일 이전 후, 또는 참조 수가 어긋났을 때)
+     * @return 참조가 있는 사진 수
+     */
+    int recountReferences() throws SQLException;
+
+    /**
+     * 참조가 없는 채로 유예 시간이 지난 사진과 축소본을 삭제합니다.
+     * @return 삭제한 사진 수
+     */
+    int collectGarbage() throws SQLException;
+}
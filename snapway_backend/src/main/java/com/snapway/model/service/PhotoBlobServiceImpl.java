@@ -0,0 +1,321 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.snapway.model.dto.PhotoBlob;
+import com.snapway.model.mapper.PhotoBlobMapper;
+import com.snapway.util.PhotoBlobPaths;
+import com.snapway.util.StagedMultipartFile;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 내용(SHA-256) 기준 사진 저장소
+ * 같은 사진은 basePath/blobs/.. 아래에 한 번만 저장하고, photo_blob.ref_count로 여행 사진 행/여행 본문/게시글의 참조 수를 센다.
+ *
+ * 저장 순서: 해시 계산 -> photo_blob 행 upsert(행 잠금) -> 파일이 이미 있으면 쓰지 않고 끝, 없으면 임시 파일에 쓴 뒤 이름 변경
+ * 정리 순서: 미참조 행 조회 -> 파일을 .gc로 이름 변경 -> 조건부 행 삭제 -> 삭제됐으면 파일/축소본 삭제, 아니면 이름 복구
+ * upsert가 updated_at을 갱신하므로 정리 도중 같은 사진이 다시 올라오면 행 삭제가 실패하고 파일은 되돌려진다.
+ */
+@Slf4j
+@Service
+public class PhotoBlobServiceImpl implements PhotoBlobService {
+
+    // addRefCounts 한 번에 보내는 사진 수 (회원 탈퇴 등 참조가 많을 때 쿼리 크기 제한)
+    private static final int REF_COUNT_CHUNK = 500;
+
+    // 파일을 쓰는 동작 (임시 경로에 쓴다)
+    @FunctionalInterface
+    private interface BlobWriter {
+        void write(Path temp) throws IOException;
+    }
+
+    private final PhotoBlobMapper photoBlobMapper;
+    private final ImageVariantService imageVariantService;
+    private final Counter storedCounter;
+    private final Counter duplicateCounter;
+    private final Counter dedupBytesCounter;
+
+    @Value("${spring.servlet.multipart.location}")
+    private String basePath;
+
+    // 참조가 없어진 뒤(또는 저장만 하고 연결하지 않은 뒤) 삭제까지 기다리는 시간
+    @Value("${app.photo.blob.gc-grace-hours:24}")
+    private long gcGraceHours;
+
+    @Value("${app.photo.blob.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    public PhotoBlobServiceImpl(PhotoBlobMapper photoBlobMapper, ImageVariantService imageVariantService,
+                                MeterRegistry meterRegistry) {
+        this.photoBlobMapper = photoBlobMapper;
+        this.imageVariantService = imageVariantService;
+        this.storedCounter = counter(meterRegistry, "new");
+        this.duplicateCounter = counter(meterRegistry, "duplicate");
+        this.dedupBytesCounter = Counter.builder("snapway.photo.blob.dedup.bytes")
+                .baseUnit("bytes")
+                .description("중복 사진이라 저장하지 않은 용량")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("snapway.photo.blob.store")
+                .tag("result", result)
+                .description("사진 저장 결과 (new: 새로 저장, duplicate: 같은 내용이 있어 저장 생략)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 여행 저장 트랜잭션과 분리해 바로 커밋한다.
+     * 여행 저장이 롤백되어도 행이 남아 있어야 참조 없는 파일로 정리되고,
+     * 같은 사진을 동시에 올린 다른 요청이 행 잠금을 오래 기다리지 않는다.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public PhotoBlob store(MultipartFile file) throws IOException, SQLException {
+        String sha256;
+        if (file instanceof StagedMultipartFile staged) {
+            // 메타데이터 추출에 쓴 매핑 버퍼를 그대로 사용 (디스크를 다시 읽지 않음)
+            sha256 = PhotoBlobPaths.sha256(staged.getBuffer());
+        } else {
+            try (InputStream in = file.getInputStream()) {
+                sha256 = PhotoBlobPaths.sha256(in);
+            }
+        }
+
+        return save(sha256, file.getSize(), file.getOriginalFilename(), temp -> {
+            if (file instanceof StagedMultipartFile staged) {
+                staged.moveTo(temp);
+            } else {
+                file.transferTo(temp);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public PhotoBlob storeExisting(Path source) throws IOException, SQLException {
+        String sha256;
+        try (InputStream in = Files.newInputStream(source)) {
+            sha256 = PhotoBlobPaths.sha256(in);
+        }
+
+        return save(sha256, Files.size(source), source.getFileName().toString(), temp -> {
+            try {
+                Files.createLink(temp, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(source, temp);
+            }
+        });
+    }
+
+    private PhotoBlob save(String sha256, long size, String originalFilename, BlobWriter writer)
+            throws IOException, SQLException {
+        // 행을 먼저 잡아 같은 사진의 동시 저장/정리와 순서를 맞추고, 처음 저장된 경로를 그대로 쓴다
+        photoBlobMapper.upsertBlob(PhotoBlob.builder()
+                .sha256(sha256)
+                .filePath(PhotoBlobPaths.relativePath(sha256, originalFilename))
+                .size(size)
+                .build());
+        PhotoBlob blob = photoBlobMapper.selectBlob(sha256);
+
+        Path target = root().resolve(blob.getFilePath());
+        if (Files.exists(target)) {
+            duplicateCounter.increment();
+            dedupBytesCounter.increment(size);
+            log.debug("중복 사진 저장 생략 - {} ({} bytes)", blob.getFilePath(), size);
+            return blob;
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            writer.write(temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        storedCounter.increment();
+
+        imageVariantService.generateAsync(target);
+        return blob;
+    }
+
+    @Override
+    public void acquirePaths(Collection<String> paths) throws SQLException {
+        addRefCounts(PhotoBlobPaths.countReferences(paths), 1);
+    }
+
+    @Override
+    public void releasePaths(Collection<String> paths) throws SQLException {
+        addRefCounts(PhotoBlobPaths.countReferences(paths), -1);
+    }
+
+    @Override
+    public void updateContentReferences(String before, String after) throws SQLException {
+        Set<String> removed = PhotoBlobPaths.referencesIn(before);
+        Set<String> added = PhotoBlobPaths.referencesIn(after);
+
+        Map<String, Integer> delta = new LinkedHashMap<>();
+        for (String sha256 : added) {
+            if (!removed.contains(sha256)) delta.put(sha256, 1);
+        }
+        for (String sha256 : removed) {
+            if (!added.contains(sha256)) delta.put(sha256, -1);
+        }
+        addRefCounts(delta, 1);
+    }
+
+    @Override
+    public void releaseTrip(int tripId) throws SQLException {
+        Map<String, Integer> counts = PhotoBlobPaths.countReferences(photoBlobMapper.selectPhotoPathsByTripId(tripId));
+        countContents(counts, photoBlobMapper.selectRecordContentsByTripId(tripId));
+        addRefCounts(counts, -1);
+    }
+
+    @Override
+    public void releaseRecord(int recordId) throws SQLException {
+        Map<String, Integer> counts = PhotoBlobPaths.countReferences(photoBlobMapper.selectPhotoPathsByRecordId(recordId));
+        countContents(counts, photoBlobMapper.selectRecordContentsByRecordId(recordId));
+        addRefCounts(counts, -1);
+    }
+
+    @Override
+    public void releasePhoto(int photoCode) throws SQLException {
+        String path = photoBlobMapper.selectPhotoPathByPhotoCode(photoCode);
+        if (path != null) {
+            releasePaths(List.of(path));
+        }
+    }
+
+    @Override
+    public void releaseMember(String email) throws SQLException {
+        Map<String, Integer> counts = PhotoBlobPaths.countReferences(photoBlobMapper.selectPhotoPathsByMemberEmail(email));
+        countContents(counts, photoBlobMapper.selectRecordContentsByMemberEmail(email));
+        countContents(counts, photoBlobMapper.selectArticleContentsByMemberEmail(email));
+        addRefCounts(counts, -1);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int recountReferences() throws SQLException {
+        Map<String, Integer> counts = PhotoBlobPaths.countReferences(photoBlobMapper.selectAllBlobPhotoPaths());
+        countContents(counts, photoBlobMapper.selectAllBlobRecordContents());
+        countContents(counts, photoBlobMapper.selectAllBlobArticleContents());
+
+        photoBlobMapper.resetRefCounts();
+        addRefCounts(counts, 1);
+        log.info("사진 참조 수 재계산 - 참조 중인 사진: {}개", counts.size());
+        return counts.size();
+    }
+
+    @Override
+    public int collectGarbage() throws SQLException {
+        List<PhotoBlob> candidates = photoBlobMapper.selectUnreferenced(gcGraceHours, gcBatchSize);
+        int deleted = 0;
+        for (PhotoBlob blob : candidates) {
+            Path file = root().resolve(blob.getFilePath());
+            Path trash = file.resolveSibling(file.getFileName() + ".gc");
+
+            // 행을 지우기 전에 파일을 치워, 그 사이 같은 사진을 올린 요청은 파일이 없다고 보고 새로 쓰게 한다
+            boolean moved = move(file, trash);
+            if (photoBlobMapper.deleteUnreferenced(blob.getSha256(), gcGraceHours) == 1) {
+                deleteQuietly(trash);
+                imageVariantService.deleteVariants(blob.getFilePath());
+                deleted++;
+            } else if (moved) {
+                // 조회 이후 다시 업로드되었거나 참조됨
+                move(trash, file);
+            }
+        }
+
+        if (deleted > 0) {
+            log.info("참조 없는 사진 정리 - {}개 삭제 (대상 {}개)", deleted, candidates.size());
+        }
+        return deleted;
+    }
+
+    /**
+     * 주기적으로 참조 없는 사진 정리 (한 번에 gc-batch-size개씩)
+     */
+    @Scheduled(fixedDelayString = "${app.photo.blob.gc-interval-millis:3600000}")
+    public void sweepUnreferenced() {
+        try {
+            collectGarbage();
+        } catch (SQLException e) {
+            log.warn("참조 없는 사진 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    // 본문(여행 기록/게시글)마다 쓰는 사진을 1씩 더한다 (한 본문 안의 중복은 한 번)
+    private static void countContents(Map<String, Integer> counts, Collection<String> contents) {
+        for (String content : contents) {
+            for (String sha256 : PhotoBlobPaths.referencesIn(content)) {
+                counts.merge(sha256, 1, Integer::sum);
+            }
+        }
+    }
+
+    // 부호(sign)를 붙여 REF_COUNT_CHUNK개씩 나눠 반영
+    private void addRefCounts(Map<String, Integer> counts, int sign) throws SQLException {
+        if (counts.isEmpty()) return;
+
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        for (int from = 0; from < entries.size(); from += REF_COUNT_CHUNK) {
+            Map<String, Integer> chunk = new HashMap<>();
+            for (Map.Entry<String, Integer> entry : entries.subList(from, Math.min(from + REF_COUNT_CHUNK, entries.size()))) {
+                chunk.put(entry.getKey(), entry.getValue() * sign);
+            }
+            photoBlobMapper.addRefCounts(chunk);
+        }
+    }
+
+    // 이동했으면 true, 원본이 없으면 false
+    private boolean move(Path from, Path to) {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.warn("사진 파일 이동 실패: {} -> {} ({})", from, to, e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("사진 파일 삭제 실패: {} ({})", file, e.getMessage());
+        }
+    }
+
+    private Path root() {
+        return Paths.get(basePath).toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,52 @@
+package com.snapway.model.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.SearchResult;
+
+public interface SearchService {
+
+    /**
+     * 색인 전체를 DB에서 다시 적재
+     */
+    void rebuild() throws Exception;
+
+    /**
+     * 첫 적재가 끝났는지 여부 (끝나기 전에는 검색 결과가 비어 있을 수 있음)
+     */
+    boolean isReady();
+
+    /**
+     * 여행 한 건을 다시 색인 (비공개/삭제된 여행은 색인에서 제거)
+     * 트랜잭션 안에서 호출되면 커밋 후에 반영한다.
+     */
+    void reindexTrip(int tripId);
+
+    /**
+     * 게시글 한 건을 다시 색인 (비공개/삭제된 게시글은 색인에서 제거)
+     * 트랜잭션 안에서 호출되면 커밋 후에 반영한다.
+     */
+    void reindexArticle(long articleId);
+
+    /**
+     * 통합 검색 (점수 높은 순)
+     * @param type trip | article | null(전체)
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    CursorPage<SearchResult> search(String query, String type, String cursor, Integer size);
+
+    /**
+     * 검색어와 일치하는 공개 여행 중 피드 순서(업로드 시간, 여행 ID)로 커서 다음에 오는 여행 ID (공개 피드 검색용)
+     * 점수 상위 몇 건이 아니라 일치하는 여행 전체에서 고르므로, 일치하는 여행이 많아도 페이지를 넘기며 빠지는 여행이 없다.
+     * @param oldestFirst true면 오래된 순, false면 최신순
+     * @param cursorUploadedAt 이전 페이지 마지막 여행의 업로드 시간 (첫 페이지는 null)
+     * @param cursorTripId 이전 페이지 마지막 여행 ID (첫 페이지는 null)
+     * @param limit 최대 개수
+     * @return 피드 순서로 정렬된 여행 ID. 색인이 준비되지 않았거나, 색인 토큰으로는 부분 일치를 찾을 수 없는 검색어
+     *         (한 글자 한글 단어, 4글자 미만 영문/숫자 단어, 기호만 있는 검색어)면 null (제목 LIKE 검색으로 대체)
+     */
+    List<Integer> matchTripIds(String keyword, boolean oldestFirst, LocalDateTime cursorUploadedAt, Integer cursorTripId,
+                               int limit);
+}
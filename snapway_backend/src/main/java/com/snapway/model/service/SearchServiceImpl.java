@@ -0,0 +1,334 @@
+package com.snapway.model.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.SearchDocument;
+import com.snapway.model.dto.SearchResult;
+import com.snapway.model.mapper.SearchMapper;
+import com.snapway.util.BigramTokenizer;
+import com.snapway.util.CursorCodec;
+import com.snapway.util.InvertedIndex;
+import com.snapway.util.InvertedIndex.Field;
+import com.snapway.util.InvertedIndex.Hit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여행/게시글 통합 검색 (메모리 역색인)
+ * 여행: 제목 + 기록 본문(ai_content) + 사진 설명(caption), 게시글: 제목 + 태그 + 본문
+ * 서버 시작 후 백그라운드에서 공개 글 전체를 적재하고, 이후에는 글이 저장/수정/삭제될 때 해당 건만 다시 색인한다.
+ * 색인 변경은 모두 searchIndexExecutor(스레드 1개)에서 순서대로 처리되므로
+ * 전체 적재 중에 들어온 수정도 적재가 끝난 뒤 최신 상태로 반영된다.
+ * 색인은 서버마다 따로 가지며, 다른 서버에서 일어난 수정은 그 서버가 재시작될 때 반영된다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    // 필드 가중치 (제목에 나온 단어가 본문에 나온 단어보다 점수가 높도록)
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 2f;
+    private static final float BODY_WEIGHT = 1f;
+
+    // 본문의 이미지/링크 주소와 HTML 태그는 색인하지 않는다 (링크 텍스트는 유지)
+    private static final Pattern MARKUP = Pattern.compile("!?\\[([^\\]]*)]\\([^)]*\\)|<[^>]*>|https?://\\S+");
+
+    // 피드 검색어의 영문/숫자 단어가 이보다 짧으면 단어 앞부분만 입력한 것으로 보고 제목 LIKE 검색에 맡긴다
+    private static final int MIN_FEED_WORD_LENGTH = 4;
+
+    private final SearchMapper searchMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Qualifier("searchIndexExecutor")
+    private final Executor searchIndexExecutor;
+
+    // 전체 적재 시에는 새 색인을 만든 뒤 교체한다 (적재 중에도 이전 색인으로 검색 가능)
+    private volatile Catalog trips = new Catalog(SearchResult.TYPE_TRIP);
+    private volatile Catalog articles = new Catalog(SearchResult.TYPE_ARTICLE);
+    private volatile boolean ready;
+
+    // 검색 페이지 크기 (기본 / 최대), 한 검색어로 넘겨볼 수 있는 최대 결과 수
+    @Value("${app.search.default-size:20}")
+    private int defaultSize;
+
+    @Value("${app.search.max-size:50}")
+    private int maxSize;
+
+    @Value("${app.search.max-results:1000}")
+    private int maxResults;
+
+    /**
+     * 색인 하나와 결과 표시용 정보(제목, 업로드 시간)
+     */
+    private static final class Catalog {
+        final String type;
+        final InvertedIndex index = new InvertedIndex();
+        final Map<Long, SearchResult> entries = new ConcurrentHashMap<>();
+
+        Catalog(String type) {
+            this.type = type;
+        }
+
+        void put(SearchDocument document, List<Field> fields) {
+            entries.put(document.getId(), SearchResult.builder()
+                    .type(type)
+                    .id(document.getId())
+                    .title(document.getTitle())
+                    .uploadedAt(document.getUploadedAt())
+                    .build());
+            index.put(document.getId(), fields);
+        }
+
+        void remove(long id) {
+            index.remove(id);
+            entries.remove(id);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws Exception;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Gauge.builder("snapway.search.index.documents", this, service -> service.trips.index.size())
+                .tag("type", SearchResult.TYPE_TRIP)
+                .description("검색 색인에 들어 있는 문서 수")
+                .register(meterRegistry);
+        Gauge.builder("snapway.search.index.documents", this, service -> service.articles.index.size())
+                .tag("type", SearchResult.TYPE_ARTICLE)
+                .description("검색 색인에 들어 있는 문서 수")
+                .register(meterRegistry);
+
+        submit("전체 적재", this::rebuild);
+    }
+
+    @Override
+    public synchronized void rebuild() throws Exception {
+        long start = System.nanoTime();
+
+        Catalog newTrips = new Catalog(SearchResult.TYPE_TRIP);
+        Map<Long, List<String>> texts = groupTexts(searchMapper.selectTripTextsForSearch(null));
+        for (SearchDocument trip : searchMapper.selectTripsForSearch(null)) {
+            newTrips.put(trip, tripFields(trip, texts.getOrDefault(trip.getId(), List.of())));
+        }
+
+        Catalog newArticles = new Catalog(SearchResult.TYPE_ARTICLE);
+        for (SearchDocument article : searchMapper.selectArticlesForSearch(null)) {
+            newArticles.put(article, articleFields(article));
+        }
+
+        trips = newTrips;
+        articles = newArticles;
+        ready = true;
+        log.info("검색 색인 적재 완료: 여행 {}건, 게시글 {}건, {}ms", newTrips.index.size(), newArticles.index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void reindexTrip(int tripId) {
+        afterCommit("여행 " + tripId, () -> {
+            List<SearchDocument> rows = searchMapper.selectTripsForSearch(tripId);
+            List<String> texts = rows.isEmpty() ? List.of()
+                    : groupTexts(searchMapper.selectTripTextsForSearch(tripId)).getOrDefault((long) tripId, List.of());
+            synchronized (this) {
+                if (rows.isEmpty()) {
+                    trips.remove(tripId); // 삭제되었거나 비공개로 바뀐 여행
+                } else {
+                    trips.put(rows.get(0), tripFields(rows.get(0), texts));
+                }
+            }
+        });
+    }
+
+    @Override
+    public void reindexArticle(long articleId) {
+        afterCommit("게시글 " + articleId, () -> {
+            List<SearchDocument> rows = searchMapper.selectArticlesForSearch(articleId);
+            synchronized (this) {
+                if (rows.isEmpty()) {
+                    articles.remove(articleId);
+                } else {
+                    articles.put(rows.get(0), articleFields(rows.get(0)));
+                }
+            }
+        });
+    }
+
+    @Override
+    public CursorPage<SearchResult> search(String query, String type, String cursor, Integer size) {
+        int pageSize = (size == null || size <= 0) ? defaultSize : Math.min(size, maxSize);
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(CursorCodec.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.", e);
+            }
+            if (offset < 0) throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+
+        List<Catalog> catalogs = new ArrayList<>();
+        if (type == null || type.isBlank() || SearchResult.TYPE_TRIP.equals(type)) catalogs.add(trips);
+        if (type == null || type.isBlank() || SearchResult.TYPE_ARTICLE.equals(type)) catalogs.add(articles);
+        if (catalogs.isEmpty()) {
+            throw new IllegalArgumentException("검색 종류는 trip 또는 article만 가능합니다.");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // 이번 페이지 다음 한 건까지만 점수순으로 뽑는다
+        int limit = Math.min(offset + pageSize + 1, maxResults);
+        List<SearchResult> results = new ArrayList<>();
+        if (query != null && !query.isBlank()) {
+            for (Catalog catalog : catalogs) {
+                for (Hit hit : catalog.index.search(query, limit)) {
+                    SearchResult entry = catalog.entries.get(hit.id());
+                    if (entry == null) continue; // 방금 삭제된 문서
+                    results.add(new SearchResult(entry.getType(), entry.getId(), entry.getTitle(),
+                            entry.getUploadedAt(), hit.score()));
+                }
+            }
+        }
+        results.sort(Comparator.comparingDouble(SearchResult::getScore).reversed()
+                .thenComparing(SearchResult::getUploadedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        sample.stop(meterRegistry.timer("snapway.search.duration", "type", catalogs.size() > 1 ? "all" : catalogs.get(0).type));
+
+        int from = Math.min(offset, results.size());
+        int to = Math.min(offset + pageSize, Math.min(results.size(), maxResults));
+        boolean hasNext = results.size() > to && to < maxResults;
+        return CursorPage.<SearchResult>builder()
+                .items(new ArrayList<>(results.subList(from, Math.max(from, to))))
+                .nextCursor(hasNext ? CursorCodec.encode(to) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    public List<Integer> matchTripIds(String keyword, boolean oldestFirst, LocalDateTime cursorUploadedAt, Integer cursorTripId,
+                                      int limit) {
+        if (!ready || !matchesWholeTokens(keyword)) return null;
+        if (limit <= 0) return List.of();
+
+        Catalog catalog = trips;
+        // DB의 ORDER BY uploaded_at, trip_id와 같은 순서 (NULL은 가장 오래된 것으로 취급)
+        Comparator<SearchResult> ascending = Comparator.comparing(SearchResult::getUploadedAt,
+                Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).thenComparingLong(SearchResult::getId);
+        Comparator<SearchResult> feedOrder = oldestFirst ? ascending : ascending.reversed();
+        SearchResult cursor = cursorTripId == null ? null
+                : SearchResult.builder().id(cursorTripId).uploadedAt(cursorUploadedAt).build();
+
+        // 일치하는 여행 전체를 훑으며 커서 뒤의 앞쪽 limit건만 힙에 남긴다 (머리 = 피드에서 가장 뒤에 보일 여행)
+        PriorityQueue<SearchResult> page = new PriorityQueue<>(Math.min(limit, 1024) + 1, feedOrder.reversed());
+        catalog.index.forEachMatch(keyword, id -> {
+            SearchResult entry = catalog.entries.get(id);
+            if (entry == null) return; // 방금 삭제된 문서
+            if (cursor != null && feedOrder.compare(entry, cursor) <= 0) return;
+            page.add(entry);
+            if (page.size() > limit) page.poll();
+        });
+
+        List<SearchResult> sorted = new ArrayList<>(page);
+        sorted.sort(feedOrder);
+        List<Integer> tripIds = new ArrayList<>(sorted.size());
+        for (SearchResult entry : sorted) {
+            tripIds.add((int) entry.getId());
+        }
+        return tripIds;
+    }
+
+    // 검색어의 모든 토큰이 색인 토큰과 그대로 맞아야 LIKE '%검색어%'가 찾던 여행을 놓치지 않는다
+    private static boolean matchesWholeTokens(String keyword) {
+        List<String> tokens = BigramTokenizer.tokenizeQuery(keyword);
+        if (tokens.isEmpty()) return false; // 기호만 있는 검색어
+        for (String token : tokens) {
+            if (BigramTokenizer.isPartialToken(token, MIN_FEED_WORD_LENGTH)) return false;
+        }
+        return true;
+    }
+
+    private List<Field> tripFields(SearchDocument trip, List<String> texts) {
+        List<Field> fields = new ArrayList<>(texts.size() + 1);
+        fields.add(new Field(trip.getTitle(), TITLE_WEIGHT));
+        for (String text : texts) {
+            fields.add(new Field(stripMarkup(text), BODY_WEIGHT));
+        }
+        return fields;
+    }
+
+    private List<Field> articleFields(SearchDocument article) {
+        return List.of(
+                new Field(article.getTitle(), TITLE_WEIGHT),
+                new Field(article.getTags(), TAG_WEIGHT),
+                new Field(stripMarkup(article.getBody()), BODY_WEIGHT));
+    }
+
+    private static String stripMarkup(String text) {
+        return text == null ? null : MARKUP.matcher(text).replaceAll(" $1 ");
+    }
+
+    // 여행 ID -> 기록 본문/사진 설명 목록
+    private static Map<Long, List<String>> groupTexts(List<SearchDocument> rows) {
+        Map<Long, List<String>> texts = new LinkedHashMap<>();
+        for (SearchDocument row : rows) {
+            texts.computeIfAbsent(row.getId(), id -> new ArrayList<>()).add(row.getBody());
+        }
+        return texts;
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋 후에, 아니면 바로 색인 작업을 실행기에 넘긴다.
+     * (롤백된 변경은 색인하지 않고, 커밋 전 데이터를 읽지 않도록)
+     */
+    private void afterCommit(String target, IndexTask task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(target, task);
+                }
+            });
+        } else {
+            submit(target, task);
+        }
+    }
+
+    private void submit(String target, IndexTask task) {
+        searchIndexExecutor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("검색 색인 갱신 실패: {} ({})", target, e.getMessage());
+            }
+        });
+    }
+}
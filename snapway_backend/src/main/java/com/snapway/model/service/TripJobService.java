@@ -0,0 +1,63 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.snapway.model.dto.TripJob;
+
+public interface TripJobService {
+
+    /**
+     * 업로드된 사진을 스테이징 디렉토리로 옮긴 뒤 여행 기록 생성 작업을 비동기로 시작합니다.
+     * 요청 스레드는 파일 이동까지만 수행하고 즉시 반환됩니다.
+     * @param memberId 작성자 ID
+     * @param title 여행 제목
+     * @param files 업로드된 사진 파일 리스트
+     * @return 접수된 작업 정보 (jobId 포함)
+     */
+    TripJob submit(int memberId, String title, List<MultipartFile> files) throws IOException;
+
+    /**
+     * multipart 본문을 받는 대로 읽어 사진마다 스테이징과 EXIF 추출을 한 뒤 작업을 시작합니다.
+     * 용량/개수 제한을 넘으면 나머지 본문을 받지 않고 즉시 중단합니다.
+     * @param memberId 작성자 ID
+     * @param contentType 요청 Content-Type (boundary 포함)
+     * @param contentLength 요청 본문 길이 (모르면 -1)
+     * @param body 요청 본문
+     * @return 접수된 작업 정보 (jobId 포함)
+     * @throws org.springframework.web.multipart.MaxUploadSizeExceededException 용량 제한 초과
+     */
+    TripJob submitStream(int memberId, String contentType, long contentLength, InputStream body) throws IOException;
+
+    /**
+     * 이미 스테이징 디렉토리에 모아둔 사진으로 작업을 시작합니다. (이어 올리기 업로드 완료 시)
+     * 작업이 끝나면 스테이징 디렉토리는 삭제되며, 접수에 실패하면 디렉토리를 그대로 둡니다.
+     * @param memberId 작성자 ID
+     * @param title 여행 제목
+     * @param stagedFiles stagingDir 안의 사진 파일 (StagedMultipartFile)
+     * @param stagingDir 작업이 소유할 스테이징 디렉토리
+     * @return 접수된 작업 정보 (jobId 포함)
+     * @throws java.util.concurrent.RejectedExecutionException 작업 대기열이 가득 찬 경우
+     */
+    TripJob submitStaged(int memberId, String title, List<MultipartFile> stagedFiles, Path stagingDir);
+
+    /**
+     * 작업 상태를 조회합니다.
+     * @param jobId 작업 ID
+     * @return 작업 정보의 스냅샷 (없으면 null)
+     */
+    TripJob getJob(String jobId);
+
+    /**
+     * 작업 진행 이벤트를 SSE로 구독합니다.
+     * 구독 즉시 현재 상태가 전송되며, 이미 끝난 작업이면 결과 전송 후 스트림이 종료됩니다.
+     * @param jobId 작업 ID
+     * @return SSE 스트림
+     */
+    SseEmitter subscribe(String jobId);
+}
@@ -0,0 +1,424 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.snapway.model.dto.Trip;
+import com.snapway.model.dto.TripJob;
+import com.snapway.model.dto.TripJobEvent;
+import com.snapway.model.dto.TripJobStatus;
+import com.snapway.util.MetadataUtil;
+import com.snapway.util.MultipartStreamReader;
+import com.snapway.util.StagedMultipartFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TripJobServiceImpl implements TripJobService {
+
+    private static final int MAX_TITLE_BYTES = 1024;
+
+    private final TripService tripService;
+    private final MetadataUtil metadataUtil;
+
+    @Qualifier("tripJobExecutor")
+    private final Executor tripJobExecutor;
+
+    @Value("${spring.servlet.multipart.location}")
+    private String basePath;
+
+    // 스트리밍 업로드도 일반 업로드와 같은 용량 제한을 사용
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${app.trip.upload.max-files:50}")
+    private int maxFiles;
+
+    // SSE 연결 유지 시간 (기본 10분)
+    @Value("${app.trip.job.sse-timeout-millis:600000}")
+    private long sseTimeoutMillis;
+
+    // 끝난 작업 정보를 보관하는 시간 (기본 60분)
+    @Value("${app.trip.job.retention-minutes:60}")
+    private long retentionMinutes;
+
+    // 작업 정보는 메모리에 보관 (서버 재시작 시 진행 중이던 작업은 유실됨)
+    private final Map<String, TripJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    @Override
+    public TripJob submit(int memberId, String title, List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("사진 파일이 없습니다.");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+
+        // 1. 요청이 끝나면 컨테이너가 임시 파일을 지우므로 스테이징 디렉토리로 옮겨둔다.
+        //    (디스크에 저장된 파트는 transferTo 시 복사 없이 이동된다)
+        //    이후 메타데이터 추출, 이미지 변환, 저장 단계는 이 파일 하나를 메모리 매핑하여 공유한다.
+        Path stagingDir = stagingDir(memberId, jobId);
+        List<MultipartFile> stagedFiles = new ArrayList<>();
+        try {
+            Files.createDirectories(stagingDir);
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                if (file == null || file.isEmpty()) continue;
+
+                String originalFilename = file.getOriginalFilename();
+                Path target = stagingDir.resolve(i + "_" + Paths.get(String.valueOf(originalFilename)).getFileName());
+                file.transferTo(target);
+                stagedFiles.add(new StagedMultipartFile(file.getName(), originalFilename, file.getContentType(), target));
+            }
+        } catch (IOException e) {
+            deleteStagingDir(stagingDir);
+            throw e;
+        }
+
+        return startOrDelete(jobId, memberId, title, stagedFiles, stagingDir);
+    }
+
+    @Override
+    public TripJob submitStream(int memberId, String contentType, long contentLength, InputStream body) throws IOException {
+        // 본문 길이를 알면 읽기 전에 거절
+        long maxRequestBytes = maxRequestSize.toBytes();
+        if (contentLength > maxRequestBytes) {
+            throw new MaxUploadSizeExceededException(maxRequestBytes);
+        }
+        MultipartStreamReader reader = new MultipartStreamReader(body, MultipartStreamReader.boundaryOf(contentType), maxRequestBytes);
+
+        String jobId = UUID.randomUUID().toString();
+        Path stagingDir = stagingDir(memberId, jobId);
+        List<MultipartFile> stagedFiles = new ArrayList<>();
+        String title = null;
+        try {
+            Files.createDirectories(stagingDir);
+
+            // 파트가 도착하는 대로 스테이징 디렉토리에 쓰고 EXIF를 추출한다. (그 사이 다음 사진이 계속 업로드됨)
+            MultipartStreamReader.Part part;
+            while ((part = reader.next()) != null) {
+                if (!part.isFile()) {
+                    if ("title".equals(part.name())) {
+                        title = part.readString(MAX_TITLE_BYTES);
+                    }
+                    continue;
+                }
+                if (!"files".equals(part.name()) || part.filename().isBlank()) continue;
+                if (stagedFiles.size() >= maxFiles) {
+                    throw new IllegalArgumentException("사진은 한 번에 최대 " + maxFiles + "장까지 올릴 수 있습니다.");
+                }
+
+                Path target = stagingDir.resolve(stagedFiles.size() + "_" + Paths.get(part.filename()).getFileName());
+                if (copyWithLimit(part.body(), target, maxFileSize.toBytes()) == 0) {
+                    Files.deleteIfExists(target);
+                    continue;
+                }
+                StagedMultipartFile staged = new StagedMultipartFile(part.name(), part.filename(), part.contentType(), target);
+                staged.setMetadata(metadataUtil.extractMetadata(staged));
+                stagedFiles.add(staged);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteStagingDir(stagingDir);
+            throw e;
+        }
+
+        if (title == null || title.isBlank()) {
+            deleteStagingDir(stagingDir);
+            throw new IllegalArgumentException("제목이 없습니다.");
+        }
+        log.debug("스트리밍 업로드 수신 완료 - 사용자: {}, 파일 수: {}, {} bytes", memberId, stagedFiles.size(), reader.getBytesRead());
+        return startOrDelete(jobId, memberId, title, stagedFiles, stagingDir);
+    }
+
+    @Override
+    public TripJob submitStaged(int memberId, String title, List<MultipartFile> stagedFiles, Path stagingDir) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("제목이 없습니다.");
+        }
+        // 접수에 실패하면 스테이징 디렉토리는 호출한 쪽에 그대로 남는다 (재시도 가능)
+        return start(UUID.randomUUID().toString(), memberId, title, stagedFiles, stagingDir);
+    }
+
+    /**
+     * 파트 내용을 파일로 저장, 개별 파일 제한을 넘으면 그 시점에 중단
+     * @return 저장한 바이트 수
+     */
+    private long copyWithLimit(InputStream in, Path target, long maxBytes) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new MaxUploadSizeExceededException(maxBytes);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 작업 시작, 접수에 실패하면 이 요청에서 만든 스테이징 디렉토리를 지움
+     */
+    private TripJob startOrDelete(String jobId, int memberId, String title, List<MultipartFile> stagedFiles, Path stagingDir) {
+        try {
+            return start(jobId, memberId, title, stagedFiles, stagingDir);
+        } catch (RuntimeException e) {
+            deleteStagingDir(stagingDir);
+            throw e;
+        }
+    }
+
+    /**
+     * 스테이징이 끝난 파일로 작업을 등록하고 실행기에 넘김
+     * 실행기에 넘긴 뒤에는 작업(run)이 끝날 때 스테이징 디렉토리를 지운다.
+     */
+    private TripJob start(String jobId, int memberId, String title, List<MultipartFile> stagedFiles, Path stagingDir) {
+        if (stagedFiles == null || stagedFiles.isEmpty()) {
+            throw new IllegalArgumentException("사진 파일이 없습니다.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TripJob job = TripJob.builder()
+                .jobId(jobId)
+                .memberId(memberId)
+                .title(title)
+                .status(TripJobStatus.PENDING)
+                .totalPhotos(stagedFiles.size())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        jobs.put(jobId, job);
+
+        // 2. 작업 실행기에 등록 (큐가 가득 차면 RejectedExecutionException)
+        try {
+            tripJobExecutor.execute(() -> run(job, stagedFiles, stagingDir));
+        } catch (RuntimeException e) {
+            jobs.remove(jobId);
+            throw e;
+        }
+
+        log.info("여행 기록 생성 작업 접수 - jobId: {}, 사용자: {}, 파일 수: {}", jobId, memberId, stagedFiles.size());
+        return snapshot(job);
+    }
+
+    /**
+     * 작업 실행 (tripJobExecutor 스레드에서 수행)
+     */
+    private void run(TripJob job, List<MultipartFile> stagedFiles, Path stagingDir) {
+        update(job, j -> j.setStatus(TripJobStatus.RUNNING));
+        publish(job, "status", null);
+
+        TripProgressListener listener = new TripProgressListener() {
+            @Override
+            public void onStage(String stage, String message) {
+                update(job, j -> j.setStage(stage));
+                publish(job, "stage", builder -> builder.message(message));
+            }
+
+            @Override
+            public void onPhotoAnalyzed(int index, int total, String fileName, boolean success) {
+                update(job, j -> {
+                    j.setProcessedPhotos(j.getProcessedPhotos() + 1);
+                    if (!success) j.setFailedPhotos(j.getFailedPhotos() + 1);
+                });
+                publish(job, "photo", builder -> builder
+                        .photoIndex(index)
+                        .fileName(fileName)
+                        .success(success));
+            }
+        };
+
+        try {
+            Trip trip = tripService.createAutoTrip(job.getMemberId(), job.getTitle(), stagedFiles, listener);
+            update(job, j -> {
+                j.setStatus(TripJobStatus.COMPLETED);
+                j.setTripId(trip.getTripId());
+                j.setTrip(trip);
+            });
+            publish(job, "completed", builder -> builder.message("여행 기록 생성이 완료되었습니다."));
+            log.info("여행 기록 생성 작업 완료 - jobId: {}, tripId: {}", job.getJobId(), trip.getTripId());
+        } catch (Exception e) {
+            log.error("여행 기록 생성 작업 실패 - jobId: {}", job.getJobId(), e);
+            String message = e instanceof IllegalArgumentException ? e.getMessage() : "여행 기록 생성 중 오류가 발생했습니다: " + e.getMessage();
+            update(job, j -> {
+                j.setStatus(TripJobStatus.FAILED);
+                j.setErrorMessage(message);
+            });
+            publish(job, "failed", builder -> builder.message(message));
+        } finally {
+            // 저장된 사진은 여행 디렉토리로 이동되었으므로 남은 스테이징 파일(분석 실패 등)만 정리
+            deleteStagingDir(stagingDir);
+            completeEmitters(job.getJobId());
+        }
+    }
+
+    @Override
+    public TripJob getJob(String jobId) {
+        TripJob job = jobs.get(jobId);
+        return job == null ? null : snapshot(job);
+    }
+
+    @Override
+    public SseEmitter subscribe(String jobId) {
+        TripJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("존재하지 않는 작업입니다.");
+        }
+
+        SseEmitter emitter = createEmitter();
+        List<SseEmitter> list = emitters.computeIfAbsent(jobId, key -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> list.remove(emitter));
+        emitter.onTimeout(() -> list.remove(emitter));
+        emitter.onError(e -> list.remove(emitter));
+
+        // 구독 즉시 현재 상태 전송
+        TripJob current = snapshot(job);
+        send(emitter, "status", toEvent(current, "status").build());
+
+        // 이미 끝난 작업이면 바로 종료 (완료 이벤트와 구독 사이의 경쟁 상황 방지)
+        if (current.getStatus() == TripJobStatus.COMPLETED || current.getStatus() == TripJobStatus.FAILED) {
+            list.remove(emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * SSE 구독 생성 (테스트에서 전송된 이벤트를 확인할 수 있도록 분리)
+     */
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(sseTimeoutMillis);
+    }
+
+    /**
+     * 보관 시간이 지난 완료/실패 작업 정리
+     */
+    @Scheduled(fixedDelayString = "${app.trip.job.cleanup-interval-millis:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                boolean finished = job.getStatus() == TripJobStatus.COMPLETED || job.getStatus() == TripJobStatus.FAILED;
+                if (finished && job.getUpdatedAt().isBefore(threshold)) {
+                    emitters.remove(job.getJobId());
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    // ---- 내부 유틸 ----
+
+    private void update(TripJob job, Consumer<TripJob> updater) {
+        synchronized (job) {
+            updater.accept(job);
+            job.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    private TripJob snapshot(TripJob job) {
+        synchronized (job) {
+            return job.toBuilder().build();
+        }
+    }
+
+    private TripJobEvent.TripJobEventBuilder toEvent(TripJob job, String type) {
+        return TripJobEvent.builder()
+                .jobId(job.getJobId())
+                .type(type)
+                .status(job.getStatus())
+                .stage(job.getStage())
+                .processedPhotos(job.getProcessedPhotos())
+                .totalPhotos(job.getTotalPhotos())
+                .tripId(job.getTripId())
+                .message(job.getErrorMessage());
+    }
+
+    private void publish(TripJob job, String type, UnaryOperator<TripJobEvent.TripJobEventBuilder> customizer) {
+        List<SseEmitter> list = emitters.get(job.getJobId());
+        if (list == null || list.isEmpty()) return;
+
+        TripJobEvent.TripJobEventBuilder builder = toEvent(snapshot(job), type);
+        TripJobEvent event = (customizer == null ? builder : customizer.apply(builder)).build();
+        for (SseEmitter emitter : list) {
+            if (!send(emitter, type, event)) {
+                list.remove(emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String name, TripJobEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(event));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트 연결 종료 등 -> 해당 구독만 정리
+            log.debug("SSE 전송 실패 (jobId: {}): {}", event.getJobId(), e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void completeEmitters(String jobId) {
+        List<SseEmitter> list = emitters.remove(jobId);
+        if (list == null) return;
+        for (SseEmitter emitter : list) {
+            emitter.complete();
+        }
+    }
+
+    private Path stagingDir(int memberId, String jobId) {
+        return Paths.get(basePath, String.valueOf(memberId), "staging", jobId);
+    }
+
+    private void deleteStagingDir(Path stagingDir) {
+        if (!Files.exists(stagingDir)) return;
+        try (Stream<Path> walk = Files.walk(stagingDir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("스테이징 파일 삭제 실패: {}", path);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("스테이징 디렉토리 정리 실패: {}", stagingDir, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.snapway.model.service;
+
+/**
+ * 여행 기록 자동 생성 과정의 진행 상황을 전달받는 리스너
+ * 사진 분석은 여러 스레드에서 동시에 진행되므로 구현체는 스레드 안전해야 합니다.
+ */
+public interface TripProgressListener {
+
+    String STAGE_METADATA = "METADATA"; // EXIF 추출 및 정렬
+    String STAGE_ANALYSIS = "ANALYSIS"; // 개별 사진 AI 분석
+    String STAGE_COMPOSE = "COMPOSE";   // 여행기 본문 작성
+    String STAGE_SAVE = "SAVE";         // 파일 저장 및 DB 처리
+
+    // 진행 상황을 받지 않는 경우 사용
+    TripProgressListener NONE = new TripProgressListener() {};
+
+    /**
+     * 새로운 단계에 진입했을 때 호출됩니다.
+     * @param stage 단계 이름 (STAGE_* 상수)
+     * @param message 사용자에게 보여줄 설명
+     */
+    default void onStage(String stage, String message) {}
+
+    /**
+     * 사진 한 장의 분석이 끝났을 때 호출됩니다. (성공/실패 모두)
+     * @param index 촬영 시간순 정렬 기준 사진 번호
+     * @param total 전체 사진 수
+     * @param fileName 원본 파일명
+     * @param success 분석 성공 여부
+     */
+    default void onPhotoAnalyzed(int index, int total, String fileName, boolean success) {}
+}
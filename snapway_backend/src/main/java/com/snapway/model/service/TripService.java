@@ -2,8 +2,10 @@ package com.snapway.model.service;
 
 import java.util.List;
 import org.springframework.web.multipart.MultipartFile;
+import com.snapway.model.dto.CursorPage;
 import com.snapway.model.dto.PhotoMetadata;
 import com.snapway.model.dto.Trip;
+import com.snapway.model.dto.TripRecord;
 
 public interface TripService {
 
@@ -15,6 +17,13 @@ public interface TripService {
      * @return 생성된 여행 정보(Trip) - ID 포함
      */
     Trip createAutoTrip(int memberId, String title, List<MultipartFile> files) throws Exception;
+
+    /**
+     * 진행 상황을 리스너로 전달하면서 여행 기록을 자동 생성합니다.
+     * (비동기 작업에서 단계별/사진별 진행 이벤트를 보내기 위해 사용)
+     * @param listener 진행 상황 리스너
+     */
+    Trip createAutoTrip(int memberId, String title, List<MultipartFile> files, TripProgressListener listener) throws Exception;
     
     /**
      * 특정 사용자의 여행 기록 목록을 조회합니다.
@@ -30,5 +39,48 @@ public interface TripService {
      * @return 여행 상세 정보
      */
     Trip getTripDetail(int tripId) throws Exception;
-    
-}
\ No newline at end of file
+
+    /**
+     * 공개 여행 피드를 한 페이지씩 조회합니다. (기록/사진 제외, 해시태그 포함)
+     * @param keyword 검색어 (null이면 전체). 검색 색인이 준비되었으면 제목/본문/사진 설명에 모든 단어를 포함한 여행,
+     *                준비 전이거나 한 글자 한글/짧은 영문 단어가 섞인 검색어는 제목에 검색어를 포함한 여행
+     * @param sort latest(기본) 또는 oldest
+     * @param cursor 이전 페이지의 nextCursor (null이면 첫 페이지)
+     * @param size 페이지 크기 (null이면 기본값, 최대값을 넘으면 최대값으로 제한)
+     * @throws IllegalArgumentException 잘못된 커서
+     */
+    CursorPage<Trip> getPublicFeed(String keyword, String sort, String cursor, Integer size) throws Exception;
+
+    /**
+     * 여행 정보(제목, 날짜, 공개 여부)를 수정합니다. 작성자만 수정할 수 있습니다.
+     * @param memberId 요청한 사용자 ID
+     * @param trip 수정할 내용 (tripId 필수, null인 항목은 유지)
+     * @return 수정했으면 true, 여행이 없거나 작성자가 아니면 false
+     */
+    boolean updateTrip(int memberId, Trip trip) throws Exception;
+
+    /**
+     * 여행을 삭제합니다. (기록, 사진, 해시태그는 FK로 함께 삭제)
+     * @return 삭제했으면 true, 여행이 없거나 작성자가 아니면 false
+     */
+    boolean deleteTrip(int memberId, int tripId) throws Exception;
+
+    /**
+     * 개별 기록(장소명, 내용, 위치, 방문 시간)을 수정합니다.
+     * @param record 수정할 내용 (recordId 필수, null인 항목은 유지)
+     * @return 수정했으면 true, 기록이 없거나 작성자가 아니면 false
+     */
+    boolean updateTripRecord(int memberId, TripRecord record) throws Exception;
+
+    /**
+     * 개별 기록을 삭제합니다. (사진은 FK로 함께 삭제)
+     * @return 삭제했으면 true, 기록이 없거나 작성자가 아니면 false
+     */
+    boolean deleteTripRecord(int memberId, int recordId) throws Exception;
+
+    /**
+     * 사진 한 장을 삭제합니다.
+     * @return 삭제했으면 true, 사진이 없거나 작성자가 아니면 false
+     */
+    boolean deleteTripPhoto(int memberId, int photoCode) throws Exception;
+}
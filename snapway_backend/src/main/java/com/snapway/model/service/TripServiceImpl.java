@@ -1,27 +1,30 @@
 package com.snapway.model.service;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.ImageVariant;
+import com.snapway.model.dto.PhotoBlob;
 import com.snapway.model.dto.PhotoMetadata;
 import com.snapway.model.dto.TravelStyle;
 import com.snapway.model.dto.Trip;
@@ -29,10 +32,13 @@ import com.snapway.model.dto.TripHashtag;
 import com.snapway.model.dto.TripPhoto;
 import com.snapway.model.dto.TripRecord;
 import com.snapway.model.mapper.TripMapper;
-import com.snapway.util.ImageBase64Encoder;
+import com.snapway.util.CursorCodec;
 import com.snapway.util.MetadataUtil;
 import com.snapway.util.MetadataUtil.PhotoWithFile;
+import com.snapway.util.TripDetailCache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,17 +48,31 @@ import lombok.extern.slf4j.Slf4j;
 public class TripServiceImpl implements TripService {
 
     private final AiService aiService;
-    private final ImageBase64Encoder imageBase64Encoder;
+    private final PhotoAnalysisService photoAnalysisService;
+    private final PhotoBlobService photoBlobService;
     private final MetadataUtil metadataUtil;
     private final ObjectMapper objectMapper;
     private final TripMapper tripMapper;
-    
-    @Value("${spring.servlet.multipart.location}")
-    private String basePath;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final TripDetailCache tripDetailCache;
+    private final SearchService searchService;
+    private final NearbyTripService nearbyTripService;
     
     @Value("${app.self-origin}")
     private String domain;
     
+    // multi-row INSERT 한 문장에 담을 최대 행 수
+    @Value("${app.trip.insert-chunk-size:200}")
+    private int insertChunkSize;
+    
+    // 공개 피드 페이지 크기 (기본 / 최대)
+    @Value("${app.trip.feed.default-size:20}")
+    private int feedDefaultSize;
+    
+    @Value("${app.trip.feed.max-size:50}")
+    private int feedMaxSize;
+    
     // AI 응답 파싱용 내부 레코드
     private record AiResponseDto(String content, List<String> hashtags) {}
     private record PhotoAnalysisResult(MultipartFile file, PhotoMetadata metadata, String description) {}
@@ -64,48 +84,35 @@ public class TripServiceImpl implements TripService {
      */
     @Override
     public Trip createAutoTrip(int memberId, String title, List<MultipartFile> files) throws Exception {
+        return createAutoTrip(memberId, title, files, TripProgressListener.NONE);
+    }
+
+    @Override
+    public Trip createAutoTrip(int memberId, String title, List<MultipartFile> files, TripProgressListener listener) throws Exception {
         if (files == null || files.isEmpty()) {
             throw new IllegalArgumentException("사진 파일이 없습니다.");
         }
 
         log.info("=== 1단계: 개별 사진 분석 시작 (총 {}장) ===", files.size());
+        listener.onStage(TripProgressListener.STAGE_METADATA, "사진 촬영 정보를 읽고 있습니다.");
         
         List<PhotoWithFile> sortedPhotos = metadataUtil.extractAndSort(files);
         
         // 동시성 처리를 위한 안전한 리스트 사용
         log.info("=== 2단계: 개별 사진 AI 분석 (총 {}장) ===", sortedPhotos.size());
+        listener.onStage(TripProgressListener.STAGE_ANALYSIS, "사진을 한 장씩 분석하고 있습니다.");
         
-        // 2. 정렬된 순서를 유지하며 병렬 처리로 AI 분석 요청
-        // parallelStream()을 사용하더라도 collect(Collectors.toList())는 원본 리스트의 순서(시간순)를 보장합니다.
-        List<PhotoAnalysisResult> analysisResults = sortedPhotos.parallelStream()
-            .map(photoWithFile -> {
-                try {
-                    MultipartFile file = photoWithFile.getFile();
-                    PhotoMetadata metadata = photoWithFile.getMetadata();
-                    
-                    // Base64 변환
-                    String base64 = imageBase64Encoder.encode(file);
-                    if (base64 == null) return null;
-
-                    // AI 분석 요청 (개별 사진 묘사)
-                    String analysisPrompt = """
-                            Analyze this photo for a travel blog. 
-                            Describe the location (landmark), atmosphere, time of day, and what is happening in 1-2 sentences.
-                            Start the response directly with the description.
-                            """;
-                    // TODO: 추후 여기에 Reverse Geocoding으로 얻은 주소 정보를 프롬프트에 추가하면 정확도 향상 가능
-                    
-                    String rawDescription = aiService.generateContent(analysisPrompt, List.of(base64));
-                    String description = extractTextFromAiResponse(rawDescription);
-                    
-                    return new PhotoAnalysisResult(file, metadata, description);
-                } catch (Exception e) {
-                    log.error("사진 분석 실패 (파일명: {}): {}", photoWithFile.getFile().getOriginalFilename(), e.getMessage());
-                    return null;
-                }
-            })
-            .filter(Objects::nonNull) // 실패한 건 제외
-            .collect(Collectors.toList());
+        // 2. 전용 분석 실행기에서 병렬로 AI 분석 요청 (결과는 촬영 시간순 유지, 실패한 사진은 null)
+        List<String> descriptions = photoAnalysisService.describePhotos(sortedPhotos, listener);
+
+        List<PhotoAnalysisResult> analysisResults = new ArrayList<>();
+        for (int i = 0; i < sortedPhotos.size(); i++) {
+            String description = descriptions.get(i);
+            if (description == null) continue; // 실패한 건 제외
+
+            PhotoWithFile photoWithFile = sortedPhotos.get(i);
+            analysisResults.add(new PhotoAnalysisResult(photoWithFile.getFile(), photoWithFile.getMetadata(), description));
+        }
 
         if (analysisResults.isEmpty()) {
             throw new RuntimeException("모든 사진 분석에 실패했습니다.");
@@ -119,6 +126,7 @@ public class TripServiceImpl implements TripService {
 
 
         log.info("=== 2단계: 여행기 본문 작성 (텍스트 기반) ===");
+        listener.onStage(TripProgressListener.STAGE_COMPOSE, "여행기 본문을 작성하고 있습니다.");
         
         // TravelStyle 목록 문자열 생성
         String stylesList = Arrays.stream(TravelStyle.values())
@@ -157,15 +165,13 @@ public class TripServiceImpl implements TripService {
 
 
         log.info("=== 3단계: 파일 저장 및 DB 처리 ===");
+        listener.onStage(TripProgressListener.STAGE_SAVE, "사진과 여행 기록을 저장하고 있습니다.");
 
-        // 5. [중요] DB 저장 로직만 별도 트랜잭션 메서드로 분리 호출
-        // 자기 자신을 주입받거나, 별도 클래스로 분리해야 @Transactional이 동작하지만,
-        // 여기서는 구조 변경을 최소화하기 위해 바로 호출하되, 실제 운영 환경에서는
-        // AOP 프록시 처리를 위해 saveTripData를 별도 Service로 빼거나 Self-Injection을 고려해야 함.
-        // *참고: 같은 클래스 내 메서드 호출은 @Transactional이 무시될 수 있음 -> 구조상 분리가 정석이나, 
-        // 일단 로직 흐름을 보여드리기 위해 아래 메서드(saveTripData)를 public으로 뺍니다.
-        
-        return saveTripData(memberId, title, minDate, maxDate, analysisResults, parsedResponse.content, parsedResponse.hashtags);
+        // 5. DB 저장 로직만 트랜잭션으로 묶어서 호출 (AI 통신 중에는 커넥션을 잡지 않음)
+        Trip trip = saveTripData(memberId, title, minDate, maxDate, analysisResults, parsedResponse.content, parsedResponse.hashtags);
+        searchService.reindexTrip(trip.getTripId());
+        nearbyTripService.reindexTrip(trip.getTripId()); // 새 기록 좌표를 주변 여행 색인에 반영
+        return trip;
     }
     
     /**
@@ -207,31 +213,43 @@ public class TripServiceImpl implements TripService {
     }
 
     /**
-     * Gemini 응답에서 텍스트만 추출 (사진 설명용)
+     * DB 저장과 파일 저장을 하나의 트랜잭션으로 수행
+     * 같은 클래스 안에서 호출되므로 @Transactional 대신 TransactionTemplate으로 트랜잭션을 연다.
+     * 커넥션 점유 시간은 snapway.trip.save.transaction 타이머로 기록한다.
      */
-    private String extractTextFromAiResponse(String rawResponse) {
-        if (rawResponse == null) return "";
+    private Trip saveTripData(int memberId, String title, LocalDate minDate, LocalDate maxDate,
+                              List<PhotoAnalysisResult> analysisResults, String generatedContent, List<String> hashtags) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
         try {
-            JsonNode root = objectMapper.readTree(rawResponse);
-            JsonNode textNode = root.path("candidates").get(0)
-                    .path("content").path("parts").get(0)
-                    .path("text");
-            if (!textNode.isMissingNode()) {
-                return textNode.asText().replace("```", "").trim();
-            }
-        } catch (Exception e) {
-            // rawResponse가 이미 텍스트인 경우 fallback
+            Trip trip = transactionTemplate.execute(status -> {
+                try {
+                    return insertTripData(memberId, title, minDate, maxDate, analysisResults, generatedContent, hashtags);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // 체크 예외도 롤백되도록 감싸서 던지고, 밖에서 원래 예외로 되돌린다
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+            outcome = "success";
+            return trip;
+        } catch (UndeclaredThrowableException e) {
+            throw (Exception) e.getUndeclaredThrowable();
+        } finally {
+            long nanos = sample.stop(meterRegistry.timer("snapway.trip.save.transaction", "outcome", outcome));
+            log.info("여행 DB 저장 트랜잭션 종료: 사진 {}장, {}ms ({})",
+                    analysisResults.size(), TimeUnit.NANOSECONDS.toMillis(nanos), outcome);
         }
-        return rawResponse.replace("```", "").trim();
     }
-    
+
     /**
-     * DB 저장과 파일 저장을 담당하는 메서드 (트랜잭션 필수)
-     * 실제로는 외부에서 호출되거나 별도 서비스로 분리하는 것이 가장 안전합니다.
+     * 여행 -> 해시태그 -> 기록 -> 사진 순으로 저장
+     * 행마다 INSERT를 보내지 않고 종류별로 multi-row INSERT를 보내므로,
+     * 사진 수와 관계없이 왕복 횟수는 (4 + 청크 수) 정도로 유지된다.
      */
-    @Transactional(rollbackFor = Exception.class)
-    public Trip saveTripData(int memberId, String title, LocalDate minDate, LocalDate maxDate, 
-                             List<PhotoAnalysisResult> analysisResults, String generatedContent, List<String> hashtags) throws Exception {
+    private Trip insertTripData(int memberId, String title, LocalDate minDate, LocalDate maxDate,
+                                List<PhotoAnalysisResult> analysisResults, String generatedContent, List<String> hashtags) throws Exception {
         
         // 5. Trip 정보 생성
         Trip trip = Trip.builder()
@@ -248,59 +266,46 @@ public class TripServiceImpl implements TripService {
         log.info("여행 DB 생성 완료: tripId={}", tripId);
         
         List<TravelStyle> savedStyles = new ArrayList<>();
+        List<TripHashtag> tripHashtags = new ArrayList<>();
         if (hashtags != null && !hashtags.isEmpty()) {
             for (String tagStr : hashtags) {
                 try {
                     // 문자열(HEALING) -> Enum 변환
                     TravelStyle style = TravelStyle.valueOf(tagStr.toUpperCase());
                     
-                    TripHashtag hashtag = TripHashtag.builder()
+                    tripHashtags.add(TripHashtag.builder()
                             .tripId(tripId)
                             .style(style)
-                            .build();
-                    
-                    tripMapper.insertTripHashtag(hashtag);
+                            .build());
                     savedStyles.add(style);
                 } catch (IllegalArgumentException e) {
                     log.warn("AI가 생성한 태그 '{}'는 TravelStyle Enum에 존재하지 않아 건너뜁니다.", tagStr);
                 }
             }
         }
+        insertInChunks(tripHashtags, tripMapper::insertTripHashtags);
         trip.setStyles(savedStyles); // 반환 객체에 설정
 
         // 6. 파일 저장 및 본문 태그 치환
         List<TripPhoto> tripPhotos = new ArrayList<>();
         String contentWithImages = generatedContent;
         
-        Path tripDir = Paths.get(basePath, String.valueOf(memberId), "trip", String.valueOf(tripId));
-        if (!Files.exists(tripDir)) {
-            Files.createDirectories(tripDir);
-        }
-
         for (int i = 0; i < analysisResults.size(); i++) {
             PhotoAnalysisResult result = analysisResults.get(i);
-            
-            // 파일명 중복 방지 (UUID)
             String originalFilename = result.file.getOriginalFilename();
-            String uuid = UUID.randomUUID().toString();
-            String savedFilename = uuid + "_" + originalFilename;
-            
-            Path targetPath = tripDir.resolve(savedFilename);
             
-            // 파일 저장 수행
-            try (var inputStream = result.file.getInputStream()) {
-                Files.copy(inputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
-            }
+            // 내용(SHA-256) 기준 저장소에 저장 (같은 사진이 이미 있으면 파일을 쓰지 않음, 축소본도 저장소가 생성)
+            PhotoBlob blob = photoBlobService.store(result.file);
             
-            // 웹 접근 URL 생성 (ArticleController 참고: /files/userId/...)
-            // ArticleController가 basePath를 ResourceHandler로 /files/** 와 매핑한다고 가정
-            // URL 구조: /files/{memberId}/trip/{tripId}/{filename}
-            String webPath = domain + "/files/" + memberId + "/trip/" + tripId + "/" + savedFilename;
+            // 웹 접근 URL 생성 (WebConfig가 basePath를 /files/** 와 매핑)
+            // URL 구조: /files/blobs/{해시 앞 2자리}/{다음 2자리}/{sha256}.{확장자}
+            String webPath = domain + "/files/" + blob.getFilePath();
 
             // 마크다운 치환
             String placeholder = "[[PHOTO_" + i + "]]";
             String caption = result.description.length() > 20 ? result.description.substring(0, 20) + "..." : result.description;
-            String markdownImage = String.format("\n![%s](%s)\n", caption, webPath);
+            // 본문에는 원본 대신 중간 크기 축소본 사용 (원본은 TripPhoto.filePath로 제공)
+            String markdownImage = String.format("\n![%s](%s)\n", caption, ImageVariant.MEDIUM.toUrl(webPath));
             contentWithImages = contentWithImages.replace(placeholder, markdownImage);
             
             tripPhotos.add(TripPhoto.builder()
@@ -316,27 +321,28 @@ public class TripServiceImpl implements TripService {
         for (int i = 0; i < analysisResults.size(); i++) {
             PhotoAnalysisResult result = analysisResults.get(i);
             PhotoMetadata metadata = result.metadata() != null ? result.metadata() : new PhotoMetadata();
-            TripPhoto photo = tripPhotos.get(i);
             
-            TripRecord record = TripRecord.builder()
+            records.add(TripRecord.builder()
                     .tripId(tripId)
                     .placeName(title)
                     .latitude(metadata.getLatitude())
                     .longitude(metadata.getLongitude())
                     .aiContent(i == 0 ? contentWithImages : null)
                     .visitedDate(metadata.getTakenAt())
-                    .build();
-            
-            tripMapper.insertTripRecord(record);
-            int recordId = record.getRecordId();
-            
-            // 8. TripPhoto DB 저장 (recordId 연결)
-            photo.setRecordId(recordId);
-            tripMapper.insertTripPhoto(photo);
-            
+                    .build());
+        }
+        insertInChunks(records, tripMapper::insertTripRecords); // recordId가 입력 순서대로 채워짐
+        
+        // 8. TripPhoto DB 저장 (recordId 연결)
+        for (int i = 0; i < records.size(); i++) {
+            TripRecord record = records.get(i);
+            TripPhoto photo = tripPhotos.get(i);
+            photo.setRecordId(record.getRecordId());
             record.setPhotos(List.of(photo));
-            records.add(record);
         }
+        insertInChunks(tripPhotos, tripMapper::insertTripPhotos);
+        photoBlobService.acquirePaths(tripPhotos.stream().map(TripPhoto::getFilePath).toList());
+        photoBlobService.updateContentReferences(null, contentWithImages); // 본문에 실린 축소본 URL도 참조로 센다
         
         records.sort(Comparator.comparing(TripRecord::getVisitedDate, Comparator.nullsLast(Comparator.naturalOrder())));
         
@@ -346,37 +352,189 @@ public class TripServiceImpl implements TripService {
         return trip;
     }
 
-    // --- 2. 내 여행 목록 조회 ---
+    @FunctionalInterface
+    private interface BatchInsert<T> {
+        int insert(List<T> rows) throws SQLException;
+    }
+
+    /**
+     * multi-row INSERT를 청크 단위로 실행 (문장 크기가 max_allowed_packet을 넘지 않도록)
+     */
+    private <T> void insertInChunks(List<T> rows, BatchInsert<T> batchInsert) throws SQLException {
+        for (int from = 0; from < rows.size(); from += insertChunkSize) {
+            batchInsert.insert(rows.subList(from, Math.min(from + insertChunkSize, rows.size())));
+        }
+    }
+
+    // --- 2. 내 여행 목록 조회 (복제본에서 읽음, 방금 저장한 사용자는 잠시 주 DB) ---
     @Override
+    @Transactional(readOnly = true)
     public List<Trip> getMyTripList(int memberId) throws Exception {
     	return tripMapper.selectTripListByMemberId(memberId);
     }
     
     // ---- 3. 여행 상세 조회 (계층 구조 조립) ---
+    // 조립된 결과는 Redis에 캐시하고, 아래 수정/삭제 메서드에서 무효화한다.
+    // 복제 지연된 값이 캐시에 오래 남지 않도록 캐시 미스 조회는 readOnly로 두지 않는다. (주 DB)
     @Override
     public Trip getTripDetail(int tripId) throws Exception {
+    	return tripDetailCache.get(tripId, () -> loadTripDetail(tripId));
+    }
+    
+    // 여행(+해시태그) 1번, 기록(+사진) 1번, 기록 수와 관계없이 쿼리 2번으로 조립
+    private Trip loadTripDetail(int tripId) throws Exception {
     	// (1) 여행 기본 정보 조회
     	Trip trip = tripMapper.selectTripById(tripId);
     	if(trip == null) {
     		throw new RuntimeException("해당 기록을 찾을 수 없습니다.");
     	}
     	
-    	// (2) 해당 여행의 세부 기록(Records) 조회
-    	List<TripRecord> records = tripMapper.selectRecordsByTripId(tripId);
+    	// (2) 해당 여행의 세부 기록(Records)과 기록별 사진(Photos)을 함께 조회
+    	List<TripRecord> records = tripMapper.selectRecordsWithPhotosByTripId(tripId);
     	records.sort(Comparator.comparing(TripRecord::getVisitedDate, Comparator.nullsLast(Comparator.naturalOrder())));
     	
-    	// (3) 각 기록별 사진(Photos) 조회 및 조립
-    	for(TripRecord record : records) {
-    		List<TripPhoto> photos = tripMapper.selectPhotosByRecordId(record.getRecordId());
-    		record.setPhotos(photos);
-    	}
-    	
-    	// (4) 최종 조립
+    	// (3) 최종 조립
     	trip.setRecords(records);
     	return trip;
     }
     
+    // --- 4. 공개 여행 피드 (keyset 페이지네이션, 복제본에서 읽음) ---
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Trip> getPublicFeed(String keyword, String sort, String cursor, Integer size) throws Exception {
+    	int pageSize = (size == null || size <= 0) ? feedDefaultSize : Math.min(size, feedMaxSize);
+    	String sortKey = "oldest".equals(sort) ? "oldest" : "latest";
+    	
+    	LocalDateTime cursorUploadedAt = null;
+    	Integer cursorTripId = null;
+    	if (cursor != null && !cursor.isBlank()) {
+    		String[] values = CursorCodec.decode(cursor, 2);
+    		try {
+    			cursorUploadedAt = LocalDateTime.parse(values[0]);
+    			cursorTripId = Integer.parseInt(values[1]);
+    		} catch (RuntimeException e) {
+    			throw new IllegalArgumentException("잘못된 커서입니다.", e);
+    		}
+    	}
+    	
+    	Map<String, Object> params = new HashMap<>();
+    	List<Integer> tripIds = null;
+    	if (keyword != null && !keyword.isBlank()) {
+    		// 검색 색인이 준비되었으면 제목 LIKE 검색(전체 스캔) 대신 색인에서 이 페이지의 여행 ID를 커서 기준으로 골라 조회
+    		// (색인 검색은 제목/본문/사진 설명 전체에서 모든 단어를 포함한 여행,
+    		//  색인 준비 전이나 한 글자 한글/짧은 영문 단어처럼 색인으로 부분 일치를 찾을 수 없는 검색어는 제목 LIKE 검색)
+    		tripIds = searchService.matchTripIds(keyword.trim(), "oldest".equals(sortKey), cursorUploadedAt, cursorTripId,
+    				pageSize + 1);
+    		if (tripIds == null) {
+    			params.put("keyword", keyword.trim());
+    		} else if (tripIds.isEmpty()) {
+    			return CursorPage.<Trip>builder().items(new ArrayList<>()).hasNext(false).build();
+    		} else {
+    			params.put("tripIds", tripIds);
+    		}
+    	}
+    	params.put("sort", sortKey);
+    	params.put("limit", pageSize + 1); // 한 건 더 읽어서 다음 페이지 여부 판단
+    	if (cursorTripId != null) {
+    		params.put("cursorUploadedAt", cursorUploadedAt);
+    		params.put("cursorTripId", cursorTripId);
+    	}
+    	
+    	List<Trip> trips = tripMapper.selectAllPublicTrips(params);
+    	// 색인 갱신 전에 비공개/삭제된 여행이 빠져 한 페이지가 덜 찼어도, 색인에 다음 여행이 있으면 다음 페이지가 있다
+    	boolean hasNext = trips.size() > pageSize || (tripIds != null && tripIds.size() > pageSize && !trips.isEmpty());
+    	if (trips.size() > pageSize) {
+    		trips = new ArrayList<>(trips.subList(0, pageSize));
+    	}
+    	
+    	String nextCursor = null;
+    	if (hasNext) {
+    		Trip last = trips.get(trips.size() - 1);
+    		nextCursor = CursorCodec.encode(last.getUploadedAt(), last.getTripId());
+    	}
+    	return CursorPage.<Trip>builder()
+    			.items(trips)
+    			.nextCursor(nextCursor)
+    			.hasNext(hasNext)
+    			.build();
+    }
+    
+    // --- 5. 여행/기록/사진 수정, 삭제 (작성자만 가능, 상세 캐시 무효화, 커밋 후 검색/주변 여행 색인 갱신) ---
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateTrip(int memberId, Trip trip) throws Exception {
+    	if (!isOwner(memberId, trip.getTripId())) return false;
+    	
+    	tripMapper.updateTrip(trip);
+    	tripDetailCache.evict(trip.getTripId());
+    	searchService.reindexTrip(trip.getTripId());
+    	nearbyTripService.reindexTrip(trip.getTripId());
+    	return true;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteTrip(int memberId, int tripId) throws Exception {
+    	if (!isOwner(memberId, tripId)) return false;
+    	
+    	photoBlobService.releaseTrip(tripId); // 연쇄 삭제되는 사진 포함
+    	tripMapper.deleteTrip(tripId);
+    	tripDetailCache.evict(tripId);
+    	searchService.reindexTrip(tripId);
+    	nearbyTripService.reindexTrip(tripId);
+    	return true;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean updateTripRecord(int memberId, TripRecord record) throws Exception {
+    	TripRecord saved = tripMapper.selectRecordById(record.getRecordId());
+    	if (saved == null || !isOwner(memberId, saved.getTripId())) return false;
+    	
+    	if (record.getAiContent() != null) {
+    		// 이전 본문을 잠근 뒤 비교해 동시 수정에도 참조 수 증감을 한 번만 반영
+    		String before = tripMapper.selectRecordContentForUpdate(record.getRecordId());
+    		photoBlobService.updateContentReferences(before, record.getAiContent());
+    	}
+    	tripMapper.updateTripRecord(record);
+    	tripDetailCache.evict(saved.getTripId());
+    	searchService.reindexTrip(saved.getTripId());
+    	nearbyTripService.reindexTrip(saved.getTripId());
+    	return true;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteTripRecord(int memberId, int recordId) throws Exception {
+    	TripRecord saved = tripMapper.selectRecordById(recordId);
+    	if (saved == null || !isOwner(memberId, saved.getTripId())) return false;
+    	
+    	photoBlobService.releaseRecord(recordId); // 기록 본문에 실린 사진 포함
+    	tripMapper.deleteTripRecord(recordId);
+    	tripDetailCache.evict(saved.getTripId());
+    	searchService.reindexTrip(saved.getTripId());
+    	nearbyTripService.reindexTrip(saved.getTripId());
+    	return true;
+    }
+    
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean deleteTripPhoto(int memberId, int photoCode) throws Exception {
+    	Integer tripId = tripMapper.selectTripIdByPhotoCode(photoCode);
+    	if (tripId == null || !isOwner(memberId, tripId)) return false;
+    	
+    	photoBlobService.releasePhoto(photoCode);
+    	tripMapper.deleteTripPhoto(photoCode);
+    	tripDetailCache.evict(tripId);
+    	searchService.reindexTrip(tripId);
+    	nearbyTripService.reindexTrip(tripId);
+    	return true;
+    }
+    
+    // 여행이 존재하고 작성자가 본인인지 확인 (타인의 여행은 없는 것으로 처리)
+    private boolean isOwner(int memberId, int tripId) throws Exception {
+    	Trip trip = tripMapper.selectTripById(tripId);
+    	return trip != null && trip.getMemberId() == memberId;
+    }
+    
 }
-
-
-
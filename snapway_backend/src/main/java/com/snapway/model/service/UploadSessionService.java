@@ -0,0 +1,53 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.snapway.model.dto.TripJob;
+import com.snapway.model.dto.UploadFile;
+import com.snapway.model.dto.UploadSession;
+
+public interface UploadSessionService {
+
+    /**
+     * 이어 올리기 업로드 세션을 만듭니다.
+     * 파일 개수/크기 제한은 이 시점에 선언된 크기로 검사합니다.
+     * @param memberId 업로드하는 사용자 ID
+     * @param request title, files(fileName, contentType, size)
+     * @return 생성된 세션 (sessionId 포함)
+     */
+    UploadSession create(int memberId, UploadSession request) throws IOException;
+
+    /**
+     * 파일 조각을 offset 위치에 씁니다. 같은 구간을 다시 보내도 되며 순서는 상관없습니다.
+     * 연결이 중간에 끊겨도 실제로 받은 바이트까지는 기록됩니다.
+     * @param memberId 업로드하는 사용자 ID
+     * @param sessionId 세션 ID
+     * @param index 세션 생성 시 파일 순서 (0부터)
+     * @param offset 조각 시작 위치
+     * @param contentLength 조각 길이 (모르면 -1)
+     * @param body 조각 내용
+     * @return 해당 파일의 받은 구간
+     * @throws org.springframework.web.multipart.MaxUploadSizeExceededException 조각 크기 제한 초과
+     */
+    UploadFile writeChunk(int memberId, String sessionId, int index, long offset, long contentLength, InputStream body) throws IOException;
+
+    /**
+     * 세션 상태와 파일별 받은 구간을 조회합니다.
+     * @return 세션 스냅샷 (없거나 본인 세션이 아니면 null)
+     */
+    UploadSession getSession(int memberId, String sessionId);
+
+    /**
+     * 모든 파일을 받은 세션을 마무리하고 여행 기록 생성 작업을 시작합니다.
+     * 작업 대기열이 가득 차 접수되지 않으면 세션과 받은 파일을 그대로 두므로 다시 요청하면 됩니다.
+     * @return 접수된 작업 정보 (jobId 포함)
+     * @throws java.util.concurrent.RejectedExecutionException 작업 대기열이 가득 찬 경우
+     */
+    TripJob complete(int memberId, String sessionId) throws IOException;
+
+    /**
+     * 세션을 취소하고 받은 조각을 삭제합니다.
+     */
+    void cancel(int memberId, String sessionId);
+}
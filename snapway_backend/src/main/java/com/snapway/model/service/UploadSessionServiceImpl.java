@@ -0,0 +1,420 @@
+package com.snapway.model.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.snapway.model.dto.TripJob;
+import com.snapway.model.dto.UploadFile;
+import com.snapway.model.dto.UploadSession;
+import com.snapway.model.dto.UploadSessionStatus;
+import com.snapway.util.ByteRangeSet;
+import com.snapway.util.StagedMultipartFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    private static final int MAX_TITLE_BYTES = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TripJobService tripJobService;
+
+    @Value("${spring.servlet.multipart.location}")
+    private String basePath;
+
+    // 한 번에 올리는 업로드와 같은 제한을 세션 전체에 적용
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxRequestSize;
+
+    @Value("${app.trip.upload.max-files:50}")
+    private int maxFiles;
+
+    @Value("${app.trip.upload.chunk-max-size:8MB}")
+    private DataSize maxChunkSize;
+
+    // 마지막 조각을 받은 뒤 이 시간이 지나면 만료 (기본 60분)
+    @Value("${app.trip.upload.session-ttl-minutes:60}")
+    private long sessionTtlMinutes;
+
+    @Value("${app.trip.upload.max-sessions-per-member:3}")
+    private int maxSessionsPerMember;
+
+    /**
+     * 진행 중인 세션 (info와 received는 세션 객체로 동기화)
+     * 조각 파일은 디스크에 있지만 세션 정보는 메모리에 보관하므로, 서버가 재시작되면 세션은 유실되고
+     * 남은 조각 디렉토리는 만료 시간이 지난 뒤 sweepExpiredSessions가 정리한다.
+     */
+    private static class Session {
+        final UploadSession info;
+        final ByteRangeSet[] received;
+        final Path dir;
+        int writers; // 쓰는 중인 조각 수
+
+        Session(UploadSession info, Path dir) {
+            this.info = info;
+            this.dir = dir;
+            this.received = new ByteRangeSet[info.getFiles().size()];
+            for (int i = 0; i < received.length; i++) {
+                received[i] = new ByteRangeSet();
+            }
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public UploadSession create(int memberId, UploadSession request) throws IOException {
+        String title = request == null ? null : request.getTitle();
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("제목이 없습니다.");
+        }
+        if (title.getBytes(StandardCharsets.UTF_8).length > MAX_TITLE_BYTES) {
+            throw new IllegalArgumentException("제목이 너무 깁니다.");
+        }
+        List<UploadFile> requested = request.getFiles();
+        if (requested == null || requested.isEmpty()) {
+            throw new IllegalArgumentException("사진 파일이 없습니다.");
+        }
+        if (requested.size() > maxFiles) {
+            throw new IllegalArgumentException("사진은 한 번에 최대 " + maxFiles + "장까지 올릴 수 있습니다.");
+        }
+
+        // 선언된 크기로 용량 제한을 먼저 검사 (조각을 받기 전에 거절)
+        List<UploadFile> files = new ArrayList<>(requested.size());
+        long totalBytes = 0;
+        for (int i = 0; i < requested.size(); i++) {
+            UploadFile file = requested.get(i);
+            if (file == null || file.getFileName() == null || file.getFileName().isBlank() || file.getSize() <= 0) {
+                throw new IllegalArgumentException("파일 정보가 올바르지 않습니다. (" + i + "번째)");
+            }
+            if (Paths.get(file.getFileName()).getFileName() == null) { // "/" 같은 경로 (잘못된 문자는 InvalidPathException)
+                throw new IllegalArgumentException("파일 이름이 올바르지 않습니다: " + file.getFileName());
+            }
+            if (file.getSize() > maxFileSize.toBytes()) {
+                throw new MaxUploadSizeExceededException(maxFileSize.toBytes());
+            }
+            totalBytes += file.getSize();
+            files.add(UploadFile.builder()
+                    .index(i)
+                    .fileName(file.getFileName())
+                    .contentType(file.getContentType())
+                    .size(file.getSize())
+                    .receivedRanges(List.of())
+                    .build());
+        }
+        if (totalBytes > maxRequestSize.toBytes()) {
+            throw new MaxUploadSizeExceededException(maxRequestSize.toBytes());
+        }
+        long activeSessions = sessions.values().stream().filter(s -> s.info.getMemberId() == memberId).count();
+        if (activeSessions >= maxSessionsPerMember) {
+            throw new IllegalArgumentException("진행 중인 업로드가 너무 많습니다. 기존 업로드를 마치거나 취소해 주세요.");
+        }
+
+        String sessionId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession info = UploadSession.builder()
+                .sessionId(sessionId)
+                .memberId(memberId)
+                .title(title)
+                .status(UploadSessionStatus.UPLOADING)
+                .files(files)
+                .totalBytes(totalBytes)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(sessionTtlMinutes))
+                .build();
+
+        // 디렉토리보다 세션을 먼저 등록 (정리 작업이 주인 없는 디렉토리로 보고 지우지 않도록)
+        Path dir = sessionDir(memberId, sessionId);
+        Session session = new Session(info, dir);
+        sessions.put(sessionId, session);
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            sessions.remove(sessionId);
+            throw e;
+        }
+
+        log.info("업로드 세션 생성 - sessionId: {}, 사용자: {}, 파일 수: {}, {} bytes", sessionId, memberId, files.size(), totalBytes);
+        return snapshot(session);
+    }
+
+    @Override
+    public UploadFile writeChunk(int memberId, String sessionId, int index, long offset, long contentLength, InputStream body) throws IOException {
+        Session session = owned(memberId, sessionId);
+        if (index < 0 || index >= session.received.length) {
+            throw new IllegalArgumentException("존재하지 않는 파일 번호입니다.");
+        }
+        UploadFile file = session.info.getFiles().get(index);
+        if (offset < 0 || offset >= file.getSize()) {
+            throw new IllegalArgumentException("offset이 파일 범위를 벗어났습니다.");
+        }
+        long maxChunkBytes = maxChunkSize.toBytes();
+        if (contentLength > maxChunkBytes) {
+            throw new MaxUploadSizeExceededException(maxChunkBytes);
+        }
+        long remaining = file.getSize() - offset;
+        if (contentLength > remaining) {
+            throw new IllegalArgumentException("조각이 파일 크기를 넘습니다.");
+        }
+
+        synchronized (session) {
+            if (session.info.getStatus() != UploadSessionStatus.UPLOADING || sessions.get(sessionId) != session) {
+                throw new IllegalArgumentException("이미 완료되었거나 만료된 업로드 세션입니다.");
+            }
+            session.writers++;
+            touch(session);
+        }
+
+        // 조각끼리는 파일의 서로 다른 위치에 쓰므로 락 없이 동시에 쓴다
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(chunkPath(session, file), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = body.read(buffer)) >= 0) {
+                if (written + read > Math.min(maxChunkBytes, remaining)) {
+                    if (written + read > maxChunkBytes) {
+                        throw new MaxUploadSizeExceededException(maxChunkBytes);
+                    }
+                    throw new IllegalArgumentException("조각이 파일 크기를 넘습니다.");
+                }
+                ByteBuffer src = ByteBuffer.wrap(buffer, 0, read);
+                while (src.hasRemaining()) {
+                    channel.write(src, offset + written + src.position());
+                }
+                written += read;
+            }
+        } finally {
+            // 연결이 끊겨도 실제로 쓴 구간까지는 기록해 둔다 (클라이언트는 나머지만 다시 보냄)
+            synchronized (session) {
+                session.writers--;
+                if (written > 0) {
+                    session.received[index].add(offset, offset + written);
+                }
+                touch(session);
+            }
+        }
+
+        synchronized (session) {
+            return fileSnapshot(session, index);
+        }
+    }
+
+    @Override
+    public UploadSession getSession(int memberId, String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null || session.info.getMemberId() != memberId) {
+            return null;
+        }
+        return snapshot(session);
+    }
+
+    @Override
+    public TripJob complete(int memberId, String sessionId) throws IOException {
+        Session session = owned(memberId, sessionId);
+        synchronized (session) {
+            if (session.info.getStatus() != UploadSessionStatus.UPLOADING || sessions.get(sessionId) != session) {
+                throw new IllegalArgumentException("이미 완료되었거나 만료된 업로드 세션입니다.");
+            }
+            if (session.writers > 0) {
+                throw new IllegalArgumentException("아직 업로드 중인 조각이 있습니다.");
+            }
+            List<UploadFile> files = session.info.getFiles();
+            for (UploadFile file : files) {
+                if (!session.received[file.getIndex()].covers(file.getSize())) {
+                    throw new IllegalArgumentException("아직 다 받지 못한 파일이 있습니다: " + file.getFileName());
+                }
+            }
+
+            // 조각 디렉토리를 그대로 작업의 스테이징 디렉토리로 옮김 (같은 디스크 안에서 이름만 바뀜)
+            Path stagingDir = Paths.get(basePath, String.valueOf(memberId), "staging", "upload-" + sessionId);
+            Files.createDirectories(stagingDir.getParent());
+            Files.move(session.dir, stagingDir, StandardCopyOption.ATOMIC_MOVE);
+
+            List<MultipartFile> stagedFiles = new ArrayList<>(files.size());
+            for (UploadFile file : files) {
+                Path path = stagingDir.resolve(chunkPath(session, file).getFileName());
+                stagedFiles.add(new StagedMultipartFile("files", file.getFileName(), file.getContentType(), path));
+            }
+
+            TripJob job;
+            try {
+                job = tripJobService.submitStaged(memberId, session.info.getTitle(), stagedFiles, stagingDir);
+            } catch (RuntimeException e) {
+                // 접수되지 않았으면 되돌려 두고 세션 유지 (다시 완료 요청 가능)
+                Files.move(stagingDir, session.dir, StandardCopyOption.ATOMIC_MOVE);
+                touch(session);
+                throw e;
+            }
+
+            session.info.setStatus(UploadSessionStatus.COMPLETED);
+            session.info.setJobId(job.getJobId());
+            sessions.remove(sessionId);
+            log.info("업로드 세션 완료 - sessionId: {}, jobId: {}, 파일 수: {}", sessionId, job.getJobId(), files.size());
+            return job;
+        }
+    }
+
+    @Override
+    public void cancel(int memberId, String sessionId) {
+        Session session = owned(memberId, sessionId);
+        synchronized (session) {
+            if (!sessions.remove(sessionId, session)) return;
+        }
+        deleteDirectory(session.dir);
+        log.info("업로드 세션 취소 - sessionId: {}", sessionId);
+    }
+
+    /**
+     * 만료된 세션과 주인 없는 조각 디렉토리(서버 재시작 등으로 세션 정보가 사라진 경우) 정리
+     */
+    @Scheduled(fixedDelayString = "${app.trip.upload.sweep-interval-millis:300000}")
+    public void sweepExpiredSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Session> expired = new ArrayList<>();
+        sessions.values().removeIf(session -> {
+            synchronized (session) {
+                // 조각을 쓰는 중인 세션은 다음 번에 다시 확인
+                if (session.writers == 0 && session.info.getExpiresAt().isBefore(now)) {
+                    expired.add(session);
+                    return true;
+                }
+                return false;
+            }
+        });
+        for (Session session : expired) {
+            deleteDirectory(session.dir);
+            log.info("업로드 세션 만료 - sessionId: {}, 사용자: {}", session.info.getSessionId(), session.info.getMemberId());
+        }
+
+        int orphans = sweepOrphanDirectories(Instant.now().minus(sessionTtlMinutes, ChronoUnit.MINUTES));
+        if (!expired.isEmpty() || orphans > 0) {
+            log.info("업로드 세션 정리 - 만료: {}건, 주인 없는 디렉토리: {}건", expired.size(), orphans);
+        }
+    }
+
+    // {basePath}/{memberId}/uploads/{sessionId} 중 세션이 없고 threshold 이전에 마지막으로 바뀐 디렉토리 삭제
+    private int sweepOrphanDirectories(Instant threshold) {
+        Path root = Paths.get(basePath);
+        if (!Files.isDirectory(root)) return 0;
+
+        int count = 0;
+        try (Stream<Path> members = Files.list(root)) {
+            for (Path memberDir : (Iterable<Path>) members::iterator) {
+                Path uploads = memberDir.resolve("uploads");
+                if (!Files.isDirectory(uploads)) continue;
+                try (Stream<Path> dirs = Files.list(uploads)) {
+                    for (Path dir : (Iterable<Path>) dirs::iterator) {
+                        if (sessions.containsKey(dir.getFileName().toString())) continue;
+                        if (Files.getLastModifiedTime(dir).toInstant().isBefore(threshold)) {
+                            deleteDirectory(dir);
+                            count++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("업로드 디렉토리 정리 실패: {}", root, e);
+        }
+        return count;
+    }
+
+    // ---- 내부 유틸 ----
+
+    private Session owned(int memberId, String sessionId) {
+        Session session = sessionId == null ? null : sessions.get(sessionId);
+        if (session == null || session.info.getMemberId() != memberId) {
+            throw new IllegalArgumentException("존재하지 않는 업로드 세션입니다.");
+        }
+        return session;
+    }
+
+    private void touch(Session session) {
+        session.info.setExpiresAt(LocalDateTime.now().plusMinutes(sessionTtlMinutes));
+    }
+
+    private UploadSession snapshot(Session session) {
+        synchronized (session) {
+            List<UploadFile> files = new ArrayList<>(session.received.length);
+            long receivedBytes = 0;
+            for (int i = 0; i < session.received.length; i++) {
+                UploadFile file = fileSnapshot(session, i);
+                receivedBytes += file.getReceivedBytes();
+                files.add(file);
+            }
+            return session.info.toBuilder()
+                    .files(files)
+                    .receivedBytes(receivedBytes)
+                    .build();
+        }
+    }
+
+    // 호출하는 쪽에서 session 락을 잡고 있어야 함
+    private UploadFile fileSnapshot(Session session, int index) {
+        UploadFile file = session.info.getFiles().get(index);
+        ByteRangeSet received = session.received[index];
+        return UploadFile.builder()
+                .index(index)
+                .fileName(file.getFileName())
+                .contentType(file.getContentType())
+                .size(file.getSize())
+                .receivedBytes(received.totalBytes())
+                .receivedRanges(received.toList())
+                .complete(received.covers(file.getSize()))
+                .build();
+    }
+
+    private Path sessionDir(int memberId, String sessionId) {
+        return Paths.get(basePath, String.valueOf(memberId), "uploads", sessionId);
+    }
+
+    private Path chunkPath(Session session, UploadFile file) {
+        return session.dir.resolve(file.getIndex() + "_" + Paths.get(file.getFileName()).getFileName());
+    }
+
+    private void deleteDirectory(Path dir) {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("업로드 파일 삭제 실패: {}", path);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("업로드 디렉토리 정리 실패: {}", dir, e);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.snapway.security;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -43,26 +42,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			String token = authHeader.substring(7);
 			log.debug("추출된 토큰: {}", token);
 
-			// 유효한 토근이면서 accessToken일 경우만 인증 처리
-			if (jwtUtil.isTokenValid(token) && jwtUtil.isAccessToken(token)) {
+			// 유효한 토근이면서 accessToken일 경우만 인증 처리 (토큰은 한 번만 검증)
+			JwtClaims claims = jwtUtil.verifyAccessToken(token);
+			if (claims != null) {
 				log.debug("토큰 검증 성공!");
-				String userName = jwtUtil.getUserName(token);
-				int userId = (int) jwtUtil.parseClaims(token).get("userId");
-				String realName = (String) jwtUtil.parseClaims(token).get("realName");
-				log.debug("토큰에서 추출한 사용자ID: {}", userId);
-				log.debug("토큰에서 추출한 사용자명: {}", realName);
+				LoginUser loginUser = new LoginUser(claims.userId(), claims.subject(), claims.realName(), claims.roles());
+				log.debug("토큰에서 추출한 사용자ID: {}", loginUser.userId());
+				log.debug("토큰에서 추출한 사용자명: {}", loginUser.name());
 
-				List<String> roles = jwtUtil.getRoles(token);
 				List<GrantedAuthority> authorities = new ArrayList<>();
-				for (String role : roles) {
+				for (String role : claims.roles()) {
 					authorities.add(new SimpleGrantedAuthority(role));
 				}
 
 
-				// principal, credential, 권한 목록이 들어간다.
+				// principal(LoginUser), credential, 권한 목록이 들어간다.
 				UsernamePasswordAuthenticationToken authentication =
-						new UsernamePasswordAuthenticationToken(userName, null, authorities);
-				authentication.setDetails(Map.of("userId", userId, "realName", realName));
+						new UsernamePasswordAuthenticationToken(loginUser, null, authorities);
 
 				SecurityContextHolder.getContext().setAuthentication(authentication);
 				log.debug("SecurityContext에 인증 정보 설정 완료");
@@ -0,0 +1,32 @@
+package com.snapway.security;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 서명/만료 검증을 마친 토큰 내용
+ * 토큰 한 번 파싱으로 필요한 값을 모두 꺼내 두므로, 이후에는 다시 파싱하지 않는다.
+ *
+ * @param subject 이메일
+ * @param userId 회원 ID (리프레시 토큰에는 없음)
+ * @param realName 닉네임 (리프레시 토큰에는 없음)
+ * @param roles 권한 목록 (없으면 빈 목록)
+ */
+public record JwtClaims(String subject, String type, Integer userId, String realName, List<String> roles,
+		Date expiration) {
+
+	public static final String TYPE_ACCESS = "access";
+	public static final String TYPE_REFRESH = "refresh";
+
+	public boolean isAccessToken() {
+		return TYPE_ACCESS.equals(type);
+	}
+
+	public boolean isRefreshToken() {
+		return TYPE_REFRESH.equals(type);
+	}
+
+	public boolean isExpired(long nowMillis) {
+		return expiration == null || expiration.getTime() <= nowMillis;
+	}
+}
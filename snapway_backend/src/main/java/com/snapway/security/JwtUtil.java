@@ -1,6 +1,7 @@
 package com.snapway.security;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -13,8 +14,13 @@ import com.snapway.model.dto.Member;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Component
 public class JwtUtil {
@@ -22,12 +28,32 @@ public class JwtUtil {
 	private final long accessTokenExpire;
 	private final long refreshTokenExpire;
 
+	// 파서는 스레드 안전하므로 한 번만 만든다
+	private final JwtParser parser;
+
+	// 검증된 액세스 토큰 캐시 (최대 개수가 0이면 사용 안 함)
+	private final VerifiedClaimsCache claimsCache;
+	private final Counter cacheHits;
+	private final Counter cacheMisses;
+
 	public JwtUtil(@Value("${app.jwt.secretkey}") String key,
 			@Value("${app.jwt.access-token-expiretime}") long access,
-			@Value("${app.jwt.refresh-token-expiretime}") long refresh) {
+			@Value("${app.jwt.refresh-token-expiretime}") long refresh,
+			@Value("${app.jwt.claims-cache.max-entries:10000}") int cacheMaxEntries,
+			MeterRegistry meterRegistry) {
 		this.secretKey = Keys.hmacShaKeyFor(key.getBytes(StandardCharsets.UTF_8));
 		this.accessTokenExpire = access;
 		this.refreshTokenExpire = refresh;
+		this.parser = Jwts.parser().verifyWith(secretKey).build();
+
+		this.claimsCache = cacheMaxEntries > 0 ? new VerifiedClaimsCache(cacheMaxEntries) : null;
+		this.cacheHits = meterRegistry.counter("snapway.auth.token.cache", "result", "hit");
+		this.cacheMisses = meterRegistry.counter("snapway.auth.token.cache", "result", "miss");
+		if (claimsCache != null) {
+			Gauge.builder("snapway.auth.token.cache.size", claimsCache, VerifiedClaimsCache::size)
+					.description("검증된 액세스 토큰 캐시 항목 수")
+					.register(meterRegistry);
+		}
 	}
 
 	// 엑세스 토큰 생성 메소드
@@ -54,11 +80,64 @@ public class JwtUtil {
 	}
 
 
+	/**
+	 * 요청 인증용 액세스 토큰 검증 (서명 + 구조 + 만료 + 종류)
+	 * 같은 토큰은 캐시에서 꺼내므로 요청마다 서명 검증/JSON 파싱을 반복하지 않는다.
+	 * @return 유효한 액세스 토큰이면 토큰 내용, 아니면 null
+	 */
+	public JwtClaims verifyAccessToken(String token) {
+		long now = System.currentTimeMillis();
+		String key = null;
+		if (claimsCache != null) {
+			key = VerifiedClaimsCache.digest(token);
+			JwtClaims cached = claimsCache.get(key, now);
+			if (cached != null) {
+				cacheHits.increment();
+				return cached;
+			}
+			cacheMisses.increment();
+		}
+
+		JwtClaims claims = verify(token);
+		if (claims == null || !claims.isAccessToken()) return null;
+		if (key != null) {
+			claimsCache.put(key, claims);
+		}
+		return claims;
+	}
+
+	/**
+	 * 토큰을 한 번만 파싱해서 서명/만료를 검증하고 내용을 꺼낸다 (캐시 사용 안 함)
+	 * @return 유효한 토큰이면 토큰 내용, 만료/서명 불일치/형식 오류면 null
+	 */
+	public JwtClaims verify(String token) {
+		Claims claims;
+		try {
+			claims = parser.parseSignedClaims(token).getPayload();
+		} catch (JwtException | IllegalArgumentException e) {
+			// 만료, 서명 불일치, 형식 오류 등 모두 유효하지 않음
+			return null;
+		}
+		JwtClaims verified = new JwtClaims(claims.getSubject(), claims.get("type", String.class),
+				claims.get("userId", Integer.class), claims.get("realName", String.class), roles(claims),
+				claims.getExpiration());
+		return verified.isExpired(System.currentTimeMillis()) ? null : verified;
+	}
+
+	private static List<String> roles(Claims claims) {
+		Object value = claims.get("roles");
+		if (!(value instanceof List<?> list)) return List.of();
+		List<String> roles = new ArrayList<>(list.size());
+		for (Object role : list) {
+			roles.add(String.valueOf(role));
+		}
+		return List.copyOf(roles);
+	}
+
 	// 토큰 파싱 메소드
 	public Claims parseClaims(String token) {
 		try {
-			return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token)
-					.getPayload();
+			return parser.parseSignedClaims(token).getPayload();
 		} catch (ExpiredJwtException e) {
 			return e.getClaims(); // 놀랍게도 만료된 토큰도 꺼내 쓸 수 있게 get이 지원된다.
 		}
@@ -73,19 +152,7 @@ public class JwtUtil {
 
 	// 토큰 전체 유효성 검사 (서명 + 구조 + 만료)
 	public boolean isTokenValid(String token) {
-		try {
-			Claims claims = Jwts.parser().verifyWith(secretKey) // 서명 검증 설정
-					.build().parseSignedClaims(token).getPayload();
-
-			Date expiration = claims.getExpiration();
-			return expiration != null && expiration.after(new Date());
-		} catch (ExpiredJwtException e) {
-			// 만료된 토큰은 유효하지 않다고 처리
-			return false;
-		} catch (Exception e) {
-			// 서명 불일치, 형식 오류 등 모두 false
-			return false;
-		}
+		return verify(token) != null;
 	}
 
 
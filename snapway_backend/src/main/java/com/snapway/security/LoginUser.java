@@ -0,0 +1,24 @@
+package com.snapway.security;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * 인증된 사용자 (JwtAuthenticationFilter가 액세스 토큰 내용으로 만든다)
+ * 컨트롤러에서는 @AuthenticationPrincipal LoginUser로 받으며, 비로그인 요청이면 null이 들어온다.
+ * 회원 ID/이름/권한이 토큰에 이미 있으므로 호출자를 확인하려고 회원 테이블을 조회할 필요가 없다.
+ *
+ * @param email 토큰 subject (Authentication.getName()도 이 값)
+ * @param name 닉네임
+ */
+public record LoginUser(int userId, String email, String name, List<String> roles) implements Principal {
+
+	@Override
+	public String getName() {
+		return email;
+	}
+
+	public boolean hasRole(String role) {
+		return roles.contains(role);
+	}
+}
@@ -70,12 +70,15 @@ public class SecurityConfig {
                 "/api/member/fetchMyInfo",
                 "/api/csrf",   // csrf 토큰 발급용
                 "/api/article/**",
+                "/api/search/**",
                 // 테스트를 위한 임시 개방
                 "/api/trip/**",
                 "/api/auth/password/**",
                 "/api/auth/reissue",
-                "/files/**"
+                "/files/**",
+                "/actuator/health"
             ).permitAll()
+            .requestMatchers("/actuator/**").hasAuthority("ADMIN")
             .anyRequest().authenticated()
         )
         
@@ -0,0 +1,66 @@
+package com.snapway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 검증을 통과한 액세스 토큰의 내용을 보관하는 크기 제한 캐시 (LRU)
+ * 키는 토큰 원문이 아니라 SHA-256 값이므로 메모리에 토큰이 그대로 남지 않는다.
+ * 검증에 성공한 토큰만 넣기 때문에, 위조 토큰은 같은 키를 만들 수 없어 항상 서명 검증을 거친다.
+ * 꺼낼 때 토큰 만료 시각을 다시 확인하므로 만료된 토큰이 캐시 때문에 통과하는 일은 없다.
+ */
+class VerifiedClaimsCache {
+
+	private final int maxEntries;
+	private final Map<String, JwtClaims> entries;
+
+	VerifiedClaimsCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, JwtClaims> eldest) {
+				return size() > VerifiedClaimsCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return 만료되지 않은 캐시 항목, 없으면 null
+	 */
+	JwtClaims get(String key, long nowMillis) {
+		synchronized (entries) {
+			JwtClaims claims = entries.get(key);
+			if (claims == null) return null;
+			if (claims.isExpired(nowMillis)) {
+				entries.remove(key);
+				return null;
+			}
+			return claims;
+		}
+	}
+
+	void put(String key, JwtClaims claims) {
+		synchronized (entries) {
+			entries.put(key, claims);
+		}
+	}
+
+	int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
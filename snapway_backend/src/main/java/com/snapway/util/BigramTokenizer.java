@@ -0,0 +1,101 @@
+package com.snapway.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색용 토크나이저
+ * 한글(및 한자/가나)은 띄어쓰기와 조사 때문에 단어 단위로 자르면 잘 맞지 않으므로
+ * 연속된 글자를 두 글자씩 겹쳐서 자른다. (예: "해운대에서" -> 해운, 운대, 대에, 에서)
+ * 영문/숫자는 단어 단위로 자르고 소문자로 통일한다.
+ * 한 글자짜리 한글 단어는 그대로 한 글자 토큰이 된다.
+ */
+public final class BigramTokenizer {
+
+    private BigramTokenizer() {
+    }
+
+    /**
+     * 문서 색인용: 중복을 포함한 전체 토큰 (빈도 계산용)
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) return tokens;
+
+        // 전각 문자/호환 자모를 일반 문자로 통일 (이미 정규화된 텍스트는 그대로 사용)
+        String normalized = Normalizer.isNormalized(text, Normalizer.Form.NFKC) ? text
+                : Normalizer.normalize(text, Normalizer.Form.NFKC);
+        normalized = normalized.toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            int ch = normalized.codePointAt(i);
+            if (isCjk(ch)) {
+                int start = i;
+                while (i < length && isCjk(normalized.codePointAt(i))) {
+                    i += Character.charCount(normalized.codePointAt(i));
+                }
+                addBigrams(normalized.substring(start, i), tokens);
+            } else if (Character.isLetterOrDigit(ch)) {
+                int start = i;
+                while (i < length) {
+                    int next = normalized.codePointAt(i);
+                    if (!Character.isLetterOrDigit(next) || isCjk(next)) break;
+                    i += Character.charCount(next);
+                }
+                tokens.add(normalized.substring(start, i));
+            } else {
+                i += Character.charCount(ch);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 검색어용: 중복 제거한 토큰
+     */
+    public static List<String> tokenizeQuery(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+    }
+
+    /**
+     * 색인에서 찾으면 부분 일치를 놓치는 검색어 토큰인지 (한 글자 한글 토큰, minWordLength보다 짧은 영문/숫자 단어)
+     * 문서에서는 더 긴 단어의 일부로만 들어 있어 같은 토큰이 없다. (예: "강" -> "한강"의 바이그램, "bus" -> "busan")
+     */
+    public static boolean isPartialToken(String token, int minWordLength) {
+        int count = token.codePointCount(0, token.length());
+        return isCjk(token.codePointAt(0)) ? count == 1 : count < minWordLength;
+    }
+
+    private static void addBigrams(String run, List<String> tokens) {
+        int count = run.codePointCount(0, run.length());
+        if (count == 1) {
+            tokens.add(run);
+            return;
+        }
+        if (count == run.length()) {
+            // 대부분의 한글은 BMP 안에 있으므로 배열 변환 없이 잘라낸다
+            for (int i = 0; i + 1 < run.length(); i++) {
+                tokens.add(run.substring(i, i + 2));
+            }
+            return;
+        }
+        int[] codePoints = run.codePoints().toArray();
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        if (codePoint < 0x1100) return false; // 라틴/숫자/기호 빠른 판정
+        if (codePoint >= 0xAC00 && codePoint <= 0xD7A3) return true; // 한글 음절
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+}
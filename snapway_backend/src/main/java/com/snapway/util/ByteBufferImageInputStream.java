@@ -0,0 +1,58 @@
+package com.snapway.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * ByteBuffer 위에서 바로 동작하는 ImageIO 입력 스트림
+ * ImageIO.read(InputStream)은 임의 접근을 위해 입력 전체를 임시 파일(또는 메모리)에 다시 복사하므로,
+ * 이미 메모리 매핑된 사진은 이 스트림으로 감싸서 추가 복사 없이 디코딩한다.
+ */
+public class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+    private final ByteBuffer buffer;
+
+    public ByteBufferImageInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        this.buffer.rewind();
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        if (streamPos >= buffer.limit()) return -1;
+
+        bitOffset = 0;
+        return buffer.get((int) streamPos++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkClosed();
+        if (len == 0) return 0;
+        if (streamPos >= buffer.limit()) return -1;
+
+        bitOffset = 0;
+        int count = (int) Math.min(len, buffer.limit() - streamPos);
+        buffer.get((int) streamPos, b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return buffer.limit();
+    }
+
+    @Override
+    public boolean isCached() {
+        return true;
+    }
+
+    @Override
+    public boolean isCachedMemory() {
+        return true;
+    }
+}
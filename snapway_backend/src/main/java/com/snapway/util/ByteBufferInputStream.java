@@ -0,0 +1,63 @@
+package com.snapway.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * ByteBuffer(메모리 매핑 버퍼 등)를 복사 없이 읽는 InputStream
+ * 전달받은 버퍼의 위치를 바꾸지 않도록 duplicate()로 만든 독립 버퍼를 사용한다.
+ * mark/reset을 지원하므로 BufferedInputStream으로 감쌀 필요가 없다.
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+    private int mark;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        this.buffer.rewind();
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) return 0;
+        if (!buffer.hasRemaining()) return -1;
+
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0) return 0;
+        int count = (int) Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        mark = buffer.position();
+    }
+
+    @Override
+    public synchronized void reset() {
+        buffer.position(mark);
+    }
+}
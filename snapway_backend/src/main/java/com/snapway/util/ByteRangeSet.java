@@ -0,0 +1,65 @@
+package com.snapway.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 받은 바이트 구간 모음 (이어 올리기용)
+ * 겹치거나 맞닿은 구간은 하나로 합쳐서 보관한다. 동기화는 호출하는 쪽에서 한다.
+ */
+public class ByteRangeSet {
+
+    // 시작 위치 -> 끝 위치(제외)
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    /**
+     * [start, end) 구간 추가
+     */
+    public void add(long start, long end) {
+        if (end <= start) return;
+
+        // 앞쪽에서 겹치거나 맞닿은 구간과 합침
+        Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue() >= start) {
+            start = floor.getKey();
+            end = Math.max(end, floor.getValue());
+        }
+        // 뒤쪽에서 겹치거나 맞닿은 구간을 흡수
+        Map.Entry<Long, Long> next;
+        while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+            end = Math.max(end, next.getValue());
+            ranges.remove(next.getKey());
+        }
+        ranges.put(start, end);
+    }
+
+    /**
+     * @return [0, size) 전체를 받았으면 true
+     */
+    public boolean covers(long size) {
+        if (size == 0) return true;
+        Map.Entry<Long, Long> first = ranges.firstEntry();
+        return first != null && first.getKey() == 0 && first.getValue() >= size;
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            total += range.getValue() - range.getKey();
+        }
+        return total;
+    }
+
+    /**
+     * @return [시작, 끝(제외)] 목록 (시작 위치 순)
+     */
+    public List<long[]> toList() {
+        List<long[]> list = new ArrayList<>(ranges.size());
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            list.add(new long[] {range.getKey(), range.getValue()});
+        }
+        return list;
+    }
+}
@@ -0,0 +1,44 @@
+package com.snapway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 페이지네이션 커서 인코딩/디코딩
+ * 마지막 항목의 정렬 키 값들을 '|'로 이어 붙여 URL-safe Base64로 감싼다.
+ * 클라이언트는 커서 내용을 해석하지 않고 그대로 돌려보내기만 한다.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) builder.append(SEPARATOR);
+            builder.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param parts 커서에 들어 있어야 하는 값 개수
+     * @throws IllegalArgumentException 형식이 맞지 않는 커서
+     */
+    public static String[] decode(String cursor, int parts) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = decoded.split("\\|", -1);
+            if (values.length != parts) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.", e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.snapway.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 위경도 좌표 메모리 공간 색인 (고정 크기 격자)
+ * 지구를 CELL_DEGREES(위도 방향 약 220m) 간격의 칸으로 나누고, 칸마다 좌표를 float 배열로 보관한다. (좌표 1개당 16바이트)
+ *
+ * 조회는 기준점이 있는 칸부터 한 겹씩 바깥 칸으로 넓혀 가며 여행별로 가장 가까운 기록만 남기고,
+ * 다음 겹의 최소 거리가 이미 찾은 limit번째 여행보다 멀면 멈춘다.
+ * 따라서 전체 좌표 수와 관계없이 기준점 주변 몇 칸만 읽는다.
+ * 좌표 추가/삭제는 여행 단위로 하며 쓰기 잠금, 조회는 읽기 잠금으로 처리한다.
+ */
+public class GeoGrid {
+
+    // 칸이 작을수록 도심처럼 좌표가 몰린 곳에서 읽는 좌표 수가 줄고, 클수록 한산한 곳에서 확인할 칸 수가 준다
+    public static final double CELL_DEGREES = 0.002;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    /** 기록 하나의 좌표 */
+    public record Point(int recordId, int tripId, double latitude, double longitude) {
+    }
+
+    /** 여행별로 기준점에서 가장 가까운 기록 */
+    public record Match(int tripId, int recordId, double latitude, double longitude, double distanceMeters) {
+    }
+
+    /**
+     * 칸 하나에 들어 있는 좌표 (순서 없음)
+     */
+    private static final class Cell {
+        int[] recordIds = new int[4];
+        int[] tripIds = new int[4];
+        float[] latitudes = new float[4];
+        float[] longitudes = new float[4];
+        int size;
+
+        void add(Point point) {
+            if (size == recordIds.length) {
+                int capacity = size * 2;
+                recordIds = Arrays.copyOf(recordIds, capacity);
+                tripIds = Arrays.copyOf(tripIds, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            }
+            recordIds[size] = point.recordId();
+            tripIds[size] = point.tripId();
+            latitudes[size] = (float) point.latitude();
+            longitudes[size] = (float) point.longitude();
+            size++;
+        }
+
+        void removeTrip(int tripId) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (tripIds[i] == tripId) continue;
+                recordIds[kept] = recordIds[i];
+                tripIds[kept] = tripIds[i];
+                latitudes[kept] = latitudes[i];
+                longitudes[kept] = longitudes[i];
+                kept++;
+            }
+            size = kept;
+        }
+    }
+
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Integer, long[]> tripCells = new HashMap<>(); // 여행 ID -> 좌표가 들어 있는 칸 (삭제용)
+    private int pointCount;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 여행의 좌표를 모두 교체 (points가 비어 있으면 삭제)
+     */
+    public void putTrip(int tripId, List<Point> points) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(tripId);
+
+            long[] keys = new long[points.size()];
+            int keyCount = 0;
+            for (Point point : points) {
+                long key = key(row(point.latitude()), column(point.longitude()));
+                cells.computeIfAbsent(key, k -> new Cell()).add(point);
+                keys[keyCount++] = key;
+            }
+            pointCount += points.size();
+            if (keyCount > 0) {
+                tripCells.put(tripId, Arrays.stream(keys).distinct().toArray());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeTrip(int tripId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(tripId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 여러 여행을 한 번에 적재 (시작 시 전체 적재용, 좌표는 여행 ID 순서와 관계없이 넘겨도 됨)
+     */
+    public void putAll(List<Point> points) {
+        Map<Integer, List<Point>> byTrip = new HashMap<>();
+        for (Point point : points) {
+            byTrip.computeIfAbsent(point.tripId(), id -> new ArrayList<>()).add(point);
+        }
+        byTrip.forEach(this::putTrip);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pointCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 기준점에서 radiusMeters 안에 기록이 있는 여행을 가까운 순으로 최대 limit건
+     */
+    public List<Match> nearby(double latitude, double longitude, double radiusMeters, int limit) {
+        double latitudeSpan = radiusMeters / METERS_PER_DEGREE;
+        double longitudeSpan = latitudeSpan / Math.max(Math.cos(Math.toRadians(Math.min(89, Math.abs(latitude) + latitudeSpan))), 1e-6);
+        return search(latitude, longitude, latitude - latitudeSpan, longitude - longitudeSpan,
+                latitude + latitudeSpan, longitude + longitudeSpan, radiusMeters, limit);
+    }
+
+    /**
+     * 사각 영역(남서 ~ 북동) 안에 기록이 있는 여행을 영역 중심에서 가까운 순으로 최대 limit건
+     */
+    public List<Match> within(double south, double west, double north, double east, int limit) {
+        return search((south + north) / 2, (west + east) / 2, south, west, north, east, Double.MAX_VALUE, limit);
+    }
+
+    private List<Match> search(double latitude, double longitude, double south, double west, double north, double east,
+                               double radiusMeters, int limit) {
+        if (limit <= 0) return List.of();
+
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        int minRow = row(south);
+        int maxRow = row(north);
+        int minColumn = column(west);
+        int maxColumn = column(east);
+        int maxRing = Math.max(Math.max(centerRow - minRow, maxRow - centerRow),
+                Math.max(centerColumn - minColumn, maxColumn - centerColumn));
+
+        // 한 겹 바깥 칸까지의 최소 거리 (경도 간격이 가장 좁아지는 위도 기준)
+        double widestLatitude = Math.min(89, Math.max(Math.abs(south), Math.abs(north)));
+        double ringMeters = CELL_DEGREES * METERS_PER_DEGREE * Math.cos(Math.toRadians(widestLatitude));
+
+        Map<Integer, Match> best = new HashMap<>();
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        double radiusDegrees = radiusMeters / METERS_PER_DEGREE;
+        double radiusDegreesSquared = radiusDegrees * radiusDegrees;
+
+        lock.readLock().lock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                    if (row < minRow || row > maxRow) continue;
+                    boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                    int step = edgeRow ? 1 : Math.max(1, 2 * ring); // 가운데 줄은 양 끝 칸만
+                    for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                        if (column < minColumn || column > maxColumn) continue;
+                        Cell cell = cells.get(key(row, column));
+                        if (cell != null) {
+                            scan(cell, latitude, longitude, cosLatitude, south, west, north, east, radiusDegreesSquared, best);
+                        }
+                    }
+                }
+
+                // 다음 겹의 어떤 좌표도 지금까지 찾은 limit번째 여행보다 가까울 수 없으면 종료
+                if (best.size() >= limit && kthDistance(best, limit) <= ring * ringMeters) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> matches = new ArrayList<>(best.values());
+        matches.sort(Comparator.comparingDouble(Match::distanceMeters).thenComparingInt(Match::tripId));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * 칸 안의 좌표 중 영역/반경 안에 있는 것을 여행별 최단 거리로 모은다
+     * 조회 범위가 수십 km 이내이므로 거리는 평면 근사(위도 보정)로 계산한다. (오차 0.1% 미만)
+     */
+    private static void scan(Cell cell, double latitude, double longitude, double cosLatitude,
+                             double south, double west, double north, double east,
+                             double radiusDegreesSquared, Map<Integer, Match> best) {
+        for (int i = 0; i < cell.size; i++) {
+            double pointLatitude = cell.latitudes[i];
+            double pointLongitude = cell.longitudes[i];
+            if (pointLatitude < south || pointLatitude > north || pointLongitude < west || pointLongitude > east) continue;
+
+            double dy = pointLatitude - latitude;
+            double dx = (pointLongitude - longitude) * cosLatitude;
+            double squared = dx * dx + dy * dy;
+            if (squared > radiusDegreesSquared) continue;
+
+            int tripId = cell.tripIds[i];
+            Match current = best.get(tripId);
+            double distance = Math.sqrt(squared) * METERS_PER_DEGREE;
+            if (current == null || distance < current.distanceMeters()) {
+                best.put(tripId, new Match(tripId, cell.recordIds[i], pointLatitude, pointLongitude, distance));
+            }
+        }
+    }
+
+    private static double kthDistance(Map<Integer, Match> best, int k) {
+        double[] distances = new double[best.size()];
+        int i = 0;
+        for (Match match : best.values()) {
+            distances[i++] = match.distanceMeters();
+        }
+        Arrays.sort(distances);
+        return distances[k - 1];
+    }
+
+    private void removeInternal(int tripId) {
+        long[] keys = tripCells.remove(tripId);
+        if (keys == null) return;
+
+        for (long key : keys) {
+            Cell cell = cells.get(key);
+            if (cell == null) continue;
+            int before = cell.size;
+            cell.removeTrip(tripId);
+            pointCount -= before - cell.size;
+            if (cell.size == 0) cells.remove(key);
+        }
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,148 @@
+package com.snapway.util;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 축소 디코딩 + 고품질 리사이즈 유틸
+ * 원본 해상도 전체를 디코딩하지 않도록, 헤더의 이미지 크기를 먼저 읽고
+ * ImageReader의 소스 서브샘플링으로 목표 크기에 가깝게 디코딩한 뒤 단계적으로 축소한다.
+ * (12MP 사진을 512px로 줄일 때 디코딩 버퍼가 약 36MB -> 1MB 수준으로 감소)
+ */
+@Slf4j
+@Component
+public class ImageScaler {
+
+    /**
+     * 최대 크기(maxWidth x maxHeight) 안에 들어오도록 비율을 유지하여 축소 디코딩
+     * 스트림은 읽기가 끝나면 닫힌다.
+     * @return 축소된 이미지 (TYPE_INT_RGB), 지원하지 않는 포맷이면 null
+     */
+    public BufferedImage readScaled(ImageInputStream input, int maxWidth, int maxHeight) throws IOException {
+        return readScaled(input, maxWidth, maxHeight, 1);
+    }
+
+    /**
+     * @param oversample 서브샘플링 후 남길 최소 배율 (1: 메모리 최소, 2: 화면 표시용 - 최종 축소에서 계단 현상 감소)
+     */
+    public BufferedImage readScaled(ImageInputStream input, int maxWidth, int maxHeight, int oversample) throws IOException {
+        if (input == null) return null;
+
+        try (input) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                int[] target = fit(width, height, maxWidth, maxHeight);
+
+                // 목표 크기의 oversample배 이상이 남도록 서브샘플링
+                int subsampling = Math.max(1, Math.min(width / (target[0] * oversample), height / (target[1] * oversample)));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                BufferedImage decoded = reader.read(0, param);
+                log.debug("축소 디코딩: {}x{} -> {}x{} (subsampling={})",
+                        width, height, decoded.getWidth(), decoded.getHeight(), subsampling);
+                return resize(decoded, target[0], target[1]);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 이미 디코딩된 이미지를 최대 크기 안에 들어오도록 축소 (작으면 TYPE_INT_RGB 변환만 수행)
+     */
+    public BufferedImage fitInto(BufferedImage source, int maxWidth, int maxHeight) {
+        int[] target = fit(source.getWidth(), source.getHeight(), maxWidth, maxHeight);
+        return resize(source, target[0], target[1]);
+    }
+
+    /**
+     * 단계적 축소 (한 번에 절반 이하로 줄이지 않아 bilinear 보간에서도 품질 유지)
+     * TYPE_INT_RGB로 변환하여 투명도를 제거한다.
+     */
+    public BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    /**
+     * JPEG 압축 (quality: 0.0 ~ 1.0)
+     */
+    public byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeJpeg(image, quality, baos);
+        return baos.toByteArray();
+    }
+
+    public void writeJpeg(BufferedImage image, float quality, OutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) throw new IllegalStateException("No writers found for jpg");
+        ImageWriter writer = writers.next();
+
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * 비율을 유지하면서 최대 크기 안에 들어오는 크기 (원본보다 크게 만들지 않음)
+     */
+    private int[] fit(int width, int height, int maxWidth, int maxHeight) {
+        if (width <= maxWidth && height <= maxHeight) {
+            return new int[] {width, height};
+        }
+
+        double scale = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return new int[] {Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale))};
+    }
+}
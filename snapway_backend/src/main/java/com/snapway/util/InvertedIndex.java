@@ -0,0 +1,296 @@
+package com.snapway.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * 메모리 역색인 (토큰 -> 문서 번호 목록)
+ * 필드별 가중치를 곱한 토큰 빈도로 BM25 점수를 계산하고, 검색어의 모든 토큰을 포함한 문서만 돌려준다. (AND 검색)
+ *
+ * 문서마다 내부 번호를 증가하는 순서로 붙이므로 토큰별 문서 번호 목록은 항상 정렬되어 있고,
+ * 검색은 박싱 없이 정렬된 int 배열끼리 교집합을 구한 뒤 상위 limit건만 힙으로 골라낸다.
+ * 삭제/교체된 문서는 표시만 해 두었다가 목록의 절반 이상이 삭제되면 정리한다.
+ * 문서 추가/삭제는 쓰기 잠금, 검색은 읽기 잠금으로 처리한다.
+ */
+public class InvertedIndex {
+
+    // BM25 파라미터 (일반적인 기본값)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** 색인할 텍스트와 가중치 (예: 제목 3, 태그 2, 본문 1) */
+    public record Field(String text, float weight) {
+    }
+
+    public record Hit(long id, double score) {
+    }
+
+    // 점수 낮은 순 (같으면 ID가 작은 = 오래된 문서가 낮음), 상위 limit건을 고르는 힙에서 사용
+    private static final Comparator<Hit> ASCENDING = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id);
+
+    /**
+     * 토큰 하나의 문서 목록 (문서 번호 오름차순)
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        float[] weights = new float[4];
+        int size;
+        int removed; // 삭제 표시된 문서 수
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size++] = weight;
+        }
+
+        int live() {
+            return size - removed;
+        }
+
+        // 살아 있는 문서만 남기고, 문서 번호가 바뀌었으면 새 번호로 옮긴다 (remap이 null이면 번호 유지)
+        void compact(float[] lengths, int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = docs[i];
+                if (lengths[doc] < 0) continue;
+                docs[kept] = remap == null ? doc : remap[doc];
+                weights[kept++] = weights[i];
+            }
+            size = kept;
+            removed = 0;
+        }
+    }
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docNumbers = new HashMap<>(); // 외부 ID -> 내부 문서 번호
+
+    // 내부 문서 번호별 정보 (삭제된 문서는 length = -1)
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private float[] lengths = new float[INITIAL_CAPACITY];
+    private String[][] terms = new String[INITIAL_CAPACITY][]; // 삭제 시 목록 정리용
+    private int nextDoc;
+    private double totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 필드별 텍스트와 가중치로 문서를 추가 (같은 ID가 있으면 교체)
+     * 토큰화는 잠금 밖에서 하므로 긴 본문을 색인하는 동안에도 검색은 막히지 않는다.
+     */
+    public void put(long id, List<Field> fields) {
+        Map<String, Float> weights = new HashMap<>();
+        float length = 0;
+        for (Field field : fields) {
+            for (String token : BigramTokenizer.tokenize(field.text())) {
+                weights.merge(token, field.weight(), Float::sum);
+                length += field.weight();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (weights.isEmpty()) return;
+
+            if (nextDoc == ids.length) {
+                grow();
+            }
+            int doc = nextDoc++;
+            ids[doc] = id;
+            lengths[doc] = length;
+            terms[doc] = weights.keySet().toArray(new String[0]);
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Postings()).add(doc, weight));
+            docNumbers.put(id, doc);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 일치한 문서 하나 (읽기 잠금 안에서 호출됨)
+    @FunctionalInterface
+    private interface MatchVisitor {
+        void visit(long id, double score);
+    }
+
+    /**
+     * 검색어의 모든 토큰을 포함한 문서를 점수 높은 순으로 반환
+     * @param limit 최대 결과 수
+     */
+    public List<Hit> search(String query, int limit) {
+        if (limit <= 0) return List.of();
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, 1024) + 1, ASCENDING);
+        match(query, (id, score) -> {
+            Hit hit = new Hit(id, score);
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (ASCENDING.compare(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        });
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(ASCENDING.reversed());
+        return hits;
+    }
+
+    /**
+     * 검색어의 모든 토큰을 포함한 문서 ID를 빠짐없이 전달 (점수 상위 몇 건이 아니라 다른 기준으로 고를 때)
+     * consumer는 읽기 잠금 안에서 호출되므로 색인을 수정하면 안 된다.
+     */
+    public void forEachMatch(String query, LongConsumer consumer) {
+        match(query, (id, score) -> consumer.accept(id));
+    }
+
+    private void match(String query, MatchVisitor visitor) {
+        List<String> tokens = BigramTokenizer.tokenizeQuery(query);
+        if (tokens.isEmpty()) return;
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[tokens.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(tokens.get(i));
+                if (lists[i] == null) return; // 없는 토큰이 하나라도 있으면 결과 없음
+            }
+            // 가장 짧은 목록을 기준으로 나머지 목록에서 같은 문서를 찾는다
+            Arrays.sort(lists, Comparator.comparingInt(Postings::live));
+
+            int documentCount = docNumbers.size();
+            double averageLength = documentCount == 0 ? 1 : totalLength / documentCount;
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                int df = lists[i].live();
+                idf[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+
+            int[] positions = new int[lists.length];
+            Postings shortest = lists[0];
+            candidates:
+            for (int c = 0; c < shortest.size; c++) {
+                int doc = shortest.docs[c];
+                float length = lengths[doc];
+                if (length < 0) continue; // 삭제된 문서
+
+                double norm = K1 * (1 - B + B * length / averageLength);
+                double score = idf[0] * termScore(shortest.weights[c], norm);
+                for (int i = 1; i < lists.length; i++) {
+                    Postings list = lists[i];
+                    int position = seek(list.docs, positions[i], list.size, doc);
+                    positions[i] = position;
+                    if (position == list.size) break candidates; // 이 목록이 끝났으면 더 이상 교집합 없음
+                    if (list.docs[position] != doc) continue candidates;
+                    score += idf[i] * termScore(list.weights[position], norm);
+                }
+                visitor.visit(ids[doc], score);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double termScore(float tf, double norm) {
+        return tf * (K1 + 1) / (tf + norm);
+    }
+
+    // docs[from, size)에서 target 이상인 첫 위치 (지수 탐색 후 이진 탐색)
+    private static int seek(int[] docs, int from, int size, int target) {
+        if (from >= size || docs[from] >= target) return from;
+        int step = 1;
+        int low = from;
+        int high = from + 1;
+        while (high < size && docs[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        int found = Arrays.binarySearch(docs, low + 1, Math.min(high, size - 1) + 1, target);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    private void removeInternal(long id) {
+        Integer doc = docNumbers.remove(id);
+        if (doc == null) return;
+
+        totalLength -= lengths[doc];
+        lengths[doc] = -1;
+        for (String term : terms[doc]) {
+            Postings list = postings.get(term);
+            if (list == null) continue;
+            list.removed++;
+            if (list.live() == 0) {
+                postings.remove(term);
+            } else if (list.removed * 2 > list.size) {
+                list.compact(lengths, null);
+            }
+        }
+        terms[doc] = null;
+    }
+
+    // 배열이 가득 찼을 때: 삭제된 문서가 절반 이상이면 번호를 다시 매기고, 아니면 배열을 늘린다
+    private void grow() {
+        if (docNumbers.size() * 2 <= nextDoc) {
+            renumber();
+            if (nextDoc < ids.length) return;
+        }
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        terms = Arrays.copyOf(terms, capacity);
+    }
+
+    // 살아 있는 문서를 앞에서부터 다시 번호 매김 (순서가 유지되므로 목록도 정렬 상태 그대로)
+    private void renumber() {
+        int[] remap = new int[nextDoc];
+        int next = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (lengths[doc] >= 0) remap[doc] = next++;
+        }
+        for (Postings list : postings.values()) {
+            list.compact(lengths, remap);
+        }
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (lengths[doc] < 0) continue;
+            int moved = remap[doc];
+            ids[moved] = ids[doc];
+            lengths[moved] = lengths[doc];
+            terms[moved] = terms[doc];
+            docNumbers.put(ids[moved], moved);
+        }
+        Arrays.fill(terms, next, nextDoc, null);
+        nextDoc = next;
+    }
+}
@@ -0,0 +1,232 @@
+package com.snapway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.Member;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 회원 정보 2단계 캐시 (서버 메모리 LRU -> Redis -> DB)
+ * 키: 이메일, 값: 비밀번호를 뺀 Member (비밀번호 해시는 어느 단계에도 저장하지 않는다)
+ * 로그인 비밀번호 검증은 해시가 필요하므로 이 캐시를 쓰지 않고 항상 DB에서 읽는다.
+ *
+ * 회원 정보/비밀번호가 바뀌거나 탈퇴하면 evict로 Redis 값을 지우고, Redis pub/sub(EVICT_CHANNEL)으로
+ * 모든 서버에 알려 각 서버 메모리에 남은 값도 지운다. (RedisConfig에서 리스너 등록)
+ * 메시지를 놓친 서버가 있어도 메모리 값은 local-ttl-seconds 뒤에 만료된다.
+ * Redis 장애 시에는 메모리 캐시와 DB만으로 동작한다.
+ */
+@Slf4j
+@Component
+public class MemberCache implements MessageListener {
+
+    public static final String EVICT_CHANNEL = "member:profile:evict";
+    private static final String KEY_PREFIX = "member:profile:";
+
+    // 호출하는 쪽의 예외 타입(SQLException 등)을 그대로 전달한다
+    @FunctionalInterface
+    public interface Loader<E extends Exception> {
+        Member load() throws E;
+    }
+
+    private record Entry(Member member, long expiresAt) {
+    }
+
+    private final RedisUtil redisUtil;
+    private final ObjectMapper objectMapper;
+    private final Counter localHitCounter;
+    private final Counter redisHitCounter;
+    private final Counter missCounter;
+
+    // 서버 메모리 캐시 (접근 순서 LRU)
+    private final Map<String, Entry> local;
+
+    @Value("${app.member.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.member.cache.local-ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${app.member.cache.redis-ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    public MemberCache(RedisUtil redisUtil, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                       @Value("${app.member.cache.local-max-entries:10000}") int localMaxEntries) {
+        this.redisUtil = redisUtil;
+        this.objectMapper = objectMapper;
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > localMaxEntries;
+            }
+        };
+        this.localHitCounter = counter(meterRegistry, "local");
+        this.redisHitCounter = counter(meterRegistry, "redis");
+        this.missCounter = counter(meterRegistry, "miss");
+
+        Gauge.builder("snapway.member.cache.local.size", this, cache -> cache.localSize())
+                .description("서버 메모리 회원 캐시 항목 수")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("snapway.member.cache")
+                .tag("result", result)
+                .description("회원 캐시 조회 결과 (local/redis 적중, miss는 DB 조회)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader로 DB에서 읽어 비밀번호를 지운 뒤 저장 (없는 회원은 저장하지 않음)
+     */
+    public <E extends Exception> Member get(String email, Loader<E> loader) throws E {
+        if (!enabled) return sanitize(loader.load());
+
+        long now = System.currentTimeMillis();
+        Member member = readLocal(email, now);
+        if (member != null) {
+            localHitCounter.increment();
+            return copy(member);
+        }
+
+        member = readRedis(email);
+        if (member != null) {
+            redisHitCounter.increment();
+            writeLocal(email, member, now);
+            return copy(member);
+        }
+
+        missCounter.increment();
+        member = sanitize(loader.load());
+        if (member != null) {
+            writeRedis(email, member);
+            writeLocal(email, member, now);
+        }
+        return copy(member);
+    }
+
+    /**
+     * 캐시 무효화 (이 서버 메모리 + Redis + 다른 서버 메모리)
+     * 트랜잭션 안에서 호출되면 지금 한 번, 커밋 후 한 번 더 삭제한다.
+     * (커밋 전에 다른 요청이 이전 데이터를 다시 캐시에 넣는 경우 대비)
+     */
+    public void evict(String email) {
+        if (email == null) return;
+        delete(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * 다른 서버(또는 자신)가 보낸 무효화 메시지: 메모리 캐시만 지운다 (Redis는 보낸 서버가 이미 삭제)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String email = new String(message.getBody(), StandardCharsets.UTF_8);
+        synchronized (local) {
+            local.remove(email);
+        }
+        log.debug("회원 캐시 무효화 수신: {}", email);
+    }
+
+    private void delete(String email) {
+        synchronized (local) {
+            local.remove(email);
+        }
+        try {
+            redisUtil.deleteData(key(email));
+            redisUtil.publish(EVICT_CHANNEL, email);
+        } catch (RuntimeException e) {
+            log.warn("회원 캐시 삭제 실패: {} ({})", email, e.getMessage());
+        }
+    }
+
+    private Member readLocal(String email, long now) {
+        synchronized (local) {
+            Entry entry = local.get(email);
+            if (entry == null) return null;
+            if (entry.expiresAt() <= now) {
+                local.remove(email);
+                return null;
+            }
+            return entry.member();
+        }
+    }
+
+    private void writeLocal(String email, Member member, long now) {
+        synchronized (local) {
+            local.put(email, new Entry(member, now + localTtlSeconds * 1000));
+        }
+    }
+
+    private Member readRedis(String email) {
+        try {
+            String json = redisUtil.getData(key(email));
+            return json == null ? null : objectMapper.readValue(json, Member.class);
+        } catch (Exception e) {
+            log.warn("회원 캐시 조회 실패: {} ({})", email, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String email, Member member) {
+        try {
+            redisUtil.setDataExpire(key(email), objectMapper.writeValueAsString(member), redisTtlSeconds);
+        } catch (Exception e) {
+            log.warn("회원 캐시 저장 실패: {} ({})", email, e.getMessage());
+        }
+    }
+
+    private int localSize() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    private static Member sanitize(Member member) {
+        if (member != null) {
+            member.setPassword(null);
+        }
+        return member;
+    }
+
+    // 캐시에 든 객체를 호출자가 고쳐도 캐시가 바뀌지 않도록 복사본을 돌려준다
+    private static Member copy(Member member) {
+        if (member == null) return null;
+        return Member.builder()
+                .id(member.getId())
+                .email(member.getEmail())
+                .username(member.getUsername())
+                .role(member.getRole())
+                .createdAt(member.getCreatedAt())
+                .profileImg(member.getProfileImg())
+                .gender(member.getGender())
+                .birthday(member.getBirthday())
+                .style(member.getStyle())
+                .build();
+    }
+
+    private String key(String email) {
+        return KEY_PREFIX + email;
+    }
+}
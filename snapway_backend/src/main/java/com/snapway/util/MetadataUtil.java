@@ -1,25 +1,31 @@
 package com.snapway.util;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.drew.imaging.ImageMetadataReader;
 import com.drew.imaging.ImageProcessingException;
+import com.drew.imaging.jpeg.JpegSegmentType;
 import com.drew.lang.GeoLocation;
 import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifReader;
 import com.drew.metadata.exif.ExifSubIFDDirectory;
 import com.drew.metadata.exif.GpsDirectory;
 import com.snapway.model.dto.PhotoMetadata;
@@ -33,6 +39,16 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class MetadataUtil {
 	
+	private static final int JPEG_SOI = 0xFFD8;
+	private static final int JPEG_APP1 = 0xE1;
+	private static final int JPEG_SOS = 0xDA;
+	private static final int JPEG_EOI = 0xD9;
+	private static final byte[] EXIF_PREAMBLE = {'E', 'x', 'i', 'f', 0, 0};
+	
+	// 빠른 경로에서 읽을 최대 헤더 크기 (넘으면 전체 리더 사용)
+	@Value("${app.photo.exif.header-budget-bytes:262144}")
+	private int exifHeaderBudgetBytes;
+	
 	/**
 	 * 파일과 추출된 메타데이터를 함께 다루기 위한 래퍼 클래스
 	 */
@@ -46,6 +62,7 @@ public class MetadataUtil {
 
 	/**
 	 * 여러 장의 사진을 받아 메타데이터를 추출하고, 촬영 시간 순(오름차순)으로 정렬하여 반환
+	 * 업로드 중에 이미 추출해 둔 스테이징 파일은 다시 읽지 않는다.
 	 */
 	public List<PhotoWithFile> extractAndSort(List<MultipartFile> files) {
 		if (files == null || files.isEmpty()) {
@@ -55,7 +72,8 @@ public class MetadataUtil {
 		return files.stream()
 				.map(file -> PhotoWithFile.builder()
 						.file(file)
-						.metadata(extractMetadata(file))
+						.metadata(file instanceof StagedMultipartFile staged && staged.getMetadata() != null
+								? staged.getMetadata() : extractMetadata(file))
 						.build())
 				.sorted(Comparator.comparing(
 						pwf -> pwf.getMetadata().getTakenAt(),
@@ -66,14 +84,27 @@ public class MetadataUtil {
 
 	/**
 	 * MultipartFile로부터 메타데이터(촬영 일시 및 GPS) 추출
+	 * JPEG는 헤더의 EXIF(APP1) 세그먼트만 읽는 빠른 경로를 먼저 시도하고,
+	 * 그 외 포맷이거나 빠른 경로로 읽지 못한 경우 전체 리더를 사용한다.
 	 */
 	public PhotoMetadata extractMetadata(MultipartFile multipartFile) {
 		if (multipartFile.isEmpty()) {
 			return new PhotoMetadata();
 		}
 		
-		// BufferedInputStream 사용 유지 (스트림 mark/reset 지원)
-		try(InputStream inputStream = new BufferedInputStream(multipartFile.getInputStream())) {
+		// 1. 빠른 경로 (헤더 예산 안에서 EXIF 세그먼트만 읽음)
+		try(InputStream inputStream = openStream(multipartFile)) {
+			PhotoMetadata result = extractHeaderMetadata(inputStream);
+			if (result != null) {
+				return result;
+			}
+		} catch (IOException | RuntimeException e) {
+			log.debug("EXIF 헤더 읽기 실패, 전체 메타데이터를 읽습니다 (파일명: {}): {}", multipartFile.getOriginalFilename(), e.getMessage());
+		}
+		
+		// 2. 전체 리더
+		// 스테이징 파일은 매핑된 버퍼를 그대로 읽고(mark/reset 지원), 그 외에는 BufferedInputStream 사용 유지
+		try(InputStream inputStream = openStream(multipartFile)) {
 			Metadata metadata = ImageMetadataReader.readMetadata(inputStream, multipartFile.getSize());
 			return parseMetadata(metadata);
 		} catch (IOException | ImageProcessingException e) {
@@ -82,6 +113,62 @@ public class MetadataUtil {
 		}
 	}
 	
+	/**
+	 * JPEG 헤더에서 EXIF 세그먼트만 읽어 메타데이터 추출 (빠른 경로)
+	 * 이미지 데이터(SOS) 전까지의 세그먼트를 순서대로 건너뛰다가 EXIF APP1을 찾으면 바로 멈추며,
+	 * 최대 exifHeaderBudgetBytes까지만 읽는다.
+	 * @return JPEG가 아니면 null (전체 리더 사용), EXIF가 없는 JPEG면 빈 메타데이터
+	 * @throws IOException 예산을 넘었거나 세그먼트 구조가 잘못된 경우
+	 */
+	public PhotoMetadata extractHeaderMetadata(InputStream inputStream) throws IOException {
+		DataInputStream data = new DataInputStream(new BoundedInputStream(inputStream, exifHeaderBudgetBytes));
+		
+		if (data.readUnsignedShort() != JPEG_SOI) {
+			return null;
+		}
+		
+		while (true) {
+			if (data.readUnsignedByte() != 0xFF) {
+				throw new IOException("잘못된 JPEG 세그먼트 마커");
+			}
+			int type = data.readUnsignedByte();
+			while (type == 0xFF) { // 채움 바이트
+				type = data.readUnsignedByte();
+			}
+			
+			// 이미지 데이터 시작/파일 끝 -> EXIF 없음
+			if (type == JPEG_SOS || type == JPEG_EOI) {
+				return new PhotoMetadata();
+			}
+			// 길이 필드가 없는 마커
+			if (type == 0x01 || (type >= 0xD0 && type <= 0xD7)) {
+				continue;
+			}
+			
+			int length = data.readUnsignedShort() - 2;
+			if (length < 0) {
+				throw new IOException("잘못된 JPEG 세그먼트 길이");
+			}
+			
+			if (type == JPEG_APP1 && length >= EXIF_PREAMBLE.length) {
+				byte[] segment = new byte[length];
+				data.readFully(segment);
+				if (Arrays.equals(segment, 0, EXIF_PREAMBLE.length, EXIF_PREAMBLE, 0, EXIF_PREAMBLE.length)) {
+					Metadata metadata = new Metadata();
+					new ExifReader().readJpegSegments(List.of(segment), metadata, JpegSegmentType.APP1);
+					return parseMetadata(metadata);
+				}
+			} else {
+				data.skipNBytes(length);
+			}
+		}
+	}
+	
+	private InputStream openStream(MultipartFile multipartFile) throws IOException {
+		InputStream inputStream = multipartFile.getInputStream();
+		return inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+	}
+	
 	public PhotoMetadata extractMetadata(File file) {
 		try {
 			Metadata metadata = ImageMetadataReader.readMetadata(file);
@@ -92,6 +179,46 @@ public class MetadataUtil {
 		}
 	}
 	
+	/**
+	 * 지정한 크기까지만 읽고 그 이후는 스트림 끝(EOF)으로 처리하는 InputStream
+	 */
+	private static class BoundedInputStream extends FilterInputStream {
+		private long remaining;
+		
+		BoundedInputStream(InputStream in, long limit) {
+			super(in);
+			this.remaining = limit;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) return -1;
+			int b = super.read();
+			if (b >= 0) remaining--;
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) return -1;
+			int count = super.read(b, off, (int) Math.min(len, remaining));
+			if (count > 0) remaining -= count;
+			return count;
+		}
+		
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(Math.min(n, remaining));
+			remaining -= skipped;
+			return skipped;
+		}
+		
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+	
 	private PhotoMetadata parseMetadata(Metadata metadata) {
 		PhotoMetadata result = new PhotoMetadata();
 		
@@ -0,0 +1,257 @@
+package com.snapway.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * multipart/form-data 요청 본문을 도착하는 대로 한 파트씩 읽는 리더
+ * 서블릿 컨테이너처럼 모든 파트를 임시 파일로 받아둔 뒤 넘기지 않으므로,
+ * 앞쪽 사진을 저장/분석하는 동안 뒤쪽 사진이 계속 업로드된다.
+ *
+ * next()로 다음 파트를 꺼내며, 이전 파트의 내용을 다 읽지 않았으면 남은 내용은 버린다.
+ * 본문이 maxBytes를 넘으면 그 시점에 MaxUploadSizeExceededException이 발생한다. (끝까지 받지 않음)
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=(?:\"([^\"]+)\"|([^;\\s]+))", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DISPOSITION_PARAM = Pattern.compile(";\\s*([A-Za-z*]+)\\s*=\\s*(?:\"((?:[^\"\\\\]|\\\\.)*)\"|([^;\\s]*))");
+
+    /**
+     * 파트 하나 (filename이 있으면 파일, 없으면 일반 폼 필드)
+     * body는 다음 구분자 직전까지만 읽힌다.
+     */
+    public record Part(String name, String filename, String contentType, InputStream body) {
+
+        public boolean isFile() {
+            return filename != null;
+        }
+
+        /**
+         * 폼 필드 값을 문자열로 읽음 (maxBytes를 넘으면 IllegalArgumentException)
+         */
+        public String readString(int maxBytes) throws IOException {
+            byte[] bytes = body.readNBytes(maxBytes + 1);
+            if (bytes.length > maxBytes) {
+                throw new IllegalArgumentException("'" + name + "' 값이 너무 깁니다.");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter; // CRLF + "--" + boundary
+    private final long maxBytes;
+    private final byte[] buf;
+    private int pos;
+    private int limit;
+    private long totalRead;
+    private boolean eof;
+    private boolean finished;
+    private PartInputStream current;
+
+    public MultipartStreamReader(InputStream in, String boundary, long maxBytes) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.maxBytes = maxBytes;
+        this.buf = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+
+        // 첫 구분자 앞에는 CRLF가 없으므로 미리 넣어두고, 첫 구분자까지(preamble)는 빈 파트처럼 건너뛴다
+        buf[limit++] = '\r';
+        buf[limit++] = '\n';
+        this.current = new PartInputStream();
+    }
+
+    /**
+     * Content-Type 헤더에서 boundary 추출
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            throw new IllegalArgumentException("multipart/form-data 요청이 아닙니다.");
+        }
+        Matcher matcher = BOUNDARY.matcher(contentType);
+        if (!matcher.find()) {
+            throw new IllegalArgumentException("multipart boundary가 없습니다.");
+        }
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    /**
+     * 본문에서 지금까지 읽은 바이트 수
+     */
+    public long getBytesRead() {
+        return totalRead;
+    }
+
+    /**
+     * @return 다음 파트, 마지막 구분자를 만나면 null
+     */
+    public Part next() throws IOException {
+        if (finished) return null;
+        current.skipRemaining();
+
+        // 구분자 뒤에 "--"가 오면 본문 끝, CRLF가 오면 다음 파트 헤더
+        while (limit - pos < 2) {
+            if (!fill()) throw new IOException("multipart 본문이 중간에 끝났습니다.");
+        }
+        if (buf[pos] == '-' && buf[pos + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        if (buf[pos] != '\r' || buf[pos + 1] != '\n') {
+            throw new IOException("잘못된 multipart 구분자입니다.");
+        }
+        pos += 2;
+
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        int headerBytes = 0;
+        while (true) {
+            int end;
+            while ((end = indexOf(CRLF, pos, limit - 1)) < 0) {
+                if (limit - pos > MAX_HEADER_BYTES || !fill()) {
+                    throw new IOException("잘못된 multipart 파트 헤더입니다.");
+                }
+            }
+            headerBytes += end - pos + 2;
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new IOException("multipart 파트 헤더가 너무 깁니다.");
+            }
+            String line = new String(buf, pos, end - pos, StandardCharsets.UTF_8);
+            pos = end + 2;
+            if (line.isEmpty()) break;
+
+            int colon = line.indexOf(':');
+            if (colon < 0) continue;
+            String headerName = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (headerName.equals("content-type")) {
+                contentType = value;
+            } else if (headerName.equals("content-disposition")) {
+                Matcher matcher = DISPOSITION_PARAM.matcher(value);
+                while (matcher.find()) {
+                    String key = matcher.group(1).toLowerCase(Locale.ROOT);
+                    String paramValue = matcher.group(2) != null ? matcher.group(2).replaceAll("\\\\(.)", "$1") : matcher.group(3);
+                    if (key.equals("name")) {
+                        name = paramValue;
+                    } else if (key.equals("filename")) {
+                        filename = paramValue;
+                    } else if (key.equals("filename*") && filename == null) {
+                        filename = decodeExtValue(paramValue); // RFC 5987 (UTF-8''...)
+                    }
+                }
+            }
+        }
+
+        current = new PartInputStream();
+        return new Part(name, filename, contentType, current);
+    }
+
+    private static String decodeExtValue(String value) {
+        int quote = value.indexOf("''");
+        if (quote < 0) return value;
+        return URLDecoder.decode(value.substring(quote + 2), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 버퍼를 앞으로 당기고 본문을 더 읽음
+     * @return 본문 끝이면 false
+     */
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        int read = in.read(buf, limit, buf.length - limit);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        totalRead += read;
+        if (totalRead > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+        limit += read;
+        return true;
+    }
+
+    // buf[from, to) 안에서 pattern이 시작하는 위치 (pattern 전체가 limit 안에 있는 경우만)
+    private int indexOf(byte[] pattern, int from, int to) {
+        int last = Math.min(to, limit - pattern.length + 1);
+        byte first = pattern[0];
+        outer:
+        for (int i = from; i < last; i++) {
+            if (buf[i] != first) continue;
+            for (int j = 1; j < pattern.length; j++) {
+                if (buf[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 현재 파트 내용 (다음 구분자 직전까지)
+     */
+    private class PartInputStream extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done || current != this) return -1;
+            if (len == 0) return 0;
+
+            while (true) {
+                // 앞으로 len 바이트 안에서 시작하는 구분자만 찾는다 (버퍼 전체를 매번 다시 훑지 않음)
+                int found = indexOf(delimiter, pos, pos + len);
+                int available;
+                if (found >= 0) {
+                    available = found - pos;
+                    if (available == 0) {
+                        pos += delimiter.length;
+                        done = true;
+                        return -1;
+                    }
+                } else {
+                    // 버퍼 끝의 (구분자 길이 - 1) 바이트는 구분자의 앞부분일 수 있으므로 더 읽은 뒤에 판단
+                    available = Math.min(len, limit - pos - (delimiter.length - 1));
+                    if (available <= 0) {
+                        if (!fill()) throw new IOException("multipart 본문이 중간에 끝났습니다.");
+                        continue;
+                    }
+                }
+                int count = Math.min(len, available);
+                System.arraycopy(buf, pos, b, off, count);
+                pos += count;
+                return count;
+            }
+        }
+
+        void skipRemaining() throws IOException {
+            byte[] skip = new byte[8 * 1024];
+            while (read(skip, 0, skip.length) >= 0) {
+                // 읽지 않은 내용 버림
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.snapway.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 사진 저장소(blobs) 경로 규칙, 내용 해시 계산, URL/본문에서 참조를 찾는 도구
+ * 저장 경로: blobs/{해시 앞 2자리}/{다음 2자리}/{sha256}.{확장자}
+ * URL은 /files/blobs/..., 축소본은 /files/variants/{종류}/blobs/..., 게시글 에디터는 다른 호스트의 /blobs/... 형태라
+ * 경로의 "/blobs/aa/bb/{sha256}" 부분만 보고 참조를 판단한다.
+ */
+public final class PhotoBlobPaths {
+
+    public static final String BLOBS_DIR = "blobs";
+
+    private static final Pattern REFERENCE = Pattern.compile("/" + BLOBS_DIR + "/[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private PhotoBlobPaths() {
+    }
+
+    /**
+     * 내용의 SHA-256 (소문자 16진수 64자)
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 버퍼 내용의 SHA-256 (StagedMultipartFile의 매핑 버퍼를 다시 읽지 않고 사용)
+     */
+    public static String sha256(ByteBuffer content) {
+        MessageDigest digest = newDigest();
+        digest.update(content);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 해시와 원본 파일명 -> 저장 경로 (확장자는 리소스 핸들러가 Content-Type을 정하는 데만 쓰인다)
+     */
+    public static String relativePath(String sha256, String originalFilename) {
+        String path = BLOBS_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+        String extension = extensionOf(originalFilename);
+        return extension == null ? path : path + "." + extension;
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) return null;
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) return null;
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : null;
+    }
+
+    /**
+     * URL 하나가 가리키는 사진의 해시 (저장소 경로가 아니면 null)
+     */
+    public static String hashOf(String url) {
+        if (url == null) return null;
+        Matcher matcher = REFERENCE.matcher(url);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 여행 사진 경로 목록 -> 해시별 참조 수 (같은 사진을 가리키는 행은 각각 센다)
+     */
+    public static Map<String, Integer> countReferences(Collection<String> urls) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String url : urls) {
+            String sha256 = hashOf(url);
+            if (sha256 != null) {
+                counts.merge(sha256, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * 게시글 본문 -> 참조하는 사진 해시 (한 글에서 같은 사진을 여러 번 써도 한 번만 센다)
+     */
+    public static Set<String> referencesIn(String content) {
+        Set<String> hashes = new LinkedHashSet<>();
+        if (content == null) return hashes;
+        Matcher matcher = REFERENCE.matcher(content);
+        while (matcher.find()) {
+            hashes.add(matcher.group(1));
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,115 @@
+package com.snapway.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사진 AI 묘사 결과 캐시 (Redis)
+ * 키: ai:photo-desc:{프롬프트 버전}:{변환된 이미지의 SHA-256}
+ * 같은 사진을 다시 올리면 Gemini 호출 없이 이전 묘사를 재사용한다.
+ * 저장 순서를 정렬 집합(인덱스)에 기록해 두고, 최대 개수를 넘으면 오래된 항목부터 삭제한다.
+ * Redis 장애 시에는 캐시 미스로 처리하여 분석 자체는 계속 진행한다.
+ */
+@Slf4j
+@Component
+public class PhotoDescriptionCache {
+
+    private static final String KEY_PREFIX = "ai:photo-desc:";
+    private static final String INDEX_SUFFIX = "index";
+
+    private final RedisUtil redisUtil;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Value("${app.ai.description-cache.enabled:true}")
+    private boolean enabled;
+
+    // 캐시 보관 기간(초, 기본 7일)
+    @Value("${app.ai.description-cache.ttl-seconds:604800}")
+    private long ttlSeconds;
+
+    // 프롬프트 버전별 최대 보관 개수
+    @Value("${app.ai.description-cache.max-entries:10000}")
+    private long maxEntries;
+
+    public PhotoDescriptionCache(RedisUtil redisUtil, MeterRegistry meterRegistry) {
+        this.redisUtil = redisUtil;
+        this.hitCounter = Counter.builder("snapway.ai.description.cache")
+                .tag("result", "hit")
+                .description("사진 묘사 캐시 조회 결과")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("snapway.ai.description.cache")
+                .tag("result", "miss")
+                .description("사진 묘사 캐시 조회 결과")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시 조회 (없거나 Redis 오류 시 null)
+     */
+    public String get(String promptVersion, String base64Image) {
+        if (!enabled || base64Image == null) return null;
+
+        try {
+            String description = redisUtil.getData(key(promptVersion, hash(base64Image)));
+            (description != null ? hitCounter : missCounter).increment();
+            return description;
+        } catch (RuntimeException e) {
+            log.warn("사진 묘사 캐시 조회 실패: {}", e.getMessage());
+            missCounter.increment();
+            return null;
+        }
+    }
+
+    /**
+     * 캐시 저장 후 최대 개수를 넘은 오래된 항목 정리
+     */
+    public void put(String promptVersion, String base64Image, String description) {
+        if (!enabled || base64Image == null || description == null || description.isBlank()) return;
+
+        String hash = hash(base64Image);
+        String indexKey = KEY_PREFIX + promptVersion + ":" + INDEX_SUFFIX;
+        long now = System.currentTimeMillis();
+
+        try {
+            redisUtil.setDataExpire(key(promptVersion, hash), description, ttlSeconds);
+
+            // 인덱스 갱신: 만료된 항목 제거 -> 현재 항목 추가 -> 초과분 삭제
+            redisUtil.removeFromSortedSetByScore(indexKey, now - ttlSeconds * 1000.0);
+            redisUtil.addToSortedSet(indexKey, hash, now);
+            redisUtil.expire(indexKey, ttlSeconds);
+
+            long overflow = redisUtil.getSortedSetSize(indexKey) - maxEntries;
+            if (overflow > 0) {
+                Set<String> evicted = redisUtil.popMinFromSortedSet(indexKey, overflow);
+                redisUtil.deleteData(evicted.stream().map(h -> key(promptVersion, h)).toList());
+            }
+        } catch (RuntimeException e) {
+            log.warn("사진 묘사 캐시 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private String key(String promptVersion, String hash) {
+        return KEY_PREFIX + promptVersion + ":" + hash;
+    }
+
+    // 변환(리사이즈/재압축)된 이미지 기준으로 해시하므로 메타데이터만 다른 같은 사진도 같은 키가 된다.
+    private String hash(String base64Image) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(base64Image.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.snapway.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+/**
+ * 논블로킹 요청의 동시 실행 수 제한
+ * 한도를 넘는 요청은 스레드를 점유하지 않고 대기열에서 기다렸다가, 앞선 요청이 끝나면(성공/실패/취소) 순서대로 시작된다.
+ * 여러 호출자(여행 작업마다의 flatMap 등)가 하나의 인스턴스를 공유해야 전체 한도가 지켜진다.
+ */
+public class ReactiveLimiter {
+
+    private final int maxConcurrency;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int active;
+
+    public ReactiveLimiter(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("동시 실행 수는 1 이상이어야 합니다: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * 자리가 나면 request를 구독하는 Mono
+     * 대기 중에 취소되면 request는 구독되지 않고, 실행 중에 취소되면 request도 취소된다.
+     */
+    public <T> Mono<T> limit(Mono<T> request) {
+        return Mono.create(sink -> {
+            Disposable.Swap running = Disposables.swap();
+            Runnable start = () -> running.update(request
+                    .doFinally(signal -> release())
+                    .subscribe(sink::success, sink::error, sink::success));
+
+            boolean startNow;
+            synchronized (this) {
+                startNow = active < maxConcurrency;
+                if (startNow) {
+                    active++;
+                } else {
+                    waiting.add(start);
+                }
+            }
+            sink.onCancel(() -> {
+                boolean removed;
+                synchronized (this) {
+                    removed = waiting.remove(start);
+                }
+                // 대기열에서 빠졌으면 자리를 잡은 적이 없으므로 반납할 것도 없음
+                if (!removed) running.dispose();
+            });
+            if (startNow) start.run();
+        });
+    }
+
+    // 끝난 요청의 자리를 다음 대기 요청에 넘기고, 없으면 반납
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) active--;
+        }
+        if (next != null) next.run();
+    }
+
+    public synchronized int active() {
+        return active;
+    }
+
+    public synchronized int waiting() {
+        return waiting.size();
+    }
+}
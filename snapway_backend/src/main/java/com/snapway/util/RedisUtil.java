@@ -3,8 +3,12 @@ package com.snapway.util;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Component;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -39,4 +43,46 @@ public class RedisUtil {
     public boolean hasKey(String key) {
         return Boolean.TRUE.equals(redisTemplate.hasKey(key));
     }
-}
\ No newline at end of file
+
+    // 여러 키 한 번에 삭제 (반환값: 삭제된 키 개수)
+    public long deleteData(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) return 0;
+        Long deleted = redisTemplate.delete(keys);
+        return deleted == null ? 0 : deleted;
+    }
+
+    // 키의 만료 시간 갱신(초 단위)
+    public void expire(String key, long duration) {
+        redisTemplate.expire(key, Duration.ofSeconds(duration));
+    }
+
+    // 정렬 집합에 멤버 추가 (이미 있으면 점수만 갱신)
+    public void addToSortedSet(String key, String member, double score) {
+        redisTemplate.opsForZSet().add(key, member, score);
+    }
+
+    // 정렬 집합 크기
+    public long getSortedSetSize(String key) {
+        Long size = redisTemplate.opsForZSet().zCard(key);
+        return size == null ? 0 : size;
+    }
+
+    // 점수가 max 이하인 멤버 삭제
+    public void removeFromSortedSetByScore(String key, double max) {
+        redisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, max);
+    }
+
+    // 점수가 가장 낮은 멤버 count개를 꺼내서 반환
+    public Set<String> popMinFromSortedSet(String key, long count) {
+        Set<ZSetOperations.TypedTuple<String>> popped = redisTemplate.opsForZSet().popMin(key, count);
+        if (popped == null) return Set.of();
+        return popped.stream()
+                .map(ZSetOperations.TypedTuple::getValue)
+                .collect(Collectors.toSet());
+    }
+
+    // 채널에 메시지 발행 (pub/sub)
+    public void publish(String channel, String message) {
+        redisTemplate.convertAndSend(channel, message);
+    }
+}
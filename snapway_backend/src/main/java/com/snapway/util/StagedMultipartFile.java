@@ -0,0 +1,153 @@
+package com.snapway.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.snapway.model.dto.PhotoMetadata;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 스테이징 디렉토리에 옮겨둔 업로드 파일을 MultipartFile로 다루기 위한 래퍼
+ * 요청이 끝나면 서블릿 컨테이너가 임시 파일을 삭제하므로,
+ * 비동기 작업에서는 이 클래스로 감싼 스테이징 파일을 사용한다.
+ *
+ * 파일은 처음 읽을 때 한 번만 읽기 전용으로 메모리 매핑되며,
+ * 메타데이터 추출 / 이미지 변환 / 저장 단계가 같은 버퍼를 공유하여 디스크를 다시 읽지 않는다.
+ */
+@Slf4j
+public class StagedMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final Path path;
+
+    // 지연 매핑된 파일 내용 (여러 분석 스레드에서 접근하므로 volatile)
+    private volatile ByteBuffer buffer;
+
+    // 업로드 중에 미리 추출해 둔 EXIF (스트리밍 업로드), 없으면 null
+    private volatile PhotoMetadata metadata;
+
+    public StagedMultipartFile(String name, String originalFilename, String contentType, Path path) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public PhotoMetadata getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(PhotoMetadata metadata) {
+        this.metadata = metadata;
+    }
+
+    /**
+     * 파일 내용을 담은 읽기 전용 버퍼 (호출할 때마다 위치가 독립적인 복제본 반환)
+     */
+    public ByteBuffer getBuffer() throws IOException {
+        ByteBuffer mapped = buffer;
+        if (mapped == null) {
+            synchronized (this) {
+                mapped = buffer;
+                if (mapped == null) {
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        // 매핑은 채널을 닫아도 유지된다.
+                        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    }
+                    buffer = mapped;
+                }
+            }
+        }
+        return mapped.asReadOnlyBuffer();
+    }
+
+    /**
+     * 스테이징 파일을 최종 저장 위치로 이동 (같은 파일시스템이면 내용 복사 없이 이름만 변경)
+     * 이동할 수 없는 경우 매핑된 버퍼의 내용을 그대로 기록한다.
+     */
+    public void moveTo(Path target) throws IOException {
+        try {
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        } catch (IOException e) {
+            log.debug("스테이징 파일 이동 실패, 복사로 저장합니다: {} -> {} ({})", path, target, e.getMessage());
+        }
+
+        ByteBuffer content = getBuffer();
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        ByteBuffer mapped = buffer;
+        if (mapped != null) {
+            return mapped.capacity();
+        }
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        ByteBuffer content = getBuffer();
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new ByteBufferInputStream(getBuffer());
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        try (InputStream inputStream = getInputStream()) {
+            Files.copy(inputStream, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
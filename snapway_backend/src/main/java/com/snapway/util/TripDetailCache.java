@@ -0,0 +1,178 @@
+package com.snapway.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.Trip;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여행 상세(Trip -> Records -> Photos) 조회 캐시 (Redis, read-through)
+ * 키: trip:detail:{tripId}, 값: 조립된 Trip JSON
+ * 같은 tripId의 캐시 미스가 동시에 몰리면 DB 조회는 한 번만 하고 나머지는 그 결과를 기다린다. (single-flight)
+ * 수정/삭제 시 evict로 무효화하며, 조회 중에 무효화되면 그 조회 결과는 캐시에 남기지 않는다.
+ * Redis 장애 시에는 캐시 없이 DB에서 조회한다.
+ */
+@Slf4j
+@Component
+public class TripDetailCache {
+
+    private static final String KEY_PREFIX = "trip:detail:";
+
+    @FunctionalInterface
+    public interface Loader {
+        Trip load() throws Exception;
+    }
+
+    private final RedisUtil redisUtil;
+    private final ObjectMapper objectMapper;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sharedCounter;
+
+    // 진행 중인 DB 조회 (tripId -> 결과)
+    private final Map<Integer, CompletableFuture<Trip>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.trip.detail-cache.enabled:true}")
+    private boolean enabled;
+
+    // 캐시 보관 기간(초, 기본 10분) - 다른 서버의 무효화가 늦게 반영되더라도 이 시간 안에는 정리됨
+    @Value("${app.trip.detail-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public TripDetailCache(RedisUtil redisUtil, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.redisUtil = redisUtil;
+        this.objectMapper = objectMapper;
+        this.hitCounter = counter(meterRegistry, "hit");
+        this.missCounter = counter(meterRegistry, "miss");
+        this.sharedCounter = counter(meterRegistry, "shared"); // 다른 요청의 DB 조회 결과를 기다려 받은 경우
+
+        // 적중률 = (hit + shared) / 전체 조회
+        Gauge.builder("snapway.trip.detail.cache.hit.ratio", this, cache -> cache.hitRatio())
+                .description("여행 상세 캐시 적중률 (DB 조회 없이 응답한 비율)")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("snapway.trip.detail.cache")
+                .tag("result", result)
+                .description("여행 상세 캐시 조회 결과")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시 조회, 없으면 loader로 DB에서 조립 후 저장
+     */
+    public Trip get(int tripId, Loader loader) throws Exception {
+        if (!enabled) return loader.load();
+
+        Trip cached = read(tripId);
+        if (cached != null) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        CompletableFuture<Trip> flight = new CompletableFuture<>();
+        CompletableFuture<Trip> existing = inFlight.putIfAbsent(tripId, flight);
+        if (existing != null) {
+            sharedCounter.increment();
+            return await(existing);
+        }
+
+        missCounter.increment();
+        try {
+            Trip trip = loader.load();
+            write(tripId, trip, flight);
+            flight.complete(trip);
+            return trip;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(tripId, flight);
+        }
+    }
+
+    /**
+     * 캐시 무효화
+     * 트랜잭션 안에서 호출되면 지금 한 번, 커밋 후 한 번 더 삭제한다.
+     * (커밋 전에 다른 요청이 이전 데이터를 다시 캐시에 넣는 경우 대비)
+     */
+    public void evict(int tripId) {
+        delete(tripId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(tripId);
+                }
+            });
+        }
+    }
+
+    private void delete(int tripId) {
+        // 진행 중인 조회는 이전 데이터를 읽었을 수 있으므로 이후 요청이 합류하지 않도록 분리
+        inFlight.remove(tripId);
+        try {
+            redisUtil.deleteData(key(tripId));
+        } catch (RuntimeException e) {
+            log.warn("여행 상세 캐시 삭제 실패: tripId={} ({})", tripId, e.getMessage());
+        }
+    }
+
+    private Trip read(int tripId) {
+        try {
+            String json = redisUtil.getData(key(tripId));
+            return json == null ? null : objectMapper.readValue(json, Trip.class);
+        } catch (Exception e) {
+            log.warn("여행 상세 캐시 조회 실패: tripId={} ({})", tripId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(int tripId, Trip trip, CompletableFuture<Trip> flight) {
+        if (trip == null) return;
+        try {
+            redisUtil.setDataExpire(key(tripId), objectMapper.writeValueAsString(trip), ttlSeconds);
+
+            // 조회 도중 무효화되었다면 방금 쓴 값은 이전 데이터일 수 있으므로 다시 삭제
+            if (inFlight.get(tripId) != flight) {
+                redisUtil.deleteData(key(tripId));
+            }
+        } catch (Exception e) {
+            log.warn("여행 상세 캐시 저장 실패: tripId={} ({})", tripId, e.getMessage());
+        }
+    }
+
+    private Trip await(CompletableFuture<Trip> flight) throws Exception {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) throw cause;
+            throw e;
+        }
+    }
+
+    private double hitRatio() {
+        double served = hitCounter.count() + sharedCounter.count();
+        double total = served + missCounter.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private String key(int tripId) {
+        return KEY_PREFIX + tripId;
+    }
+}
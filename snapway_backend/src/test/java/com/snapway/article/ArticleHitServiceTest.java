@@ -0,0 +1,88 @@
+package com.snapway.article;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.snapway.model.mapper.ArticleMapper;
+import com.snapway.model.service.ArticleHitServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleHitServiceTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @InjectMocks
+    private ArticleHitServiceImpl articleHitService;
+
+    @Test
+    @DisplayName("여러 스레드의 조회수를 모아 UPDATE 한 번으로 반영하고, 반영 후 대기 값은 0이 된다")
+    void flushWritesAccumulatedHitsOnce() throws Exception {
+        // given: 8개 스레드가 1번 글을 1000번씩, 2번 글은 한 번 조회
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < 1000; j++) articleHitService.increase(1L);
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        articleHitService.increase(2L);
+
+        // when
+        int flushed = articleHitService.flush();
+
+        // then
+        assertEquals(2, flushed);
+        then(articleMapper).should().addHits(Map.of(1L, 8000L, 2L, 1L));
+        assertEquals(0, articleHitService.pending(1L));
+
+        // 새 조회가 없으면 다음 반영은 DB를 건드리지 않음
+        assertEquals(0, articleHitService.flush());
+    }
+
+    @Test
+    @DisplayName("DB 반영에 실패하면 조회수를 되돌려 다음 주기에 다시 반영한다")
+    void failedFlushIsRetried() throws Exception {
+        // given
+        articleHitService.increase(1L);
+        articleHitService.increase(1L);
+        willThrow(new RuntimeException("DB 연결 실패")).given(articleMapper).addHits(anyMap());
+
+        // when
+        int flushed = articleHitService.flush();
+
+        // then
+        assertEquals(0, flushed);
+        assertEquals(2, articleHitService.pending(1L));
+    }
+
+    @Test
+    @DisplayName("삭제된 게시글의 대기 중인 조회수는 반영하지 않는다")
+    void discardedArticleIsNotFlushed() throws Exception {
+        // given
+        articleHitService.increase(3L);
+
+        // when
+        articleHitService.discard(3L);
+
+        // then
+        assertEquals(0, articleHitService.flush());
+        then(articleMapper).should(never()).addHits(anyMap());
+    }
+}
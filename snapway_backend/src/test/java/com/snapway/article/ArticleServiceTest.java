@@ -0,0 +1,206 @@
+package com.snapway.article;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.snapway.model.dto.Article;
+import com.snapway.model.dto.ArticleSummary;
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.mapper.ArticleMapper;
+import com.snapway.model.service.ArticleHitService;
+import com.snapway.model.service.ArticleServiceImpl;
+import com.snapway.model.service.PhotoBlobService;
+import com.snapway.model.service.SearchService;
+import com.snapway.util.CursorCodec;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleServiceTest {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private ArticleHitService articleHitService;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private PhotoBlobService photoBlobService;
+
+    @InjectMocks
+    private ArticleServiceImpl articleService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(articleService, "listDefaultSize", 20);
+        ReflectionTestUtils.setField(articleService, "listMaxSize", 50);
+        ReflectionTestUtils.setField(articleService, "excerptLength", 20);
+    }
+
+    @Test
+    @DisplayName("목록은 한 건 더 조회해서 다음 페이지 여부를 판단하고, 마지막 글 ID로 다음 커서를 만든다")
+    void findSummariesPagesByArticleId() {
+        // given: 페이지 크기 2, 조회 결과 3건
+        given(articleMapper.findSummaries(anyMap())).willReturn(new ArrayList<>(List.of(
+                summary(30, null), summary(20, null), summary(10, null))));
+
+        // when
+        CursorPage<ArticleSummary> page = articleService.findSummaries(7, List.of("여행 팁", "tip"), true, null, 2, false);
+
+        // then
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertEquals("20", CursorCodec.decode(page.getNextCursor(), 1)[0]);
+        then(articleMapper).should().findSummaries(argThat(params ->
+                Integer.valueOf(3).equals(params.get("limit"))
+                        && Integer.valueOf(7).equals(params.get("authorId"))
+                        && List.of("여행 팁", "tip").equals(params.get("categories"))
+                        && !params.containsKey("excerptSourceLength")));
+    }
+
+    @Test
+    @DisplayName("다음 페이지는 커서의 글 ID보다 작은 글부터 조회하고, 페이지 크기는 최대값으로 제한된다")
+    void findSummariesUsesCursor() {
+        // given
+        given(articleMapper.findSummaries(anyMap())).willReturn(new ArrayList<>());
+
+        // when
+        CursorPage<ArticleSummary> page = articleService.findSummaries(null, null, false, CursorCodec.encode(20L), 500, false);
+
+        // then
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        then(articleMapper).should().findSummaries(argThat(params ->
+                Long.valueOf(20).equals(params.get("cursorArticleId"))
+                        && Integer.valueOf(51).equals(params.get("limit"))
+                        && params.get("authorId") == null));
+    }
+
+    @Test
+    @DisplayName("미리보기는 이미지/링크 주소/마크다운 기호를 걷어내고 정해진 길이로 자른다")
+    void excerptStripsMarkdown() {
+        // given: 본문 앞부분이 이미지 마크다운 중간에서 잘린 경우 포함
+        given(articleMapper.findSummaries(anyMap())).willReturn(new ArrayList<>(List.of(
+                summary(2, "## 부산 여행\n![바다](http://localhost:8081/files/1/2/a.jpg)\n**해운대**에서 [회](http://x.y) 먹기"),
+                summary(1, "짧은 글 ![잘린 이미지](http://localhost:8081/files/1/1/very-long"))));
+
+        // when
+        List<ArticleSummary> items = articleService.findSummaries(null, null, false, null, 10, true).getItems();
+
+        // then
+        assertEquals("부산 여행 해운대에서 회 먹기", items.get(0).getExcerpt());
+        assertEquals("짧은 글", items.get(1).getExcerpt());
+        then(articleMapper).should().findSummaries(argThat(params -> Integer.valueOf(160).equals(params.get("excerptSourceLength"))));
+    }
+
+    @Test
+    @DisplayName("게시글 조회 시 UPDATE 없이 조회수를 모으고, 대기 중인 조회수를 더해 응답한다")
+    void getArticleCountsHitWithoutUpdate() throws Exception {
+        // given: DB에는 10, 아직 반영되지 않은 조회수 3 (이번 조회 포함)
+        given(articleMapper.getArticle(5L)).willReturn(Article.builder().articleId(5).hits(10).build());
+        given(articleHitService.pending(5L)).willReturn(3L);
+
+        // when
+        Article article = articleService.getArticle(5L);
+
+        // then
+        assertEquals(13, article.getHits());
+        then(articleHitService).should().increase(5L);
+        then(articleMapper).should(never()).increaseHits(anyLong());
+    }
+
+    @Test
+    @DisplayName("수정/삭제 전 권한 확인용 조회는 조회수를 올리지 않는다")
+    void findArticleDoesNotCountHit() throws Exception {
+        // given
+        given(articleMapper.getArticle(5L)).willReturn(Article.builder().articleId(5).hits(10).build());
+
+        // when
+        Article article = articleService.findArticle(5L);
+
+        // then
+        assertEquals(10, article.getHits());
+        then(articleHitService).should(never()).increase(anyLong());
+    }
+
+    @Test
+    @DisplayName("미리보기는 완성된 HTML 태그만 지우고, 본문의 '<' 기호는 남긴다")
+    void excerptKeepsLessThanSign() {
+        // given: 두 번째 글은 잘라 온 본문 끝에서 태그가 닫히지 않음
+        given(articleMapper.findSummaries(anyMap())).willReturn(new ArrayList<>(List.of(
+                summary(2, "a < b 입니다 <b>굵게</b>"),
+                summary(1, "사진 <img src=\"http://localhost:8081/files/1/1/a"))));
+
+        // when
+        List<ArticleSummary> items = articleService.findSummaries(null, null, false, null, 10, true).getItems();
+
+        // then
+        assertEquals("a < b 입니다 굵게", items.get(0).getExcerpt());
+        assertEquals("사진", items.get(1).getExcerpt());
+    }
+
+    @Test
+    @DisplayName("게시글 수정 시 잠근 이전 본문과 새 본문으로 사진 참조를 갱신한다")
+    void updateArticleUpdatesPhotoReferences() throws Exception {
+        // given
+        given(articleMapper.getArticleContentForUpdate(5L)).willReturn("이전 ![a](/blobs/aa)");
+        Article article = Article.builder().articleId(5).content("새 ![b](/blobs/bb)").build();
+        given(articleMapper.updateArticle(article)).willReturn(1);
+
+        // when
+        articleService.updateArticle(article);
+
+        // then
+        then(photoBlobService).should().updateContentReferences("이전 ![a](/blobs/aa)", "새 ![b](/blobs/bb)");
+        then(articleMapper).should(never()).getArticle(anyLong());
+    }
+
+    @Test
+    @DisplayName("게시글 삭제 시 본문이 쓰던 사진 참조를 해제하고, 없는 글이면 건드리지 않는다")
+    void deleteArticleReleasesPhotoReferences() throws Exception {
+        // given
+        given(articleMapper.getArticleContentForUpdate(5L)).willReturn("본문");
+        given(articleMapper.deleteArticle(5L)).willReturn(1);
+
+        // when
+        articleService.deleteArticle(5L);
+        articleService.deleteArticle(6L);
+
+        // then
+        then(photoBlobService).should().updateContentReferences("본문", null);
+        then(photoBlobService).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("형식이 맞지 않는 커서는 IllegalArgumentException")
+    void findSummariesRejectsBadCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> articleService.findSummaries(null, null, false, CursorCodec.encode("abc"), 10, false));
+    }
+
+    private ArticleSummary summary(long articleId, String excerpt) {
+        return ArticleSummary.builder().articleId(articleId).title("글 " + articleId).excerpt(excerpt).build();
+    }
+}
@@ -0,0 +1,196 @@
+package com.snapway.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.snapway.config.ReadYourWritesWindow;
+import com.snapway.config.ReplicationRoutingDataSource;
+import com.snapway.security.LoginUser;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 주 DB / 복제본 라우팅 확인
+ * 같은 MySQL 서버의 스키마 두 개를 주 DB와 복제본 대신 사용한다. (복제는 하지 않음)
+ * 각 스키마의 routing_marker 테이블에 자기 이름을 넣어 두고, 어느 쪽에서 읽었는지 확인한다.
+ *
+ * 실행: 비어 있는 스키마 두 개를 지정 (테스트가 routing_marker, routing_write 테이블을 다시 만듦)
+ * mvn test -Dtest=ReplicationRoutingTest \
+ *          -Drouting.primary.url=jdbc:mysql://localhost:3306/snapway_primary \
+ *          -Drouting.replica.url=jdbc:mysql://localhost:3306/snapway_replica \
+ *          -Drouting.db.username=root -Drouting.db.password=...
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicationRoutingTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+
+    @BeforeAll
+    void setUp() {
+        String primaryUrl = System.getProperty("routing.primary.url");
+        String replicaUrl = System.getProperty("routing.replica.url");
+        if (primaryUrl == null || replicaUrl == null) return;
+
+        primary = pool(primaryUrl, false);
+        replica = pool(replicaUrl, true);
+        for (HikariDataSource dataSource : List.of(primary, replica)) {
+            // 복제본 풀은 읽기 전용이므로 준비 작업은 별도 커넥션으로 한다
+            HikariDataSource setup = pool(dataSource.getJdbcUrl(), false);
+            JdbcTemplate jdbc = new JdbcTemplate(setup);
+            jdbc.execute("DROP TABLE IF EXISTS routing_marker");
+            jdbc.execute("DROP TABLE IF EXISTS routing_write");
+            jdbc.execute("CREATE TABLE routing_marker (name VARCHAR(20) NOT NULL)");
+            jdbc.execute("CREATE TABLE routing_write (id INT AUTO_INCREMENT PRIMARY KEY, memo VARCHAR(50))");
+            jdbc.update("INSERT INTO routing_marker (name) VALUES (?)", dataSource == primary ? "primary" : "replica");
+            setup.close();
+        }
+    }
+
+    private static HikariDataSource pool(String url, boolean readOnly) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(System.getProperty("routing.db.username", "root"));
+        dataSource.setPassword(System.getProperty("routing.db.password", ""));
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setReadOnly(readOnly);
+        return dataSource;
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // DataSourceRoutingConfig와 같은 구성 (라우팅 + LazyConnectionDataSourceProxy)
+    private Fixture fixture(long windowMillis) {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(windowMillis);
+        ReplicationRoutingDataSource routing =
+                new ReplicationRoutingDataSource(primary, replica, window, new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        return new Fixture(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+    }
+
+    private record Fixture(JdbcTemplate jdbc, DataSourceTransactionManager transactionManager) {
+
+        String read(boolean readOnly) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(readOnly);
+            return template.execute(status -> marker());
+        }
+
+        String marker() {
+            return jdbc.queryForObject("SELECT name FROM routing_marker", String.class);
+        }
+
+        void write(String memo) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbc.update("INSERT INTO routing_write (memo) VALUES (?)", memo));
+        }
+    }
+
+    private static void login(int userId) {
+        LoginUser user = new LoginUser(userId, "user" + userId + "@snapway.com", "회원" + userId, List.of("USER"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "routing.replica.url", matches = ".+")
+    @DisplayName("읽기 전용 트랜잭션은 복제본, 쓰기 트랜잭션과 트랜잭션 없는 쿼리는 주 DB를 사용한다")
+    void routesByReadOnlyFlag() {
+        Fixture fixture = fixture(0);
+
+        assertEquals("replica", fixture.read(true));
+        assertEquals("primary", fixture.read(false));
+        assertEquals("primary", fixture.marker());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "routing.replica.url", matches = ".+")
+    @DisplayName("복제본 커넥션으로는 쓸 수 없다")
+    void replicaRejectsWrites() {
+        Fixture fixture = fixture(0);
+        TransactionTemplate readOnly = new TransactionTemplate(fixture.transactionManager());
+        readOnly.setReadOnly(true);
+
+        assertThrows(DataAccessException.class, () -> readOnly.executeWithoutResult(status ->
+                fixture.jdbc().update("INSERT INTO routing_write (memo) VALUES ('x')")));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "routing.replica.url", matches = ".+")
+    @DisplayName("쓰기를 커밋한 사용자는 잠시 동안 읽기 전용 조회도 주 DB에서 읽고, 다른 사용자는 복제본을 사용한다")
+    void readYourWritesPinsWriterToPrimary() {
+        // given
+        Fixture fixture = fixture(60_000);
+        login(7);
+
+        // when
+        assertEquals("replica", fixture.read(true));
+        fixture.write("회원7 저장");
+
+        // then
+        assertEquals("primary", fixture.read(true));
+        login(8);
+        assertEquals("replica", fixture.read(true));
+        SecurityContextHolder.clearContext();
+        assertEquals("replica", fixture.read(true));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "routing.replica.url", matches = ".+")
+    @DisplayName("롤백된 쓰기는 최근 쓰기로 기록하지 않는다")
+    void rollbackDoesNotPin() {
+        // given
+        Fixture fixture = fixture(60_000);
+        login(9);
+
+        // when
+        new TransactionTemplate(fixture.transactionManager()).executeWithoutResult(status -> {
+            fixture.jdbc().update("INSERT INTO routing_write (memo) VALUES ('rollback')");
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertEquals("replica", fixture.read(true));
+    }
+
+    @Test
+    @DisplayName("최근 쓰기 기록은 지정한 시간이 지나면 만료되고, 0이면 기록하지 않는다")
+    void windowExpires() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(5_000);
+        window.recordWrite(7, 1_000);
+
+        assertTrue(window.isActive(7, 5_999));
+        assertFalse(window.isActive(7, 6_000));
+        assertFalse(window.isActive(8, 1_000));
+
+        ReadYourWritesWindow disabled = new ReadYourWritesWindow(0);
+        disabled.recordWrite(7, 1_000);
+        assertFalse(disabled.isEnabled());
+        assertFalse(disabled.isActive(7, 1_000));
+    }
+}
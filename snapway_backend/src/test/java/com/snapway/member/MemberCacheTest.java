@@ -0,0 +1,194 @@
+package com.snapway.member;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.Member;
+import com.snapway.model.dto.Role;
+import com.snapway.util.MemberCache;
+import com.snapway.util.RedisUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class MemberCacheTest {
+
+    private static final String EMAIL = "user7@snapway.com";
+    private static final String KEY = "member:profile:" + EMAIL;
+
+    @Mock
+    private RedisUtil redisUtil;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private MemberCache memberCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        memberCache = new MemberCache(redisUtil, objectMapper, meterRegistry, 100);
+        ReflectionTestUtils.setField(memberCache, "enabled", true);
+        ReflectionTestUtils.setField(memberCache, "localTtlSeconds", 60L);
+        ReflectionTestUtils.setField(memberCache, "redisTtlSeconds", 600L);
+    }
+
+    private static Member member() {
+        return Member.builder().id(7).email(EMAIL).password("$2a$10$hash").username("회원7").role(Role.USER).build();
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("snapway.member.cache", "result", result).count();
+    }
+
+    @Test
+    @DisplayName("캐시 미스: DB에서 읽어 비밀번호를 지운 뒤 Redis와 메모리에 저장하고, 다음 조회는 메모리에서 꺼낸다")
+    void missLoadsAndStoresWithoutPassword() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+
+        // when
+        Member first = memberCache.get(EMAIL, () -> {
+            loads.incrementAndGet();
+            return member();
+        });
+        Member second = memberCache.get(EMAIL, () -> {
+            loads.incrementAndGet();
+            return member();
+        });
+
+        // then
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        then(redisUtil).should().setDataExpire(eq(KEY), json.capture(), eq(600L));
+        assertFalse(json.getValue().contains("$2a$10$hash"));
+        then(redisUtil).should(times(1)).getData(KEY);
+
+        assertEquals(1, loads.get());
+        assertNull(first.getPassword());
+        assertEquals(first, second);
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("local"));
+    }
+
+    @Test
+    @DisplayName("메모리에 없고 Redis에 있으면 DB 조회 없이 Redis 값을 쓰고 메모리에도 넣는다")
+    void redisHitFillsLocal() throws Exception {
+        // given
+        Member cached = member();
+        cached.setPassword(null);
+        given(redisUtil.getData(KEY)).willReturn(objectMapper.writeValueAsString(cached));
+
+        // when
+        Member first = memberCache.get(EMAIL, () -> { throw new AssertionError("DB 조회 안 함"); });
+        Member second = memberCache.get(EMAIL, () -> { throw new AssertionError("DB 조회 안 함"); });
+
+        // then
+        assertEquals(cached, first);
+        assertEquals(cached, second);
+        then(redisUtil).should(times(1)).getData(KEY);
+        assertEquals(1, count("redis"));
+        assertEquals(1, count("local"));
+    }
+
+    @Test
+    @DisplayName("돌려받은 객체를 고쳐도 캐시된 값은 바뀌지 않는다")
+    void returnsCopies() throws Exception {
+        // given
+        Member first = memberCache.get(EMAIL, MemberCacheTest::member);
+
+        // when
+        first.setUsername("변경");
+
+        // then
+        assertEquals("회원7", memberCache.get(EMAIL, MemberCacheTest::member).getUsername());
+    }
+
+    @Test
+    @DisplayName("무효화하면 Redis 값을 지우고 다른 서버에 알리며, 다음 조회는 DB에서 다시 읽는다")
+    void evictDeletesAndPublishes() throws Exception {
+        // given
+        memberCache.get(EMAIL, MemberCacheTest::member);
+
+        // when
+        memberCache.evict(EMAIL);
+        Member reloaded = memberCache.get(EMAIL, () -> {
+            Member changed = member();
+            changed.setUsername("새이름");
+            return changed;
+        });
+
+        // then
+        then(redisUtil).should().deleteData(KEY);
+        then(redisUtil).should().publish(MemberCache.EVICT_CHANNEL, EMAIL);
+        assertEquals("새이름", reloaded.getUsername());
+        assertEquals(2, count("miss"));
+    }
+
+    @Test
+    @DisplayName("다른 서버의 무효화 메시지를 받으면 메모리 값만 지운다")
+    void onMessageDropsLocalEntry() throws Exception {
+        // given
+        memberCache.get(EMAIL, MemberCacheTest::member);
+        byte[] channel = MemberCache.EVICT_CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+        // when
+        memberCache.onMessage(new DefaultMessage(channel, EMAIL.getBytes(StandardCharsets.UTF_8)), null);
+        memberCache.get(EMAIL, MemberCacheTest::member);
+
+        // then
+        then(redisUtil).should(times(2)).getData(KEY);
+        then(redisUtil).should(never()).deleteData(anyString());
+        assertEquals(0, count("local"));
+    }
+
+    @Test
+    @DisplayName("없는 회원은 캐시에 저장하지 않는다")
+    void doesNotCacheMissingMember() throws Exception {
+        // when
+        Member member = memberCache.get(EMAIL, () -> null);
+
+        // then
+        assertNull(member);
+        then(redisUtil).should(never()).setDataExpire(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시에도 DB에서 조회하고 무효화는 예외 없이 끝난다")
+    void redisFailureFallsBackToDb() throws Exception {
+        // given
+        given(redisUtil.getData(KEY)).willThrow(new IllegalStateException("redis down"));
+        willThrow(new IllegalStateException("redis down")).given(redisUtil).deleteData(KEY);
+
+        // when
+        Member member = memberCache.get(EMAIL, MemberCacheTest::member);
+        memberCache.evict(EMAIL);
+
+        // then
+        assertEquals("회원7", member.getUsername());
+        assertEquals(1, count("miss"));
+    }
+}
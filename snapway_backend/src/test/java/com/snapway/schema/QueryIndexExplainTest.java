@@ -0,0 +1,190 @@
+package com.snapway.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.snapway.config.SchemaMigrations;
+import com.snapway.config.SchemaMigrator;
+
+/**
+ * 스키마 변경(SchemaMigrator) 적용 후 주요 매퍼 쿼리가 의도한 인덱스를 타는지 EXPLAIN으로 확인
+ * 매퍼 XML을 그대로 읽어 실제로 실행되는 SQL과 파라미터로 EXPLAIN 한다.
+ *
+ * 실행: 비어 있는 전용 MySQL 8 DB를 지정 (테스트가 테이블을 모두 지우고 다시 만듦)
+ * mvn test -Dtest=QueryIndexExplainTest -Dexplain.db.url=jdbc:mysql://localhost:3306/snapway_explain \
+ *          -Dexplain.db.username=root -Dexplain.db.password=...
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "explain.db.url", matches = ".+")
+class QueryIndexExplainTest {
+
+    private static final String NAMESPACE = "com.snapway.model.mapper.";
+
+    private DriverManagerDataSource dataSource;
+    private Configuration configuration;
+    private int firstRunApplied;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource(System.getProperty("explain.db.url"),
+                System.getProperty("explain.db.username", "root"), System.getProperty("explain.db.password", ""));
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("sql/explain-schema.sql"));
+        }
+
+        SchemaMigrator migrator = new SchemaMigrator(dataSource);
+        ReflectionTestUtils.setField(migrator, "lockTimeoutSeconds", 10);
+        firstRunApplied = migrator.migrate();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE member, article, reply, trip, trip_record");
+        }
+
+        // 운영과 같은 매퍼 XML (type alias는 운영 설정처럼 dto 패키지로 등록)
+        configuration = new Configuration();
+        configuration.getTypeAliasRegistry().registerAliases("com.snapway.model.dto");
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:mappers/*.xml")) {
+            try (InputStream in = resource.getInputStream()) {
+                new XMLMapperBuilder(in, configuration, resource.getFilename(), configuration.getSqlFragments()).parse();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("모든 버전이 한 번만 적용되고, 다시 실행하면 아무것도 하지 않는다")
+    void migrationIsIdempotent() throws Exception {
+        // then: ERD의 UQ_email이 이미 있으므로 버전 3은 인덱스를 만들지 않고 이력만 남긴다
+        assertEquals(SchemaMigrations.ALL.size(), firstRunApplied);
+        assertEquals(0, new SchemaMigrator(dataSource).migrate());
+        assertFalse(indexNames("member").contains("uq_member_email"));
+        assertTrue(indexNames("trip").containsAll(Set.of("idx_trip_member_start", "idx_trip_visibility_uploaded")));
+    }
+
+    @Test
+    @DisplayName("게시글 목록(findAll, findSummaries)은 공개 여부 인덱스를 역순으로 읽는다")
+    void articleListUsesVisibilityIndex() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("limit", 20);
+
+        assertIndexed("ArticleMapper.findAll", params, "article", "idx_article_visibility_id");
+        assertIndexed("ArticleMapper.findSummaries", params, "article", "idx_article_visibility_id");
+    }
+
+    @Test
+    @DisplayName("댓글 목록(getReply)은 게시글별 작성 시각 인덱스를 읽는다")
+    void replyListUsesArticleIndex() throws Exception {
+        assertIndexed("ArticleMapper.getReply", Map.of("articleId", 100L), "r", "idx_reply_article_replied");
+    }
+
+    @Test
+    @DisplayName("내 여행 목록(selectTripListByMemberId)은 회원별 시작일 인덱스를 읽는다")
+    void memberTripListUsesMemberIndex() throws Exception {
+        assertIndexed("TripMapper.selectTripListByMemberId", 7, "t", "idx_trip_member_start");
+    }
+
+    @Test
+    @DisplayName("공개 여행 피드(selectAllPublicTrips)는 최신순/오래된순 모두 공개 여부 + 업로드 시각 인덱스를 읽는다")
+    void publicFeedUsesVisibilityIndex() throws Exception {
+        for (String sort : List.of("latest", "oldest")) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("sort", sort);
+            params.put("limit", 21);
+            params.put("cursorUploadedAt", "2024-01-05 00:00:00");
+            params.put("cursorTripId", 5000);
+
+            assertIndexed("TripMapper.selectAllPublicTrips", params, "trip", "idx_trip_visibility_uploaded");
+        }
+    }
+
+    @Test
+    @DisplayName("여행 기록 목록(selectRecordsByTripId)은 여행별 방문 시각 인덱스를 읽는다")
+    void recordListUsesTripIndex() throws Exception {
+        assertIndexed("TripMapper.selectRecordsByTripId", 42, "trip_record", "idx_trip_record_trip_visited");
+    }
+
+    @Test
+    @DisplayName("로그인(loginMember)은 이메일 유일 인덱스로 한 행만 읽는다")
+    void loginUsesUniqueEmail() throws Exception {
+        Map<String, String> row = explainRow("MemberMapper.loginMember", "member7@snapway.com", "member");
+        assertEquals("const", row.get("type"));
+        assertTrue(Set.of("UQ_email", "uq_member_email").contains(row.get("key")), "key=" + row.get("key"));
+    }
+
+    // 지정한 인덱스를 타고, ORDER BY도 인덱스 순서로 처리해 filesort가 없어야 한다
+    private void assertIndexed(String statementId, Object parameter, String table, String index) throws Exception {
+        Map<String, String> row = explainRow(statementId, parameter, table);
+        assertNotEquals("ALL", row.get("type"), statementId + ": 전체 스캔");
+        assertEquals(index, row.get("key"), statementId + ": " + row);
+        assertFalse(String.valueOf(row.get("Extra")).contains("Using filesort"), statementId + ": " + row);
+    }
+
+    // 매퍼 쿼리의 EXPLAIN 결과에서 table(별칭)에 해당하는 행
+    private Map<String, String> explainRow(String statementId, Object parameter, String table) throws Exception {
+        MappedStatement statement = configuration.getMappedStatement(NAMESPACE + statementId);
+        BoundSql boundSql = statement.getBoundSql(parameter);
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            new DefaultParameterHandler(statement, parameter, boundSql).setParameters(explain);
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, String> row = new HashMap<>();
+                    for (String column : List.of("table", "type", "possible_keys", "key", "rows", "Extra")) {
+                        row.put(column, rs.getString(column));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows.stream()
+                .filter(row -> table.equals(row.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(statementId + ": " + table + " 없음 " + rows));
+    }
+
+    private Set<String> indexNames(String table) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT DISTINCT index_name FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                Set<String> names = new HashSet<>();
+                while (rs.next()) {
+                    names.add(rs.getString(1));
+                }
+                return names;
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.snapway.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.SearchDocument;
+import com.snapway.model.dto.SearchResult;
+import com.snapway.model.mapper.SearchMapper;
+import com.snapway.model.service.SearchServiceImpl;
+import com.snapway.util.BigramTokenizer;
+import com.snapway.util.InvertedIndex;
+import com.snapway.util.InvertedIndex.Field;
+import com.snapway.util.InvertedIndex.Hit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexTest {
+
+    @Mock
+    private SearchMapper searchMapper;
+
+    private SearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        // 색인 작업은 호출한 스레드에서 바로 실행
+        searchService = new SearchServiceImpl(searchMapper, new SimpleMeterRegistry(), Runnable::run);
+        ReflectionTestUtils.setField(searchService, "defaultSize", 20);
+        ReflectionTestUtils.setField(searchService, "maxSize", 50);
+        ReflectionTestUtils.setField(searchService, "maxResults", 1000);
+    }
+
+    @Test
+    @DisplayName("한글은 두 글자씩 겹쳐 자르고 영문/숫자는 단어 단위 소문자로 자른다")
+    void tokenizesKoreanAsBigrams() {
+        assertEquals(List.of("해운", "운대", "대에", "에서", "busan", "2025"),
+                BigramTokenizer.tokenize("해운대에서 Busan! 2025"));
+        assertEquals(List.of("집", "a"), BigramTokenizer.tokenize("집 Ａ")); // 전각 문자는 NFKC로 통일
+        assertTrue(BigramTokenizer.tokenize("  ...  ").isEmpty());
+        assertEquals(List.of("부산"), BigramTokenizer.tokenizeQuery("부산 부산"));
+    }
+
+    @Test
+    @DisplayName("검색어의 모든 토큰을 포함한 문서만 찾고, 제목에 나온 문서를 본문에만 나온 문서보다 위에 둔다")
+    void ranksTitleMatchesFirst() {
+        // given
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, List.of(new Field("제주 여행", 3f), new Field("한라산에 올랐다. 해운대는 다음에", 1f)));
+        index.put(2, List.of(new Field("해운대 바다", 3f), new Field("광안리에서 야경을 봤다", 1f)));
+        index.put(3, List.of(new Field("서울 나들이", 3f), new Field("한강 공원", 1f)));
+
+        // when
+        List<Hit> hits = index.search("해운대", 10);
+
+        // then
+        assertEquals(List.of(2L, 1L), hits.stream().map(Hit::id).toList());
+        assertTrue(index.search("해운대 한강", 10).isEmpty()); // 두 단어를 모두 포함한 문서 없음
+        assertTrue(index.search("없는단어", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("문서를 교체/삭제하면 이전 내용으로는 더 이상 검색되지 않는다")
+    void replaceAndRemoveUpdatePostings() {
+        // given
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, List.of(new Field("부산 여행", 3f)));
+
+        // when
+        index.put(1, List.of(new Field("강릉 여행", 3f)));
+
+        // then
+        assertTrue(index.search("부산", 10).isEmpty());
+        assertEquals(1, index.search("강릉", 10).size());
+
+        index.remove(1);
+        assertTrue(index.search("여행", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("같은 문서를 여러 번 교체해서 내부 번호를 다시 매겨도 최신 내용으로만 검색된다")
+    void repeatedReplaceKeepsLatestContent() {
+        // given: 초기 용량(1024)을 여러 번 넘길 만큼 교체
+        InvertedIndex index = new InvertedIndex();
+        for (int round = 0; round < 5; round++) {
+            for (long id = 0; id < 1000; id++) {
+                index.put(id, List.of(new Field((id % 2 == 0 ? "부산" : "강릉") + " 여행 " + round, 1f)));
+            }
+        }
+
+        // then
+        assertEquals(1000, index.size());
+        assertEquals(500, index.search("부산", 2000).size());
+        assertEquals(1000, index.search("여행 4", 2000).size());
+        assertTrue(index.search("여행 3", 2000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("여행 제목/기록 본문/사진 설명과 게시글을 함께 검색하고 커서로 다음 페이지를 넘긴다")
+    void searchesTripsAndArticlesWithCursor() throws Exception {
+        // given
+        given(searchMapper.selectTripsForSearch(isNull())).willReturn(List.of(
+                doc(1, "부산 여행", null, null), doc(2, "서울 나들이", null, null)));
+        given(searchMapper.selectTripTextsForSearch(isNull())).willReturn(List.of(
+                doc(2, null, "부산에서 온 친구와 경복궁에 갔다", null),
+                doc(2, null, "![사진](http://localhost:8081/files/1/trip/2/a.jpg) 경복궁 앞 사진", null)));
+        given(searchMapper.selectArticlesForSearch(isNull())).willReturn(List.of(
+                doc(5, "부산 맛집 정리", "돼지국밥", "맛집,부산")));
+
+        // when
+        searchService.rebuild();
+        CursorPage<SearchResult> first = searchService.search("부산", null, null, 2);
+        CursorPage<SearchResult> second = searchService.search("부산", null, first.getNextCursor(), 2);
+
+        // then
+        assertTrue(searchService.isReady());
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasNext());
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.isHasNext());
+        assertNull(second.getNextCursor());
+        assertEquals(SearchResult.TYPE_TRIP, second.getItems().get(0).getType());
+        assertEquals(2L, second.getItems().get(0).getId()); // 본문에만 나온 여행이 가장 아래
+
+        assertEquals(List.of(2), searchService.matchTripIds("경복궁", false, null, null, 10));
+        assertTrue(searchService.matchTripIds("files", false, null, null, 10).isEmpty()); // 이미지 주소는 색인하지 않음
+        assertEquals(1, searchService.search("부산", SearchResult.TYPE_ARTICLE, null, 10).getItems().size());
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("부산", "member", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("부산", null, "not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("비공개로 바뀌거나 삭제된 여행은 다시 색인할 때 결과에서 빠진다")
+    void reindexRemovesHiddenTrip() throws Exception {
+        // given
+        given(searchMapper.selectTripsForSearch(isNull())).willReturn(List.of(doc(1, "부산 여행", null, null)));
+        searchService.rebuild();
+        assertEquals(List.of(1), searchService.matchTripIds("부산", false, null, null, 10));
+
+        // when: 공개 여행 조회 결과에서 빠짐
+        given(searchMapper.selectTripsForSearch(1)).willReturn(List.of());
+        searchService.reindexTrip(1);
+
+        // then
+        assertTrue(searchService.matchTripIds("부산", false, null, null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("색인 적재 전에는 피드 검색용 여행 ID를 돌려주지 않는다 (LIKE 검색으로 대체)")
+    void matchTripIdsBeforeReady() {
+        assertNull(searchService.matchTripIds("부산", false, null, null, 10));
+    }
+
+    @Test
+    @DisplayName("한 글자 한글 단어나 짧은 영문 단어는 색인으로 부분 일치를 찾을 수 없으므로 피드 검색을 LIKE 검색에 맡긴다")
+    void matchTripIdsFallsBackForPartialWords() throws Exception {
+        // given
+        given(searchMapper.selectTripsForSearch(isNull())).willReturn(List.of(
+                doc(1, "한강 산책", null, null), doc(2, "Busan trip", null, null)));
+        searchService.rebuild();
+
+        // when & then: "강"은 "한강"의 바이그램에만, "bus"는 "busan"의 앞부분에만 들어 있음
+        assertNull(searchService.matchTripIds("강", false, null, null, 10));
+        assertNull(searchService.matchTripIds("bus", false, null, null, 10));
+        assertNull(searchService.matchTripIds("한강 bus", false, null, null, 10)); // 한 단어라도 짧으면 LIKE
+        assertNull(searchService.matchTripIds("!!", false, null, null, 10));
+        // 온전한 토큰이면 색인 사용
+        assertEquals(List.of(1), searchService.matchTripIds("한강", false, null, null, 10));
+        assertEquals(List.of(2), searchService.matchTripIds("BUSAN", false, null, null, 10));
+    }
+
+    @Test
+    @DisplayName("피드 검색어와 일치하는 여행이 검색 결과 상한보다 많아도 커서로 넘기면 빠짐없이 업로드 순서대로 나온다")
+    void matchTripIdsPagesAllMatchesByCursor() throws Exception {
+        // given: 1500건이 모두 일치 (두 건씩 같은 업로드 시간), 2000번 이후는 일치하지 않음
+        int matches = 1500;
+        List<SearchDocument> docs = new ArrayList<>();
+        for (int id = 1; id <= matches; id++) {
+            docs.add(feedDoc(id, "부산 여행 " + id));
+        }
+        for (int id = 2001; id <= 2100; id++) {
+            docs.add(feedDoc(id, "서울 여행 " + id));
+        }
+        given(searchMapper.selectTripsForSearch(isNull())).willReturn(docs);
+        searchService.rebuild();
+
+        for (boolean oldestFirst : new boolean[] { false, true }) {
+            // when: TripServiceImpl.getPublicFeed처럼 한 건 더 받아 마지막 항목으로 커서를 만든다
+            int pageSize = 100;
+            List<Integer> seen = new ArrayList<>();
+            LocalDateTime cursorUploadedAt = null;
+            Integer cursorTripId = null;
+            while (true) {
+                List<Integer> page = searchService.matchTripIds("부산", oldestFirst, cursorUploadedAt, cursorTripId,
+                        pageSize + 1);
+                boolean hasNext = page.size() > pageSize;
+                List<Integer> items = hasNext ? page.subList(0, pageSize) : page;
+                seen.addAll(items);
+                if (!hasNext) break;
+                cursorTripId = items.get(items.size() - 1);
+                cursorUploadedAt = feedUploadedAt(cursorTripId);
+            }
+
+            // then: 최신순이면 1500, 1499, ... 오래된 순이면 1, 2, ... (같은 시간이면 여행 ID 순)
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < matches; i++) {
+                expected.add(oldestFirst ? i + 1 : matches - i);
+            }
+            assertEquals(expected, seen);
+        }
+    }
+
+    /**
+     * 가상 한글 말뭉치에서 색인 검색과 단순 문자열 비교(LIKE '%검색어%'와 같은 전체 스캔)의 지연 시간 비교
+     * 실행: mvn test -Dtest=SearchIndexTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] 문서 5만 건에서 색인 검색 vs 전체 스캔")
+    void benchmarkAgainstScan() {
+        int documents = 50_000;
+        String[] places = { "해운대", "광안리", "경복궁", "한라산", "전주한옥마을", "남산타워", "감천문화마을", "성산일출봉",
+                "속초해수욕장", "안동하회마을", "여수밤바다", "담양죽녹원", "경주불국사", "춘천닭갈비골목", "인사동" };
+        Random random = new Random(42);
+        // 한글 음절 2~4개로 만든 가상 단어 5천 개 (실제 글처럼 대부분의 단어는 일부 문서에만 나옴)
+        String[] words = new String[5000];
+        for (int w = 0; w < words.length; w++) {
+            StringBuilder word = new StringBuilder();
+            for (int k = 2 + random.nextInt(3); k > 0; k--) {
+                word.append((char) (0xAC00 + random.nextInt(400) * 28));
+            }
+            words[w] = word.toString();
+        }
+
+        InvertedIndex index = new InvertedIndex();
+        List<String> corpus = new ArrayList<>(documents);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < documents; i++) {
+            String title = places[random.nextInt(places.length)] + " 여행";
+            StringBuilder body = new StringBuilder();
+            for (int w = 0; w < 80; w++) {
+                body.append(w % 20 == 0 ? places[random.nextInt(places.length)] : words[random.nextInt(words.length)])
+                        .append(' ');
+            }
+            corpus.add(title + "\n" + body);
+            index.put(i, List.of(new Field(title, 3f), new Field(body.toString(), 1f)));
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        String[] queries = { "해운대", "경복궁 남산타워", "전주한옥마을", words[7], words[11] + " " + words[12] };
+        int rounds = 50;
+        long[] indexNanos = new long[rounds * queries.length];
+        long[] scanNanos = new long[rounds * queries.length];
+        int n = 0;
+        long scanMatches = 0; // 결과를 사용해서 비교 루프가 최적화로 사라지지 않도록
+        for (int r = 0; r < rounds; r++) {
+            for (String query : queries) {
+                long start = System.nanoTime();
+                index.search(query, 20);
+                indexNanos[n] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                String[] terms = query.split(" ");
+                int matched = 0;
+                for (String text : corpus) {
+                    boolean all = true;
+                    for (String term : terms) {
+                        if (!text.contains(term)) {
+                            all = false;
+                            break;
+                        }
+                    }
+                    if (all) matched++;
+                }
+                scanNanos[n++] = System.nanoTime() - start;
+                scanMatches += matched;
+            }
+        }
+
+        System.out.printf("[검색 벤치마크] 문서 %d건, 색인 생성 %dms (스캔 일치 누적 %d건)%n", documents, buildMillis, scanMatches);
+        System.out.printf("  색인 검색  p50=%.2fms p99=%.2fms%n", percentile(indexNanos, 50), percentile(indexNanos, 99));
+        System.out.printf("  전체 스캔  p50=%.2fms p99=%.2fms%n", percentile(scanNanos, 50), percentile(scanNanos, 99));
+        assertTrue(percentile(indexNanos, 50) < percentile(scanNanos, 50));
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int position = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, position)] / 1_000_000.0;
+    }
+
+    private static SearchDocument feedDoc(int id, String title) {
+        return SearchDocument.builder().id(id).title(title).uploadedAt(feedUploadedAt(id)).build();
+    }
+
+    private static LocalDateTime feedUploadedAt(int id) {
+        return LocalDateTime.of(2025, 5, 1, 9, 0).plusMinutes(id / 2);
+    }
+
+    private static SearchDocument doc(long id, String title, String body, String tags) {
+        return SearchDocument.builder()
+                .id(id)
+                .title(title)
+                .body(body)
+                .tags(tags)
+                .uploadedAt(LocalDateTime.of(2025, 5, 1, 9, 0).plusDays(id))
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.snapway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.snapway.model.dto.Member;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("snapway-test-secret-key-0123456789-abcdefghij",
+            60_000, 86_400_000L, 100, new SimpleMeterRegistry());
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("유효한 액세스 토큰이면 토큰 내용으로 LoginUser를 만들어 principal로 넣는다 (DB 조회 없음)")
+    void setsLoginUserPrincipal() throws Exception {
+        // given
+        Member member = Member.builder().id(7).email("user7@snapway.com").username("회원7").build();
+        String token = jwtUtil.generateAccessToken(member, member.getEmail(), List.of("USER"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trip/list");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(new LoginUser(7, "user7@snapway.com", "회원7", List.of("USER")), authentication.getPrincipal());
+        assertEquals("user7@snapway.com", authentication.getName());
+        assertEquals(List.of("USER"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    @DisplayName("리프레시 토큰으로는 인증하지 않는다")
+    void ignoresRefreshToken() throws Exception {
+        // given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trip/list");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateRefreshToken("user7@snapway.com"));
+
+        // when
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // then
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
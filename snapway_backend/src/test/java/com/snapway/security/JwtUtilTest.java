@@ -0,0 +1,157 @@
+package com.snapway.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.snapway.model.dto.Member;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "snapway-test-secret-key-0123456789-abcdefghij";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JwtUtil jwtUtil(long accessMillis, int cacheMaxEntries) {
+        return new JwtUtil(SECRET, accessMillis, 86_400_000L, cacheMaxEntries, meterRegistry);
+    }
+
+    private static Member member(int id) {
+        return Member.builder().id(id).email("user" + id + "@snapway.com").username("회원" + id).build();
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.counter("snapway.auth.token.cache", "result", result).count();
+    }
+
+    @Test
+    @DisplayName("액세스 토큰을 한 번 검증해 타입이 있는 값으로 꺼내고, 같은 토큰은 캐시에서 꺼낸다")
+    void verifyAccessTokenReturnsTypedClaims() {
+        // given
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String token = jwtUtil.generateAccessToken(member(7), "user7@snapway.com", List.of("USER"));
+
+        // when
+        JwtClaims first = jwtUtil.verifyAccessToken(token);
+        JwtClaims second = jwtUtil.verifyAccessToken(token);
+
+        // then
+        assertNotNull(first);
+        assertEquals("user7@snapway.com", first.subject());
+        assertEquals(7, first.userId());
+        assertEquals("회원7", first.realName());
+        assertEquals(List.of("USER"), first.roles());
+        assertEquals(first, second);
+        assertEquals(1, cacheCount("miss"));
+        assertEquals(1, cacheCount("hit"));
+    }
+
+    @Test
+    @DisplayName("리프레시 토큰/위조 토큰은 액세스 토큰으로 인정하지 않는다")
+    void rejectsRefreshAndTamperedTokens() {
+        // given
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String refresh = jwtUtil.generateRefreshToken("user7@snapway.com");
+        String access = jwtUtil.generateAccessToken(member(7), "user7@snapway.com", List.of("USER"));
+        String tampered = access.substring(0, access.length() - 2) + (access.endsWith("AA") ? "BB" : "AA");
+
+        // then
+        assertNull(jwtUtil.verifyAccessToken(refresh));
+        assertTrue(jwtUtil.verify(refresh).isRefreshToken());
+        assertNull(jwtUtil.verifyAccessToken(tampered));
+        assertNull(jwtUtil.verifyAccessToken("not-a-jwt"));
+        assertNull(new JwtUtil("another-secret-key-0123456789-abcdefghijklmn", 60_000, 60_000, 100, meterRegistry)
+                .verifyAccessToken(access));
+    }
+
+    @Test
+    @DisplayName("캐시에 있는 토큰도 만료 시각이 지나면 거부한다")
+    void cachedTokenExpires() throws Exception {
+        // given: 만료까지 2초 (exp는 초 단위)
+        JwtUtil jwtUtil = jwtUtil(2_000, 100);
+        String token = jwtUtil.generateAccessToken(member(7), "user7@snapway.com", List.of("USER"));
+        assertNotNull(jwtUtil.verifyAccessToken(token));
+
+        // when
+        Thread.sleep(2_100);
+
+        // then
+        assertNull(jwtUtil.verifyAccessToken(token));
+        assertEquals(0, cacheCount("hit"));
+    }
+
+    @Test
+    @DisplayName("캐시는 최대 개수를 넘으면 가장 오래 쓰지 않은 토큰부터 버린다")
+    void cacheIsBounded() {
+        VerifiedClaimsCache cache = new VerifiedClaimsCache(2);
+        JwtClaims claims = new JwtClaims("a", JwtClaims.TYPE_ACCESS, 1, "a", List.of(),
+                new Date(System.currentTimeMillis() + 60_000));
+
+        cache.put("1", claims);
+        cache.put("2", claims);
+        cache.get("1", System.currentTimeMillis()); // 1을 최근에 사용
+        cache.put("3", claims);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("1", System.currentTimeMillis()));
+        assertNull(cache.get("2", System.currentTimeMillis()));
+    }
+
+    /**
+     * 요청 1건의 인증 비용: 기존 필터(토큰 6번 파싱) / 한 번 파싱 / 캐시 적중
+     * 실행: mvn test -Dtest=JwtUtilTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] 요청당 토큰 검증 비용")
+    void benchmarkPerRequestAuth() {
+        JwtUtil uncached = jwtUtil(3_600_000, 0);
+        JwtUtil cached = jwtUtil(3_600_000, 10_000);
+        String[] tokens = new String[1_000];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = uncached.generateAccessToken(member(i), "user" + i + "@snapway.com", List.of("USER"));
+        }
+
+        int rounds = 200_000;
+        long[] nanos = new long[3];
+        for (int pass = 0; pass < 3; pass++) { // 첫 두 번은 JIT 워밍업
+            nanos[0] = measure(rounds, tokens, token -> {
+                // 기존 필터의 호출 순서 그대로
+                if (uncached.isTokenValid(token) && uncached.isAccessToken(token)) {
+                    uncached.getUserName(token);
+                    uncached.parseClaims(token).get("userId");
+                    uncached.parseClaims(token).get("realName");
+                    uncached.getRoles(token);
+                }
+            });
+            nanos[1] = measure(rounds, tokens, uncached::verifyAccessToken);
+            nanos[2] = measure(rounds, tokens, cached::verifyAccessToken);
+        }
+
+        System.out.printf("[인증 벤치마크] 토큰 %d개를 돌려가며 %d회%n", tokens.length, rounds);
+        System.out.printf("  기존(6회 파싱)  %.2fus/요청%n", nanos[0] / 1000.0 / rounds);
+        System.out.printf("  1회 파싱        %.2fus/요청%n", nanos[1] / 1000.0 / rounds);
+        System.out.printf("  캐시 적중       %.2fus/요청%n", nanos[2] / 1000.0 / rounds);
+        assertTrue(nanos[1] < nanos[0] && nanos[2] < nanos[1], Arrays.toString(nanos));
+    }
+
+    private static long measure(int rounds, String[] tokens, Consumer<String> auth) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            auth.accept(tokens[i % tokens.length]);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,121 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.snapway.util.ByteBufferImageInputStream;
+import com.snapway.util.ImageScaler;
+
+class ImageScalerTest {
+
+    private final ImageScaler imageScaler = new ImageScaler();
+
+    @Test
+    @DisplayName("축소 디코딩 결과는 비율을 유지하며 최대 크기 안에 들어온다")
+    void readScaledFitsIntoBox() throws Exception {
+        // given
+        byte[] landscape = jpeg(2000, 1500);
+        byte[] portrait = jpeg(300, 900);
+        byte[] small = jpeg(200, 100);
+
+        // when
+        BufferedImage scaledLandscape = imageScaler.readScaled(input(landscape), 512, 512);
+        BufferedImage scaledPortrait = imageScaler.readScaled(input(portrait), 512, 512);
+        BufferedImage notScaled = imageScaler.readScaled(input(small), 512, 512);
+
+        // then
+        assertEquals(512, scaledLandscape.getWidth());
+        assertEquals(384, scaledLandscape.getHeight());
+        assertEquals(170, scaledPortrait.getWidth());
+        assertEquals(512, scaledPortrait.getHeight());
+        assertEquals(200, notScaled.getWidth());
+        assertEquals(BufferedImage.TYPE_INT_RGB, notScaled.getType());
+    }
+
+    @Test
+    @DisplayName("이미지가 아니면 null을 반환한다")
+    void readScaledReturnsNullForNonImage() throws Exception {
+        assertNull(imageScaler.readScaled(input("not an image".getBytes(StandardCharsets.UTF_8)), 512, 512));
+    }
+
+    /**
+     * 12MP 사진 1장을 512px로 줄일 때 할당량과 처리량 비교 (전체 디코딩 vs 축소 디코딩)
+     * 실행: mvn test -Dtest=ImageScalerTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] 전체 디코딩 vs 축소 디코딩")
+    void benchmark() throws Exception {
+        byte[] photo = jpeg(4000, 3000);
+        int warmup = 5;
+        int iterations = 20;
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < warmup; i++) {
+            fullDecode(photo);
+            imageScaler.readScaled(input(photo), 512, 512);
+        }
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            fullDecode(photo);
+        }
+        long fullNanos = System.nanoTime() - start;
+        long fullAllocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            imageScaler.readScaled(input(photo), 512, 512);
+        }
+        long scaledNanos = System.nanoTime() - start;
+        long scaledAllocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("원본: 4000x3000, %,d KB%n", photo.length / 1024);
+        System.out.printf("전체 디코딩: %,d KB/장 할당, %.1f 장/초%n",
+                fullAllocated / iterations / 1024, iterations / (fullNanos / 1e9));
+        System.out.printf("축소 디코딩: %,d KB/장 할당, %.1f 장/초%n",
+                scaledAllocated / iterations / 1024, iterations / (scaledNanos / 1e9));
+    }
+
+    // 기존 방식: 원본 해상도로 디코딩한 뒤 한 번에 축소
+    private BufferedImage fullDecode(byte[] photo) throws Exception {
+        BufferedImage original = ImageIO.read(input(photo));
+        BufferedImage resized = new BufferedImage(512, 384, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        g.drawImage(original, 0, 0, 512, 384, null);
+        g.dispose();
+        return resized;
+    }
+
+    private ByteBufferImageInputStream input(byte[] bytes) {
+        return new ByteBufferImageInputStream(ByteBuffer.wrap(bytes));
+    }
+
+    private byte[] jpeg(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y += 3) {
+            for (int x = 0; x < width; x += 3) {
+                image.setRGB(x, y, (x * y) ^ x);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,134 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.snapway.model.dto.ImageVariant;
+import com.snapway.model.service.ImageVariantServiceImpl;
+import com.snapway.util.ImageScaler;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path basePath;
+
+    private ImageVariantServiceImpl imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        // 백그라운드 생성도 호출한 스레드에서 바로 실행
+        imageVariantService = new ImageVariantServiceImpl(new ImageScaler(), Runnable::run);
+        ReflectionTestUtils.setField(imageVariantService, "basePath", basePath.toString());
+    }
+
+    @Test
+    @DisplayName("축소본이 없는 기존 사진은 처음 요청될 때 생성된다")
+    void resolveGeneratesMissingVariants() throws Exception {
+        // given: 축소본 없이 저장된 기존 사진
+        Path original = basePath.resolve("1/trip/3/legacy.png");
+        Files.createDirectories(original.getParent());
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+
+        // when
+        Path thumb = imageVariantService.resolve("/1/trip/3/legacy.png", ImageVariant.THUMB);
+        Path medium = imageVariantService.resolve("1/trip/3/legacy.png", ImageVariant.MEDIUM);
+
+        // then
+        assertEquals(basePath.resolve("variants/thumb/1/trip/3/legacy.png.jpg"), thumb);
+        BufferedImage thumbImage = ImageIO.read(thumb.toFile());
+        assertEquals(320, thumbImage.getWidth());
+        assertEquals(160, thumbImage.getHeight());
+        assertEquals(1280, ImageIO.read(medium.toFile()).getWidth());
+    }
+
+    @Test
+    @DisplayName("저장 직후 생성 요청 시 모든 축소본이 만들어진다")
+    void generateAsyncCreatesAllVariants() throws Exception {
+        // given
+        Path original = basePath.resolve("7/photo.jpg");
+        Files.createDirectories(original.getParent());
+        ImageIO.write(new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB), "jpg", original.toFile());
+
+        // when
+        imageVariantService.generateAsync(original);
+
+        // then
+        assertTrue(Files.exists(basePath.resolve("variants/thumb/7/photo.jpg")));
+        assertTrue(Files.exists(basePath.resolve("variants/medium/7/photo.jpg")));
+    }
+
+    @Test
+    @DisplayName("원본이 없거나 basePath 밖을 가리키면 null을 반환한다")
+    void resolveRejectsInvalidPath() throws Exception {
+        assertNull(imageVariantService.resolve("1/none.jpg", ImageVariant.THUMB));
+        assertNull(imageVariantService.resolve("../secret.jpg", ImageVariant.THUMB));
+        assertNull(imageVariantService.resolve("variants/thumb/7/photo.jpg", ImageVariant.THUMB));
+    }
+
+    @Test
+    @DisplayName("사진 저장소의 사진은 요청 시 축소본을 만든다")
+    void resolveGeneratesForBlob() throws Exception {
+        // given
+        String relative = "blobs/ab/cd/" + "abcd".repeat(16) + ".png";
+        writeImage(relative);
+
+        // when
+        Path thumb = imageVariantService.resolve(relative, ImageVariant.THUMB);
+
+        // then
+        assertEquals(basePath.resolve("variants/thumb/" + relative + ".jpg"), thumb);
+    }
+
+    @Test
+    @DisplayName("업로드 중 파일, 사진 저장 경로가 아닌 파일, 이미지 확장자가 아닌 파일은 디코딩하지 않고 null")
+    void resolveRejectsNonPhotoPaths() throws Exception {
+        // given: 모두 실제 이미지 파일이지만 사진 저장 위치가 아님
+        String[] paths = {
+                "1/staging/job-1/a.jpg",
+                "1/uploads/session-1/0.jpg",
+                "1/temp/a.jpg",
+                "1/trip/3/.hidden.jpg",
+                "1/trip/3/a.txt",
+                "config/a.jpg",
+                "1/other/3/a.jpg",
+                "blobs/ab/a.jpg",
+        };
+        for (String path : paths) {
+            writeImage(path);
+        }
+
+        // when & then
+        for (String path : paths) {
+            assertNull(imageVariantService.resolve(path, ImageVariant.THUMB), path);
+        }
+        assertFalse(Files.exists(basePath.resolve(ImageVariant.VARIANTS_DIR)));
+    }
+
+    private void writeImage(String relative) throws Exception {
+        Path file = basePath.resolve(relative);
+        Files.createDirectories(file.getParent());
+        ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+    }
+
+    @Test
+    @DisplayName("축소본 URL은 /files/ 뒤에 variants/{종류}를 붙인 경로다")
+    void variantUrl() {
+        assertEquals("http://localhost:8081/files/variants/thumb/1/trip/3/a.jpg",
+                ImageVariant.THUMB.toUrl("http://localhost:8081/files/1/trip/3/a.jpg"));
+        assertEquals("https://cdn.example.com/a.jpg", ImageVariant.MEDIUM.toUrl("https://cdn.example.com/a.jpg"));
+    }
+}
@@ -0,0 +1,197 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.snapway.model.dto.PhotoMetadata;
+import com.snapway.util.MetadataUtil;
+
+class MetadataUtilTest {
+
+    private static final LocalDateTime TAKEN_AT = LocalDateTime.of(2024, 5, 1, 10, 30, 0);
+
+    private MetadataUtil metadataUtil;
+
+    @BeforeEach
+    void setUp() {
+        metadataUtil = new MetadataUtil();
+        ReflectionTestUtils.setField(metadataUtil, "exifHeaderBudgetBytes", 256 * 1024);
+    }
+
+    @Test
+    @DisplayName("JPEG 헤더의 EXIF만 읽어도 전체 리더와 같은 촬영 일시를 얻는다")
+    void headerMetadataMatchesFullReader() throws Exception {
+        // given: XMP(APP1) 뒤에 EXIF(APP1)가 있는 JPEG
+        byte[] jpeg = jpegWithExif(64, 64, 8 * 1024);
+
+        // when
+        PhotoMetadata fast = metadataUtil.extractHeaderMetadata(new ByteArrayInputStream(jpeg));
+        Metadata full = ImageMetadataReader.readMetadata(new ByteArrayInputStream(jpeg), jpeg.length);
+
+        // then
+        assertEquals(TAKEN_AT, fast.getTakenAt());
+        assertEquals(TAKEN_AT, metadataUtil.extractMetadata(new MockMultipartFile("files", "a.jpg", "image/jpeg", jpeg)).getTakenAt());
+        assertEquals("2024:05:01 10:30:00",
+                full.getFirstDirectoryOfType(ExifSubIFDDirectory.class).getString(ExifSubIFDDirectory.TAG_DATETIME_ORIGINAL));
+    }
+
+    @Test
+    @DisplayName("JPEG가 아니면 빠른 경로를 건너뛰고, 헤더가 예산보다 크면 예외로 전체 리더에 넘긴다")
+    void headerMetadataFallsBack() {
+        // given
+        ReflectionTestUtils.setField(metadataUtil, "exifHeaderBudgetBytes", 4 * 1024);
+        byte[] png = "\u0089PNG\r\n\u001a\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        // when & then
+        assertNull(assertDoesNotThrow(() -> metadataUtil.extractHeaderMetadata(new ByteArrayInputStream(png))));
+        assertThrows(IOException.class,
+                () -> metadataUtil.extractHeaderMetadata(new ByteArrayInputStream(jpegWithExif(64, 64, 16 * 1024))));
+    }
+
+    /**
+     * 사진 1장당 읽은 바이트 수와 지연 시간 비교 (빠른 경로 vs 전체 리더)
+     * 실행: mvn test -Dtest=MetadataUtilTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] EXIF 빠른 경로 vs 전체 리더")
+    void benchmark() throws Exception {
+        byte[] jpeg = jpegWithExif(4000, 3000, 32 * 1024);
+        int warmup = 200;
+        int iterations = 1000;
+
+        for (int i = 0; i < warmup; i++) {
+            metadataUtil.extractHeaderMetadata(new ByteArrayInputStream(jpeg));
+            ImageMetadataReader.readMetadata(new BufferedInputStream(new ByteArrayInputStream(jpeg)), jpeg.length);
+        }
+
+        long fastBytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(jpeg));
+            metadataUtil.extractHeaderMetadata(in);
+            fastBytes += in.count;
+        }
+        long fastNanos = System.nanoTime() - start;
+
+        long fullBytes = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(jpeg));
+            ImageMetadataReader.readMetadata(new BufferedInputStream(in), jpeg.length);
+            fullBytes += in.count;
+        }
+        long fullNanos = System.nanoTime() - start;
+
+        System.out.printf("파일 크기: %,d bytes%n", jpeg.length);
+        System.out.printf("빠른 경로: 평균 %,d bytes, %.1f us/장%n", fastBytes / iterations, fastNanos / 1000.0 / iterations);
+        System.out.printf("전체 리더: 평균 %,d bytes, %.1f us/장%n", fullBytes / iterations, fullNanos / 1000.0 / iterations);
+    }
+
+    // ---- 테스트용 JPEG 생성 ----
+
+    /**
+     * SOI 바로 뒤에 XMP(APP1, xmpBytes 크기)와 EXIF(APP1, DateTimeOriginal)를 넣은 JPEG
+     */
+    private byte[] jpegWithExif(int width, int height, int xmpBytes) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y += 8) {
+            for (int x = 0; x < width; x += 8) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", encoded);
+        byte[] body = encoded.toByteArray();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(body, 0, 2); // SOI
+        byte[] xmp = new byte[xmpBytes];
+        byte[] xmpHeader = "http://ns.adobe.com/xap/1.0/\0".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(xmpHeader, 0, xmp, 0, xmpHeader.length);
+        writeSegment(out, 0xE1, xmp);
+        writeSegment(out, 0xE1, exifPayload("2024:05:01 10:30:00"));
+        out.write(body, 2, body.length - 2);
+        return out.toByteArray();
+    }
+
+    private void writeSegment(ByteArrayOutputStream out, int type, byte[] payload) {
+        out.write(0xFF);
+        out.write(type);
+        out.write((payload.length + 2) >> 8);
+        out.write((payload.length + 2) & 0xFF);
+        out.write(payload, 0, payload.length);
+    }
+
+    // "Exif\0\0" + TIFF(빅엔디안): IFD0 -> ExifSubIFD 포인터 -> DateTimeOriginal
+    private byte[] exifPayload(String dateTime) {
+        byte[] date = (dateTime + "\0").getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer tiff = ByteBuffer.allocate(44 + date.length);
+        tiff.put(new byte[] {'M', 'M', 0, 42}).putInt(8);
+        tiff.putShort((short) 1).putShort((short) 0x8769).putShort((short) 4).putInt(1).putInt(26).putInt(0);
+        tiff.putShort((short) 1).putShort((short) 0x9003).putShort((short) 2).putInt(date.length).putInt(44).putInt(0);
+        tiff.put(date);
+
+        byte[] preamble = {'E', 'x', 'i', 'f', 0, 0};
+        byte[] payload = new byte[preamble.length + tiff.capacity()];
+        System.arraycopy(preamble, 0, payload, 0, preamble.length);
+        System.arraycopy(tiff.array(), 0, payload, preamble.length, tiff.capacity());
+        return payload;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import com.snapway.util.MultipartStreamReader;
+import com.snapway.util.MultipartStreamReader.Part;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+
+    private final byte[] photo1 = randomBytes(200_000, 1);
+    // 구분자와 앞부분이 같은 바이트열이 들어 있는 파일
+    private final byte[] photo2 = withNearDelimiter(randomBytes(5_000, 2));
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] withNearDelimiter(byte[] bytes) {
+        byte[] near = ("\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "x\r\n--")
+                .getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(near, 0, bytes, 1_000, near.length);
+        return bytes;
+    }
+
+    private byte[] body() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"title\"\r\n\r\n제주 여행\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        out.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"files\"; filename=\"사진 1.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(photo1);
+        out.write(("\r\n--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"files\"; filename=\"b.jpg\"\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        out.write(photo2);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    // 네트워크처럼 한 번에 1~7바이트씩만 돌려주는 스트림
+    private static InputStream trickle(byte[] bytes) {
+        Random random = new Random(3);
+        return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1 + random.nextInt(7)));
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("폼 필드와 파일 파트를 순서대로 읽고, 조금씩 도착해도 내용이 같다")
+    void readsPartsInOrder() throws Exception {
+        byte[] body = body();
+        for (InputStream in : new InputStream[] {new ByteArrayInputStream(body), trickle(body)}) {
+            // given
+            MultipartStreamReader reader = new MultipartStreamReader(in, BOUNDARY, 1_000_000);
+
+            // when
+            Part title = reader.next();
+            String titleValue = title.readString(100);
+            Part first = reader.next();
+            byte[] firstBytes = first.body().readAllBytes();
+            Part second = reader.next();
+            byte[] secondBytes = second.body().readAllBytes();
+
+            // then
+            assertFalse(title.isFile());
+            assertEquals("제주 여행", titleValue);
+            assertEquals("files", first.name());
+            assertEquals("사진 1.jpg", first.filename());
+            assertEquals("image/jpeg", first.contentType());
+            assertArrayEquals(photo1, firstBytes);
+            assertEquals("b.jpg", second.filename());
+            assertArrayEquals(photo2, secondBytes);
+            assertNull(reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("다 읽지 않은 파트는 다음 파트로 넘어갈 때 버린다")
+    void skipsUnreadPart() throws Exception {
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body()), BOUNDARY, 1_000_000);
+
+        reader.next();
+        reader.next().body().read(new byte[10]);
+        Part second = reader.next();
+
+        assertEquals("b.jpg", second.filename());
+        assertArrayEquals(photo2, second.body().readAllBytes());
+    }
+
+    @Test
+    @DisplayName("본문이 제한을 넘으면 끝까지 받지 않고 그 시점에 중단한다")
+    void stopsAtLimit() throws Exception {
+        byte[] body = body();
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), BOUNDARY, 100_000);
+
+        reader.next();
+        Part first = reader.next();
+
+        assertThrows(MaxUploadSizeExceededException.class, () -> first.body().readAllBytes());
+        assertTrue(reader.getBytesRead() < body.length);
+    }
+
+    @Test
+    @DisplayName("마지막 구분자 없이 끝난 본문은 오류로 처리한다")
+    void rejectsTruncatedBody() throws Exception {
+        byte[] body = Arrays.copyOf(body(), 150_000);
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), BOUNDARY, 1_000_000);
+
+        reader.next();
+        Part first = reader.next();
+
+        assertThrows(IOException.class, () -> first.body().readAllBytes());
+    }
+
+    @Test
+    @DisplayName("Content-Type에서 boundary를 꺼내고, multipart가 아니면 거절한다")
+    void parsesBoundary() {
+        assertEquals(BOUNDARY, MultipartStreamReader.boundaryOf("multipart/form-data; boundary=" + BOUNDARY));
+        assertEquals("a b", MultipartStreamReader.boundaryOf("multipart/form-data; charset=UTF-8; boundary=\"a b\""));
+        assertThrows(IllegalArgumentException.class, () -> MultipartStreamReader.boundaryOf("application/json"));
+        assertThrows(IllegalArgumentException.class, () -> MultipartStreamReader.boundaryOf("multipart/form-data"));
+    }
+}
@@ -0,0 +1,230 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willDoNothing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.snapway.model.dto.NearbyTrip;
+import com.snapway.model.dto.TripRecord;
+import com.snapway.model.mapper.GeoMapper;
+import com.snapway.model.service.NearbyTripServiceImpl;
+import com.snapway.util.GeoGrid;
+import com.snapway.util.GeoGrid.Match;
+import com.snapway.util.GeoGrid.Point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class NearbyTripServiceTest {
+
+    // 해운대 해수욕장 / 광안리 / 서울역
+    private static final double HAEUNDAE_LAT = 35.1587, HAEUNDAE_LNG = 129.1604;
+    private static final double GWANGALLI_LAT = 35.1532, GWANGALLI_LNG = 129.1186;
+    private static final double SEOUL_LAT = 37.5547, SEOUL_LNG = 126.9707;
+
+    @Mock
+    private GeoMapper geoMapper;
+
+    private NearbyTripServiceImpl nearbyTripService;
+
+    @BeforeEach
+    void setUp() {
+        // 색인 작업은 호출한 스레드에서 바로 실행
+        nearbyTripService = new NearbyTripServiceImpl(geoMapper, new SimpleMeterRegistry(), Runnable::run);
+        ReflectionTestUtils.setField(nearbyTripService, "defaultRadiusMeters", 3000.0);
+        ReflectionTestUtils.setField(nearbyTripService, "maxRadiusMeters", 50000.0);
+        ReflectionTestUtils.setField(nearbyTripService, "maxSpanDegrees", 1.0);
+        ReflectionTestUtils.setField(nearbyTripService, "defaultSize", 20);
+        ReflectionTestUtils.setField(nearbyTripService, "maxSize", 100);
+    }
+
+    @Test
+    @DisplayName("반경 안의 여행만 가까운 순으로 찾고, 여행마다 가장 가까운 기록 하나로 대표한다")
+    void nearbyReturnsClosestRecordPerTrip() {
+        // given
+        GeoGrid grid = new GeoGrid();
+        grid.putTrip(1, List.of(new Point(10, 1, GWANGALLI_LAT, GWANGALLI_LNG), new Point(11, 1, HAEUNDAE_LAT, HAEUNDAE_LNG + 0.001)));
+        grid.putTrip(2, List.of(new Point(20, 2, GWANGALLI_LAT, GWANGALLI_LNG)));
+        grid.putTrip(3, List.of(new Point(30, 3, SEOUL_LAT, SEOUL_LNG)));
+
+        // when
+        List<Match> matches = grid.nearby(HAEUNDAE_LAT, HAEUNDAE_LNG, 5000, 10);
+
+        // then: 광안리는 해운대에서 약 3.8km
+        assertEquals(List.of(1, 2), matches.stream().map(Match::tripId).toList());
+        assertEquals(11, matches.get(0).recordId());
+        assertTrue(matches.get(1).distanceMeters() > 3500 && matches.get(1).distanceMeters() < 4200);
+        assertEquals(1, grid.nearby(HAEUNDAE_LAT, HAEUNDAE_LNG, 1000, 10).size());
+        assertEquals(1, grid.nearby(HAEUNDAE_LAT, HAEUNDAE_LNG, 5000, 1).size());
+    }
+
+    @Test
+    @DisplayName("여행 좌표를 교체/삭제하면 이전 위치로는 더 이상 찾지 않는다")
+    void putTripReplacesPoints() {
+        // given
+        GeoGrid grid = new GeoGrid();
+        grid.putTrip(1, List.of(new Point(10, 1, HAEUNDAE_LAT, HAEUNDAE_LNG)));
+
+        // when
+        grid.putTrip(1, List.of(new Point(10, 1, SEOUL_LAT, SEOUL_LNG)));
+
+        // then
+        assertTrue(grid.nearby(HAEUNDAE_LAT, HAEUNDAE_LNG, 3000, 10).isEmpty());
+        assertEquals(1, grid.within(37.5, 126.9, 37.6, 127.0, 10).size());
+
+        grid.removeTrip(1);
+        assertTrue(grid.within(37.5, 126.9, 37.6, 127.0, 10).isEmpty());
+        assertEquals(0, grid.size());
+    }
+
+    @Test
+    @DisplayName("전체 적재 후 반경 조회 시 색인 순서대로 여행 정보를 붙이고, 그새 비공개된 여행은 뺀다")
+    void findNearbyJoinsTripInfoInDistanceOrder() throws Exception {
+        // given
+        willAnswer(invocation -> {
+            ResultHandler<TripRecord> handler = invocation.getArgument(1);
+            stream(handler, record(10, 1, GWANGALLI_LAT, GWANGALLI_LNG), record(20, 2, HAEUNDAE_LAT, HAEUNDAE_LNG),
+                    record(30, 3, HAEUNDAE_LAT + 0.001, HAEUNDAE_LNG));
+            return null;
+        }).given(geoMapper).selectGeoPoints(isNull(), any());
+        given(geoMapper.selectNearbyTrips(anyList())).willReturn(new ArrayList<>(List.of(
+                NearbyTrip.builder().tripId(1).recordId(10).title("광안리").build(),
+                NearbyTrip.builder().tripId(2).recordId(20).title("해운대").build())));
+
+        // when
+        nearbyTripService.rebuild();
+        List<NearbyTrip> trips = nearbyTripService.findNearby(HAEUNDAE_LAT, HAEUNDAE_LNG, 5000.0, null);
+
+        // then
+        assertEquals(List.of(2, 1), trips.stream().map(NearbyTrip::getTripId).toList());
+        assertEquals(0.0, trips.get(0).getDistanceMeters(), 0.5);
+        assertEquals(HAEUNDAE_LAT, trips.get(0).getLatitude(), 1e-5);
+    }
+
+    @Test
+    @DisplayName("비공개로 바뀐 여행은 다시 적재할 때 색인에서 빠진다")
+    void reindexRemovesHiddenTrip() throws Exception {
+        // given
+        willAnswer(invocation -> {
+            stream(invocation.getArgument(1), record(10, 1, HAEUNDAE_LAT, HAEUNDAE_LNG));
+            return null;
+        }).given(geoMapper).selectGeoPoints(isNull(), any());
+        nearbyTripService.rebuild();
+
+        // when: 공개 여행 좌표 조회 결과가 비어 있음
+        willDoNothing().given(geoMapper).selectGeoPoints(eq(1), any());
+        nearbyTripService.reindexTrip(1);
+
+        // then
+        assertTrue(nearbyTripService.findNearby(HAEUNDAE_LAT, HAEUNDAE_LNG, null, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("좌표/반경/영역 크기가 범위를 벗어나면 IllegalArgumentException")
+    void rejectsInvalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> nearbyTripService.findNearby(91, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> nearbyTripService.findNearby(35, 129, 100_000.0, null));
+        assertThrows(IllegalArgumentException.class, () -> nearbyTripService.findWithin(35.2, 129, 35.1, 129.1, null));
+        assertThrows(IllegalArgumentException.class, () -> nearbyTripService.findWithin(33, 126, 38, 129, null));
+    }
+
+    /**
+     * 좌표 200만 개(국내 도시 주변에 몰리게 생성)에서 반경/영역 조회 지연 시간
+     * 실행: mvn test -Dtest=NearbyTripServiceTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] 좌표 200만 개에서 반경/영역 조회")
+    void benchmarkNearbyQueries() {
+        double[][] cities = { { 37.5665, 126.9780 }, { 35.1796, 129.0756 }, { 37.4563, 126.7052 }, { 35.8714, 128.6014 },
+                { 33.4996, 126.5312 }, { 35.1595, 126.8526 }, { 36.3504, 127.3845 }, { 37.7519, 128.8761 } };
+        Random random = new Random(42);
+        GeoGrid grid = new GeoGrid();
+
+        int points = 2_000_000;
+        int recordsPerTrip = 20;
+        long buildStart = System.nanoTime();
+        List<Point> trip = new ArrayList<>(recordsPerTrip);
+        for (int i = 0; i < points; i++) {
+            double[] city = cities[random.nextInt(cities.length)];
+            // 도시 중심에서 표준편차 약 5km로 퍼진 좌표
+            trip.add(new Point(i, i / recordsPerTrip, city[0] + random.nextGaussian() * 0.045, city[1] + random.nextGaussian() * 0.055));
+            if (trip.size() == recordsPerTrip) {
+                grid.putTrip(i / recordsPerTrip, trip);
+                trip.clear();
+            }
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        int rounds = 2_000;
+        long[] nearbyNanos = new long[rounds];
+        long[] withinNanos = new long[rounds];
+        long found = 0;
+        for (int r = 0; r < rounds; r++) {
+            double[] city = cities[random.nextInt(cities.length)];
+            double latitude = city[0] + random.nextGaussian() * 0.05;
+            double longitude = city[1] + random.nextGaussian() * 0.05;
+
+            long start = System.nanoTime();
+            found += grid.nearby(latitude, longitude, 3000, 20).size();
+            nearbyNanos[r] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            found += grid.within(latitude - 0.05, longitude - 0.05, latitude + 0.05, longitude + 0.05, 100).size();
+            withinNanos[r] = System.nanoTime() - start;
+        }
+
+        System.out.printf("[주변 여행 벤치마크] 좌표 %d개, 색인 생성 %dms, 결과 누적 %d건%n", grid.size(), buildMillis, found);
+        System.out.printf("  반경 3km, 20건     p50=%.3fms p99=%.3fms%n", percentile(nearbyNanos, 50), percentile(nearbyNanos, 99));
+        System.out.printf("  영역 0.1도, 100건  p50=%.3fms p99=%.3fms%n", percentile(withinNanos, 50), percentile(withinNanos, 99));
+        assertTrue(percentile(nearbyNanos, 99) < 10);
+        assertTrue(percentile(withinNanos, 99) < 10);
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int position = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, position)] / 1_000_000.0;
+    }
+
+    private static void stream(ResultHandler<TripRecord> handler, TripRecord... records) {
+        DefaultResultContext<TripRecord> context = new DefaultResultContext<>();
+        for (TripRecord record : records) {
+            context.nextResultObject(record);
+            handler.handleResult(context);
+        }
+    }
+
+    private static TripRecord record(int recordId, int tripId, double latitude, double longitude) {
+        return TripRecord.builder()
+                .recordId(recordId)
+                .tripId(tripId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
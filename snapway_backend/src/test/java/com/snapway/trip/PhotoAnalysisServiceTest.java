@@ -0,0 +1,207 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.PhotoMetadata;
+import com.snapway.model.service.AiService;
+import com.snapway.model.service.PhotoAnalysisServiceImpl;
+import com.snapway.model.service.TripProgressListener;
+import com.snapway.util.ImageBase64Encoder;
+import com.snapway.util.MetadataUtil.PhotoWithFile;
+import com.snapway.util.PhotoDescriptionCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoAnalysisServiceTest {
+
+    @Mock
+    private AiService aiService;
+
+    @Mock
+    private ImageBase64Encoder imageBase64Encoder;
+
+    @Mock
+    private PhotoDescriptionCache photoDescriptionCache;
+
+    private ThreadPoolTaskExecutor executor;
+    private PhotoAnalysisServiceImpl photoAnalysisService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+
+        photoAnalysisService = new PhotoAnalysisServiceImpl(aiService, imageBase64Encoder, photoDescriptionCache, new ObjectMapper(),
+                new SimpleMeterRegistry(), executor);
+        ReflectionTestUtils.setField(photoAnalysisService, "concurrency", 2);
+        ReflectionTestUtils.setField(photoAnalysisService, "photoTimeoutMillis", 300L);
+        ReflectionTestUtils.setField(photoAnalysisService, "batchTimeoutMillis", 1000L);
+        ReflectionTestUtils.invokeMethod(photoAnalysisService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("분석 결과는 입력 순서를 유지하고, 시간 초과된 사진만 null로 반환된다")
+    void describePhotosKeepsOrderAndTimesOut() throws Exception {
+        // given: 두 번째 사진의 AI 호출만 제한 시간보다 오래 걸림 (제한 시간은 AiService가 전송 시점부터 적용)
+        List<PhotoWithFile> photos = List.of(photo("a.jpg"), photo("slow.jpg"), photo("c.jpg"));
+        given(imageBase64Encoder.encode(any(MultipartFile.class)))
+                .willAnswer(invocation -> ((MultipartFile) invocation.getArgument(0)).getOriginalFilename());
+        given(aiService.generateContentReactive(anyString(), anyList(), eq(Duration.ofMillis(300)))).willAnswer(invocation -> {
+            String image = ((List<?>) invocation.getArgument(1)).get(0).toString();
+            if (image.equals("slow.jpg")) {
+                return Mono.delay(Duration.ofSeconds(5)).thenReturn("desc-" + image).timeout(invocation.<Duration>getArgument(2));
+            }
+            return Mono.just("desc-" + image);
+        });
+
+        AtomicInteger analyzed = new AtomicInteger();
+        TripProgressListener listener = new TripProgressListener() {
+            @Override
+            public void onPhotoAnalyzed(int index, int total, String fileName, boolean success) {
+                analyzed.incrementAndGet();
+            }
+        };
+
+        // when
+        List<String> descriptions = photoAnalysisService.describePhotos(photos, listener);
+
+        // then
+        assertEquals(3, descriptions.size());
+        assertEquals("desc-a.jpg", descriptions.get(0));
+        assertNull(descriptions.get(1));
+        assertEquals("desc-c.jpg", descriptions.get(2));
+        assertEquals(3, analyzed.get());
+    }
+
+    @Test
+    @DisplayName("캐시에 묘사가 있는 사진은 AI를 호출하지 않고, 새로 분석한 묘사만 캐시에 저장한다")
+    void describePhotosUsesCache() {
+        // given: a.jpg는 캐시에 있음
+        List<PhotoWithFile> photos = List.of(photo("a.jpg"), photo("b.jpg"));
+        given(imageBase64Encoder.encode(any(MultipartFile.class)))
+                .willAnswer(invocation -> ((MultipartFile) invocation.getArgument(0)).getOriginalFilename());
+        given(photoDescriptionCache.get(anyString(), eq("a.jpg"))).willReturn("cached-a.jpg");
+        given(aiService.generateContentReactive(anyString(), eq(List.of("b.jpg")), any())).willReturn(Mono.just("desc-b.jpg"));
+
+        // when
+        List<String> descriptions = photoAnalysisService.describePhotos(photos, TripProgressListener.NONE);
+
+        // then
+        assertEquals(List.of("cached-a.jpg", "desc-b.jpg"), descriptions);
+        then(aiService).should(never()).generateContentReactive(anyString(), eq(List.of("a.jpg")), any());
+        then(photoDescriptionCache).should().put(eq("v1"), eq("b.jpg"), eq("desc-b.jpg"));
+        then(photoDescriptionCache).should(never()).put(anyString(), eq("a.jpg"), anyString());
+    }
+
+    @Test
+    @DisplayName("배치 분석이 켜져 있으면 여러 사진을 배치 제한 시간으로 한 번에 요청하고, 결과는 배치 프롬프트 버전으로 캐시한다")
+    void describePhotosInBatch() {
+        // given
+        enableBatch(8);
+        List<PhotoWithFile> photos = List.of(photo("a.jpg"), photo("b.jpg"), photo("c.jpg"));
+        given(imageBase64Encoder.encode(any(MultipartFile.class)))
+                .willAnswer(invocation -> ((MultipartFile) invocation.getArgument(0)).getOriginalFilename());
+        given(aiService.generateJsonReactive(anyString(), eq(List.of("a.jpg", "b.jpg", "c.jpg")), anyMap(),
+                eq(Duration.ofMillis(1000))))
+                .willReturn(Mono.just("""
+                        [{"index": 2, "description": "desc-c"}, {"index": 0, "description": "desc-a"},
+                         {"index": 1, "description": "desc-b"}]
+                        """));
+
+        // when
+        List<String> descriptions = photoAnalysisService.describePhotos(photos, TripProgressListener.NONE);
+
+        // then: 응답 순서와 관계없이 번호대로 매칭, 단건 요청은 없음
+        assertEquals(List.of("desc-a", "desc-b", "desc-c"), descriptions);
+        then(aiService).should(never()).generateContentReactive(anyString(), anyList(), any());
+        then(photoDescriptionCache).should().put("batch-v1", "a.jpg", "desc-a");
+        then(photoDescriptionCache).should(never()).put(eq("v1"), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("배치 응답에 빠진 사진이 있으면 배치의 사진을 한 장씩 다시 분석한다")
+    void describePhotosFallsBackToSingleOnMalformedBatch() {
+        // given: 배치 응답에 1번 사진이 없음
+        enableBatch(8);
+        List<PhotoWithFile> photos = List.of(photo("a.jpg"), photo("b.jpg"));
+        given(imageBase64Encoder.encode(any(MultipartFile.class)))
+                .willAnswer(invocation -> ((MultipartFile) invocation.getArgument(0)).getOriginalFilename());
+        given(aiService.generateJsonReactive(anyString(), anyList(), anyMap(), any()))
+                .willReturn(Mono.just("[{\"index\": 0, \"description\": \"desc-a\"}]"));
+        given(aiService.generateContentReactive(anyString(), anyList(), any()))
+                .willAnswer(invocation -> Mono.just("single-" + ((List<?>) invocation.getArgument(1)).get(0)));
+
+        // when
+        List<String> descriptions = photoAnalysisService.describePhotos(photos, TripProgressListener.NONE);
+
+        // then
+        assertEquals(List.of("single-a.jpg", "single-b.jpg"), descriptions);
+    }
+
+    @Test
+    @DisplayName("단건 캐시에 없으면 배치로 만든 묘사를 재사용한다")
+    void describePhotosReusesBatchCache() {
+        // given
+        List<PhotoWithFile> photos = List.of(photo("a.jpg"));
+        given(imageBase64Encoder.encode(any(MultipartFile.class)))
+                .willAnswer(invocation -> ((MultipartFile) invocation.getArgument(0)).getOriginalFilename());
+        given(photoDescriptionCache.get("batch-v1", "a.jpg")).willReturn("batch-a");
+
+        // when
+        List<String> descriptions = photoAnalysisService.describePhotos(photos, TripProgressListener.NONE);
+
+        // then
+        assertEquals(List.of("batch-a"), descriptions);
+        then(photoDescriptionCache).should().get("v1", "a.jpg");
+        then(aiService).shouldHaveNoInteractions();
+    }
+
+    private void enableBatch(int maxPhotos) {
+        ReflectionTestUtils.setField(photoAnalysisService, "batchMaxPhotos", maxPhotos);
+        ReflectionTestUtils.setField(photoAnalysisService, "batchMaxPayloadBytes", 1024L * 1024);
+        ReflectionTestUtils.invokeMethod(photoAnalysisService, "init");
+    }
+
+    private PhotoWithFile photo(String name) {
+        return PhotoWithFile.builder()
+                .file(new MockMultipartFile("files", name, "image/jpeg", new byte[] {1}))
+                .metadata(new PhotoMetadata())
+                .build();
+    }
+}
@@ -0,0 +1,212 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.snapway.model.dto.PhotoBlob;
+import com.snapway.model.mapper.PhotoBlobMapper;
+import com.snapway.model.service.ImageVariantService;
+import com.snapway.model.service.PhotoBlobServiceImpl;
+import com.snapway.util.PhotoBlobPaths;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoBlobServiceTest {
+
+    private static final byte[] CONTENT = {1, 2, 3};
+
+    @Mock
+    private PhotoBlobMapper photoBlobMapper;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @TempDir
+    Path basePath;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PhotoBlobServiceImpl photoBlobService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        photoBlobService = new PhotoBlobServiceImpl(photoBlobMapper, imageVariantService, meterRegistry);
+        ReflectionTestUtils.setField(photoBlobService, "basePath", basePath.toString());
+        ReflectionTestUtils.setField(photoBlobService, "gcGraceHours", 24L);
+        ReflectionTestUtils.setField(photoBlobService, "gcBatchSize", 500);
+    }
+
+    @Test
+    @DisplayName("같은 내용의 사진을 두 번 올리면 파일은 한 번만 쓰고 두 번째는 기존 경로를 돌려준다")
+    void storeSkipsDuplicateWrite() throws Exception {
+        // given: 처음 저장한 경로(확장자 jpg)가 DB에 남아 있으므로 두 번째 파일명(png)과 관계없이 같은 경로
+        String sha256 = PhotoBlobPaths.sha256(new ByteArrayInputStream(CONTENT));
+        String filePath = PhotoBlobPaths.relativePath(sha256, "a.JPG");
+        given(photoBlobMapper.selectBlob(sha256))
+                .willReturn(PhotoBlob.builder().sha256(sha256).filePath(filePath).size(CONTENT.length).build());
+
+        // when
+        PhotoBlob first = photoBlobService.store(new MockMultipartFile("file", "a.JPG", "image/jpeg", CONTENT));
+        PhotoBlob second = photoBlobService.store(new MockMultipartFile("file", "b.png", "image/png", CONTENT));
+
+        // then
+        assertEquals("blobs/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".jpg", filePath);
+        assertEquals(filePath, first.getFilePath());
+        assertEquals(filePath, second.getFilePath());
+        assertArrayEquals(CONTENT, Files.readAllBytes(basePath.resolve(filePath)));
+        then(photoBlobMapper).should(times(2)).upsertBlob(any());
+        then(imageVariantService).should(times(1)).generateAsync(basePath.resolve(filePath).toAbsolutePath().normalize());
+        assertEquals(1, meterRegistry.find("snapway.photo.blob.store").tag("result", "new").counter().count());
+        assertEquals(1, meterRegistry.find("snapway.photo.blob.store").tag("result", "duplicate").counter().count());
+        assertEquals(CONTENT.length, meterRegistry.find("snapway.photo.blob.dedup.bytes").counter().count());
+        // 임시 파일이 남지 않는다
+        try (var files = Files.list(basePath.resolve(filePath).getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("게시글 본문이 바뀌면 빠진 사진은 -1, 새로 들어온 사진은 +1 (한 글 안의 중복 사용은 한 번으로 센다)")
+    void updateContentReferencesAppliesDifference() throws Exception {
+        // given
+        String a = url('a');
+        String b = url('b');
+        String c = url('c');
+        String before = "![](" + a + ") ![](" + a + ") ![](" + b + ")";
+        String after = "![](" + b + ") ![](http://localhost:8080/files/variants/medium/" + c.substring(1) + ".jpg)";
+
+        // when
+        photoBlobService.updateContentReferences(before, after);
+
+        // then
+        then(photoBlobMapper).should().addRefCounts(Map.of(hash('a'), -1, hash('c'), 1));
+    }
+
+    @Test
+    @DisplayName("회원 탈퇴 시 여행 사진 행, 여행 본문, 게시글 본문이 쓰던 사진 참조를 한 번에 줄인다")
+    void releaseMemberMergesReferences() throws Exception {
+        // given: 여행 사진 2행이 같은 사진 a, 여행 본문 하나가 a의 축소본, 게시글 2개가 a와 b를 사용
+        given(photoBlobMapper.selectPhotoPathsByMemberEmail("user@snapway.com"))
+                .willReturn(List.of("http://localhost:8081/files" + url('a'), "http://localhost:8081/files" + url('a')));
+        given(photoBlobMapper.selectRecordContentsByMemberEmail("user@snapway.com"))
+                .willReturn(List.of("![](" + variantUrl('a') + ")"));
+        given(photoBlobMapper.selectArticleContentsByMemberEmail("user@snapway.com"))
+                .willReturn(List.of("![](" + url('a') + ")", "![](" + url('b') + ") ![](" + url('b') + ")"));
+
+        // when
+        photoBlobService.releaseMember("user@snapway.com");
+
+        // then
+        then(photoBlobMapper).should().addRefCounts(Map.of(hash('a'), -4, hash('b'), -1));
+    }
+
+    @Test
+    @DisplayName("기록을 삭제하면 사진 행과 기록 본문에 실린 사진 참조를 함께 줄인다")
+    void releaseRecordCountsContent() throws Exception {
+        // given: 기록의 사진은 a, 본문(첫 기록)에는 a와 b의 축소본
+        given(photoBlobMapper.selectPhotoPathsByRecordId(3)).willReturn(List.of("http://localhost:8081/files" + url('a')));
+        given(photoBlobMapper.selectRecordContentsByRecordId(3))
+                .willReturn(List.of("![](" + variantUrl('a') + ") ![](" + variantUrl('b') + ")"));
+
+        // when
+        photoBlobService.releaseRecord(3);
+
+        // then
+        then(photoBlobMapper).should().addRefCounts(Map.of(hash('a'), -2, hash('b'), -1));
+    }
+
+    @Test
+    @DisplayName("참조 수 재계산은 여행 본문에 실린 사진도 센다")
+    void recountIncludesRecordContents() throws Exception {
+        // given: 사진 b는 사진 행이 지워지고 여행 본문에만 남아 있음
+        given(photoBlobMapper.selectAllBlobPhotoPaths()).willReturn(List.of("http://localhost:8081/files" + url('a')));
+        given(photoBlobMapper.selectAllBlobRecordContents())
+                .willReturn(List.of("![](" + variantUrl('a') + ") ![](" + variantUrl('b') + ")"));
+        given(photoBlobMapper.selectAllBlobArticleContents()).willReturn(List.of());
+
+        // when
+        int referenced = photoBlobService.recountReferences();
+
+        // then
+        assertEquals(2, referenced);
+        then(photoBlobMapper).should().resetRefCounts();
+        then(photoBlobMapper).should().addRefCounts(Map.of(hash('a'), 2, hash('b'), 1));
+    }
+
+    @Test
+    @DisplayName("저장소 경로가 아닌 예전 사진은 참조 수를 바꾸지 않는다")
+    void acquireIgnoresLegacyPaths() throws Exception {
+        // when
+        photoBlobService.acquirePaths(List.of("http://localhost:8081/files/1/trip/3/uuid_a.jpg"));
+
+        // then
+        then(photoBlobMapper).should(never()).addRefCounts(anyMap());
+    }
+
+    @Test
+    @DisplayName("참조 없는 사진은 파일과 축소본을 삭제하고, 그 사이 다시 참조된 사진은 파일을 되돌린다")
+    void collectGarbageDeletesOrRestores() throws Exception {
+        // given
+        PhotoBlob unused = givenStoredBlob('a');
+        PhotoBlob reused = givenStoredBlob('b');
+        given(photoBlobMapper.selectUnreferenced(24L, 500)).willReturn(List.of(unused, reused));
+        given(photoBlobMapper.deleteUnreferenced(hash('a'), 24L)).willReturn(1);
+        given(photoBlobMapper.deleteUnreferenced(hash('b'), 24L)).willReturn(0);
+
+        // when
+        int deleted = photoBlobService.collectGarbage();
+
+        // then
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(basePath.resolve(unused.getFilePath())));
+        assertFalse(Files.exists(basePath.resolve(unused.getFilePath() + ".gc")));
+        assertTrue(Files.exists(basePath.resolve(reused.getFilePath())));
+        then(imageVariantService).should().deleteVariants(unused.getFilePath());
+        then(imageVariantService).should(never()).deleteVariants(reused.getFilePath());
+    }
+
+    private PhotoBlob givenStoredBlob(char c) throws Exception {
+        String filePath = PhotoBlobPaths.relativePath(hash(c), "p.jpg");
+        Path file = basePath.resolve(filePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, CONTENT);
+        return PhotoBlob.builder().sha256(hash(c)).filePath(filePath).size(CONTENT.length).build();
+    }
+
+    private static String hash(char c) {
+        return String.valueOf(c).repeat(64);
+    }
+
+    private static String url(char c) {
+        return "/" + PhotoBlobPaths.relativePath(hash(c), "p.jpg");
+    }
+
+    private static String variantUrl(char c) {
+        return "http://localhost:8081/files/variants/medium" + url(c);
+    }
+}
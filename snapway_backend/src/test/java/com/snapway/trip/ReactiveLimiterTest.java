@@ -0,0 +1,94 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.snapway.util.ReactiveLimiter;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ReactiveLimiterTest {
+
+    @Test
+    @DisplayName("한도를 넘는 요청은 구독하지 않고 기다렸다가, 앞선 요청이 끝나면 순서대로 시작한다")
+    void startsWaitingRequestsInOrder() {
+        // given: 한도 2, 요청 4건
+        ReactiveLimiter limiter = new ReactiveLimiter(2);
+        List<Sinks.One<String>> responses = new ArrayList<>();
+        List<AtomicBoolean> subscribed = new ArrayList<>();
+        List<AtomicReference<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Sinks.One<String> response = Sinks.one();
+            AtomicBoolean started = new AtomicBoolean();
+            AtomicReference<String> result = new AtomicReference<>();
+            limiter.limit(response.asMono().doOnSubscribe(s -> started.set(true)))
+                    .subscribe(result::set, e -> result.set("error"));
+            responses.add(response);
+            subscribed.add(started);
+            results.add(result);
+        }
+
+        // then: 2건만 전송
+        assertEquals(2, limiter.active());
+        assertEquals(2, limiter.waiting());
+        assertFalse(subscribed.get(2).get());
+
+        // when: 첫 요청 응답 -> 세 번째 요청 시작
+        responses.get(0).tryEmitValue("a");
+        assertEquals("a", results.get(0).get());
+        assertTrue(subscribed.get(2).get());
+        assertFalse(subscribed.get(3).get());
+
+        // 실패한 요청도 자리를 반납한다
+        responses.get(1).tryEmitError(new IllegalStateException("boom"));
+        assertEquals("error", results.get(1).get());
+        assertTrue(subscribed.get(3).get());
+        assertEquals(2, limiter.active());
+        assertEquals(0, limiter.waiting());
+
+        responses.get(2).tryEmitValue("c");
+        responses.get(3).tryEmitEmpty();
+        assertEquals(0, limiter.active());
+    }
+
+    @Test
+    @DisplayName("대기 중에 취소된 요청은 전송하지 않고, 실행 중에 취소된 요청은 자리를 반납한다")
+    void cancelReleasesSlot() {
+        // given: 한도 1, 실행 중 1건 + 대기 2건
+        ReactiveLimiter limiter = new ReactiveLimiter(1);
+        AtomicBoolean runningCancelled = new AtomicBoolean();
+        Disposable running = limiter.limit(Mono.never().doOnCancel(() -> runningCancelled.set(true))).subscribe();
+        AtomicBoolean cancelledStarted = new AtomicBoolean();
+        Disposable waiting = limiter.limit(Mono.never().doOnSubscribe(s -> cancelledStarted.set(true))).subscribe();
+        AtomicReference<String> last = new AtomicReference<>();
+        limiter.limit(Mono.just("last")).subscribe(last::set);
+        assertEquals(2, limiter.waiting());
+
+        // when: 대기 중인 요청 취소
+        waiting.dispose();
+
+        // then
+        assertEquals(1, limiter.waiting());
+        assertFalse(cancelledStarted.get());
+
+        // when: 실행 중인 요청 취소 -> 마지막 요청 시작
+        running.dispose();
+
+        // then
+        assertTrue(runningCancelled.get());
+        assertEquals("last", last.get());
+        assertFalse(cancelledStarted.get());
+        assertEquals(0, limiter.active());
+    }
+}
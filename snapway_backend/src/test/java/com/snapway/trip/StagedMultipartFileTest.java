@@ -0,0 +1,75 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.snapway.util.ImageBase64Encoder;
+import com.snapway.util.ImageScaler;
+import com.snapway.util.StagedMultipartFile;
+
+class StagedMultipartFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("매핑된 버퍼로 여러 번 읽어도 같은 내용을 반환하고, 이미지 변환도 버퍼에서 수행된다")
+    void readsSharedBuffer() throws Exception {
+        // given
+        Path staged = tempDir.resolve("0_photo.jpg");
+        Files.write(staged, jpeg(640, 480));
+        StagedMultipartFile file = new StagedMultipartFile("files", "photo.jpg", "image/jpeg", staged);
+
+        // when
+        byte[] first;
+        try (InputStream inputStream = file.getInputStream()) {
+            first = inputStream.readAllBytes();
+        }
+        String base64 = new ImageBase64Encoder(new ImageScaler()).encode(file);
+
+        // then
+        assertArrayEquals(Files.readAllBytes(staged), first);
+        assertArrayEquals(first, file.getBytes());
+        assertNotNull(base64);
+    }
+
+    @Test
+    @DisplayName("저장 시 스테이징 파일을 다시 읽지 않고 최종 위치로 이동한다")
+    void moveToTarget() throws Exception {
+        // given
+        byte[] content = jpeg(32, 32);
+        Path staged = tempDir.resolve("0_photo.jpg");
+        Files.write(staged, content);
+        StagedMultipartFile file = new StagedMultipartFile("files", "photo.jpg", "image/jpeg", staged);
+        file.getBuffer(); // 분석 단계에서 이미 매핑된 상태
+
+        // when
+        Path target = Files.createDirectories(tempDir.resolve("trip")).resolve("saved.jpg");
+        file.moveTo(target);
+
+        // then
+        assertFalse(Files.exists(staged));
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(content.length, file.getSize());
+    }
+
+    private byte[] jpeg(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+}
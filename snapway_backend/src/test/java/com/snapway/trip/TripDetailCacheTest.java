@@ -0,0 +1,160 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.TravelStyle;
+import com.snapway.model.dto.Trip;
+import com.snapway.model.dto.TripPhoto;
+import com.snapway.model.dto.TripRecord;
+import com.snapway.util.RedisUtil;
+import com.snapway.util.TripDetailCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TripDetailCacheTest {
+
+    @Mock
+    private RedisUtil redisUtil;
+
+    // 스프링 부트 기본 설정과 같은 ObjectMapper (Java Time 지원, 모르는 속성 무시)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private TripDetailCache tripDetailCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tripDetailCache = new TripDetailCache(redisUtil, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(tripDetailCache, "enabled", true);
+        ReflectionTestUtils.setField(tripDetailCache, "ttlSeconds", 600L);
+    }
+
+    @Test
+    @DisplayName("캐시에 있으면 DB를 조회하지 않고 같은 구조의 Trip을 반환한다")
+    void hitReturnsCachedGraph() throws Exception {
+        // given
+        Trip trip = sampleTrip();
+        given(redisUtil.getData("trip:detail:7")).willReturn(objectMapper.writeValueAsString(trip));
+
+        // when
+        Trip cached = tripDetailCache.get(7, () -> {
+            throw new AssertionError("DB를 조회하면 안 됩니다.");
+        });
+
+        // then
+        assertEquals(trip, cached);
+        assertEquals(1.0, meterRegistry.get("snapway.trip.detail.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("동시에 캐시 미스가 나도 DB 조회는 한 번만 하고 결과를 한 번 저장한다")
+    void concurrentMissesLoadOnce() throws Exception {
+        // given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        // when: 첫 조회가 끝나기 전에 나머지 요청이 모두 들어옴
+        List<Future<Trip>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> tripDetailCache.get(7, () -> {
+                loads.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+                return sampleTrip();
+            })));
+        }
+        // 모든 요청이 캐시 조회를 마치고 합류할 때까지 대기
+        while (meterRegistry.get("snapway.trip.detail.cache").tag("result", "shared").counter().count()
+                + meterRegistry.get("snapway.trip.detail.cache").tag("result", "miss").counter().count() < callers) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // then
+        for (Future<Trip> result : results) {
+            assertEquals(7, result.get(5, TimeUnit.SECONDS).getTripId());
+        }
+        pool.shutdown();
+        assertEquals(1, loads.get());
+        then(redisUtil).should().setDataExpire(eq("trip:detail:7"), anyString(), eq(600L));
+    }
+
+    @Test
+    @DisplayName("조회 도중 무효화되면 조회 결과를 캐시에 남기지 않는다")
+    void evictDuringLoadDropsStaleValue() throws Exception {
+        // when: DB 조회 중에 수정이 일어나 무효화됨
+        tripDetailCache.get(7, () -> {
+            tripDetailCache.evict(7);
+            return sampleTrip();
+        });
+
+        // then: 저장 직후 다시 삭제 (무효화 1번 + 이전 데이터 정리 1번)
+        then(redisUtil).should().setDataExpire(eq("trip:detail:7"), anyString(), anyLong());
+        then(redisUtil).should(times(2)).deleteData("trip:detail:7");
+    }
+
+    @Test
+    @DisplayName("여행이 없으면 예외를 그대로 전달하고 캐시에 저장하지 않는다")
+    void missingTripIsNotCached() {
+        assertThrows(RuntimeException.class,
+                () -> tripDetailCache.get(7, () -> {
+                    throw new RuntimeException("해당 기록을 찾을 수 없습니다.");
+                }));
+        then(redisUtil).should(never()).setDataExpire(anyString(), anyString(), anyLong());
+    }
+
+    private Trip sampleTrip() {
+        TripRecord record = TripRecord.builder()
+                .recordId(3)
+                .tripId(7)
+                .placeName("해운대")
+                .visitedDate(LocalDateTime.of(2025, 5, 1, 9, 30))
+                .photos(List.of(TripPhoto.builder()
+                        .photoCode(11)
+                        .recordId(3)
+                        .filePath("http://localhost:8081/files/1/trip/7/a.jpg")
+                        .build()))
+                .build();
+        return Trip.builder()
+                .tripId(7)
+                .memberId(1)
+                .title("부산 여행")
+                .uploadedAt(LocalDateTime.of(2025, 5, 2, 12, 0))
+                .startDate(LocalDateTime.of(2025, 5, 1, 0, 0).toLocalDate())
+                .visibility("PUBLIC")
+                .styles(List.of(TravelStyle.FOOD))
+                .records(List.of(record))
+                .build();
+    }
+}
@@ -0,0 +1,488 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.snapway.model.dto.Trip;
+import com.snapway.model.dto.TripJob;
+import com.snapway.model.dto.TripJobEvent;
+import com.snapway.model.dto.TripJobStatus;
+import com.snapway.model.service.TripJobServiceImpl;
+import com.snapway.model.service.TripProgressListener;
+import com.snapway.model.service.TripService;
+import com.snapway.util.MetadataUtil;
+import com.snapway.util.MultipartStreamReader;
+import com.snapway.util.StagedMultipartFile;
+
+@ExtendWith(MockitoExtension.class)
+class TripJobServiceTest {
+
+    private static final String BOUNDARY = "snapway-test-boundary";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    @Mock
+    private TripService tripService;
+
+    @TempDir
+    Path basePath;
+
+    private MetadataUtil metadataUtil;
+    private TripJobServiceImpl tripJobService;
+    private final List<RecordingEmitter> subscriptions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        metadataUtil = new MetadataUtil();
+        ReflectionTestUtils.setField(metadataUtil, "exifHeaderBudgetBytes", 256 * 1024);
+
+        // 작업은 요청 스레드에서 바로 실행 (tripService는 목)
+        tripJobService = newService(Runnable::run);
+    }
+
+    private TripJobServiceImpl newService(Executor executor) {
+        TripJobServiceImpl service = new TripJobServiceImpl(tripService, metadataUtil, executor) {
+            @Override
+            protected SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                subscriptions.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "basePath", basePath.toString());
+        ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(service, "maxRequestSize", DataSize.ofMegabytes(10));
+        ReflectionTestUtils.setField(service, "maxFiles", 50);
+        return service;
+    }
+
+    // 전송된 이벤트와 종료 여부를 기록하는 SSE (실제 응답 없이 확인)
+    private static class RecordingEmitter extends SseEmitter {
+        final List<TripJobEvent> events = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            for (ResponseBodyEmitter.DataWithMediaType item : builder.build()) {
+                if (item.getData() instanceof TripJobEvent event) {
+                    events.add(event);
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        List<String> types() {
+            return events.stream().map(TripJobEvent::getType).toList();
+        }
+    }
+
+    private List<MultipartFile> stage(String jobDir, int count) throws IOException {
+        Path dir = Files.createDirectories(basePath.resolve(jobDir));
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path file = dir.resolve(i + ".jpg");
+            Files.write(file, jpeg(16, 16, i));
+            files.add(new StagedMultipartFile("files", i + ".jpg", "image/jpeg", file));
+        }
+        return files;
+    }
+
+    private static byte[] jpeg(int width, int height, long seed) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] multipart(String title, List<byte[]> photos) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"title\"\r\n\r\n" + title + "\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < photos.size(); i++) {
+            out.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"files\"; filename=\"" + i + ".jpg\"\r\n"
+                    + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(photos.get(i));
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    // 읽은 바이트 수를 세는 스트림 (제한 초과 시 어디까지 받았는지 확인)
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) count += read;
+            return read;
+        }
+    }
+
+    private boolean stagingIsEmpty() throws IOException {
+        try (Stream<Path> files = Files.walk(basePath)) {
+            return files.noneMatch(Files::isRegularFile);
+        }
+    }
+
+    @Test
+    @DisplayName("작업 접수 -> 실행: SSE로 상태, 단계, 사진별 진행, 완료 이벤트를 순서대로 보내고 스트림을 닫는다")
+    void submitRunsJobAndPublishesProgress() throws Exception {
+        // given: 실행기에 넘긴 작업을 직접 실행할 때까지 대기
+        List<Runnable> queued = new ArrayList<>();
+        tripJobService = newService(queued::add);
+        given(tripService.createAutoTrip(eq(7), eq("제주 여행"), anyList(), any())).willAnswer(invocation -> {
+            TripProgressListener listener = invocation.getArgument(3);
+            listener.onStage("ANALYSIS", "사진 분석 중");
+            listener.onPhotoAnalyzed(0, 2, "0.jpg", true);
+            listener.onPhotoAnalyzed(1, 2, "1.jpg", false);
+            return Trip.builder().tripId(100).build();
+        });
+        Path stagingDir = basePath.resolve("staged");
+        TripJob job = tripJobService.submitStaged(7, "제주 여행", stage("staged", 2), stagingDir);
+        assertEquals(TripJobStatus.PENDING, job.getStatus());
+        assertEquals(1, queued.size());
+
+        // 구독 즉시 현재 상태 전송
+        SseEmitter emitter = tripJobService.subscribe(job.getJobId());
+        RecordingEmitter recorder = subscriptions.get(0);
+        assertSame(recorder, emitter);
+        assertEquals(List.of("status"), recorder.types());
+        assertEquals(TripJobStatus.PENDING, recorder.events.get(0).getStatus());
+
+        // when
+        queued.get(0).run();
+
+        // then
+        assertEquals(List.of("status", "status", "stage", "photo", "photo", "completed"), recorder.types());
+        assertEquals(TripJobStatus.RUNNING, recorder.events.get(1).getStatus());
+        assertEquals("ANALYSIS", recorder.events.get(2).getStage());
+        TripJobEvent lastPhoto = recorder.events.get(4);
+        assertEquals(Integer.valueOf(1), lastPhoto.getPhotoIndex());
+        assertEquals(Boolean.FALSE, lastPhoto.getSuccess());
+        assertEquals(2, lastPhoto.getProcessedPhotos());
+        assertEquals(2, lastPhoto.getTotalPhotos());
+        TripJobEvent completed = recorder.events.get(5);
+        assertEquals(TripJobStatus.COMPLETED, completed.getStatus());
+        assertEquals(Integer.valueOf(100), completed.getTripId());
+        assertTrue(recorder.completed);
+
+        TripJob finished = tripJobService.getJob(job.getJobId());
+        assertEquals(TripJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(2, finished.getProcessedPhotos());
+        assertEquals(1, finished.getFailedPhotos());
+        assertEquals(Integer.valueOf(100), finished.getTripId());
+        assertFalse(Files.exists(stagingDir)); // 작업이 끝나면 스테이징 디렉토리 정리
+    }
+
+    @Test
+    @DisplayName("작업 실패: failed 이벤트에 오류 메시지를 담아 보내고, 이후 구독은 현재 상태만 받고 바로 닫힌다")
+    void failedJobPublishesErrorAndLateSubscriberCloses() throws Exception {
+        // given
+        List<Runnable> queued = new ArrayList<>();
+        tripJobService = newService(queued::add);
+        given(tripService.createAutoTrip(anyInt(), any(), anyList(), any()))
+                .willThrow(new IllegalArgumentException("위치 정보가 있는 사진이 없습니다."));
+        TripJob job = tripJobService.submitStaged(7, "제주 여행", stage("staged", 1), basePath.resolve("staged"));
+        tripJobService.subscribe(job.getJobId());
+        RecordingEmitter early = subscriptions.get(0);
+
+        // when
+        queued.get(0).run();
+
+        // then
+        assertEquals(List.of("status", "status", "failed"), early.types());
+        assertEquals("위치 정보가 있는 사진이 없습니다.", early.events.get(2).getMessage());
+        assertTrue(early.completed);
+
+        // 끝난 작업을 구독하면 결과 상태 1건 후 종료
+        tripJobService.subscribe(job.getJobId());
+        RecordingEmitter late = subscriptions.get(1);
+        assertEquals(List.of("status"), late.types());
+        assertEquals(TripJobStatus.FAILED, late.events.get(0).getStatus());
+        assertEquals("위치 정보가 있는 사진이 없습니다.", late.events.get(0).getMessage());
+        assertTrue(late.completed);
+    }
+
+    @Test
+    @DisplayName("실행기 큐가 가득 차면 접수를 거절하고 작업과 스테이징 파일을 남기지 않는다")
+    void submitRejectsWhenQueueIsFull() throws Exception {
+        // given: 스레드 1개 + 큐 1칸, 첫 작업은 실행 중에 멈춰 있음
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(5);
+        executor.initialize();
+        tripJobService = newService(executor);
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(tripService.createAutoTrip(anyInt(), any(), anyList(), any())).willAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Trip.builder().tripId(1).build();
+        });
+
+        try {
+            TripJob first = tripJobService.submitStaged(7, "첫 번째", stage("first", 1), basePath.resolve("first"));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            TripJob second = tripJobService.submitStaged(7, "두 번째", stage("second", 1), basePath.resolve("second"));
+
+            // when: 일반 업로드로 세 번째 작업 접수
+            List<MultipartFile> files = List.of(new MockMultipartFile("files", "0.jpg", "image/jpeg", jpeg(16, 16, 3)));
+            assertThrows(RejectedExecutionException.class, () -> tripJobService.submit(7, "세 번째", files));
+
+            // then: 거절된 작업은 등록되지 않고 스테이징 디렉토리도 지워짐
+            @SuppressWarnings("unchecked")
+            Map<String, TripJob> jobs = (Map<String, TripJob>) ReflectionTestUtils.getField(tripJobService, "jobs");
+            assertEquals(Set.of(first.getJobId(), second.getJobId()), jobs.keySet());
+            try (Stream<Path> dirs = Files.list(basePath.resolve("7").resolve("staging"))) {
+                assertEquals(0, dirs.count());
+            }
+
+            // 직접 스테이징한 파일은 거절되어도 호출한 쪽에 그대로 남음 (재시도 가능)
+            List<MultipartFile> staged = stage("third", 1);
+            assertThrows(RejectedExecutionException.class,
+                    () -> tripJobService.submitStaged(7, "세 번째", staged, basePath.resolve("third")));
+            assertTrue(Files.exists(basePath.resolve("third").resolve("0.jpg")));
+        } finally {
+            release.countDown();
+            executor.shutdown(); // 남은 작업이 끝날 때까지 대기
+        }
+        then(tripService).should(times(2)).createAutoTrip(anyInt(), any(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("스트리밍 업로드: 사진마다 스테이징과 EXIF 추출을 마친 파일로 작업을 시작한다")
+    @SuppressWarnings("unchecked")
+    void submitStreamStagesPhotosWithMetadata() throws Exception {
+        // given
+        byte[] body = multipart("제주 여행", List.of(jpeg(64, 48, 1), jpeg(64, 48, 2)));
+        ArgumentCaptor<List<MultipartFile>> files = ArgumentCaptor.forClass(List.class);
+        given(tripService.createAutoTrip(eq(7), eq("제주 여행"), files.capture(), any()))
+                .willAnswer(invocation -> Trip.builder().tripId(100).build());
+
+        // when
+        TripJob job = tripJobService.submitStream(7, CONTENT_TYPE, body.length, new ByteArrayInputStream(body));
+
+        // then
+        assertEquals("제주 여행", job.getTitle());
+        assertEquals(2, job.getTotalPhotos());
+        assertEquals(2, files.getValue().size());
+        for (MultipartFile file : files.getValue()) {
+            StagedMultipartFile staged = assertInstanceOf(StagedMultipartFile.class, file);
+            assertNotNull(staged.getMetadata());
+        }
+        assertEquals("0.jpg", files.getValue().get(0).getOriginalFilename());
+        assertTrue(stagingIsEmpty()); // 작업이 끝나면 스테이징 디렉토리 정리
+    }
+
+    @Test
+    @DisplayName("스트리밍 업로드: 개별 파일 제한을 넘는 순간 중단하고 받은 파일을 지운다")
+    void submitStreamStopsAtFileLimit() throws Exception {
+        // given: 두 번째 사진이 1MB 제한 초과, 뒤에 사진이 더 있음
+        byte[] big = new byte[2 * 1024 * 1024];
+        new Random(3).nextBytes(big);
+        byte[] body = multipart("제주 여행", List.of(jpeg(64, 48, 1), big, jpeg(64, 48, 2), big));
+        CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(body));
+
+        // when
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> tripJobService.submitStream(7, CONTENT_TYPE, -1, in));
+
+        // then
+        assertTrue(in.count < body.length / 2, "제한을 넘은 뒤에도 본문을 계속 읽음: " + in.count);
+        assertTrue(stagingIsEmpty());
+        then(tripService).should(never()).createAutoTrip(anyInt(), any(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("스트리밍 업로드: 본문 길이가 전체 제한을 넘으면 읽기 전에 거절한다")
+    void submitStreamRejectsByContentLength() throws Exception {
+        CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(new byte[0]));
+
+        assertThrows(MaxUploadSizeExceededException.class,
+                () -> tripJobService.submitStream(7, CONTENT_TYPE, DataSize.ofMegabytes(11).toBytes(), in));
+        assertEquals(0, in.count);
+        assertFalse(Files.exists(basePath.resolve("7")));
+    }
+
+    /**
+     * 마지막 바이트가 도착한 뒤 사진 분석을 시작할 수 있을 때까지 걸리는 시간
+     * - 기존: 컨테이너가 모든 파트를 임시 파일로 받은 뒤 -> 스테이징 이동 -> 작업에서 EXIF 추출
+     * - 스트리밍: 사진이 도착할 때마다 스테이징 + EXIF 추출, 마지막 사진만 남음
+     * 업로드 속도는 20MB/s로 제한한다.
+     * 실행: mvn test -Dtest=TripJobServiceTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] 업로드 완료 -> 분석 시작까지의 시간")
+    void benchmarkTimeToAnalysis() throws Exception {
+        List<byte[]> photos = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            photos.add(jpeg(480, 360, i));
+        }
+        ReflectionTestUtils.setField(tripJobService, "maxFileSize", DataSize.ofMegabytes(10));
+        ReflectionTestUtils.setField(tripJobService, "maxRequestSize", DataSize.ofMegabytes(100));
+        byte[] body = multipart("제주 여행", photos);
+        List<MultipartFile> captured = new ArrayList<>();
+        given(tripService.createAutoTrip(eq(7), eq("제주 여행"), anyList(), any())).willAnswer(invocation -> {
+            captured.clear();
+            captured.addAll(invocation.getArgument(2));
+            metadataUtil.extractAndSort(captured); // 작업의 첫 단계 (분석 직전)
+            return Trip.builder().tripId(1).build();
+        });
+
+        long bufferedNanos = Long.MAX_VALUE;
+        long streamingNanos = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) { // 최솟값 사용, 첫 회는 워밍업 성격
+            // 기존 방식: 본문을 모두 임시 파일로 받은 뒤 submit
+            ThrottledInputStream buffered = new ThrottledInputStream(body, 20L * 1024 * 1024);
+            List<MultipartFile> parts = receiveAll(buffered);
+            tripJobService.submit(7, "제주 여행", parts);
+            bufferedNanos = Math.min(bufferedNanos, System.nanoTime() - buffered.lastByteNanos);
+
+            // 스트리밍 방식
+            ThrottledInputStream streaming = new ThrottledInputStream(body, 20L * 1024 * 1024);
+            tripJobService.submitStream(7, CONTENT_TYPE, body.length, streaming);
+            streamingNanos = Math.min(streamingNanos, System.nanoTime() - streaming.lastByteNanos);
+        }
+
+        System.out.printf("[업로드 벤치마크] 사진 %d장, 본문 %,d bytes%n", photos.size(), body.length);
+        System.out.printf("  기존(모두 받은 뒤 처리)  업로드 완료 후 %.2fms%n", bufferedNanos / 1e6);
+        System.out.printf("  스트리밍               업로드 완료 후 %.2fms%n", streamingNanos / 1e6);
+        assertTrue(streamingNanos < bufferedNanos);
+    }
+
+    // 컨테이너처럼 모든 파트를 임시 파일로 받아둠 (transferTo는 이름 변경)
+    private List<MultipartFile> receiveAll(InputStream body) throws IOException {
+        Path containerDir = Files.createTempDirectory(basePath, "container");
+        MultipartStreamReader reader = new MultipartStreamReader(body, BOUNDARY, Long.MAX_VALUE);
+        List<MultipartFile> parts = new ArrayList<>();
+        MultipartStreamReader.Part part;
+        while ((part = reader.next()) != null) {
+            if (!part.isFile()) continue;
+            Path temp = containerDir.resolve(parts.size() + ".tmp");
+            Files.copy(part.body(), temp);
+            parts.add(new StagedMultipartFile(part.name(), part.filename(), part.contentType(), temp) {
+                @Override
+                public void transferTo(File dest) throws IOException {
+                    Files.move(temp, dest.toPath());
+                }
+
+                @Override
+                public void transferTo(Path dest) throws IOException {
+                    Files.move(temp, dest);
+                }
+            });
+        }
+        return parts;
+    }
+
+    // 지정한 속도(bytes/s)로만 내용을 내주는 스트림, 마지막 바이트를 내준 시각을 기록
+    private static class ThrottledInputStream extends InputStream {
+        private final byte[] data;
+        private final long bytesPerSecond;
+        private final long startNanos = System.nanoTime();
+        private int position;
+        long lastByteNanos;
+
+        ThrottledInputStream(byte[] data, long bytesPerSecond) {
+            this.data = data;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= data.length) return -1;
+            int count = Math.min(Math.min(len, 16 * 1024), data.length - position);
+            long due = startNanos + (position + count) * 1_000_000_000L / bytesPerSecond;
+            LockSupport.parkNanos(due - System.nanoTime());
+            System.arraycopy(data, position, b, off, count);
+            position += count;
+            if (position == data.length) lastByteNanos = System.nanoTime();
+            return count;
+        }
+    }
+}
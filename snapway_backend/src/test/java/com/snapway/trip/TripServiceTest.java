@@ -0,0 +1,434 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snapway.model.dto.CursorPage;
+import com.snapway.model.dto.PhotoBlob;
+import com.snapway.model.dto.PhotoMetadata;
+import com.snapway.model.dto.Trip;
+import com.snapway.model.dto.TripPhoto;
+import com.snapway.model.dto.TripRecord;
+import com.snapway.model.mapper.TripMapper;
+import com.snapway.model.service.AiService;
+import com.snapway.model.service.NearbyTripService;
+import com.snapway.model.service.PhotoAnalysisService;
+import com.snapway.model.service.PhotoBlobService;
+import com.snapway.model.service.SearchService;
+import com.snapway.model.service.TripProgressListener;
+import com.snapway.model.service.TripServiceImpl;
+import com.snapway.util.CursorCodec;
+import com.snapway.util.MetadataUtil;
+import com.snapway.util.MetadataUtil.PhotoWithFile;
+import com.snapway.util.TripDetailCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TripServiceTest {
+
+    private static final String AI_RESPONSE =
+            "{\"content\": \"여행 이야기 [[PHOTO_0]]\", \"hashtags\": [\"HEALING\", \"FOOD\"]}";
+
+    @Mock
+    private AiService aiService;
+
+    @Mock
+    private PhotoAnalysisService photoAnalysisService;
+
+    @Mock
+    private PhotoBlobService photoBlobService;
+
+    @Mock
+    private MetadataUtil metadataUtil;
+
+    @Mock
+    private TripMapper tripMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TripDetailCache tripDetailCache;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private NearbyTripService nearbyTripService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TripServiceImpl tripService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tripService = new TripServiceImpl(aiService, photoAnalysisService, photoBlobService, metadataUtil,
+                new ObjectMapper(), tripMapper, new TransactionTemplate(transactionManager), meterRegistry, tripDetailCache,
+                searchService, nearbyTripService);
+        ReflectionTestUtils.setField(tripService, "domain", "http://localhost:8081");
+        ReflectionTestUtils.setField(tripService, "insertChunkSize", 40);
+        ReflectionTestUtils.setField(tripService, "feedDefaultSize", 20);
+        ReflectionTestUtils.setField(tripService, "feedMaxSize", 50);
+
+        // 조회 테스트에서는 트랜잭션을 쓰지 않으므로 lenient
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // 캐시는 항상 미스로 처리 (캐시 동작은 TripDetailCacheTest에서 확인)
+        lenient().when(tripDetailCache.get(anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<TripDetailCache.Loader>getArgument(1).load());
+        // 사진 저장소는 테스트 사진이 모두 같은 내용이므로 같은 경로를 돌려준다 (저장소 동작은 PhotoBlobServiceTest에서 확인)
+        lenient().when(photoBlobService.store(any())).thenReturn(PhotoBlob.builder()
+                .sha256("ab".repeat(32))
+                .filePath("blobs/ab/ab/" + "ab".repeat(32) + ".jpg")
+                .size(3)
+                .build());
+    }
+
+    @Test
+    @DisplayName("사진 100장 저장 시 기록/사진은 청크 단위 multi-row INSERT로 저장되고 recordId가 사진에 연결된다")
+    void saveUsesBatchedInserts() throws Exception {
+        // given
+        List<MultipartFile> files = givenAnalyzedPhotos(100);
+        willAnswer(invocation -> {
+            invocation.<Trip>getArgument(0).setTripId(7);
+            return 1;
+        }).given(tripMapper).insertTrip(any());
+        int[] nextRecordId = {1000};
+        willAnswer(invocation -> {
+            List<TripRecord> records = invocation.getArgument(0);
+            records.forEach(record -> record.setRecordId(nextRecordId[0]++));
+            return records.size();
+        }).given(tripMapper).insertTripRecords(anyList());
+
+        // when
+        Trip trip = tripService.createAutoTrip(1, "부산 여행", files);
+
+        // then: 여행 1 + 해시태그 1 + 기록 3 + 사진 3 (청크 40행) 문장, 행 단위 INSERT는 없음
+        then(tripMapper).should().insertTrip(any());
+        then(tripMapper).should().insertTripHashtags(anyList());
+        then(tripMapper).should(times(3)).insertTripRecords(anyList());
+        then(tripMapper).should(times(3)).insertTripPhotos(anyList());
+        then(tripMapper).should(never()).insertTripRecord(any());
+        then(tripMapper).should(never()).insertTripPhoto(any());
+        then(tripMapper).should(never()).insertTripHashtag(any());
+        // 사진 100장을 저장소에 넣고, 사진 행 100개만큼 참조
+        then(photoBlobService).should(times(100)).store(any());
+        then(photoBlobService).should().acquirePaths(argThat(paths -> paths.size() == 100
+                && paths.stream().allMatch(path -> path.startsWith("http://localhost:8081/files/blobs/ab/ab/"))));
+        // 본문에 실린 축소본 URL도 참조로 센다
+        then(photoBlobService).should().updateContentReferences(isNull(),
+                argThat(content -> content.contains("http://localhost:8081/files/variants/medium/blobs/ab/ab/")));
+
+        assertEquals(100, trip.getRecords().size());
+        for (TripRecord record : trip.getRecords()) {
+            TripPhoto photo = record.getPhotos().get(0);
+            assertEquals(record.getRecordId(), photo.getRecordId());
+        }
+        assertEquals(2, trip.getStyles().size());
+        then(transactionManager).should().commit(any());
+        assertNotNull(meterRegistry.find("snapway.trip.save.transaction").tag("outcome", "success").timer());
+        // 저장된 기록 좌표/본문을 색인에 반영
+        then(nearbyTripService).should().reindexTrip(7);
+        then(searchService).should().reindexTrip(7);
+    }
+
+    @Test
+    @DisplayName("INSERT 중 SQLException이 나면 롤백되고 원래 예외가 그대로 전달된다")
+    void saveRollsBackOnSqlException() throws Exception {
+        // given
+        List<MultipartFile> files = givenAnalyzedPhotos(2);
+        willThrow(new SQLException("boom")).given(tripMapper).insertTripRecords(anyList());
+
+        // when & then
+        assertThrows(SQLException.class, () -> tripService.createAutoTrip(1, "부산 여행", files));
+        then(transactionManager).should().rollback(any());
+        then(transactionManager).should(never()).commit(any());
+        then(photoBlobService).should(never()).acquirePaths(any());
+        assertEquals(1, meterRegistry.find("snapway.trip.save.transaction").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    @DisplayName("여행 상세는 기록 수와 관계없이 쿼리 2번으로 조립되고, 기록은 촬영 시간순(없으면 마지막)으로 정렬된다")
+    void getTripDetailUsesTwoQueries() throws Exception {
+        // given: 촬영 시간이 없는 기록이 먼저 조회되어도 마지막으로 정렬
+        given(tripMapper.selectTripById(7)).willReturn(Trip.builder().tripId(7).title("부산 여행").build());
+        List<TripRecord> records = new ArrayList<>(List.of(
+                record(3, null, 3),
+                record(1, LocalDateTime.of(2025, 5, 1, 9, 0), 1),
+                record(2, LocalDateTime.of(2025, 5, 1, 10, 0), 2)));
+        given(tripMapper.selectRecordsWithPhotosByTripId(7)).willReturn(records);
+
+        // when
+        Trip trip = tripService.getTripDetail(7);
+
+        // then
+        assertEquals(List.of(1, 2, 3), trip.getRecords().stream().map(TripRecord::getRecordId).toList());
+        assertEquals(1, trip.getRecords().get(0).getPhotos().get(0).getRecordId());
+        then(tripMapper).should(never()).selectRecordsByTripId(anyInt());
+        then(tripMapper).should(never()).selectPhotosByRecordId(anyInt());
+    }
+
+    @Test
+    @DisplayName("사진 삭제 시 사진이 속한 여행의 상세 캐시를 무효화하고 검색 색인을 갱신한다")
+    void deleteTripPhotoEvictsCache() throws Exception {
+        // given
+        given(tripMapper.selectTripIdByPhotoCode(11)).willReturn(7);
+        given(tripMapper.selectTripById(7)).willReturn(Trip.builder().tripId(7).memberId(1).build());
+
+        // when
+        boolean deleted = tripService.deleteTripPhoto(1, 11);
+
+        // then
+        assertTrue(deleted);
+        then(photoBlobService).should().releasePhoto(11);
+        then(tripMapper).should().deleteTripPhoto(11);
+        then(tripDetailCache).should().evict(7);
+        then(searchService).should().reindexTrip(7);
+        then(nearbyTripService).should().reindexTrip(7);
+    }
+
+    @Test
+    @DisplayName("기록 본문을 수정하면 잠근 이전 본문과 비교해 사진 참조를 갱신한다")
+    void updateTripRecordUpdatesContentReferences() throws Exception {
+        // given
+        given(tripMapper.selectRecordById(3)).willReturn(TripRecord.builder().recordId(3).tripId(7).build());
+        given(tripMapper.selectTripById(7)).willReturn(Trip.builder().tripId(7).memberId(1).build());
+        given(tripMapper.selectRecordContentForUpdate(3)).willReturn("이전 ![a](/files/blobs/aa)");
+        TripRecord record = TripRecord.builder().recordId(3).aiContent("새 본문").build();
+
+        // when
+        boolean updated = tripService.updateTripRecord(1, record);
+
+        // then
+        assertTrue(updated);
+        then(photoBlobService).should().updateContentReferences("이전 ![a](/files/blobs/aa)", "새 본문");
+        then(tripMapper).should().updateTripRecord(record);
+
+        // 본문을 바꾸지 않는 수정은 참조를 건드리지 않는다
+        tripService.updateTripRecord(1, TripRecord.builder().recordId(3).placeName("해운대").build());
+        then(tripMapper).should(times(1)).selectRecordContentForUpdate(3);
+        then(photoBlobService).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("다른 사람의 여행은 수정하지 않고 캐시도 그대로 둔다")
+    void updateTripRejectsOtherMember() throws Exception {
+        // given
+        given(tripMapper.selectTripById(7)).willReturn(Trip.builder().tripId(7).memberId(2).build());
+
+        // when
+        boolean updated = tripService.updateTrip(1, Trip.builder().tripId(7).title("수정").build());
+
+        // then
+        assertFalse(updated);
+        then(tripMapper).should(never()).updateTrip(any());
+        then(tripDetailCache).should(never()).evict(anyInt());
+        then(searchService).should(never()).reindexTrip(anyInt());
+    }
+
+    @Test
+    @DisplayName("피드는 한 건 더 조회해서 다음 페이지 여부를 판단하고, 마지막 항목으로 다음 커서를 만든다")
+    void publicFeedReturnsNextCursor() throws Exception {
+        // given: 페이지 크기 2, 조회 결과 3건 (검색 색인 준비 전이라 제목 LIKE 검색)
+        given(searchService.matchTripIds("부산", false, null, null, 3)).willReturn(null);
+        LocalDateTime uploadedAt = LocalDateTime.of(2025, 5, 1, 9, 0);
+        given(tripMapper.selectAllPublicTrips(anyMap())).willReturn(new ArrayList<>(List.of(
+                Trip.builder().tripId(30).uploadedAt(uploadedAt.plusHours(2)).build(),
+                Trip.builder().tripId(20).uploadedAt(uploadedAt).build(),
+                Trip.builder().tripId(10).uploadedAt(uploadedAt).build())));
+
+        // when
+        CursorPage<Trip> page = tripService.getPublicFeed(" 부산 ", null, null, 2);
+
+        // then
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+        then(tripMapper).should().selectAllPublicTrips(argThat(params ->
+                Integer.valueOf(3).equals(params.get("limit"))
+                        && "부산".equals(params.get("keyword"))
+                        && "latest".equals(params.get("sort"))
+                        && !params.containsKey("cursorTripId")));
+
+        // 다음 페이지 요청 시 커서가 (uploaded_at, trip_id) 조건으로 풀린다
+        given(tripMapper.selectAllPublicTrips(anyMap())).willReturn(new ArrayList<>());
+        CursorPage<Trip> next = tripService.getPublicFeed(null, "oldest", page.getNextCursor(), 500);
+        assertFalse(next.isHasNext());
+        assertNull(next.getNextCursor());
+        then(tripMapper).should().selectAllPublicTrips(argThat(params ->
+                Integer.valueOf(51).equals(params.get("limit")) // 최대 50건으로 제한
+                        && uploadedAt.equals(params.get("cursorUploadedAt"))
+                        && Integer.valueOf(20).equals(params.get("cursorTripId"))
+                        && "oldest".equals(params.get("sort"))));
+    }
+
+    @Test
+    @DisplayName("검색 색인이 준비되면 피드 검색어는 LIKE 대신 색인에서 찾은 여행 ID로 조회한다")
+    void publicFeedUsesSearchIndex() throws Exception {
+        // given
+        given(searchService.matchTripIds("부산", false, null, null, 11)).willReturn(List.of(7, 3));
+        given(tripMapper.selectAllPublicTrips(anyMap())).willReturn(new ArrayList<>(List.of(
+                Trip.builder().tripId(7).uploadedAt(LocalDateTime.of(2025, 5, 1, 9, 0)).build())));
+
+        // when
+        CursorPage<Trip> page = tripService.getPublicFeed("부산", null, null, 10);
+
+        // then
+        assertEquals(1, page.getItems().size());
+        then(tripMapper).should().selectAllPublicTrips(argThat(params ->
+                List.of(7, 3).equals(params.get("tripIds")) && !params.containsKey("keyword")));
+
+        // 색인에 일치하는 여행이 없으면 DB를 조회하지 않는다
+        given(searchService.matchTripIds("없는곳", false, null, null, 11)).willReturn(List.of());
+        assertTrue(tripService.getPublicFeed("없는곳", null, null, 10).getItems().isEmpty());
+        then(tripMapper).should(times(1)).selectAllPublicTrips(anyMap());
+    }
+
+    @Test
+    @DisplayName("피드 검색어는 커서를 색인 조회에 넘겨 다음 페이지 여행 ID를 받고, 색인에 다음 여행이 있으면 다음 페이지가 있다")
+    void publicFeedPassesCursorToSearchIndex() throws Exception {
+        // given: 색인에서 3건(페이지 크기 2 + 1)을 받았지만 그중 한 건은 방금 비공개로 바뀌어 DB에서 빠짐
+        LocalDateTime uploadedAt = LocalDateTime.of(2025, 5, 1, 9, 0);
+        String cursor = CursorCodec.encode(uploadedAt, 40);
+        given(searchService.matchTripIds("부산", true, uploadedAt, 40, 3)).willReturn(List.of(41, 42, 43));
+        given(tripMapper.selectAllPublicTrips(anyMap())).willReturn(new ArrayList<>(List.of(
+                Trip.builder().tripId(41).uploadedAt(uploadedAt).build(),
+                Trip.builder().tripId(43).uploadedAt(uploadedAt.plusHours(1)).build())));
+
+        // when
+        CursorPage<Trip> page = tripService.getPublicFeed("부산", "oldest", cursor, 2);
+
+        // then
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasNext());
+        assertEquals(CursorCodec.encode(uploadedAt.plusHours(1), 43), page.getNextCursor());
+        then(tripMapper).should().selectAllPublicTrips(argThat(params ->
+                List.of(41, 42, 43).equals(params.get("tripIds"))
+                        && uploadedAt.equals(params.get("cursorUploadedAt"))
+                        && Integer.valueOf(40).equals(params.get("cursorTripId"))));
+    }
+
+    @Test
+    @DisplayName("형식이 맞지 않는 커서는 IllegalArgumentException")
+    void publicFeedRejectsBadCursor() {
+        assertThrows(IllegalArgumentException.class, () -> tripService.getPublicFeed(null, null, "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> tripService.getPublicFeed(null, null, CursorCodec.encode("yesterday", 3), 10));
+    }
+
+    /**
+     * 기록별 사진 조회(N+1) vs 기록+사진 조인 조회
+     * DB가 없으므로 쿼리 1번당 왕복 지연(1ms)을 흉내 내어 여행 크기별 조립 시간을 비교한다.
+     * 실행: mvn test -Dtest=TripServiceTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("[벤치마크] 여행 상세 조회: 기록별 사진 조회 vs 조인 조회")
+    void benchmarkTripDetail() throws Exception {
+        long roundTripMillis = 1;
+        for (int size : new int[] {10, 50, 200}) {
+            List<TripRecord> records = new ArrayList<>();
+            for (int i = 1; i <= size; i++) {
+                records.add(record(i, LocalDateTime.of(2025, 5, 1, 9, 0).plusMinutes(i), i));
+            }
+
+            given(tripMapper.selectTripById(7)).willAnswer(invocation -> {
+                Thread.sleep(roundTripMillis);
+                return Trip.builder().tripId(7).build();
+            });
+            given(tripMapper.selectRecordsByTripId(7)).willAnswer(invocation -> {
+                Thread.sleep(roundTripMillis);
+                return new ArrayList<>(records);
+            });
+            given(tripMapper.selectPhotosByRecordId(anyInt())).willAnswer(invocation -> {
+                Thread.sleep(roundTripMillis);
+                return List.of(TripPhoto.builder().recordId(invocation.getArgument(0)).build());
+            });
+            given(tripMapper.selectRecordsWithPhotosByTripId(7)).willAnswer(invocation -> {
+                Thread.sleep(roundTripMillis);
+                return new ArrayList<>(records);
+            });
+
+            // 기존 방식: 여행 1 + 기록 1 + 기록 수만큼 사진 조회
+            long start = System.nanoTime();
+            Trip legacy = tripMapper.selectTripById(7);
+            List<TripRecord> legacyRecords = tripMapper.selectRecordsByTripId(7);
+            for (TripRecord record : legacyRecords) {
+                record.setPhotos(tripMapper.selectPhotosByRecordId(record.getRecordId()));
+            }
+            legacy.setRecords(legacyRecords);
+            long legacyNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Trip joined = tripService.getTripDetail(7);
+            long joinedNanos = System.nanoTime() - start;
+
+            assertEquals(legacy.getRecords().size(), joined.getRecords().size());
+            System.out.printf("기록 %3d건: 기록별 조회 %d쿼리 %.1fms / 조인 조회 2쿼리 %.1fms%n",
+                    size, size + 2, legacyNanos / 1e6, joinedNanos / 1e6);
+        }
+    }
+
+    private TripRecord record(int recordId, LocalDateTime visitedDate, int photoCode) {
+        return TripRecord.builder()
+                .recordId(recordId)
+                .tripId(7)
+                .visitedDate(visitedDate)
+                .photos(List.of(TripPhoto.builder().photoCode(photoCode).recordId(recordId).build()))
+                .build();
+    }
+
+    private List<MultipartFile> givenAnalyzedPhotos(int count) throws Exception {
+        List<MultipartFile> files = new ArrayList<>();
+        List<PhotoWithFile> photos = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MultipartFile file = new MockMultipartFile("files", "p" + i + ".jpg", "image/jpeg", new byte[] {1, 2, 3});
+            files.add(file);
+            photos.add(new PhotoWithFile(file, PhotoMetadata.builder()
+                    .takenAt(LocalDateTime.of(2025, 5, 1, 9, 0).plusMinutes(i))
+                    .build()));
+            descriptions.add("바다가 보이는 풍경 " + i);
+        }
+        given(metadataUtil.extractAndSort(files)).willReturn(photos);
+        given(photoAnalysisService.describePhotos(any(), any(TripProgressListener.class))).willReturn(descriptions);
+        given(aiService.generateContent(any(), isNull())).willReturn(AI_RESPONSE);
+        return files;
+    }
+}
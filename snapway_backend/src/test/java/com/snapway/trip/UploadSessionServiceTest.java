@@ -0,0 +1,263 @@
+package com.snapway.trip;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.snapway.model.dto.TripJob;
+import com.snapway.model.dto.UploadFile;
+import com.snapway.model.dto.UploadSession;
+import com.snapway.model.service.TripJobService;
+import com.snapway.model.service.UploadSessionServiceImpl;
+import com.snapway.util.ByteRangeSet;
+
+@ExtendWith(MockitoExtension.class)
+class UploadSessionServiceTest {
+
+    private static final int MEMBER_ID = 7;
+
+    @Mock
+    private TripJobService tripJobService;
+
+    @TempDir
+    Path basePath;
+
+    private UploadSessionServiceImpl uploadSessionService;
+
+    @BeforeEach
+    void setUp() {
+        uploadSessionService = new UploadSessionServiceImpl(tripJobService);
+        ReflectionTestUtils.setField(uploadSessionService, "basePath", basePath.toString());
+        ReflectionTestUtils.setField(uploadSessionService, "maxFileSize", DataSize.ofKilobytes(64));
+        ReflectionTestUtils.setField(uploadSessionService, "maxRequestSize", DataSize.ofKilobytes(256));
+        ReflectionTestUtils.setField(uploadSessionService, "maxFiles", 10);
+        ReflectionTestUtils.setField(uploadSessionService, "maxChunkSize", DataSize.ofKilobytes(16));
+        ReflectionTestUtils.setField(uploadSessionService, "sessionTtlMinutes", 60L);
+        ReflectionTestUtils.setField(uploadSessionService, "maxSessionsPerMember", 3);
+    }
+
+    private static byte[] bytes(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private UploadSession create(byte[]... contents) throws IOException {
+        List<UploadFile> files = new ArrayList<>();
+        for (int i = 0; i < contents.length; i++) {
+            files.add(UploadFile.builder().fileName(i + ".jpg").contentType("image/jpeg").size(contents[i].length).build());
+        }
+        return uploadSessionService.create(MEMBER_ID, UploadSession.builder().title("부산 여행").files(files).build());
+    }
+
+    private UploadFile put(String sessionId, int index, byte[] content, int from, int to) throws IOException {
+        return uploadSessionService.writeChunk(MEMBER_ID, sessionId, index, from, to - from,
+                new ByteArrayInputStream(Arrays.copyOfRange(content, from, to)));
+    }
+
+    // limit 바이트를 보낸 뒤 연결이 끊기는 요청 본문
+    private static InputStream brokenAfter(byte[] content, int from, int limit) {
+        return new InputStream() {
+            int sent;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (sent >= limit) throw new IOException("연결 끊김");
+                int count = Math.min(len, limit - sent);
+                System.arraycopy(content, from + sent, b, off, count);
+                sent += count;
+                return count;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("조각을 순서 없이 받고 끊긴 구간만 다시 받은 뒤, 완료하면 스테이징 디렉토리로 옮겨 작업을 시작한다")
+    void resumesAndCompletes() throws Exception {
+        // given
+        byte[] first = bytes(40_000, 1);
+        byte[] second = bytes(10_000, 2);
+        UploadSession session = create(first, second);
+        String sessionId = session.getSessionId();
+        assertEquals(50_000, session.getTotalBytes());
+
+        // when: 뒤쪽 조각 먼저, 가운데 조각은 중간에 끊김
+        put(sessionId, 0, first, 30_000, 40_000);
+        put(sessionId, 0, first, 0, 15_000);
+        assertThrows(IOException.class, () -> uploadSessionService.writeChunk(MEMBER_ID, sessionId, 0, 15_000, 15_000,
+                brokenAfter(first, 15_000, 5_000)));
+        put(sessionId, 1, second, 0, 10_000);
+
+        // then: 끊기기 전까지 받은 바이트는 기록된다
+        UploadFile partial = uploadSessionService.getSession(MEMBER_ID, sessionId).getFiles().get(0);
+        assertEquals(2, partial.getReceivedRanges().size());
+        assertArrayEquals(new long[] {0, 20_000}, partial.getReceivedRanges().get(0));
+        assertArrayEquals(new long[] {30_000, 40_000}, partial.getReceivedRanges().get(1));
+        assertFalse(partial.isComplete());
+        assertThrows(IllegalArgumentException.class, () -> uploadSessionService.complete(MEMBER_ID, sessionId));
+
+        // when: 빠진 구간만 다시 보내고 완료
+        UploadFile resumed = put(sessionId, 0, first, 20_000, 30_000);
+        assertTrue(resumed.isComplete());
+        given(tripJobService.submitStaged(eq(MEMBER_ID), eq("부산 여행"), anyList(), any(Path.class)))
+                .willReturn(TripJob.builder().jobId("job-1").memberId(MEMBER_ID).build());
+        TripJob job = uploadSessionService.complete(MEMBER_ID, sessionId);
+
+        // then
+        assertEquals("job-1", job.getJobId());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MultipartFile>> files = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Path> stagingDir = ArgumentCaptor.forClass(Path.class);
+        then(tripJobService).should().submitStaged(eq(MEMBER_ID), eq("부산 여행"), files.capture(), stagingDir.capture());
+        assertEquals(basePath.resolve(MEMBER_ID + "/staging/upload-" + sessionId), stagingDir.getValue());
+        assertEquals("0.jpg", files.getValue().get(0).getOriginalFilename());
+        assertArrayEquals(first, files.getValue().get(0).getBytes());
+        assertArrayEquals(second, files.getValue().get(1).getBytes());
+
+        assertFalse(Files.exists(basePath.resolve(MEMBER_ID + "/uploads/" + sessionId)));
+        assertNull(uploadSessionService.getSession(MEMBER_ID, sessionId));
+    }
+
+    @Test
+    @DisplayName("작업 대기열이 가득 차면 받은 파일과 세션을 그대로 두어 완료를 다시 요청할 수 있다")
+    void keepsSessionWhenRejected() throws Exception {
+        // given
+        byte[] content = bytes(1_000, 3);
+        String sessionId = create(content).getSessionId();
+        put(sessionId, 0, content, 0, content.length);
+        given(tripJobService.submitStaged(anyInt(), anyString(), anyList(), any(Path.class)))
+                .willThrow(new RejectedExecutionException("대기열 초과"))
+                .willReturn(TripJob.builder().jobId("job-2").build());
+
+        // when
+        assertThrows(RejectedExecutionException.class, () -> uploadSessionService.complete(MEMBER_ID, sessionId));
+
+        // then
+        Path sessionDir = basePath.resolve(MEMBER_ID + "/uploads/" + sessionId);
+        assertArrayEquals(content, Files.readAllBytes(sessionDir.resolve("0_0.jpg")));
+        assertNotNull(uploadSessionService.getSession(MEMBER_ID, sessionId));
+        assertEquals("job-2", uploadSessionService.complete(MEMBER_ID, sessionId).getJobId());
+    }
+
+    @Test
+    @DisplayName("조각 크기 제한, 파일 범위, 선언 용량, 다른 사용자의 세션을 검사한다")
+    void validatesRequests() throws Exception {
+        // given
+        byte[] content = bytes(20_000, 4);
+        String sessionId = create(content).getSessionId();
+
+        // then
+        assertThrows(MaxUploadSizeExceededException.class, () -> put(sessionId, 0, content, 0, 20_000)); // 조각 최대 16KB
+        assertThrows(IllegalArgumentException.class, () -> uploadSessionService.writeChunk(MEMBER_ID, sessionId, 0, 15_000, 6_000,
+                new ByteArrayInputStream(new byte[6_000]))); // 파일 끝을 넘음
+        assertThrows(IllegalArgumentException.class, () -> uploadSessionService.writeChunk(MEMBER_ID, sessionId, 0, 15_000, -1,
+                new ByteArrayInputStream(new byte[6_000]))); // 길이를 모르는 본문도 실제로 받은 양으로 검사
+        assertThrows(IllegalArgumentException.class, () -> put(sessionId, 1, content, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> uploadSessionService.writeChunk(MEMBER_ID + 1, sessionId, 0, 0, 10,
+                new ByteArrayInputStream(new byte[10])));
+        assertNull(uploadSessionService.getSession(MEMBER_ID + 1, sessionId));
+        assertThrows(MaxUploadSizeExceededException.class, () -> create(new byte[70_000])); // 파일 최대 64KB
+        assertThrows(MaxUploadSizeExceededException.class, () -> create(new byte[60_000], new byte[60_000],
+                new byte[60_000], new byte[60_000], new byte[60_000])); // 전체 최대 256KB
+        then(tripJobService).should(never()).submitStaged(anyInt(), anyString(), anyList(), any(Path.class));
+    }
+
+    @Test
+    @DisplayName("만료된 세션과 오래된 주인 없는 조각 디렉토리는 정리하고, 최근 디렉토리는 남긴다")
+    void sweepsExpiredSessionsAndOrphans() throws Exception {
+        // given: 만료된 세션 1개, 진행 중인 세션 1개
+        byte[] content = bytes(1_000, 5);
+        String expired = create(content).getSessionId();
+        put(expired, 0, content, 0, 500);
+        String active = create(content).getSessionId();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sessions = (Map<String, Object>) ReflectionTestUtils.getField(uploadSessionService, "sessions");
+        UploadSession info = (UploadSession) ReflectionTestUtils.getField(sessions.get(expired), "info");
+        info.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+
+        // 서버 재시작 등으로 세션 정보가 사라진 디렉토리 (오래된 것 / 최근 것)
+        Path oldOrphan = Files.createDirectories(basePath.resolve("8/uploads/old-session"));
+        Files.write(oldOrphan.resolve("0_a.jpg"), content);
+        Files.setLastModifiedTime(oldOrphan, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        Path recentOrphan = Files.createDirectories(basePath.resolve("8/uploads/recent-session"));
+
+        // when
+        uploadSessionService.sweepExpiredSessions();
+
+        // then
+        assertNull(uploadSessionService.getSession(MEMBER_ID, expired));
+        assertFalse(Files.exists(basePath.resolve(MEMBER_ID + "/uploads/" + expired)));
+        assertNotNull(uploadSessionService.getSession(MEMBER_ID, active));
+        assertTrue(Files.exists(basePath.resolve(MEMBER_ID + "/uploads/" + active)));
+        assertFalse(Files.exists(oldOrphan));
+        assertTrue(Files.exists(recentOrphan));
+        assertThrows(IllegalArgumentException.class, () -> put(expired, 0, content, 500, 1_000));
+    }
+
+    @Test
+    @DisplayName("받은 구간은 겹치거나 맞닿으면 하나로 합친다")
+    void mergesRanges() {
+        ByteRangeSet ranges = new ByteRangeSet();
+        ranges.add(10, 20);
+        ranges.add(30, 40);
+        ranges.add(15, 25);
+        ranges.add(25, 30);
+        ranges.add(50, 60);
+
+        assertEquals(2, ranges.toList().size());
+        assertArrayEquals(new long[] {10, 40}, ranges.toList().get(0));
+        assertEquals(40, ranges.totalBytes());
+        assertFalse(ranges.covers(40));
+
+        ranges.add(0, 55);
+        assertTrue(ranges.covers(60));
+        assertEquals(60, ranges.totalBytes());
+    }
+}
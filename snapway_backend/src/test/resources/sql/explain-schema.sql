@@ -0,0 +1,140 @@
+-- QueryIndexExplainTest 전용 스키마와 데이터 (전용 테스트 DB에서만 실행할 것, 기존 테이블을 모두 지움)
+-- 테이블/외래 키는 snapway.erd.sql과 같고, 조회용 인덱스는 SchemaMigrator가 만든다.
+
+SET FOREIGN_KEY_CHECKS = 0;
+DROP TABLE IF EXISTS schema_migration;
+DROP TABLE IF EXISTS trip_hashtag;
+DROP TABLE IF EXISTS reply;
+DROP TABLE IF EXISTS trip_photo;
+DROP TABLE IF EXISTS trip_record;
+DROP TABLE IF EXISTS trip;
+DROP TABLE IF EXISTS article;
+DROP TABLE IF EXISTS member;
+SET FOREIGN_KEY_CHECKS = 1;
+
+CREATE TABLE member
+(
+  id          INTEGER      NOT NULL AUTO_INCREMENT,
+  email       VARCHAR(100) NOT NULL,
+  password    VARCHAR(255) NOT NULL,
+  username    VARCHAR(50)  NOT NULL,
+  role        ENUM('ADMIN', 'USER') NOT NULL DEFAULT 'USER',
+  created_at  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  profile_img VARCHAR(2048) NULL,
+  gender      ENUM('MALE', 'FEMALE') NULL,
+  birthday    DATE         NULL,
+  style_code  VARCHAR(20)  NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT UQ_email UNIQUE (email)
+);
+
+CREATE TABLE article
+(
+  article_id  INTEGER      NOT NULL AUTO_INCREMENT,
+  title       VARCHAR(255) NOT NULL,
+  tags        VARCHAR(255) NULL,
+  author_id   INTEGER      NOT NULL,
+  author_name VARCHAR(50)  NULL,
+  category    VARCHAR(20)  NULL,
+  content     TEXT         NOT NULL,
+  likes       INTEGER      DEFAULT 0,
+  hits        INTEGER      DEFAULT 0,
+  uploaded_at DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  visibility  ENUM('PUBLIC', 'PRIVATE') DEFAULT 'PUBLIC',
+  PRIMARY KEY (article_id),
+  CONSTRAINT FK_member_TO_article FOREIGN KEY (author_id) REFERENCES member (id) ON DELETE CASCADE
+);
+
+CREATE TABLE reply
+(
+  reply_id   INTEGER  NOT NULL AUTO_INCREMENT,
+  article_id INTEGER  NOT NULL,
+  replier_id INTEGER  NOT NULL,
+  content    TEXT     NOT NULL,
+  replied_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (reply_id),
+  CONSTRAINT FK_article_TO_reply FOREIGN KEY (article_id) REFERENCES article (article_id) ON DELETE CASCADE,
+  CONSTRAINT FK_member_TO_reply FOREIGN KEY (replier_id) REFERENCES member (id) ON DELETE CASCADE
+);
+
+CREATE TABLE trip
+(
+  trip_id     INTEGER      NOT NULL AUTO_INCREMENT,
+  title       VARCHAR(255) NOT NULL,
+  id          INTEGER      NOT NULL,
+  uploaded_at DATETIME     NULL DEFAULT CURRENT_TIMESTAMP,
+  start_date  DATE         NULL,
+  end_date    DATE         NULL,
+  visibility  ENUM('PUBLIC', 'PRIVATE') DEFAULT 'PUBLIC',
+  PRIMARY KEY (trip_id),
+  CONSTRAINT FK_member_TO_trip FOREIGN KEY (id) REFERENCES member (id) ON DELETE CASCADE
+);
+
+CREATE TABLE trip_hashtag
+(
+  id         BIGINT      NOT NULL AUTO_INCREMENT,
+  trip_id    INTEGER     NOT NULL,
+  style_code VARCHAR(20) NOT NULL,
+  PRIMARY KEY (id),
+  CONSTRAINT FK_trip_TO_trip_hashtag FOREIGN KEY (trip_id) REFERENCES trip (trip_id) ON DELETE CASCADE
+);
+
+CREATE TABLE trip_record
+(
+  record_id    INTEGER      NOT NULL AUTO_INCREMENT,
+  trip_id      INTEGER      NOT NULL,
+  latitude     DOUBLE       NULL,
+  longitude    DOUBLE       NULL,
+  place_name   VARCHAR(255) NULL,
+  ai_content   TEXT         NULL,
+  visited_date DATETIME     NULL,
+  PRIMARY KEY (record_id),
+  CONSTRAINT FK_trip_TO_trip_record FOREIGN KEY (trip_id) REFERENCES trip (trip_id) ON DELETE CASCADE
+);
+
+CREATE TABLE trip_photo
+(
+  photo_code INTEGER       NOT NULL AUTO_INCREMENT,
+  record_id  INTEGER       NOT NULL,
+  file_path  VARCHAR(2048) NULL,
+  photo_name VARCHAR(255)  NULL,
+  caption    TEXT          NULL,
+  PRIMARY KEY (photo_code),
+  CONSTRAINT FK_trip_record_TO_trip_photo FOREIGN KEY (record_id) REFERENCES trip_record (record_id) ON DELETE CASCADE
+);
+
+-- 데이터: 회원 1,000 / 게시글 20,000(공개 20%) / 댓글 60,000 / 여행 20,000(공개 30%) / 기록 100,000
+SET SESSION cte_max_recursion_depth = 200000;
+
+INSERT INTO member (email, password, username)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000)
+SELECT CONCAT('member', n, '@snapway.com'), 'password', CONCAT('회원', n) FROM seq;
+
+INSERT INTO article (title, author_id, author_name, category, content, uploaded_at, visibility)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000)
+SELECT CONCAT('게시글 ', n), n % 1000 + 1, CONCAT('회원', n % 1000 + 1), 'FREE', '본문',
+       TIMESTAMPADD(MINUTE, n, '2024-01-01'), IF(n % 5 = 0, 'PUBLIC', 'PRIVATE')
+FROM seq;
+
+INSERT INTO reply (article_id, replier_id, content, replied_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 60000)
+SELECT n % 20000 + 1, n % 1000 + 1, '댓글', TIMESTAMPADD(MINUTE, n, '2024-01-01') FROM seq;
+
+INSERT INTO trip (title, id, uploaded_at, start_date, end_date, visibility)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000)
+SELECT CONCAT('여행 ', n), n % 1000 + 1, TIMESTAMPADD(MINUTE, n, '2024-01-01'),
+       DATE_ADD('2023-01-01', INTERVAL n % 700 DAY), DATE_ADD('2023-01-03', INTERVAL n % 700 DAY),
+       IF(n % 10 < 3, 'PUBLIC', 'PRIVATE')
+FROM seq;
+
+INSERT INTO trip_hashtag (trip_id, style_code)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20000)
+SELECT n, 'NATURE' FROM seq;
+
+INSERT INTO trip_record (trip_id, latitude, longitude, place_name, visited_date)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 100000)
+SELECT n % 20000 + 1, 35 + (n % 1000) / 1000, 127 + (n % 997) / 1000, CONCAT('장소 ', n),
+       TIMESTAMPADD(HOUR, n % 5000, '2023-01-01')
+FROM seq;
+
+ANALYZE TABLE member, article, reply, trip, trip_hashtag, trip_record;
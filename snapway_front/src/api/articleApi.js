@@ -1,7 +1,10 @@
 // src/api/articleApi.js
 import http from "./http";
 
-export const fetchArticles = () => http.get("/article/articleList");
+// 게시글 목록 (커서 페이지네이션) - params: { cursor, size, category: [], mine, excerpt }
+// category 배열은 category=a&category=b 형태로 전송
+export const fetchArticles = (params = {}) =>
+  http.get("/article/articleList", { params, paramsSerializer: { indexes: null } });
 
 export const fetchArticle = (articleId) =>
   http.get("/article/article", { params: { articleId } });
@@ -1,8 +1,10 @@
 ﻿import http from './http';
 
 export const createAutoTrip = (formData) =>
-  http.post('/trip/auto-create', formData, {
+  http.post('/trip/auto-create/stream', formData, {
     headers: { 'Content-Type': 'multipart/form-data' },
   });
 
+export const fetchTripJob = (jobId) => http.get(`/trip/jobs/${jobId}`);
+
 export const fetchTripDetail = (tripId) => http.get(`/trip/${tripId}`);